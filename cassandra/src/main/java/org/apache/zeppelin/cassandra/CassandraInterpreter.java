@@ -90,6 +90,12 @@ public class CassandraInterpreter extends Interpreter {
           "cassandra.query.default.fetchSize";
   public static final String CASSANDRA_QUERY_DEFAULT_IDEMPOTENCE =
           "cassandra.query.default.idempotence";
+  public static final String CASSANDRA_QUERY_PARALLELISM =
+          "cassandra.query.parallelism";
+  public static final String CASSANDRA_QUERY_STREAMING =
+          "cassandra.query.streaming";
+  public static final String CASSANDRA_PREPARED_STATEMENTS_CACHE_SIZE =
+          "cassandra.prepared.statements.cache.size";
   public static final String CASSANDRA_SOCKET_CONNECTION_TIMEOUT_MILLIS =
           "cassandra.socket.connection.timeout.millisecs";
   public static final String CASSANDRA_SOCKET_KEEP_ALIVE =
@@ -130,6 +136,9 @@ public class CassandraInterpreter extends Interpreter {
   public static final String DEFAULT_CONSISTENCY = "ONE";
   public static final String DEFAULT_SERIAL_CONSISTENCY = "SERIAL";
   public static final String DEFAULT_FETCH_SIZE = "5000";
+  public static final String DEFAULT_QUERY_PARALLELISM = "1";
+  public static final String DEFAULT_QUERY_STREAMING = "true";
+  public static final String DEFAULT_PREPARED_STATEMENTS_CACHE_SIZE = "1000";
   public static final String DEFAULT_CONNECTION_TIMEOUT = "5000";
   public static final String DEFAULT_READ_TIMEOUT = "12000";
   public static final String DEFAULT_TCP_NO_DELAY = "true";
@@ -186,7 +195,14 @@ public class CassandraInterpreter extends Interpreter {
       .build();
 
     session = cluster.connect();
-    helper = new InterpreterLogic(session);
+
+    final Properties properties = getProperty();
+    helper = new InterpreterLogic(session,
+        parseInt(properties.getProperty(CASSANDRA_QUERY_PARALLELISM, DEFAULT_QUERY_PARALLELISM)),
+        Boolean.parseBoolean(properties.getProperty(CASSANDRA_QUERY_STREAMING,
+            DEFAULT_QUERY_STREAMING)),
+        parseInt(properties.getProperty(CASSANDRA_PREPARED_STATEMENTS_CACHE_SIZE,
+            DEFAULT_PREPARED_STATEMENTS_CACHE_SIZE)));
   }
 
   @Override
@@ -22,17 +22,18 @@ import java.nio.ByteBuffer
 import java.text.SimpleDateFormat
 import java.util
 import java.util.Date
-import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Semaphore
 
 import com.datastax.driver.core.DataType.Name._
 import com.datastax.driver.core._
 import com.datastax.driver.core.exceptions.DriverException
 import com.datastax.driver.core.policies.{LoggingRetryPolicy, FallthroughRetryPolicy, DowngradingConsistencyRetryPolicy, Policies}
+import com.google.common.util.concurrent.{FutureCallback, Futures, Uninterruptibles}
 import org.apache.zeppelin.cassandra.TextBlockHierarchy._
 import org.apache.zeppelin.display.AngularObjectRegistry
 import org.apache.zeppelin.display.ui.OptionInput.ParamOption
 import org.apache.zeppelin.interpreter.InterpreterResult.Code
-import org.apache.zeppelin.interpreter.{InterpreterException, InterpreterResult, InterpreterContext}
+import org.apache.zeppelin.interpreter.{InterpreterException, InterpreterOutput, InterpreterResult, InterpreterContext}
 import org.slf4j.LoggerFactory
 import scala.collection.JavaConversions._
 import scala.collection.JavaConverters._
@@ -77,7 +78,7 @@ object InterpreterLogic {
   val loggingDownGradingRetryPolicy = new LoggingRetryPolicy(downgradingConsistencyRetryPolicy)
   val loggingFallThroughRetryPolicy = new LoggingRetryPolicy(fallThroughRetryPolicy)
 
-  val preparedStatements : mutable.Map[String,PreparedStatement] = new ConcurrentHashMap[String,PreparedStatement]().asScala
+  val DEFAULT_MAX_PREPARED_STATEMENTS = 1000
 
   val logger = LoggerFactory.getLogger(classOf[InterpreterLogic])
 
@@ -92,8 +93,26 @@ object InterpreterLogic {
  * and parameters blocks
  *
  * @param session java driver session
+ * @param queryParallelism max number of statements of a paragraph executed concurrently.
+ *                         When greater than 1, the statements are considered independent
+ * @param streamResults whether the rows of the last statement are written page by page
+ *                      in the interpreter output instead of being returned at once
+ * @param preparedStatementsCacheSize max number of prepared statements kept in the LRU cache
  */
-class InterpreterLogic(val session: Session)  {
+class InterpreterLogic(val session: Session, val queryParallelism: Int, val streamResults: Boolean,
+                       val preparedStatementsCacheSize: Int)  {
+
+  def this(session: Session) = this(session, 1, true, InterpreterLogic.DEFAULT_MAX_PREPARED_STATEMENTS)
+
+  /**
+   * Prepared statements of this session, the least recently used ones are evicted first
+   */
+  val preparedStatements : mutable.Map[String,PreparedStatement] = util.Collections.synchronizedMap(
+    new util.LinkedHashMap[String,PreparedStatement](16, 0.75f, true) {
+      override protected def removeEldestEntry(eldest: util.Map.Entry[String,PreparedStatement]): Boolean = {
+        size() > preparedStatementsCacheSize
+      }
+    }).asScala
 
   val enhancedSession: EnhancedSession = new EnhancedSession(session)
 
@@ -152,10 +171,16 @@ class InterpreterLogic(val session: Session)  {
           case x => throw new InterpreterException(s"Unknown statement type : ${x}")
        }
 
-      val results: List[(Any,Any)] = for (statement <- statements) yield (enhancedSession.execute(statement),statement)
+      val results: List[(Any,Any)] = if (queryParallelism > 1 && statements.size > 1) {
+        executeConcurrently(statements)
+      } else {
+        for (statement <- statements) yield (executeAsync(statement),statement)
+      }
 
       if (results.nonEmpty) {
         results.last match {
+          case(res: ResultSet, st: Statement) if streamResults && context != null && context.out != null =>
+            streamResponseMessage((res, st), context.out)
           case(res: ResultSet, st: Statement) => buildResponseMessage((res, st), protocolVersion)
           case(output: String, _) => new InterpreterResult(Code.SUCCESS, output)
           case _ => throw new InterpreterException(s"Cannot parse result type : ${results.last}")
@@ -185,6 +210,110 @@ class InterpreterLogic(val session: Session)  {
     }
   }
 
+  /**
+   * Execute a statement with the asynchronous API of the driver
+   * and wait for the first page of results
+   */
+  def executeAsync(statement: Any): Any = {
+    statement match {
+      case st: Statement => session.executeAsync(st).getUninterruptibly
+      case st => enhancedSession.execute(st)
+    }
+  }
+
+  /**
+   * Execute all the statements asynchronously, at most
+   * queryParallelism statements being in flight at the same time.
+   * The results are returned in the order of the statements
+   */
+  def executeConcurrently(statements: List[Any]): List[(Any,Any)] = {
+    val permits = new Semaphore(queryParallelism)
+    val releasePermit = new FutureCallback[ResultSet] {
+      override def onSuccess(result: ResultSet): Unit = permits.release()
+      override def onFailure(t: Throwable): Unit = permits.release()
+    }
+
+    val futures: List[(Either[ResultSetFuture, Any], Any)] = statements.map {
+      case st: Statement => {
+        permits.acquireUninterruptibly()
+        val future = session.executeAsync(st)
+        Futures.addCallback(future, releasePermit)
+        (Left(future), st)
+      }
+      case st => (Right(enhancedSession.execute(st)), st)
+    }
+
+    futures.map {
+      case (Left(future), st) => (future.getUninterruptibly, st)
+      case (Right(output), st) => (output, st)
+    }
+  }
+
+  /**
+   * Write the rows of the result set in the interpreter output page by page.
+   * The next page is fetched in background when half of the current page
+   * has been consumed so that at most one page is prefetched
+   */
+  def streamResponseMessage(lastResultSet: (ResultSet,Statement), out: InterpreterOutput): InterpreterResult = {
+    val resultSet: ResultSet = lastResultSet._1
+
+    if (isExhausted(resultSet)) {
+      val lastQuery: String = lastResultSet._2.toString
+      val executionInfo: ExecutionInfo = resultSet.getExecutionInfo
+      return new InterpreterResult(Code.SUCCESS, enhancedSession.displayExecutionStatistics(lastQuery, executionInfo))
+    }
+
+    val columnsDefinitions: List[(String, DataType)] = resultSet
+      .getColumnDefinitions
+      .asList
+      .toList // Java list -> Scala list
+      .map(definition => (definition.getName, definition.getType))
+
+    val page = new StringBuilder()
+    page
+      .append("%table ")
+      .append(columnsDefinitions.map { case (columnName, _) => columnName }.mkString("\t")).append("\n")
+
+    var rowCount = 0
+    while (!isExhausted(resultSet)) {
+      if (resultSet.getAvailableWithoutFetching == 0) {
+        Uninterruptibles.getUninterruptibly(resultSet.fetchMoreResults())
+      }
+      val pageSize = resultSet.getAvailableWithoutFetching
+      while (resultSet.getAvailableWithoutFetching > 0) {
+        if (!resultSet.isFullyFetched && resultSet.getAvailableWithoutFetching <= pageSize / 2) {
+          // Prefetch the next page while rendering the second half of the current one
+          resultSet.fetchMoreResults()
+        }
+        page.append(formatRow(resultSet.one(), columnsDefinitions)).append("\n")
+        rowCount += 1
+      }
+
+      out.write(page.toString())
+      out.flush()
+      page.clear()
+    }
+
+    logger.debug(s"CQL result : $rowCount rows streamed")
+    new InterpreterResult(Code.SUCCESS)
+  }
+
+  /**
+   * A prefetched page can arrive after the rows in hand were consumed, so check that nothing is
+   * left to fetch before checking that no row is left
+   */
+  private def isExhausted(resultSet: ResultSet): Boolean = {
+    resultSet.isFullyFetched && resultSet.getAvailableWithoutFetching == 0
+  }
+
+  private def formatRow(row: Row, columnsDefinitions: List[(String, DataType)]): String = {
+    columnsDefinitions.map {
+      case (name, dataType) => {
+        if (row.isNull(name)) null else row.getObject(name)
+      }
+    }.mkString("\t")
+  }
+
   def buildResponseMessage(lastResultSet: (ResultSet,Statement), protocolVersion: ProtocolVersion): InterpreterResult = {
     val output = new StringBuilder()
     val rows: collection.mutable.ArrayBuffer[Row] = ArrayBuffer()
@@ -209,14 +338,7 @@ class InterpreterLogic(val session: Session)  {
 
       // Deserialize Data
       rows.foreach {
-        row => {
-          val data = columnsDefinitions.map {
-            case (name, dataType) => {
-              if (row.isNull(name)) null else row.getObject(name)
-            }
-          }
-          output.append(data.mkString("\t")).append("\n")
-        }
+        row => output.append(formatRow(row, columnsDefinitions)).append("\n")
       }
     } else {
       val lastQuery: String = lastResultSet._2.toString
@@ -38,6 +38,7 @@ import info.archinnov.achilles.embedded.CassandraEmbeddedServerBuilder;
 import org.apache.zeppelin.display.AngularObjectRegistry;
 import org.apache.zeppelin.interpreter.Interpreter;
 import org.apache.zeppelin.interpreter.InterpreterContext;
+import org.apache.zeppelin.interpreter.InterpreterOutput;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.InterpreterResult.Code;
 import org.junit.*;
@@ -172,6 +173,30 @@ public class CassandraInterpreterTest {
 
     }
 
+    @Test
+    public void should_stream_rows_page_by_page() throws Exception {
+        //Given
+        final InterpreterOutput out = new InterpreterOutput(null);
+        final InterpreterContext context = new InterpreterContext("note", "paragraph", null, null, null,
+                null, null, null, new AngularObjectRegistry("cassandra", null), null, null, out);
+
+        //When
+        final InterpreterResult actual = interpreter.interpret("@fetchSize=2\n" +
+                "SELECT * FROM " + ARTISTS_TABLE + " LIMIT 5;", context);
+
+        //Then
+        assertThat(actual.code()).isEqualTo(Code.SUCCESS);
+        assertThat(actual.message()).isEmpty();
+        assertThat(out.toInterpreterResultMessage()).hasSize(1);
+        assertThat(out.toInterpreterResultMessage().get(0).getType()).isEqualTo(InterpreterResult.Type.TABLE);
+        assertThat(out.toInterpreterResultMessage().get(0).getData()).isEqualTo("name\tborn\tcountry\tdied\tgender\tstyles\ttype\n" +
+                "Bogdan Raczynski\t1977-01-01\tPoland\tnull\tMale\t[Dance, Electro]\tPerson\n" +
+                "Krishna Das\t1947-05-31\tUSA\tnull\tMale\t[Unknown]\tPerson\n" +
+                "Sheryl Crow\t1962-02-11\tUSA\tnull\tFemale\t[Classic, Rock, Country, Blues, Pop, Folk]\tPerson\n" +
+                "Doof\t1968-08-31\tUnited Kingdom\tnull\tnull\t[Unknown]\tPerson\n" +
+                "House of Large Sizes\t1986-01-01\tUSA\t2003\tnull\t[Unknown]\tGroup\n");
+    }
+
     @Test
     public void should_interpret_multiple_statements_with_single_line_logged_batch() throws Exception {
         //Given
@@ -28,6 +28,7 @@ import static org.mockito.Mockito.*;
 
 import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.SimpleStatement;
 import com.datastax.driver.core.Statement;
@@ -73,6 +74,32 @@ public class InterpreterLogicTest {
     @Captor
     ArgumentCaptor<ParamOption[]> optionsCaptor;
 
+    @Test
+    public void should_evict_least_recently_used_prepared_statements() throws Exception {
+        //Given
+        final scala.collection.mutable.Map<String, PreparedStatement> cache =
+                new InterpreterLogic(session, 1, true, 2).preparedStatements();
+        final scala.collection.mutable.Map<String, PreparedStatement> otherCache =
+                new InterpreterLogic(session, 1, true, 10).preparedStatements();
+
+        //When
+        cache.put("ps1", mock(PreparedStatement.class));
+        cache.put("ps2", mock(PreparedStatement.class));
+        cache.get("ps1");
+        cache.put("ps3", mock(PreparedStatement.class));
+        otherCache.put("ps1", mock(PreparedStatement.class));
+        otherCache.put("ps2", mock(PreparedStatement.class));
+        otherCache.put("ps3", mock(PreparedStatement.class));
+
+        //Then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.contains("ps1")).isTrue();
+        assertThat(cache.contains("ps2")).isFalse();
+        assertThat(cache.contains("ps3")).isTrue();
+        // each interpreter keeps its own limit
+        assertThat(otherCache.size()).isEqualTo(3);
+    }
+
     @Test
     public void should_parse_input_string_block() throws Exception {
         //Given
@@ -20,28 +20,39 @@ package org.apache.zeppelin.elasticsearch;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.zeppelin.completer.CompletionType;
+import org.apache.zeppelin.elasticsearch.action.ActionException;
 import org.apache.zeppelin.elasticsearch.action.ActionResponse;
 import org.apache.zeppelin.elasticsearch.action.AggWrapper;
+import org.apache.zeppelin.elasticsearch.action.BulkAction;
 import org.apache.zeppelin.elasticsearch.action.HitWrapper;
 import org.apache.zeppelin.elasticsearch.client.ElasticsearchClient;
 import org.apache.zeppelin.elasticsearch.client.HttpBasedClient;
 import org.apache.zeppelin.elasticsearch.client.TransportBasedClient;
 import org.apache.zeppelin.interpreter.Interpreter;
 import org.apache.zeppelin.interpreter.InterpreterContext;
+import org.apache.zeppelin.interpreter.InterpreterOutput;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.thrift.InterpreterCompletion;
 import org.elasticsearch.common.xcontent.XContentBuilder;
@@ -59,7 +70,9 @@ import org.slf4j.LoggerFactory;
 import com.github.wnameless.json.flattener.JsonFlattener;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 
 
 /**
@@ -80,15 +93,21 @@ public class ElasticsearchInterpreter extends Interpreter {
       + "  - size <value>\n"
       + "    . defines the size of the result set (default value is in the config)\n"
       + "    . if used, this command must be declared before a search command\n"
+      + "  - scroll /indices/types <query>\n"
+      + "    . same as search, but the hits are streamed page by page using the scroll API\n"
+      + "    . if used before, the size command defines the maximum number of rows\n"
       + "  - count /indices/types <query>\n"
       + "    . same comments as for the search\n"
       + "  - get /index/type/id\n"
       + "  - delete /index/type/id\n"
       + "  - index /index/type/id <json-formatted document>\n"
-      + "    . the id can be omitted, elasticsearch will generate one";
+      + "    . the id can be omitted, elasticsearch will generate one\n"
+      + "  - bulk /index/type\n"
+      + "    . followed by lines of actions using the format of the bulk API of elasticsearch\n"
+      + "    . supported actions are index and delete";
 
   protected static final List<String> COMMANDS = Arrays.asList(
-      "count", "delete", "get", "help", "index", "search");
+      "bulk", "count", "delete", "get", "help", "index", "scroll", "search");
 
   private static final Pattern FIELD_NAME_PATTERN = Pattern.compile("\\[\\\\\"(.+)\\\\\"\\](.*)");
 
@@ -100,10 +119,24 @@ public class ElasticsearchInterpreter extends Interpreter {
   public static final String ELASTICSEARCH_RESULT_SIZE = "elasticsearch.result.size";
   public static final String ELASTICSEARCH_BASIC_AUTH_USERNAME = "elasticsearch.basicauth.username";
   public static final String ELASTICSEARCH_BASIC_AUTH_PASSWORD = "elasticsearch.basicauth.password";
+  public static final String ELASTICSEARCH_SCROLL_SIZE = "elasticsearch.scroll.size";
+  public static final String ELASTICSEARCH_SCROLL_KEEPALIVE = "elasticsearch.scroll.keepalive";
+  public static final String ELASTICSEARCH_SCROLL_MAX_ROWS = "elasticsearch.scroll.max.rows";
+  public static final String ELASTICSEARCH_BULK_SIZE_BYTES = "elasticsearch.bulk.size.bytes";
+  public static final String ELASTICSEARCH_BULK_CONCURRENCY = "elasticsearch.bulk.concurrency";
 
   private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
   private ElasticsearchClient elsClient;
   private int resultSize = 10;
+  private int scrollSize = 1000;
+  private String scrollKeepAlive = "1m";
+  private int scrollMaxRows = 100000;
+  private int bulkSizeBytes = 5 * 1024 * 1024;
+  private int bulkConcurrency = 1;
+  private ExecutorService bulkExecutor;
+  // paragraphs whose running scroll or bulk request must stop
+  private final Set<String> cancelledParagraphs =
+      Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
   public ElasticsearchInterpreter(Properties property) {
     super(property);
@@ -126,6 +159,16 @@ public class ElasticsearchInterpreter extends Interpreter {
           property.get(ELASTICSEARCH_RESULT_SIZE), e);
     }
 
+    this.scrollSize = getIntProperty(ELASTICSEARCH_SCROLL_SIZE, scrollSize);
+    this.scrollMaxRows = getIntProperty(ELASTICSEARCH_SCROLL_MAX_ROWS, scrollMaxRows);
+    this.bulkSizeBytes = getIntProperty(ELASTICSEARCH_BULK_SIZE_BYTES, bulkSizeBytes);
+    this.bulkConcurrency = Math.max(1,
+        getIntProperty(ELASTICSEARCH_BULK_CONCURRENCY, bulkConcurrency));
+    if (StringUtils.isNotEmpty(getProperty(ELASTICSEARCH_SCROLL_KEEPALIVE))) {
+      this.scrollKeepAlive = getProperty(ELASTICSEARCH_SCROLL_KEEPALIVE);
+    }
+    this.bulkExecutor = Executors.newFixedThreadPool(bulkConcurrency);
+
     try {
       if (StringUtils.isEmpty(clientType) || "transport".equals(clientType)) {
         elsClient = new TransportBasedClient(getProperty());
@@ -142,8 +185,25 @@ public class ElasticsearchInterpreter extends Interpreter {
     }
   }
 
+  private int getIntProperty(String name, int defaultValue) {
+    final String value = getProperty(name);
+    if (StringUtils.isEmpty(value)) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    }
+    catch (final NumberFormatException e) {
+      logger.error("Unable to parse " + name + " : " + value, e);
+      return defaultValue;
+    }
+  }
+
   @Override
   public void close() {
+    if (bulkExecutor != null) {
+      bulkExecutor.shutdownNow();
+    }
     if (elsClient != null) {
       elsClient.close();
     }
@@ -158,6 +218,7 @@ public class ElasticsearchInterpreter extends Interpreter {
     }
 
     int currentResultSize = resultSize;
+    boolean sizeDefined = false;
 
     if (elsClient == null) {
       return new InterpreterResult(InterpreterResult.Code.ERROR,
@@ -171,6 +232,23 @@ public class ElasticsearchInterpreter extends Interpreter {
       return processHelp(InterpreterResult.Code.SUCCESS, null);
     }
 
+    if ("bulk".equalsIgnoreCase(items[0])) {
+      // The actions are declared on the next lines
+      final String[] lines = StringUtils.split(cmd.trim(), "\n", 2);
+      final String[] bulkLine = StringUtils.split(lines[0], " ");
+      if (bulkLine.length != 2 || lines.length < 2) {
+        return processHelp(InterpreterResult.Code.ERROR,
+            "Right format is : bulk /index/type followed by lines of actions");
+      }
+      try {
+        return processBulk(StringUtils.split(bulkLine[1].trim(), "/"), lines[1],
+            interpreterContext);
+      }
+      catch (final Exception e) {
+        return new InterpreterResult(InterpreterResult.Code.ERROR, "Error : " + e.getMessage());
+      }
+    }
+
     if ("size".equalsIgnoreCase(items[0])) {
       // In this case, the line with size must be followed by a search,
       // so we will continue with the next lines
@@ -186,6 +264,7 @@ public class ElasticsearchInterpreter extends Interpreter {
         return processHelp(InterpreterResult.Code.ERROR, "Right format is : size <value>");
       }
       currentResultSize = Integer.parseInt(sizeLine[1]);
+      sizeDefined = true;
 
       items = StringUtils.split(lines[1].trim(), " ", 3);
     }
@@ -210,6 +289,11 @@ public class ElasticsearchInterpreter extends Interpreter {
       else if ("search".equalsIgnoreCase(method)) {
         return processSearch(urlItems, data, currentResultSize, interpreterContext);
       }
+      else if ("scroll".equalsIgnoreCase(method)) {
+        return processScroll(urlItems, data,
+            sizeDefined ? Math.min(currentResultSize, scrollMaxRows) : scrollMaxRows,
+            interpreterContext);
+      }
       else if ("index".equalsIgnoreCase(method)) {
         return processIndex(urlItems, data);
       }
@@ -226,7 +310,34 @@ public class ElasticsearchInterpreter extends Interpreter {
 
   @Override
   public void cancel(InterpreterContext interpreterContext) {
-    // Nothing to do
+    // Only the streamed searches and the bulk requests can be interrupted, between two pages
+    // or before a batch is sent
+    if (interpreterContext != null && interpreterContext.getParagraphId() != null) {
+      cancelledParagraphs.add(interpreterContext.getParagraphId());
+    }
+  }
+
+  /**
+   * @return key to check the cancellation of the request run by the paragraph, null if it
+   *     can't be cancelled
+   */
+  private String startCancellable(InterpreterContext interpreterContext) {
+    final String paragraphId = interpreterContext == null ?
+        null : interpreterContext.getParagraphId();
+    if (paragraphId != null) {
+      cancelledParagraphs.remove(paragraphId);
+    }
+    return paragraphId;
+  }
+
+  private boolean isCancelled(String paragraphId) {
+    return paragraphId != null && cancelledParagraphs.contains(paragraphId);
+  }
+
+  private void endCancellable(String paragraphId) {
+    if (paragraphId != null) {
+      cancelledParagraphs.remove(paragraphId);
+    }
   }
 
   @Override
@@ -425,19 +536,296 @@ public class ElasticsearchInterpreter extends Interpreter {
     return new InterpreterResult(InterpreterResult.Code.ERROR, "Document not found");
   }
 
-  private ActionResponse searchData(String[] urlItems, String query, int size) {
+  /**
+   * Processes a "scroll" request: the hits are fetched page by page with the scroll API and
+   * each page is written in the output as soon as it is received.
+   *
+   * @param urlItems Items of the URL
+   * @param data May contains the JSON of the request
+   * @param maxRows Maximum number of rows to stream
+   * @param interpreterContext Instance of the context
+   * @return Result of the scroll request, the rows are either already written in the output
+   *     or contained in a tab-formatted string if there is no output
+   */
+  private InterpreterResult processScroll(String[] urlItems, String data, int maxRows,
+      InterpreterContext interpreterContext) throws IOException {
+
+    if (urlItems.length > 2) {
+      return new InterpreterResult(InterpreterResult.Code.ERROR,
+          "Bad URL (it should be /index1,index2,.../type1,type2,...)");
+    }
+
+    final String cancelKey = startCancellable(interpreterContext);
+
+    final InterpreterOutput out = interpreterContext == null ? null : interpreterContext.out;
+    final StringBuilder buffer = new StringBuilder();
+    int nbRows = 0;
+    List<String> keys = null;
+
+    ActionResponse response = elsClient.searchScroll(getIndices(urlItems), getTypes(urlItems),
+        data, Math.min(scrollSize, maxRows), scrollKeepAlive);
+    String scrollId = response.getScrollId();
 
-    String[] indices = null;
-    String[] types = null;
+    try {
+      while (response.getHits().size() > 0 && nbRows < maxRows
+          && !isCancelled(cancelKey)) {
+        final List<Map<String, Object>> flattenHits = new LinkedList<>();
+        for (final HitWrapper hit : response.getHits()) {
+          if (nbRows >= maxRows) {
+            break;
+          }
+          flattenHits.add(flattenHit(hit));
+          nbRows++;
+        }
 
-    if (urlItems.length >= 1) {
-      indices = StringUtils.split(urlItems[0], ",");
+        if (keys == null) {
+          // The columns are defined by the first page, the fields that only appear
+          // in the next pages are ignored
+          final Set<String> keySet = new TreeSet<>();
+          for (final Map<String, Object> hit : flattenHits) {
+            keySet.addAll(hit.keySet());
+          }
+          keys = new ArrayList<>(keySet);
+          buffer.append("%table ");
+          appendRow(buffer, keys);
+        }
+
+        for (final Map<String, Object> hit : flattenHits) {
+          final List<Object> values = new ArrayList<>(keys.size());
+          for (final String key : keys) {
+            values.add(hit.get(key));
+          }
+          appendRow(buffer, values);
+        }
+
+        if (out != null) {
+          out.write(buffer.toString());
+          out.flush();
+          buffer.setLength(0);
+        }
+
+        if (nbRows >= maxRows || scrollId == null) {
+          break;
+        }
+
+        response = elsClient.scroll(scrollId, scrollKeepAlive);
+        if (response.getScrollId() != null) {
+          scrollId = response.getScrollId();
+        }
+      }
     }
-    if (urlItems.length > 1) {
-      types = StringUtils.split(urlItems[1], ",");
+    finally {
+      endCancellable(cancelKey);
+      if (scrollId != null) {
+        try {
+          elsClient.clearScroll(scrollId);
+        }
+        catch (final Exception e) {
+          logger.warn("Unable to clear scroll " + scrollId, e);
+        }
+      }
+    }
+
+    if (interpreterContext != null) {
+      addAngularObject(interpreterContext, "scroll", nbRows);
     }
 
-    return elsClient.search(indices, types, query, size);
+    if (out == null) {
+      return new InterpreterResult(InterpreterResult.Code.SUCCESS, buffer.toString());
+    }
+    return new InterpreterResult(InterpreterResult.Code.SUCCESS);
+  }
+
+  private void appendRow(StringBuilder buffer, List<?> values) {
+    boolean first = true;
+    for (final Object val : values) {
+      if (!first) {
+        buffer.append('\t');
+      }
+      if (val != null) {
+        buffer.append(val);
+      }
+      first = false;
+    }
+    buffer.append('\n');
+  }
+
+  /**
+   * Processes a "bulk" request: the actions are split into batches limited by their size
+   * in bytes, the batches are sent concurrently. The actions on a same document are kept in
+   * the same batch, so they are applied in the order of the request.
+   *
+   * @param urlItems Items of the URL, they define the default index and type of the actions
+   * @param data Lines of actions (bulk API format)
+   * @param interpreterContext Instance of the context, may be null
+   * @return Result of the bulk request, it contains the number of processed actions
+   */
+  private InterpreterResult processBulk(String[] urlItems, String data,
+      InterpreterContext interpreterContext) throws Exception {
+
+    if (urlItems.length > 2) {
+      return new InterpreterResult(InterpreterResult.Code.ERROR,
+          "Bad URL (it should be /index/type or /index or /)");
+    }
+
+    final List<BulkAction> actions = parseBulkActions(
+        urlItems.length > 0 ? urlItems[0] : null,
+        urlItems.length > 1 ? urlItems[1] : null,
+        data);
+    final List<List<BulkAction>> batches = splitBulkActions(actions, bulkSizeBytes);
+
+    final String cancelKey = startCancellable(interpreterContext);
+    int nbSucceeded = 0;
+    final List<String> failures = new ArrayList<>();
+    try {
+      final List<Future<ActionResponse>> futures = new ArrayList<>(batches.size());
+      for (final List<BulkAction> actionsOfBatch : batches) {
+        futures.add(bulkExecutor.submit(new Callable<ActionResponse>() {
+          @Override
+          public ActionResponse call() {
+            if (isCancelled(cancelKey)) {
+              throw new ActionException("Batch of " + actionsOfBatch.size()
+                  + " action(s) cancelled");
+            }
+            return elsClient.bulk(actionsOfBatch);
+          }
+        }));
+      }
+
+      for (final Future<ActionResponse> future : futures) {
+        try {
+          final ActionResponse response = future.get();
+          nbSucceeded += response.getHits().size();
+          failures.addAll(response.getFailures());
+        }
+        catch (final ExecutionException e) {
+          failures.add(e.getCause().getMessage());
+        }
+      }
+    }
+    finally {
+      endCancellable(cancelKey);
+    }
+
+    final StringBuilder buffer = new StringBuilder();
+    buffer.append(nbSucceeded).append(" action(s) processed in ")
+        .append(batches.size()).append(" batch(es)");
+    for (final String failure : failures) {
+      buffer.append("\n").append(failure);
+    }
+
+    return new InterpreterResult(
+        failures.isEmpty() ? InterpreterResult.Code.SUCCESS : InterpreterResult.Code.ERROR,
+        InterpreterResult.Type.TEXT,
+        buffer.toString());
+  }
+
+  /**
+   * Splits the actions into batches of at most maxBytes. The actions on a same document
+   * always go in the same batch, in their order, as concurrent batches may be applied in any
+   * order. A batch only exceeds maxBytes when the actions of one document do.
+   */
+  protected static List<List<BulkAction>> splitBulkActions(List<BulkAction> actions,
+      int maxBytes) {
+    // Size of the actions of each document, in order of first appearance. The actions
+    // without id create a new document each.
+    final Map<String, Integer> documentSizes = new LinkedHashMap<>();
+    final List<String> documentOfActions = new ArrayList<>(actions.size());
+    for (int i = 0; i < actions.size(); i++) {
+      final BulkAction action = actions.get(i);
+      final String document = action.getId() == null ? "#" + i :
+          action.getIndex() + "/" + action.getType() + "/" + action.getId();
+      documentOfActions.add(document);
+      final Integer size = documentSizes.get(document);
+      documentSizes.put(document, (size == null ? 0 : size) + action.getEstimatedSize());
+    }
+
+    final Map<String, Integer> batchOfDocuments = new HashMap<>();
+    int nbBatches = 0;
+    int batchSize = 0;
+    for (final Map.Entry<String, Integer> document : documentSizes.entrySet()) {
+      if (nbBatches == 0 || (batchSize > 0 && batchSize + document.getValue() > maxBytes)) {
+        nbBatches++;
+        batchSize = 0;
+      }
+      batchOfDocuments.put(document.getKey(), nbBatches - 1);
+      batchSize += document.getValue();
+    }
+
+    final List<List<BulkAction>> batches = new ArrayList<>(nbBatches);
+    for (int i = 0; i < nbBatches; i++) {
+      batches.add(new ArrayList<BulkAction>());
+    }
+    for (int i = 0; i < actions.size(); i++) {
+      batches.get(batchOfDocuments.get(documentOfActions.get(i))).add(actions.get(i));
+    }
+    return batches;
+  }
+
+  protected static List<BulkAction> parseBulkActions(String defaultIndex, String defaultType,
+      String data) {
+    final List<BulkAction> actions = new ArrayList<>();
+    final JsonParser parser = new JsonParser();
+    final String[] lines = StringUtils.split(data, "\n");
+
+    for (int i = 0; i < lines.length; i++) {
+      if (StringUtils.isBlank(lines[i])) {
+        continue;
+      }
+
+      final JsonObject actionLine = parser.parse(lines[i]).getAsJsonObject();
+      if (actionLine.entrySet().size() != 1) {
+        throw new ActionException("Bad action (line " + (i + 1) + "): " + lines[i]);
+      }
+
+      final Map.Entry<String, JsonElement> entry = actionLine.entrySet().iterator().next();
+      final JsonObject metadata = entry.getValue().getAsJsonObject();
+      final String index = getMember(metadata, "_index", defaultIndex);
+      final String type = getMember(metadata, "_type", defaultType);
+      final String id = getMember(metadata, "_id", null);
+
+      if (StringUtils.isEmpty(index) || StringUtils.isEmpty(type)) {
+        throw new ActionException("Index and type are required (line " + (i + 1) + ")");
+      }
+
+      if ("delete".equals(entry.getKey())) {
+        if (StringUtils.isEmpty(id)) {
+          throw new ActionException("Id is required for a delete (line " + (i + 1) + ")");
+        }
+        actions.add(new BulkAction(BulkAction.ActionType.DELETE, index, type, id, null));
+      }
+      else if ("index".equals(entry.getKey())) {
+        if (++i >= lines.length) {
+          throw new ActionException("Document missing for the last index action");
+        }
+        // Validate the document before sending it
+        parser.parse(lines[i]).getAsJsonObject();
+        actions.add(new BulkAction(BulkAction.ActionType.INDEX, index, type, id, lines[i]));
+      }
+      else {
+        throw new ActionException("Unsupported action (line " + (i + 1) + "): "
+            + entry.getKey());
+      }
+    }
+
+    return actions;
+  }
+
+  private static String getMember(JsonObject obj, String name, String defaultValue) {
+    final JsonElement element = obj.get(name);
+    return element == null || element.isJsonNull() ? defaultValue : element.getAsString();
+  }
+
+  private String[] getIndices(String[] urlItems) {
+    return urlItems.length >= 1 ? StringUtils.split(urlItems[0], ",") : null;
+  }
+
+  private String[] getTypes(String[] urlItems) {
+    return urlItems.length > 1 ? StringUtils.split(urlItems[1], ",") : null;
+  }
+
+  private ActionResponse searchData(String[] urlItems, String query, int size) {
+    return elsClient.search(getIndices(urlItems), getTypes(urlItems), query, size);
   }
 
   private InterpreterResult buildAggResponseMessage(Aggregations aggregations) {
@@ -542,22 +930,7 @@ public class ElasticsearchInterpreter extends Interpreter {
     final Set<String> keys = new TreeSet<>();
     for (final HitWrapper hit : response.getHits()) {
 
-      final String json = hit.getSourceAsString();
-
-      final Map<String, Object> flattenJsonMap = JsonFlattener.flattenAsMap(json);
-      final Map<String, Object> flattenMap = new HashMap<>();
-      for (final Iterator<String> iter = flattenJsonMap.keySet().iterator(); iter.hasNext(); ) {
-        // Replace keys that match a format like that : [\"keyname\"][0]
-        final String fieldName = iter.next();
-        final Matcher fieldNameMatcher = FIELD_NAME_PATTERN.matcher(fieldName);
-        if (fieldNameMatcher.matches()) {
-          flattenMap.put(fieldNameMatcher.group(1) + fieldNameMatcher.group(2),
-              flattenJsonMap.get(fieldName));
-        }
-        else {
-          flattenMap.put(fieldName, flattenJsonMap.get(fieldName));
-        }
-      }
+      final Map<String, Object> flattenMap = flattenHit(hit);
       flattenHits.add(flattenMap);
 
       for (final String key : flattenMap.keySet()) {
@@ -589,6 +962,24 @@ public class ElasticsearchInterpreter extends Interpreter {
     return buffer.toString();
   }
 
+  private Map<String, Object> flattenHit(HitWrapper hit) {
+    final Map<String, Object> flattenJsonMap = JsonFlattener.flattenAsMap(hit.getSourceAsString());
+    final Map<String, Object> flattenMap = new HashMap<>();
+    for (final Iterator<String> iter = flattenJsonMap.keySet().iterator(); iter.hasNext(); ) {
+      // Replace keys that match a format like that : [\"keyname\"][0]
+      final String fieldName = iter.next();
+      final Matcher fieldNameMatcher = FIELD_NAME_PATTERN.matcher(fieldName);
+      if (fieldNameMatcher.matches()) {
+        flattenMap.put(fieldNameMatcher.group(1) + fieldNameMatcher.group(2),
+            flattenJsonMap.get(fieldName));
+      }
+      else {
+        flattenMap.put(fieldName, flattenJsonMap.get(fieldName));
+      }
+    }
+    return flattenMap;
+  }
+
   private InterpreterResult buildResponseMessage(ActionResponse response) {
 
     final List<AggWrapper> aggregations = response.getAggregations();
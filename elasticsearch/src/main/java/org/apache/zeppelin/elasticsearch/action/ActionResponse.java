@@ -27,6 +27,8 @@ public class ActionResponse {
 
   private boolean succeeded;
   private long totalHits;
+  private String scrollId;
+  private final List<String> failures = new LinkedList<>();
   private final List<HitWrapper> hits = new LinkedList<>();
   private final List<AggWrapper> aggregations = new LinkedList<>();
 
@@ -49,6 +51,15 @@ public class ActionResponse {
     return totalHits;
   }
 
+  public ActionResponse scrollId(String scrollId) {
+    this.scrollId = scrollId;
+    return this;
+  }
+
+  public String getScrollId() {
+    return scrollId;
+  }
+
   public List<HitWrapper> getHits() {
     return hits;
   }
@@ -67,6 +78,15 @@ public class ActionResponse {
     return this;
   }
 
+  public List<String> getFailures() {
+    return failures;
+  }
+
+  public ActionResponse addFailure(String failure) {
+    this.failures.add(failure);
+    return this;
+  }
+
   public ActionResponse hit(HitWrapper hit) {
     this.addHit(hit);
     return this;
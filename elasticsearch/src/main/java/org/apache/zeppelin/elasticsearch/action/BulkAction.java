@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.elasticsearch.action;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Contains the data of a single action of a bulk request (index or delete).
+ */
+public class BulkAction {
+
+  /**
+   * Type of a bulk action.
+   */
+  public enum ActionType {
+    INDEX, DELETE
+  }
+
+  private final ActionType actionType;
+  private final String index;
+  private final String type;
+  private final String id;
+  private final String source;
+
+  public BulkAction(ActionType actionType, String index, String type, String id, String source) {
+    this.actionType = actionType;
+    this.index = index;
+    this.type = type;
+    this.id = id;
+    this.source = source;
+  }
+
+  public ActionType getActionType() {
+    return actionType;
+  }
+
+  public String getIndex() {
+    return index;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  /**
+   * Gives an estimation of the size of the action once serialized, used to split the actions
+   * into batches.
+   *
+   * @return Estimated size in bytes
+   */
+  public int getEstimatedSize() {
+    // Metadata line: { "index": { "_index": ..., "_type": ..., "_id": ... } }
+    int size = 50;
+    size += utf8Length(index);
+    size += utf8Length(type);
+    size += utf8Length(id);
+    size += utf8Length(source);
+    return size;
+  }
+
+  private static int utf8Length(String s) {
+    return s == null ? 0 : s.getBytes(StandardCharsets.UTF_8).length;
+  }
+}
@@ -17,7 +17,10 @@
 
 package org.apache.zeppelin.elasticsearch.client;
 
+import java.util.List;
+
 import org.apache.zeppelin.elasticsearch.action.ActionResponse;
+import org.apache.zeppelin.elasticsearch.action.BulkAction;
 
 /**
  * Interface that must be implemented by any kind of Elasticsearch client (transport, ...).
@@ -32,5 +35,25 @@ public interface ElasticsearchClient {
 
   ActionResponse search(String[] indices, String[] types, String query, int size);
 
+  /**
+   * Starts a scrolled search: the response contains the first page of hits and the scroll id
+   * to be used to fetch the next pages.
+   */
+  ActionResponse searchScroll(String[] indices, String[] types, String query, int size,
+      String keepAlive);
+
+  /**
+   * Fetches the next page of a scrolled search.
+   */
+  ActionResponse scroll(String scrollId, String keepAlive);
+
+  void clearScroll(String scrollId);
+
+  /**
+   * Sends a batch of actions in a single bulk request. The hits of the response contain the
+   * documents that have been processed, the failures contain the error messages.
+   */
+  ActionResponse bulk(List<BulkAction> actions);
+
   void close();
 }
@@ -20,6 +20,7 @@ package org.apache.zeppelin.elasticsearch.client;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -29,6 +30,7 @@ import org.apache.zeppelin.elasticsearch.action.ActionException;
 import org.apache.zeppelin.elasticsearch.action.ActionResponse;
 import org.apache.zeppelin.elasticsearch.action.AggWrapper;
 import org.apache.zeppelin.elasticsearch.action.AggWrapper.AggregationType;
+import org.apache.zeppelin.elasticsearch.action.BulkAction;
 import org.apache.zeppelin.elasticsearch.action.HitWrapper;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -270,17 +272,7 @@ public class HttpBasedClient implements ElasticsearchClient {
   public ActionResponse search(String[] indices, String[] types, String query, int size) {
     ActionResponse response = null;
 
-    if (!StringUtils.isEmpty(query)) {
-      // The query can be either JSON-formatted, nor a Lucene query
-      // So, try to parse as a JSON => if there is an error, consider the query a Lucene one
-      try {
-        gson.fromJson(query, Map.class);
-      }
-      catch (final JsonParseException e) {
-        // This is not a JSON (or maybe not well formatted...)
-        query = QUERY_STRING_TEMPLATE.replace("_Q_", query);
-      }
-    }
+    query = toJsonQuery(query);
 
     try {
       final HttpRequestWithBody request = Unirest
@@ -329,19 +321,7 @@ public class HttpBasedClient implements ElasticsearchClient {
           }
         }
         else if (size > 0 && total > 0) {
-          final JSONArray hits = getFieldAsArray(body, "hits/hits");
-          final Iterator<Object> iter = hits.iterator();
-
-          while (iter.hasNext()) {
-            final JSONObject hit = (JSONObject) iter.next();
-            final Object data =
-                hit.opt("_source") != null ? hit.opt("_source") : hit.opt("fields");
-            response.addHit(new HitWrapper(
-                hit.getString("_index"),
-                hit.getString("_type"),
-                hit.getString("_id"),
-                data.toString()));
-          }
+          addHits(body, response);
         }
       }
       else {
@@ -355,6 +335,190 @@ public class HttpBasedClient implements ElasticsearchClient {
     return response;
   }
 
+  @Override
+  public ActionResponse searchScroll(String[] indices, String[] types, String query, int size,
+      String keepAlive) {
+    query = toJsonQuery(query);
+
+    try {
+      final HttpRequestWithBody request = Unirest
+          .post(getUrl(indices, types) + "/_search?size=" + size + "&scroll=" + keepAlive)
+          .header("Content-Type", "application/json");
+
+      if (StringUtils.isNoneEmpty(query)) {
+        request.header("Accept", "application/json").body(query);
+      }
+
+      return executeScrollRequest(request);
+    }
+    catch (final UnirestException e) {
+      throw new ActionException(e);
+    }
+  }
+
+  @Override
+  public ActionResponse scroll(String scrollId, String keepAlive) {
+    final JSONObject scrollRequest = new JSONObject()
+        .put("scroll", keepAlive)
+        .put("scroll_id", scrollId);
+
+    try {
+      final HttpRequestWithBody request = Unirest
+          .post(getUrl(null, null, null, false) + "_search/scroll")
+          .header("Content-Type", "application/json")
+          .header("Accept", "application/json");
+      request.body(scrollRequest.toString());
+
+      return executeScrollRequest(request);
+    }
+    catch (final UnirestException e) {
+      throw new ActionException(e);
+    }
+  }
+
+  @Override
+  public void clearScroll(String scrollId) {
+    final JSONObject clearRequest = new JSONObject()
+        .put("scroll_id", new JSONArray().put(scrollId));
+
+    try {
+      final HttpRequestWithBody request = Unirest
+          .delete(getUrl(null, null, null, false) + "_search/scroll")
+          .header("Content-Type", "application/json");
+      request.body(clearRequest.toString());
+
+      if (StringUtils.isNotEmpty(username)) {
+        request.basicAuth(username, password);
+      }
+
+      request.asString();
+    }
+    catch (final UnirestException e) {
+      throw new ActionException(e);
+    }
+  }
+
+  @Override
+  public ActionResponse bulk(List<BulkAction> actions) {
+    final StringBuilder buffer = new StringBuilder();
+
+    for (final BulkAction action : actions) {
+      final JSONObject metadata = new JSONObject()
+          .put("_index", action.getIndex())
+          .put("_type", action.getType());
+      if (StringUtils.isNotEmpty(action.getId())) {
+        metadata.put("_id", action.getId());
+      }
+
+      if (action.getActionType() == BulkAction.ActionType.DELETE) {
+        buffer.append(new JSONObject().put("delete", metadata)).append('\n');
+      }
+      else {
+        buffer.append(new JSONObject().put("index", metadata)).append('\n');
+        // Each document must be written on a single line
+        buffer.append(new JSONObject(action.getSource())).append('\n');
+      }
+    }
+
+    try {
+      final HttpRequestWithBody request = Unirest
+          .post(getUrl(null, null, null, false) + "_bulk")
+          .header("Content-Type", "application/json")
+          .header("Accept", "application/json");
+      request.body(buffer.toString());
+
+      if (StringUtils.isNotEmpty(username)) {
+        request.basicAuth(username, password);
+      }
+
+      final HttpResponse<JsonNode> result = request.asJson();
+      final JSONObject body = result.getBody() != null ? result.getBody().getObject() : null;
+
+      if (!isSucceeded(result)) {
+        throw new ActionException(body == null ? "" : body.get("error").toString());
+      }
+
+      final ActionResponse response = new ActionResponse()
+          .succeeded(!body.optBoolean("errors"));
+
+      final Iterator<Object> items = body.getJSONArray("items").iterator();
+      while (items.hasNext()) {
+        final JSONObject item = (JSONObject) items.next();
+        // Each item contains only one key, the type of the action
+        final JSONObject itemResult = item.getJSONObject(item.keys().next());
+        if (itemResult.has("error")) {
+          response.addFailure(itemResult.optString("_id") + ": " + itemResult.get("error"));
+        }
+        else {
+          response.addHit(new HitWrapper(
+              itemResult.getString("_index"),
+              itemResult.getString("_type"),
+              itemResult.getString("_id"),
+              null));
+        }
+      }
+
+      return response;
+    }
+    catch (final UnirestException e) {
+      throw new ActionException(e);
+    }
+  }
+
+  private ActionResponse executeScrollRequest(HttpRequestWithBody request)
+      throws UnirestException {
+    if (StringUtils.isNotEmpty(username)) {
+      request.basicAuth(username, password);
+    }
+
+    final HttpResponse<JsonNode> result = request.asJson();
+    final JSONObject body = result.getBody() != null ? result.getBody().getObject() : null;
+
+    if (!isSucceeded(result)) {
+      throw new ActionException(body == null ? "" : body.get("error").toString());
+    }
+
+    final ActionResponse response = new ActionResponse()
+        .succeeded(true)
+        .totalHits(getFieldAsLong(result, "hits/total"))
+        .scrollId(body.optString("_scroll_id", null));
+
+    addHits(body, response);
+
+    return response;
+  }
+
+  private String toJsonQuery(String query) {
+    if (!StringUtils.isEmpty(query)) {
+      // The query can be either JSON-formatted, nor a Lucene query
+      // So, try to parse as a JSON => if there is an error, consider the query a Lucene one
+      try {
+        gson.fromJson(query, Map.class);
+      }
+      catch (final JsonParseException e) {
+        // This is not a JSON (or maybe not well formatted...)
+        return QUERY_STRING_TEMPLATE.replace("_Q_", query);
+      }
+    }
+    return query;
+  }
+
+  private void addHits(JSONObject body, ActionResponse response) {
+    final JSONArray hits = getFieldAsArray(body, "hits/hits");
+    final Iterator<Object> iter = hits.iterator();
+
+    while (iter.hasNext()) {
+      final JSONObject hit = (JSONObject) iter.next();
+      final Object data =
+          hit.opt("_source") != null ? hit.opt("_source") : hit.opt("fields");
+      response.addHit(new HitWrapper(
+          hit.getString("_index"),
+          hit.getString("_type"),
+          hit.getString("_id"),
+          data.toString()));
+    }
+  }
+
   private boolean containsAggs(HttpResponse<JsonNode> result) {
     return result.getBody() != null &&
         (result.getBody().getObject().has("aggregations") ||
@@ -32,7 +32,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.zeppelin.elasticsearch.ElasticsearchInterpreter;
 import org.apache.zeppelin.elasticsearch.action.ActionResponse;
 import org.apache.zeppelin.elasticsearch.action.AggWrapper;
+import org.apache.zeppelin.elasticsearch.action.BulkAction;
 import org.apache.zeppelin.elasticsearch.action.HitWrapper;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.index.IndexResponse;
@@ -133,6 +137,83 @@ public class TransportBasedClient implements ElasticsearchClient {
 
   @Override
   public ActionResponse search(String[] indices, String[] types, String query, int size) {
+    final SearchRequestBuilder reqBuilder = prepareSearch(indices, types, query, size);
+
+    final SearchResponse searchResp = reqBuilder.get();
+
+    final ActionResponse actionResp = new ActionResponse()
+        .succeeded(true)
+        .totalHits(searchResp.getHits().getTotalHits());
+
+    if (searchResp.getAggregations() != null) {
+      setAggregations(searchResp.getAggregations(), actionResp);
+    }
+    else {
+      setHits(searchResp, actionResp);
+    }
+
+    return actionResp;
+  }
+
+  @Override
+  public ActionResponse searchScroll(String[] indices, String[] types, String query, int size,
+      String keepAlive) {
+    final SearchRequestBuilder reqBuilder = prepareSearch(indices, types, query, size);
+    reqBuilder.setScroll(keepAlive);
+
+    return buildScrollResponse(reqBuilder.get());
+  }
+
+  @Override
+  public ActionResponse scroll(String scrollId, String keepAlive) {
+    final SearchResponse searchResp = client
+        .prepareSearchScroll(scrollId)
+        .setScroll(keepAlive)
+        .get();
+
+    return buildScrollResponse(searchResp);
+  }
+
+  @Override
+  public void clearScroll(String scrollId) {
+    client.prepareClearScroll()
+        .addScrollId(scrollId)
+        .get();
+  }
+
+  @Override
+  public ActionResponse bulk(List<BulkAction> actions) {
+    final BulkRequestBuilder reqBuilder = client.prepareBulk();
+
+    for (final BulkAction action : actions) {
+      if (action.getActionType() == BulkAction.ActionType.DELETE) {
+        reqBuilder.add(client.prepareDelete(action.getIndex(), action.getType(), action.getId()));
+      }
+      else {
+        reqBuilder.add(client.prepareIndex(action.getIndex(), action.getType(), action.getId())
+            .setSource(action.getSource()));
+      }
+    }
+
+    final BulkResponse bulkResp = reqBuilder.get();
+
+    final ActionResponse actionResp = new ActionResponse()
+        .succeeded(!bulkResp.hasFailures());
+
+    for (final BulkItemResponse item : bulkResp) {
+      if (item.isFailed()) {
+        actionResp.addFailure(item.getId() + ": " + item.getFailureMessage());
+      }
+      else {
+        actionResp.addHit(new HitWrapper(item.getIndex(), item.getType(), item.getId(), null));
+      }
+    }
+
+    return actionResp;
+  }
+
+  private SearchRequestBuilder prepareSearch(String[] indices, String[] types, String query,
+      int size) {
     final SearchRequestBuilder reqBuilder = new SearchRequestBuilder(
         client, SearchAction.INSTANCE);
     reqBuilder.setIndices();
@@ -160,33 +241,35 @@ public class TransportBasedClient implements ElasticsearchClient {
 
     reqBuilder.setSize(size);
 
-    final SearchResponse searchResp = reqBuilder.get();
+    return reqBuilder;
+  }
 
+  private ActionResponse buildScrollResponse(SearchResponse searchResp) {
     final ActionResponse actionResp = new ActionResponse()
         .succeeded(true)
-        .totalHits(searchResp.getHits().getTotalHits());
+        .totalHits(searchResp.getHits().getTotalHits())
+        .scrollId(searchResp.getScrollId());
 
-    if (searchResp.getAggregations() != null) {
-      setAggregations(searchResp.getAggregations(), actionResp);
-    }
-    else {
-      for (final SearchHit hit: searchResp.getHits()) {
-        // Fields can be found either in _source, or in fields (it depends on the query)
-        // => specific for elasticsearch's version < 5
-        //
-        String src = hit.getSourceAsString();
-        if (src == null) {
-          final Map<String, Object> hitFields = new HashMap<>();
-          for (final SearchHitField hitField : hit.getFields().values()) {
-            hitFields.put(hitField.getName(), hitField.getValues());
-          }
-          src = gson.toJson(hitFields);
+    setHits(searchResp, actionResp);
+
+    return actionResp;
+  }
+
+  private void setHits(SearchResponse searchResp, ActionResponse actionResp) {
+    for (final SearchHit hit: searchResp.getHits()) {
+      // Fields can be found either in _source, or in fields (it depends on the query)
+      // => specific for elasticsearch's version < 5
+      //
+      String src = hit.getSourceAsString();
+      if (src == null) {
+        final Map<String, Object> hitFields = new HashMap<>();
+        for (final SearchHitField hitField : hit.getFields().values()) {
+          hitFields.put(hitField.getName(), hitField.getValues());
         }
-        actionResp.addHit(new HitWrapper(hit.getIndex(), hit.getType(), hit.getId(), src));
+        src = gson.toJson(hitFields);
       }
+      actionResp.addHit(new HitWrapper(hit.getIndex(), hit.getType(), hit.getId(), src));
     }
-
-    return actionResp;
   }
 
   private void setAggregations(Aggregations aggregations, ActionResponse actionResp) {
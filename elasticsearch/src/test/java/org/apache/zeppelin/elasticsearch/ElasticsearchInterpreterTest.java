@@ -19,23 +19,30 @@ package org.apache.zeppelin.elasticsearch;
 
 import static org.elasticsearch.common.xcontent.XContentFactory.jsonBuilder;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.math.RandomUtils;
 import org.apache.zeppelin.completer.CompletionType;
+import org.apache.zeppelin.elasticsearch.action.BulkAction;
 import org.apache.zeppelin.display.AngularObjectRegistry;
 import org.apache.zeppelin.interpreter.InterpreterContext;
+import org.apache.zeppelin.interpreter.InterpreterOutput;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.InterpreterResult.Code;
+import org.apache.zeppelin.interpreter.InterpreterResultMessage;
 import org.apache.zeppelin.interpreter.thrift.InterpreterCompletion;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
 import org.elasticsearch.client.Client;
@@ -45,6 +52,7 @@ import org.elasticsearch.node.NodeBuilder;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Test;
 import org.junit.experimental.theories.DataPoint;
 import org.junit.experimental.theories.Theories;
 import org.junit.experimental.theories.Theory;
@@ -130,6 +138,7 @@ public class ElasticsearchInterpreterTest {
     final Properties props = new Properties();
     props.put(ElasticsearchInterpreter.ELASTICSEARCH_HOST, ELS_HOST);
     props.put(ElasticsearchInterpreter.ELASTICSEARCH_CLUSTER_NAME, ELS_CLUSTER_NAME);
+    props.put(ElasticsearchInterpreter.ELASTICSEARCH_SCROLL_SIZE, "10");
 
     props.put(ElasticsearchInterpreter.ELASTICSEARCH_PORT, ELS_TRANSPORT_PORT);
     props.put(ElasticsearchInterpreter.ELASTICSEARCH_CLIENT_TYPE, "transport");
@@ -163,9 +172,13 @@ public class ElasticsearchInterpreterTest {
   }
 
   private InterpreterContext buildContext(String noteAndParagraphId) {
+    return buildContext(noteAndParagraphId, null);
+  }
+
+  private InterpreterContext buildContext(String noteAndParagraphId, InterpreterOutput out) {
     final AngularObjectRegistry angularObjReg = new AngularObjectRegistry("elasticsearch", null);
     return new InterpreterContext(noteAndParagraphId, noteAndParagraphId, null, null, null, null, null,
-        null, angularObjReg , null, null, null);
+        null, angularObjReg , null, null, out);
   }
 
   @Theory
@@ -231,6 +244,107 @@ public class ElasticsearchInterpreterTest {
     assertEquals(Code.SUCCESS, res.code());
   }
 
+  @Theory
+  public void testScroll(ElasticsearchInterpreter interpreter) {
+
+    final InterpreterContext ctx = buildContext("scroll");
+
+    InterpreterResult res = interpreter.interpret("scroll /logs *", ctx);
+    assertEquals(Code.SUCCESS, res.code());
+    assertEquals(InterpreterResult.Type.TABLE, res.message().get(0).getType());
+
+    res = interpreter.interpret("size 5\nscroll /logs *", ctx);
+    assertEquals(Code.SUCCESS, res.code());
+    // Header + 5 rows
+    assertEquals(6, res.message().get(0).getData().split("\n").length);
+    assertEquals(5, ctx.getAngularObjectRegistry().get("scroll_scroll", null, null).get());
+
+    res = interpreter.interpret("scroll /logs {{{hello}}}", ctx);
+    assertEquals(Code.ERROR, res.code());
+  }
+
+  @Theory
+  public void testScrollStreamsRows(ElasticsearchInterpreter interpreter) throws IOException {
+
+    final InterpreterOutput out = new InterpreterOutput(null);
+    final InterpreterContext ctx = buildContext("scrollStream", out);
+
+    // the 50 documents are streamed in pages of 10
+    InterpreterResult res = interpreter.interpret("scroll /logs *", ctx);
+    assertEquals(Code.SUCCESS, res.code());
+    assertEquals(0, res.message().size());
+    assertEquals(50, ctx.getAngularObjectRegistry().get("scroll_scrollStream", null, null).get());
+
+    out.flush();
+    final List<InterpreterResultMessage> messages = out.toInterpreterResultMessage();
+    assertEquals(1, messages.size());
+    assertEquals(InterpreterResult.Type.TABLE, messages.get(0).getType());
+    final String[] lines = messages.get(0).getData().split("\n");
+    // Header + 50 rows, the header is only written with the first page
+    assertEquals(51, lines.length);
+    assertTrue(lines[0].contains("request.method"));
+    final Set<String> rows = new HashSet<>();
+    for (int i = 1; i < lines.length; i++) {
+      assertFalse(lines[i].contains("request.method"));
+      rows.add(lines[i]);
+    }
+    assertEquals(50, rows.size());
+  }
+
+  @Theory
+  public void testBulk(ElasticsearchInterpreter interpreter) {
+
+    InterpreterResult res = interpreter.interpret("bulk /bulklogs/http\n"
+        + "{ \"index\": { \"_id\": \"bulk1\" } }\n"
+        + "{ \"date\": \"2015-12-06T14:54:23.368Z\", \"method\": \"PUT\", \"status\": \"500\" }\n"
+        + "{ \"index\": { } }\n"
+        + "{ \"date\": \"2015-12-06T14:54:23.368Z\", \"method\": \"GET\", \"status\": \"200\" }\n"
+        + "{ \"delete\": { \"_id\": \"bulk1\" } }", null);
+    assertEquals(Code.SUCCESS, res.code());
+    assertEquals("3 action(s) processed in 1 batch(es)", res.message().get(0).getData());
+
+    res = interpreter.interpret("bulk /bulklogs/http\n{ \"update\": { \"_id\": \"1\" } }", null);
+    assertEquals(Code.ERROR, res.code());
+
+    res = interpreter.interpret("bulk /bulklogs/http\n{ \"index\": { } }", null);
+    assertEquals(Code.ERROR, res.code());
+  }
+
+  @Test
+  public void testBulkBatchesKeepActionsOnSameDocumentTogether() {
+    final List<BulkAction> actions = ElasticsearchInterpreter.parseBulkActions("logs", "http",
+        "{ \"index\": { \"_id\": \"1\" } }\n"
+        + "{ \"status\": 200 }\n"
+        + "{ \"index\": { \"_id\": \"2\" } }\n"
+        + "{ \"status\": 404 }\n"
+        + "{ \"index\": { } }\n"
+        + "{ \"status\": 500 }\n"
+        + "{ \"delete\": { \"_id\": \"1\" } }\n"
+        + "{ \"index\": { \"_id\": \"1\", \"_type\": \"other\" } }\n"
+        + "{ \"status\": 403 }");
+
+    // one action per batch, except for the index and the delete of logs/http/1
+    final List<List<BulkAction>> batches = ElasticsearchInterpreter.splitBulkActions(actions, 1);
+    assertEquals(4, batches.size());
+    assertEquals(2, batches.get(0).size());
+    assertEquals(BulkAction.ActionType.INDEX, batches.get(0).get(0).getActionType());
+    assertEquals(BulkAction.ActionType.DELETE, batches.get(0).get(1).getActionType());
+    assertEquals("2", batches.get(1).get(0).getId());
+    assertEquals(null, batches.get(2).get(0).getId());
+    assertEquals("other", batches.get(3).get(0).getType());
+
+    assertEquals(1, ElasticsearchInterpreter.splitBulkActions(actions, 1024 * 1024).size());
+  }
+
+  @Test
+  public void testBulkActionSizeInBytes() {
+    final BulkAction ascii = new BulkAction(BulkAction.ActionType.INDEX, "logs", "http", "1",
+        "{ \"msg\": \"e\" }");
+    final BulkAction accented = new BulkAction(BulkAction.ActionType.INDEX, "logs", "http", "1",
+        "{ \"msg\": \"\u00e9\" }");
+    assertEquals(ascii.getEstimatedSize() + 1, accented.getEstimatedSize());
+  }
+
   @Theory
   public void testAgg(ElasticsearchInterpreter interpreter) {
 
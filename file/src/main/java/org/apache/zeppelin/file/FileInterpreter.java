@@ -90,6 +90,12 @@ public abstract class FileInterpreter extends Interpreter {
 
   public abstract boolean isDirectory(String path);
 
+  // Implementations that write the listing to the paragraph output themselves return null
+
+  public String listAll(String path, InterpreterContext context) {
+    return listAll(path);
+  }
+
   // Combine paths, takes care of arguments such as ..
 
   protected String getNewPath(String argument){
@@ -127,7 +133,10 @@ public abstract class FileInterpreter extends Interpreter {
 
       String newPath = !args.args.isEmpty() ? getNewPath(args.args.get(0)) : currentDir;
       try {
-        String results = listAll(newPath);
+        String results = listAll(newPath, contextInterpreter);
+        if (results == null) {
+          return new InterpreterResult(Code.SUCCESS);
+        }
         return new InterpreterResult(Code.SUCCESS, Type.TEXT, results);
       } catch (Exception e) {
         logger.error("Error listing files in path " + newPath, e);
@@ -21,7 +21,10 @@ package org.apache.zeppelin.file;
 import java.net.URL;
 import java.net.HttpURLConnection;
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import javax.ws.rs.core.UriBuilder;
 import org.slf4j.Logger;
 
@@ -76,6 +79,8 @@ public class HDFSCommand {
   // Define all the commands available
   public Op getFileStatus = new Op("GETFILESTATUS", HttpType.GET, 0);
   public Op listStatus = new Op("LISTSTATUS", HttpType.GET, 0);
+  // paged listing, available since Hadoop 2.8. Takes an optional startAfter argument
+  public Op listStatusBatch = new Op("LISTSTATUS_BATCH", HttpType.GET, 0);
 
   public HDFSCommand(String url, String user, Logger logger, int maxLength) {
     super();
@@ -135,22 +140,42 @@ public class HDFSCommand {
       logger.info("Sending 'GET' request to URL : " + hdfsUrl);
       logger.info("Response Code : " + responseCode);
 
-      BufferedReader in = new BufferedReader(
-          new InputStreamReader(con.getInputStream()));
-      String inputLine;
-      StringBuffer response = new StringBuffer();
+      // The connection goes back to the JVM's keep-alive cache, and is reused by the next
+      // command to the same WebHDFS endpoint, only once its response has been read and closed.
+      if (responseCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+        closeQuietly(con.getErrorStream());
+      }
+
+      try (BufferedReader in = new BufferedReader(
+          new InputStreamReader(con.getInputStream(), StandardCharsets.UTF_8))) {
+        String inputLine;
+        StringBuilder response = new StringBuilder();
 
-      int i = 0;
-      while ((inputLine = in.readLine()) != null) {
-        if (inputLine.length() < maxLength)
+        int i = 0;
+        while ((inputLine = in.readLine()) != null) {
           response.append(inputLine);
-        i++;
-        if (i >= maxLength)
-          break;
+          i++;
+          if (i >= maxLength)
+            break;
+        }
+        return response.toString();
       }
-      in.close();
-      return response.toString();
     }
     return null;
   }
+
+  private void closeQuietly(InputStream in) {
+    if (in == null) {
+      return;
+    }
+    try {
+      byte[] buf = new byte[4096];
+      while (in.read(buf) != -1) {
+        // drain
+      }
+      in.close();
+    } catch (IOException e) {
+      logger.debug("Error while reading error response", e);
+    }
+  }
 }
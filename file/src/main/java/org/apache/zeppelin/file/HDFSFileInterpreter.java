@@ -20,6 +20,12 @@ package org.apache.zeppelin.file;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import com.google.gson.Gson;
 import org.apache.commons.lang.StringUtils;
@@ -36,10 +42,16 @@ public class HDFSFileInterpreter extends FileInterpreter {
   static final String HDFS_URL = "hdfs.url";
   static final String HDFS_USER = "hdfs.user";
   static final String HDFS_MAXLENGTH = "hdfs.maxlength";
+  static final String HDFS_CACHE_TTL = "hdfs.cache.ttl";
+  static final String HDFS_CACHE_SIZE = "hdfs.cache.size";
+  static final String HDFS_PARALLELISM = "hdfs.parallelism";
+  static final String HDFS_LISTING_BATCH = "hdfs.listing.batch";
 
   Exception exceptionOnConnect = null;
   HDFSCommand cmd = null;
   Gson gson = null;
+  ResponseCache responseCache = null;
+  ExecutorService statusExecutor = null;
 
   public void prepare() {
     String userName = getProperty(HDFS_USER);
@@ -52,6 +64,80 @@ public class HDFSFileInterpreter extends FileInterpreter {
   public HDFSFileInterpreter(Properties property){
     super(property);
     prepare();
+    responseCache = new ResponseCache(getLongProperty(HDFS_CACHE_TTL, 5000),
+        (int) getLongProperty(HDFS_CACHE_SIZE, 1000));
+  }
+
+  private long getLongProperty(String name, long defaultValue) {
+    String value = getProperty(name);
+    if (StringUtils.isBlank(value)) {
+      return defaultValue;
+    }
+    return Long.parseLong(value.trim());
+  }
+
+  /**
+   * WebHDFS responses kept for a short time, so that ls, cd and completion on the same
+   * directories don't go back to the name node on every keystroke.
+   */
+  static class ResponseCache {
+    private final long ttlMs;
+    private final Map<String, CachedResponse> responses;
+
+    ResponseCache(long ttlMs, final int maxSize) {
+      this.ttlMs = ttlMs;
+      this.responses = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+          return size() > maxSize;
+        }
+      };
+    }
+
+    synchronized String get(String key) {
+      if (ttlMs <= 0) {
+        return null;
+      }
+      CachedResponse cached = responses.get(key);
+      if (cached == null) {
+        return null;
+      }
+      if (System.currentTimeMillis() - cached.time > ttlMs) {
+        responses.remove(key);
+        return null;
+      }
+      return cached.response;
+    }
+
+    synchronized void put(String key, String response) {
+      if (ttlMs > 0 && response != null) {
+        responses.put(key, new CachedResponse(response, System.currentTimeMillis()));
+      }
+    }
+
+    synchronized void clear() {
+      responses.clear();
+    }
+  }
+
+  private static class CachedResponse {
+    final String response;
+    final long time;
+
+    CachedResponse(String response, long time) {
+      this.response = response;
+      this.time = time;
+    }
+  }
+
+  private String runCachedCommand(HDFSCommand.Op op, String path) throws Exception {
+    String key = op.op + " " + path;
+    String response = responseCache.get(key);
+    if (response == null) {
+      response = cmd.runCommand(op, path, null);
+      responseCache.put(key, response);
+    }
+    return response;
   }
 
   /**
@@ -119,6 +205,25 @@ public class HDFSFileInterpreter extends FileInterpreter {
     public MultiFileStatus FileStatuses;
   }
 
+  /**
+   * File statuses of one page and the number of entries left after it
+   *
+   * matches the DirectoryListing object of LISTSTATUS_BATCH
+   */
+  public class DirectoryListing {
+    public AllFileStatus partialListing;
+    public long remainingEntries;
+  }
+
+  /**
+   * Response of one LISTSTATUS_BATCH call
+   *
+   * matches returned JSON, the page is wrapped in a DirectoryListing object
+   */
+  public class DirectoryListingStatus {
+    public DirectoryListing DirectoryListing;
+  }
+
   // tests whether we're able to connect to HDFS
 
   private void testConnection() {
@@ -138,10 +243,49 @@ public class HDFSFileInterpreter extends FileInterpreter {
 
   @Override
   public void close() {
+    synchronized (this) {
+      if (statusExecutor != null) {
+        statusExecutor.shutdownNow();
+        statusExecutor = null;
+      }
+    }
+    responseCache.clear();
   }
 
   private String listDir(String path) throws Exception {
-    return cmd.runCommand(cmd.listStatus, path, null);
+    return runCachedCommand(cmd.listStatus, path);
+  }
+
+  private OneFileStatus[] listStatuses(String path) throws Exception {
+    String sfs = listDir(path);
+    if (sfs != null) {
+      AllFileStatus allFiles = gson.fromJson(sfs, AllFileStatus.class);
+      if (allFiles != null &&
+              allFiles.FileStatuses != null &&
+              allFiles.FileStatuses.FileStatus != null) {
+        return allFiles.FileStatuses.FileStatus;
+      }
+    }
+    return new OneFileStatus[0];
+  }
+
+  private String childPath(String path, OneFileStatus fs) {
+    return (path.length() == 1) ? path + fs.pathSuffix : path + '/' + fs.pathSuffix;
+  }
+
+  private synchronized ExecutorService getStatusExecutor() {
+    if (statusExecutor == null) {
+      statusExecutor = Executors.newFixedThreadPool((int) getLongProperty(HDFS_PARALLELISM, 8),
+          new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+              Thread t = new Thread(r, "HDFSFileInterpreter-status");
+              t.setDaemon(true);
+              return t;
+            }
+          });
+    }
+    return statusExecutor;
   }
 
   private String listPermission(OneFileStatus fs){
@@ -191,7 +335,7 @@ public class HDFSFileInterpreter extends FileInterpreter {
 
   public String listFile(String filePath) {
     try {
-      String str = cmd.runCommand(cmd.getFileStatus, filePath, null);
+      String str = runCachedCommand(cmd.getFileStatus, filePath);
       SingleFileStatus sfs = gson.fromJson(str, SingleFileStatus.class);
       if (sfs != null) {
         return listOne(filePath, sfs.FileStatus);
@@ -203,25 +347,28 @@ public class HDFSFileInterpreter extends FileInterpreter {
   }
 
   public String listAll(String path) {
-    String all = "";
+    return listAll(path, null);
+  }
+
+  @Override
+  public String listAll(String path, InterpreterContext context) {
     if (exceptionOnConnect != null)
       return "Error connecting to provided endpoint.";
     try {
       //see if directory.
       if (isDirectory(path)) {
-        String sfs = listDir(path);
-        if (sfs != null) {
-          AllFileStatus allFiles = gson.fromJson(sfs, AllFileStatus.class);
-
-          if (allFiles != null &&
-                  allFiles.FileStatuses != null &&
-                  allFiles.FileStatuses.FileStatus != null)
-          {
-            for (OneFileStatus fs : allFiles.FileStatuses.FileStatus)
-              all = all + listOne(path, fs) + '\n';
-          }
+        if (args != null && args.flags.contains('R')) {
+          return listRecursive(path);
+        }
+        if (context != null && context.out != null
+            && Boolean.parseBoolean(getProperty(HDFS_LISTING_BATCH))) {
+          listDirInBatches(path, context);
+          return null;
         }
-        return all;
+        StringBuilder all = new StringBuilder();
+        for (OneFileStatus fs : listStatuses(path))
+          all.append(listOne(path, fs)).append('\n');
+        return all.toString();
       } else {
         return listFile(path);
       }
@@ -231,12 +378,103 @@ public class HDFSFileInterpreter extends FileInterpreter {
     }
   }
 
+  /**
+   * ls -R. Each level of the tree is listed with parallel LISTSTATUS calls, then the
+   * directories are printed depth first like the ls command does.
+   */
+  private String listRecursive(String path) throws Exception {
+    Map<String, OneFileStatus[]> listings = new HashMap<>();
+    List<String> level = Collections.singletonList(path);
+    while (!level.isEmpty()) {
+      List<Future<OneFileStatus[]>> futures = new ArrayList<>(level.size());
+      for (final String dir : level) {
+        futures.add(getStatusExecutor().submit(new Callable<OneFileStatus[]>() {
+          @Override
+          public OneFileStatus[] call() throws Exception {
+            return listStatuses(dir);
+          }
+        }));
+      }
+
+      List<String> nextLevel = new ArrayList<>();
+      for (int i = 0; i < level.size(); i++) {
+        OneFileStatus[] statuses;
+        try {
+          statuses = futures.get(i).get();
+        } catch (ExecutionException e) {
+          logger.error("listRecursive: listDir " + level.get(i), e.getCause());
+          statuses = new OneFileStatus[0];
+        }
+        listings.put(level.get(i), statuses);
+        for (OneFileStatus fs : statuses) {
+          if ("DIRECTORY".equals(fs.type)) {
+            nextLevel.add(childPath(level.get(i), fs));
+          }
+        }
+      }
+      level = nextLevel;
+    }
+
+    StringBuilder all = new StringBuilder();
+    appendRecursive(all, path, listings);
+    return all.toString();
+  }
+
+  private void appendRecursive(StringBuilder all, String path,
+      Map<String, OneFileStatus[]> listings) {
+    OneFileStatus[] statuses = listings.get(path);
+    all.append(path).append(":\n");
+    for (OneFileStatus fs : statuses) {
+      all.append(listOne(path, fs)).append('\n');
+    }
+    all.append('\n');
+    for (OneFileStatus fs : statuses) {
+      if ("DIRECTORY".equals(fs.type)) {
+        appendRecursive(all, childPath(path, fs), listings);
+      }
+    }
+  }
+
+  /**
+   * Lists a directory with LISTSTATUS_BATCH and writes every page to the paragraph output as
+   * soon as it is fetched, instead of holding the whole listing of a huge directory.
+   */
+  private void listDirInBatches(String path, InterpreterContext context) throws Exception {
+    String startAfter = null;
+    long remainingEntries;
+    do {
+      HDFSCommand.Arg[] batchArgs = (startAfter == null) ? null :
+          new HDFSCommand.Arg[] {cmd.new Arg("startAfter", startAfter)};
+      String str = cmd.runCommand(cmd.listStatusBatch, path, batchArgs);
+      DirectoryListingStatus page = gson.fromJson(str, DirectoryListingStatus.class);
+      if (page == null ||
+              page.DirectoryListing == null ||
+              page.DirectoryListing.partialListing == null ||
+              page.DirectoryListing.partialListing.FileStatuses == null ||
+              page.DirectoryListing.partialListing.FileStatuses.FileStatus == null ||
+              page.DirectoryListing.partialListing.FileStatuses.FileStatus.length == 0) {
+        break;
+      }
+
+      OneFileStatus[] statuses = page.DirectoryListing.partialListing.FileStatuses.FileStatus;
+      StringBuilder lines = new StringBuilder();
+      for (OneFileStatus fs : statuses) {
+        lines.append(listOne(path, fs)).append('\n');
+      }
+      context.out.write(lines.toString());
+      context.out.flush();
+
+      startAfter = statuses[statuses.length - 1].pathSuffix;
+      remainingEntries = page.DirectoryListing.remainingEntries;
+    } while (remainingEntries > 0);
+  }
+
   public boolean isDirectory(String path) {
     boolean ret = false;
     if (exceptionOnConnect != null)
       return ret;
     try {
-      String str = cmd.runCommand(cmd.getFileStatus, path, null);
+      String str = runCachedCommand(cmd.getFileStatus, path);
       SingleFileStatus sfs = gson.fromJson(str, SingleFileStatus.class);
       if (sfs != null)
         return sfs.FileStatus.type.equals("DIRECTORY");
@@ -289,28 +527,18 @@ public class HDFSFileInterpreter extends FileInterpreter {
 
     if (isDirectory(globalPath)){
       try {
-        String fileStatusString = listDir(globalPath);
-        if (fileStatusString != null) {
-          AllFileStatus allFiles = gson.fromJson(fileStatusString, AllFileStatus.class);
-
-          if (allFiles != null &&
-                  allFiles.FileStatuses != null &&
-                  allFiles.FileStatuses.FileStatus != null)
-          {
-            for (OneFileStatus fs : allFiles.FileStatuses.FileStatus) {
-              if (fs.pathSuffix.contains(unfinished)) {
-
-                //only suggest the text after the last .
-                String beforeLastPeriod = unfinished.substring(0, unfinished.lastIndexOf('.') + 1);
-                //beforeLastPeriod should be the start of fs.pathSuffix, so take the end of it.
-                String suggestedFinish = fs.pathSuffix.substring(beforeLastPeriod.length());
-                suggestions.add(new InterpreterCompletion(suggestedFinish, suggestedFinish,
-                    CompletionType.path.name()));
-              }
-            }
-            return suggestions;
+        for (OneFileStatus fs : listStatuses(globalPath)) {
+          if (fs.pathSuffix.contains(unfinished)) {
+
+            //only suggest the text after the last .
+            String beforeLastPeriod = unfinished.substring(0, unfinished.lastIndexOf('.') + 1);
+            //beforeLastPeriod should be the start of fs.pathSuffix, so take the end of it.
+            String suggestedFinish = fs.pathSuffix.substring(beforeLastPeriod.length());
+            suggestions.add(new InterpreterCompletion(suggestedFinish, suggestedFinish,
+                CompletionType.path.name()));
           }
         }
+        return suggestions;
       } catch (Exception e) {
         logger.error("listall: listDir " + globalPath, e);
         return null;
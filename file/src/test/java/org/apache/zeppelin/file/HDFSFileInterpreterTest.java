@@ -23,6 +23,8 @@ import junit.framework.TestCase;
 import static org.junit.Assert.*;
 
 import org.apache.zeppelin.completer.CompletionType;
+import org.apache.zeppelin.interpreter.InterpreterContext;
+import org.apache.zeppelin.interpreter.InterpreterOutput;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.thrift.InterpreterCompletion;
 import org.junit.Test;
@@ -32,6 +34,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.lang.Override;
 import java.lang.String;
 
@@ -119,6 +122,79 @@ public class HDFSFileInterpreterTest extends TestCase {
 
       t.close();
     }
+
+    @Test
+    public void testListingCache() {
+      MockHDFSFileInterpreter t = new MockHDFSFileInterpreter(new Properties());
+      t.open();
+      MockHDFSCommand mockCmd = (MockHDFSCommand) t.cmd;
+
+      InterpreterResult result1 = t.interpret("ls -l /", null);
+      t.interpret("cd /user", null);
+      t.interpret("cd /", null);
+      int calls = mockCmd.calls.get();
+
+      // ls, cd and completion of the same directories are answered from the cache
+      InterpreterResult result2 = t.interpret("ls -l /", null);
+      t.interpret("cd /user", null);
+      t.interpret("cd /", null);
+      t.completion("ls us", 0, null);
+      assertEquals(calls, mockCmd.calls.get());
+      assertEquals(result1.message().get(0).getData(), result2.message().get(0).getData());
+
+      Properties properties = new Properties();
+      properties.setProperty(HDFSFileInterpreter.HDFS_CACHE_TTL, "0");
+      MockHDFSFileInterpreter noCache = new MockHDFSFileInterpreter(properties);
+      noCache.open();
+      MockHDFSCommand noCacheCmd = (MockHDFSCommand) noCache.cmd;
+      noCache.interpret("ls -l /", null);
+      calls = noCacheCmd.calls.get();
+      noCache.interpret("ls -l /", null);
+      assertEquals(2 * calls - 1, noCacheCmd.calls.get());
+
+      t.close();
+      noCache.close();
+    }
+
+    @Test
+    public void testRecursiveListing() {
+      HDFSFileInterpreter t = new MockHDFSFileInterpreter(new Properties());
+      t.open();
+
+      InterpreterResult result = t.interpret("ls -R /mr-history/done", null);
+      assertEquals(InterpreterResult.Code.SUCCESS, result.code());
+      assertEquals("/mr-history/done:\n2015\n\n/mr-history/done/2015:\n\n",
+          result.message().get(0).getData());
+
+      result = t.interpret("ls -R /", null);
+      String listing = result.message().get(0).getData();
+      assertTrue(listing.startsWith("/:\napp-logs\nhdp\n"));
+      assertTrue(listing.contains("/user:\nambari-qa\n"));
+      assertTrue(listing.contains("/user/ambari-qa:\n"));
+      assertTrue(listing.indexOf("/user:") < listing.indexOf("/user/ambari-qa:"));
+
+      t.close();
+    }
+
+    @Test
+    public void testListingInBatches() throws Exception {
+      Properties properties = new Properties();
+      properties.setProperty(HDFSFileInterpreter.HDFS_LISTING_BATCH, "true");
+      HDFSFileInterpreter t = new MockHDFSFileInterpreter(properties);
+      t.open();
+
+      InterpreterOutput out = new InterpreterOutput(null);
+      InterpreterContext context = new InterpreterContext("note", "id", null, "title", "text",
+          null, null, null, null, null, null, out);
+      InterpreterResult result = t.interpret("ls /batch", context);
+      assertEquals(InterpreterResult.Code.SUCCESS, result.code());
+      assertEquals(0, result.message().size());
+
+      out.flush();
+      assertEquals("a\nb\nc", out.toInterpreterResultMessage().get(0).getData().trim());
+
+      t.close();
+    }
   }
 
   /**
@@ -154,7 +230,20 @@ public class HDFSFileInterpreterTest extends TestCase {
           "]}}"
       );
     }
+    void addListStatusBatchData() {
+      mfs.put("/batch?op=LISTSTATUS_BATCH",
+          "{\"DirectoryListing\":{\"partialListing\":{\"FileStatuses\":{\"FileStatus\":[" +
+              "{\"pathSuffix\":\"a\",\"permission\":\"644\",\"type\":\"FILE\"}," +
+              "{\"pathSuffix\":\"b\",\"permission\":\"644\",\"type\":\"FILE\"}" +
+              "]}},\"remainingEntries\":1}}");
+      mfs.put("/batch?op=LISTSTATUS_BATCH&startAfter=b",
+          "{\"DirectoryListing\":{\"partialListing\":{\"FileStatuses\":{\"FileStatus\":[" +
+              "{\"pathSuffix\":\"c\",\"permission\":\"644\",\"type\":\"FILE\"}" +
+              "]}},\"remainingEntries\":0}}");
+    }
     void addGetFileStatusData() {
+      mfs.put("/batch?op=GETFILESTATUS",
+          "{\"FileStatus\":{\"pathSuffix\":\"\",\"permission\":\"755\",\"type\":\"DIRECTORY\"}}");
       mfs.put("/?op=GETFILESTATUS",
           "{\"FileStatus\":{\"accessTime\":0,\"blockSize\":0,\"childrenNum\":7,\"fileId\":16385,\"group\":\"hdfs\",\"length\":0,\"modificationTime\":1438548089725,\"owner\":\"hdfs\",\"pathSuffix\":\"\",\"permission\":\"755\",\"replication\":0,\"storagePolicy\":0,\"type\":\"DIRECTORY\"}}");
       mfs.put("/user?op=GETFILESTATUS",
@@ -169,6 +258,8 @@ public class HDFSFileInterpreterTest extends TestCase {
         addListStatusData();
       } else if (op.op.equals("GETFILESTATUS")) {
         addGetFileStatusData();
+      } else if (op.op.equals("LISTSTATUS_BATCH")) {
+        addListStatusBatchData();
       }
       // do nothing
     }
@@ -182,16 +273,19 @@ public class HDFSFileInterpreterTest extends TestCase {
    */
   class MockHDFSCommand extends HDFSCommand {
     MockFileSystem fs = null;
+    AtomicInteger calls = new AtomicInteger();
 
     public MockHDFSCommand(String url, String user, Logger logger) {
       super(url, user, logger, 1000);
       fs = new MockFileSystem();
       fs.addMockData(getFileStatus);
       fs.addMockData(listStatus);
+      fs.addMockData(listStatusBatch);
     }
 
     @Override
     public String runCommand(Op op, String path, Arg[] args) throws Exception {
+      calls.incrementAndGet();
 
       String error = checkArgs(op, path, args);
       assertNull(error);
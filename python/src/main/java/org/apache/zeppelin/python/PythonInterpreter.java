@@ -34,6 +34,9 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import org.apache.commons.exec.CommandLine;
@@ -90,9 +93,16 @@ public class PythonInterpreter extends Interpreter implements ExecuteResultHandl
   boolean pythonscriptRunning = false;
   private static final int MAX_TIMEOUT_SEC = 10;
 
+  private static final long STATEMENT_POLL_INTERVAL_MS = 100;
+
   private long pythonPid = 0;
 
-  Integer statementSetNotifier = new Integer(0);
+  // Statements handed to the python process and their results. Both ends block on the queues,
+  // so a request is picked up as soon as it is offered instead of after a wait/notify hop.
+  private final BlockingQueue<PythonInterpretRequest> requestQueue =
+      new LinkedBlockingQueue<>();
+  private final BlockingQueue<PythonInterpretResult> resultQueue =
+      new LinkedBlockingQueue<>();
 
   public PythonInterpreter(Properties property) {
     super(property);
@@ -250,17 +260,10 @@ public class PythonInterpreter extends Interpreter implements ExecuteResultHandl
     new File(scriptPath).delete();
     gatewayServer.shutdown();
 
-    // wait until getStatements stop
-    synchronized (statementSetNotifier) {
-      try {
-        statementSetNotifier.wait(1500);
-      } catch (InterruptedException e) {
-      }
-      statementSetNotifier.notify();
-    }
+    requestQueue.clear();
+    resultQueue.clear();
   }
 
-  PythonInterpretRequest pythonInterpretRequest = null;
   /**
    * Result class of python interpreter
    */
@@ -276,30 +279,57 @@ public class PythonInterpreter extends Interpreter implements ExecuteResultHandl
     }
   }
 
+  /**
+   * Result of a statement executed by the python process
+   */
+  static class PythonInterpretResult {
+    final String output;
+    final boolean error;
+
+    PythonInterpretResult(String output, boolean error) {
+      this.output = output;
+      this.error = error;
+    }
+  }
+
+  /**
+   * Called by the python process to take the next statement. Blocks until a statement is
+   * available and returns null once the interpreter is closed.
+   */
   public PythonInterpretRequest getStatements() {
-    synchronized (statementSetNotifier) {
-      while (pythonInterpretRequest == null && pythonscriptRunning && pythonScriptInitialized) {
-        try {
-          statementSetNotifier.wait(1000);
-        } catch (InterruptedException e) {
+    while (pythonscriptRunning && pythonScriptInitialized) {
+      try {
+        PythonInterpretRequest req =
+            requestQueue.poll(STATEMENT_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (req != null) {
+          return req;
         }
+      } catch (InterruptedException e) {
+        return null;
       }
-      PythonInterpretRequest req = pythonInterpretRequest;
-      pythonInterpretRequest = null;
-      return req;
     }
+    return null;
   }
 
-  String statementOutput = null;
-  boolean statementError = false;
-  Integer statementFinishedNotifier = new Integer(0);
-
   public void setStatementsFinished(String out, boolean error) {
-    synchronized (statementFinishedNotifier) {
-      statementOutput = out;
-      statementError = error;
-      statementFinishedNotifier.notify();
+    resultQueue.offer(new PythonInterpretResult(out, error));
+  }
+
+  private PythonInterpretResult sendStatements(String statements) {
+    resultQueue.clear();
+    requestQueue.offer(new PythonInterpretRequest(statements));
+    while (pythonscriptRunning) {
+      try {
+        PythonInterpretResult result =
+            resultQueue.poll(STATEMENT_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (result != null) {
+          return result;
+        }
+      } catch (InterruptedException e) {
+        break;
+      }
     }
+    return new PythonInterpretResult("python process is terminated", true);
   }
 
   boolean pythonScriptInitialized = false;
@@ -313,6 +343,10 @@ public class PythonInterpreter extends Interpreter implements ExecuteResultHandl
     }
   }
 
+  /**
+   * Called by the python process with a chunk of output. The python side buffers stdout and
+   * sends it in chunks, so output keeps streaming without one gateway call per write.
+   */
   public void appendOutput(String message) throws IOException {
     outputStream.getInterpreterOutput().write(message);
   }
@@ -365,24 +399,10 @@ public class PythonInterpreter extends Interpreter implements ExecuteResultHandl
       return new InterpreterResult(Code.ERROR, errorMessage);
     }
 
-    pythonInterpretRequest = new PythonInterpretRequest(cmd);
-    statementOutput = null;
-
-    synchronized (statementSetNotifier) {
-      statementSetNotifier.notify();
-    }
-
-    synchronized (statementFinishedNotifier) {
-      while (statementOutput == null) {
-        try {
-          statementFinishedNotifier.wait(1000);
-        } catch (InterruptedException e) {
-        }
-      }
-    }
+    PythonInterpretResult result = sendStatements(cmd);
 
-    if (statementError) {
-      return new InterpreterResult(Code.ERROR, statementOutput);
+    if (result.error) {
+      return new InterpreterResult(Code.ERROR, result.output);
     } else {
 
       try {
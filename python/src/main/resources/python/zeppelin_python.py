@@ -15,7 +15,7 @@
 # limitations under the License.
 #
 
-import os, sys, getopt, traceback, json, re
+import os, sys, getopt, traceback, json, re, csv
 
 from py4j.java_gateway import java_import, JavaGateway, GatewayClient
 from py4j.protocol import Py4JJavaError, Py4JNetworkError
@@ -24,6 +24,7 @@ import ast
 import traceback
 import warnings
 import signal
+import threading
 
 from io import BytesIO
 try:
@@ -34,17 +35,44 @@ except ImportError:
 # for back compatibility
 
 class Logger(object):
-  def __init__(self):
-    pass
+  """Buffers stdout and sends it to the interpreter in chunks.
+
+  A chunk is sent once it grows past max_chunk_size, or at most flush_interval
+  seconds after the first buffered write, so output keeps streaming while a
+  statement runs without costing one gateway call per write.
+  """
+  def __init__(self, max_chunk_size=8192, flush_interval=0.1):
+    self.max_chunk_size = max_chunk_size
+    self.flush_interval = flush_interval
+    self.buffer = []
+    self.buffered_size = 0
+    self.lock = threading.RLock()
+    self.timer = None
 
   def write(self, message):
-    intp.appendOutput(message)
+    with self.lock:
+      self.buffer.append(message)
+      self.buffered_size += len(message)
+      if self.buffered_size >= self.max_chunk_size:
+        self.flush()
+      elif self.timer is None:
+        self.timer = threading.Timer(self.flush_interval, self.flush)
+        self.timer.daemon = True
+        self.timer.start()
 
   def reset(self):
-    pass
+    self.flush()
 
   def flush(self):
-    pass
+    with self.lock:
+      if self.timer is not None:
+        self.timer.cancel()
+        self.timer = None
+      if self.buffered_size > 0:
+        chunk = ''.join(self.buffer)
+        self.buffer = []
+        self.buffered_size = 0
+        intp.appendOutput(chunk)
 
 
 class PyZeppelinContext(object):
@@ -96,37 +124,39 @@ class PyZeppelinContext(object):
 
   def show_dataframe(self, df, show_index=False, **kwargs):
     """Pretty prints DF using Table Display System
+
+    Numeric columns are formatted column by column through DataFrame.to_csv
+    instead of calling str() on each cell, which keeps wide tables cheap to
+    render. Other columns are still formatted by str().
     """
     limit = len(df) > self.max_result
-    header_buf = StringIO("")
+    rows = df.head(self.max_result) if limit else df
+    rows = rows.copy()
+    rows.columns = range(len(df.columns))
+    for col in rows.columns:
+      # object and category columns may hold None, quotes, tabs or newlines
+      if rows[col].dtype.kind == 'O':
+        rows[col] = rows[col].astype(object).map(self.table_cell)
     if show_index:
-      idx_name = str(df.index.name) if df.index.name is not None else ""
-      header_buf.write(idx_name + "\t")
-    header_buf.write(str(df.columns[0]))
-    for col in df.columns[1:]:
-      header_buf.write("\t")
-      header_buf.write(str(col))
-    header_buf.write("\n")
-
-    body_buf = StringIO("")
-    rows = df.head(self.max_result).values if limit else df.values
-    index = df.index.values
-    for idx, row in zip(index, rows):
-      if show_index:
-        body_buf.write("%html <strong>{}</strong>".format(idx))
-        body_buf.write("\t")
-      body_buf.write(str(row[0]))
-      for cell in row[1:]:
-        body_buf.write("\t")
-        body_buf.write(str(cell))
-      body_buf.write("\n")
-    body_buf.seek(0); header_buf.seek(0)
+      rows.index = ["%html <strong>{}</strong>".format(self.table_cell(idx))
+                    for idx in rows.index.values]
+      idx_name = self.table_cell(df.index.name) if df.index.name is not None else ""
+    else:
+      idx_name = False
+    buf = StringIO()
+    # cells are never quoted, '\0' is only set because the writer needs a quotechar
+    rows.to_csv(buf, sep="\t", na_rep="nan", index=show_index, index_label=idx_name,
+                header=[self.table_cell(col) for col in df.columns],
+                quoting=csv.QUOTE_NONE, quotechar="\0")
     #TODO(bzz): fix it, so it shows red notice, as in Spark
-    print("%table " + header_buf.read() + body_buf.read()) # +
+    print("%table " + buf.getvalue()) # +
     #      ("\n<font color=red>Results are limited by {}.</font>" \
     #          .format(self.max_result) if limit else "")
-    #)
-    body_buf.close(); header_buf.close()
+
+  def table_cell(self, value):
+    """Formats a cell like str(), without the separators of the Table Display System
+    """
+    return str(value).replace("\t", " ").replace("\r", " ").replace("\n", " ")
 
   def show_matplotlib(self, p, fmt="png", width="auto", height="auto",
                       **kwargs):
@@ -281,17 +311,20 @@ while True :
       except:
         raise Exception(traceback.format_exc())
 
+    output.flush()
     intp.setStatementsFinished("", False)
   except Py4JJavaError:
     excInnerError = traceback.format_exc() # format_tb() does not return the inner exception
     innerErrorStart = excInnerError.find("Py4JJavaError:")
     if innerErrorStart > -1:
        excInnerError = excInnerError[innerErrorStart:]
+    output.flush()
     intp.setStatementsFinished(excInnerError + str(sys.exc_info()), True)
   except Py4JNetworkError:
     # lost connection from gateway server. exit
     sys.exit(1)
   except:
+    output.flush()
     intp.setStatementsFinished(traceback.format_exc(), True)
 
   output.reset()
@@ -42,8 +42,11 @@ import org.apache.zeppelin.interpreter.InterpreterResultMessageOutput;
 import org.apache.zeppelin.resource.LocalResourcePool;
 import org.apache.zeppelin.user.AuthenticationInfo;
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * In order for this test to work, test env must have installed:
@@ -60,6 +63,7 @@ import org.junit.Test;
  * </code>
  */
 public class PythonInterpreterPandasSqlTest implements InterpreterOutputListener {
+  private static final Logger LOG = LoggerFactory.getLogger(PythonInterpreterPandasSqlTest.class);
 
   private InterpreterGroup intpGroup;
   private PythonInterpreterPandasSql sql;
@@ -182,6 +186,72 @@ public class PythonInterpreterPandasSqlTest implements InterpreterOutputListener
     assertTrue(new String(out.getOutputAt(0).toByteArray()).contains("6.7"));
   }
 
+  @Test
+  public void showDataFrameWithSeparatorsAndNone() throws IOException {
+    InterpreterResult ret;
+    ret = python.interpret("import pandas as pd", context);
+    ret = python.interpret("import numpy as np", context);
+
+    // given cells with quotes, tabs, newlines, None and nan
+    ret = python.interpret("df3 = pd.DataFrame({'text' : ['say \"hi\"', 'a\\tb', " +
+        "'c\\nd', None], 'num' : [1.5, np.nan, 2.0, 3.0]}, columns=['text', 'num'])", context);
+    assertEquals(ret.message().toString(), InterpreterResult.Code.SUCCESS, ret.code());
+
+    // when
+    ret = python.interpret("z.show(df3)", context);
+
+    // then
+    String table = new String(out.getOutputAt(0).toByteArray());
+    assertEquals(table, InterpreterResult.Code.SUCCESS, ret.code());
+    assertEquals(table, Type.TABLE, out.getOutputAt(0).getType());
+    assertTrue(table, table.contains("text\tnum\n"));
+    assertTrue(table, table.contains("\nsay \"hi\"\t1.5\n"));
+    assertTrue(table, table.contains("\na b\tnan\n"));
+    assertTrue(table, table.contains("\nc d\t2.0\n"));
+    assertTrue(table, table.contains("\nNone\t3.0"));
+  }
+
+  /**
+   * Run with -Dzeppelin.benchmark=true
+   */
+  @Test
+  public void showWideDataFrameBenchmark() throws IOException {
+    Assume.assumeTrue(Boolean.getBoolean("zeppelin.benchmark"));
+    InterpreterResult ret;
+    ret = python.interpret("import pandas as pd", context);
+    ret = python.interpret("import numpy as np", context);
+    ret = python.interpret("import time", context);
+    ret = python.interpret("wide = pd.DataFrame(np.random.rand(100000, 50), " +
+        "columns=['c' + str(i) for i in range(50)])", context);
+    assertEquals(ret.message().toString(), InterpreterResult.Code.SUCCESS, ret.code());
+    ret = python.interpret("z.max_result = 100000", context);
+
+    // the previous implementation called str() on every cell and wrote them one by one
+    ret = python.interpret(
+        "start = time.time()\n" +
+        "buf = []\n" +
+        "for row in wide.values:\n" +
+        "  buf.append(str(row[0]))\n" +
+        "  for cell in row[1:]:\n" +
+        "    buf.append('\\t')\n" +
+        "    buf.append(str(cell))\n" +
+        "  buf.append('\\n')\n" +
+        "legacy = time.time() - start", context);
+    assertEquals(ret.message().toString(), InterpreterResult.Code.SUCCESS, ret.code());
+
+    out.clear();
+    long start = System.currentTimeMillis();
+    ret = python.interpret("z.show(wide)", context);
+    long elapsed = System.currentTimeMillis() - start;
+    assertEquals(ret.message().toString(), InterpreterResult.Code.SUCCESS, ret.code());
+    assertEquals(Type.TABLE, out.getOutputAt(0).getType());
+
+    out.clear();
+    python.interpret("print('%.0f' % (legacy * 1000))", context);
+    LOG.info("z.show() of a 100000x50 DataFrame took {}ms, per-cell formatting alone took {}ms",
+        elapsed, new String(out.getOutputAt(0).toByteArray()).trim());
+  }
+
   @Override
   public void onUpdateAll(InterpreterOutput out) {
 
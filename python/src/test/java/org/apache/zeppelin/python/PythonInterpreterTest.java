@@ -46,10 +46,15 @@ import org.apache.zeppelin.interpreter.InterpreterResultMessageOutput;
 import org.apache.zeppelin.resource.LocalResourcePool;
 import org.apache.zeppelin.user.AuthenticationInfo;
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class PythonInterpreterTest implements InterpreterOutputListener {
+  private static final Logger LOG = LoggerFactory.getLogger(PythonInterpreterTest.class);
+
   PythonInterpreter pythonInterpreter = null;
   String cmdHistory;
   private InterpreterContext context;
@@ -119,6 +124,58 @@ public class PythonInterpreterTest implements InterpreterOutputListener {
     assertEquals(InterpreterResult.Code.SUCCESS, pythonInterpreter.interpret(pyValidCode, context).code());
   }
 
+  @Test
+  public void testConsecutiveStatementsGetTheirOwnResults() throws IOException {
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 50; i++) {
+      assertEquals(InterpreterResult.Code.SUCCESS,
+          pythonInterpreter.interpret("print(" + i + ")", context).code());
+      expected.append(i).append("\n");
+    }
+    out.flush();
+    assertEquals(expected.toString(), new String(out.getOutputAt(0).toByteArray()));
+
+    // a failed statement doesn't leave its result behind for the next one
+    assertEquals(InterpreterResult.Code.ERROR,
+        pythonInterpreter.interpret("raise ValueError('boom')", context).code());
+    assertEquals(InterpreterResult.Code.SUCCESS,
+        pythonInterpreter.interpret("print(1)", context).code());
+  }
+
+  @Test
+  public void testChunkedOutputIsComplete() throws IOException {
+    // more than one 8KB chunk of stdout
+    InterpreterResult result = pythonInterpreter.interpret(
+        "for i in range(2000):\n  print('line %d' % i)\n", context);
+    assertEquals(InterpreterResult.Code.SUCCESS, result.code());
+    out.flush();
+    String output = new String(out.getOutputAt(0).toByteArray());
+    assertTrue(output.startsWith("line 0\nline 1\n"));
+    assertTrue(output.endsWith("line 1998\nline 1999\n"));
+    assertEquals(2000, output.split("\n").length);
+  }
+
+  /**
+   * Run with -Dzeppelin.benchmark=true
+   */
+  @Test
+  public void benchmarkStatementRoundTrip() throws IOException {
+    Assume.assumeTrue(Boolean.getBoolean("zeppelin.benchmark"));
+    int warmup = 10;
+    int iterations = 100;
+    for (int i = 0; i < warmup; i++) {
+      pythonInterpreter.interpret("1+1", context);
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      pythonInterpreter.interpret("1+1", context);
+    }
+    long avgMicros = (System.nanoTime() - start) / iterations / 1000;
+    LOG.info("python statement round trip: {}us on average over {} runs of '1+1'",
+        avgMicros, iterations);
+  }
+
   @Override
   public void onUpdateAll(InterpreterOutput out) {
 
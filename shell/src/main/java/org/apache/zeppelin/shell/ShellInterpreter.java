@@ -47,9 +47,12 @@ import org.slf4j.LoggerFactory;
 public class ShellInterpreter extends KerberosInterpreter {
   private static final Logger LOGGER = LoggerFactory.getLogger(ShellInterpreter.class);
   private static final String TIMEOUT_PROPERTY = "shell.command.timeout.millisecs";
+  private static final String PERSISTENT_SESSION_PROPERTY = "shell.session.persistent";
   private final boolean isWindows = System.getProperty("os.name").startsWith("Windows");
   private final String shell = isWindows ? "cmd /c" : "bash -c";
   ConcurrentHashMap<String, DefaultExecutor> executors;
+  private ShellSession session;
+  private volatile String sessionParagraphId;
 
   public ShellInterpreter(Properties property) {
     super(property);
@@ -65,6 +68,12 @@ public class ShellInterpreter extends KerberosInterpreter {
   @Override
   public void close() {
     super.close();
+    synchronized (this) {
+      if (session != null) {
+        session.kill();
+        session = null;
+      }
+    }
     for (String executorKey : executors.keySet()) {
       DefaultExecutor executor = executors.remove(executorKey);
       if (executor != null) {
@@ -78,9 +87,53 @@ public class ShellInterpreter extends KerberosInterpreter {
   }
 
 
+  boolean isPersistentSession() {
+    return !isWindows && Boolean.parseBoolean(getProperty(PERSISTENT_SESSION_PROPERTY));
+  }
+
+  private synchronized ShellSession getSession() throws IOException {
+    if (session == null || !session.isAlive()) {
+      session = new ShellSession();
+    }
+    return session;
+  }
+
+  private InterpreterResult interpretInSession(String cmd, InterpreterContext contextInterpreter) {
+    OutputStream out = contextInterpreter.out != null ?
+        contextInterpreter.out : new ByteArrayOutputStream();
+    try {
+      ShellSession shellSession = getSession();
+      sessionParagraphId = contextInterpreter.getParagraphId();
+      int exitVal = shellSession.execute(cmd, out, Long.valueOf(getProperty(TIMEOUT_PROPERTY)));
+      LOGGER.info("Paragraph " + contextInterpreter.getParagraphId()
+          + " return with exit value: " + exitVal);
+      if (exitVal == 0) {
+        return new InterpreterResult(Code.SUCCESS, "");
+      }
+      Code code = Code.ERROR;
+      String message = "";
+      if (exitVal == ShellSession.EXIT_VALUE_SIGTERM) {
+        code = Code.INCOMPLETE;
+        message += "Paragraph received a SIGTERM\n";
+        LOGGER.info("The paragraph " + contextInterpreter.getParagraphId()
+            + " stopped executing: " + message);
+      }
+      message += "ExitValue: " + exitVal;
+      return new InterpreterResult(code, message);
+    } catch (IOException e) {
+      LOGGER.error("Can not run " + cmd, e);
+      return new InterpreterResult(Code.ERROR, e.getMessage());
+    } finally {
+      sessionParagraphId = null;
+    }
+  }
+
   @Override
   public InterpreterResult interpret(String cmd, InterpreterContext contextInterpreter) {
     LOGGER.debug("Run shell command '" + cmd + "'");
+    if (isPersistentSession()) {
+      return interpretInSession(cmd, contextInterpreter);
+    }
     OutputStream outStream = new ByteArrayOutputStream();
     
     CommandLine cmdLine = CommandLine.parse(shell);
@@ -125,6 +178,15 @@ public class ShellInterpreter extends KerberosInterpreter {
 
   @Override
   public void cancel(InterpreterContext context) {
+    if (isPersistentSession()) {
+      synchronized (this) {
+        if (session != null && context.getParagraphId() != null &&
+            context.getParagraphId().equals(sessionParagraphId)) {
+          session.kill();
+        }
+      }
+      return;
+    }
     DefaultExecutor executor = executors.remove(context.getParagraphId());
     if (executor != null) {
       try {
@@ -147,6 +209,11 @@ public class ShellInterpreter extends KerberosInterpreter {
 
   @Override
   public Scheduler getScheduler() {
+    if (isPersistentSession()) {
+      // commands of a session run one after another in the same shell
+      return SchedulerFactory.singleton().createOrGetFIFOScheduler(
+          ShellInterpreter.class.getName() + this.hashCode());
+    }
     return SchedulerFactory.singleton().createOrGetParallelScheduler(
         ShellInterpreter.class.getName() + this.hashCode(), 10);
   }
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.shell;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long lived bash process which runs commands one after another, so environment, working
+ * directory and shell variables carry over between paragraphs.
+ *
+ * Each command is passed through a quoted here-document and evaluated in the shell, followed
+ * by a sentinel line carrying its exit value. Output (stdout and stderr merged) is streamed
+ * to the given OutputStream until the sentinel shows up, holding back at most the sentinel
+ * length in memory. When available the shell is started with setsid, so cancel and timeout
+ * terminate the whole process group, including the commands started by the shell.
+ */
+public class ShellSession {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ShellSession.class);
+  private static final Charset ASCII = Charset.forName("US-ASCII");
+  private static final int READ_BUFFER_SIZE = 8192;
+  static final int EXIT_VALUE_SIGTERM = 143;
+
+  private static final ScheduledExecutorService WATCHDOG = Executors.newScheduledThreadPool(1,
+      new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread t = new Thread(r, "ShellSessionWatchdog");
+          t.setDaemon(true);
+          return t;
+        }
+      });
+
+  private final String id = UUID.randomUUID().toString().replace("-", "");
+  private final String delimiter = "ZEPPELIN_SHELL_EOF_" + id;
+  private final byte[] sentinel = ("__ZEPPELIN_SHELL_DONE_" + id + "__").getBytes(ASCII);
+  private final boolean processGroup;
+  private final Process process;
+  private final InputStream stdout;
+  private final OutputStream stdin;
+  private final int pid;
+  private volatile boolean killed = false;
+
+  public ShellSession() throws IOException {
+    processGroup = findSetsid() != null;
+    ProcessBuilder builder = processGroup ?
+        new ProcessBuilder(findSetsid(), "bash", "--noprofile", "--norc") :
+        new ProcessBuilder("bash", "--noprofile", "--norc");
+    builder.redirectErrorStream(true);
+    process = builder.start();
+    stdout = process.getInputStream();
+    stdin = process.getOutputStream();
+
+    stdin.write("echo $$\n".getBytes(ASCII));
+    stdin.flush();
+    pid = readPid();
+    LOGGER.info("Started shell session with pid " + pid
+        + (processGroup ? " in its own process group" : ""));
+  }
+
+  private static String findSetsid() {
+    for (String path : new String[]{"/usr/bin/setsid", "/bin/setsid"}) {
+      if (new File(path).canExecute()) {
+        return path;
+      }
+    }
+    return null;
+  }
+
+  private int readPid() throws IOException {
+    StringBuilder line = new StringBuilder();
+    int b;
+    while ((b = stdout.read()) != -1 && b != '\n') {
+      line.append((char) b);
+    }
+    try {
+      return Integer.parseInt(line.toString().trim());
+    } catch (NumberFormatException e) {
+      process.destroy();
+      throw new IOException("Can't start shell session: " + line);
+    }
+  }
+
+  public boolean isAlive() {
+    if (killed) {
+      return false;
+    }
+    try {
+      process.exitValue();
+      return false;
+    } catch (IllegalThreadStateException e) {
+      return true;
+    }
+  }
+
+  /**
+   * Run the command in this session and stream its output.
+   *
+   * @return exit value of the command, {@link #EXIT_VALUE_SIGTERM} when it was terminated
+   */
+  public synchronized int execute(String cmd, OutputStream out, long timeoutMs)
+      throws IOException {
+    String script = "IFS= read -r -d '' __zeppelin_cmd <<'" + delimiter + "'\n"
+        + cmd + "\n"
+        + delimiter + "\n"
+        + "eval \"$__zeppelin_cmd\" < /dev/null\n"
+        + "printf '%s%d\\n' '" + new String(sentinel, ASCII) + "' $?\n";
+
+    ScheduledFuture<?> watchdog = null;
+    if (timeoutMs > 0) {
+      watchdog = WATCHDOG.schedule(new Runnable() {
+        @Override
+        public void run() {
+          LOGGER.info("Shell session command timed out, terminating session " + pid);
+          kill();
+        }
+      }, timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    try {
+      stdin.write(script.getBytes(Charset.defaultCharset()));
+      stdin.flush();
+      return readOutput(out);
+    } catch (IOException e) {
+      if (killed) {
+        return EXIT_VALUE_SIGTERM;
+      }
+      throw e;
+    } finally {
+      if (watchdog != null) {
+        watchdog.cancel(false);
+      }
+      out.flush();
+    }
+  }
+
+  private int readOutput(OutputStream out) throws IOException {
+    byte[] buf = new byte[READ_BUFFER_SIZE + sentinel.length + 16];
+    int len = 0;
+    while (true) {
+      int n = stdout.read(buf, len, buf.length - len);
+      if (n < 0) {
+        out.write(buf, 0, len);
+        return sessionTerminated();
+      }
+      len += n;
+
+      int idx = indexOf(buf, len, sentinel, 0);
+      if (idx >= 0) {
+        out.write(buf, 0, idx);
+        int nl = indexOf(buf, len, new byte[]{'\n'}, idx + sentinel.length);
+        if (nl >= 0) {
+          String exitValue = new String(buf, idx + sentinel.length,
+              nl - idx - sentinel.length, ASCII);
+          return Integer.parseInt(exitValue.trim());
+        }
+        // wait for the rest of the sentinel line
+        System.arraycopy(buf, idx, buf, 0, len - idx);
+        len = len - idx;
+      } else {
+        // keep what could be the beginning of the sentinel
+        int keep = Math.min(len, sentinel.length - 1);
+        out.write(buf, 0, len - keep);
+        System.arraycopy(buf, len - keep, buf, 0, keep);
+        len = keep;
+      }
+    }
+  }
+
+  private int sessionTerminated() {
+    if (killed) {
+      return EXIT_VALUE_SIGTERM;
+    }
+    try {
+      return process.waitFor();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return EXIT_VALUE_SIGTERM;
+    }
+  }
+
+  private static int indexOf(byte[] buf, int len, byte[] pattern, int from) {
+    outer:
+    for (int i = from; i <= len - pattern.length; i++) {
+      for (int j = 0; j < pattern.length; j++) {
+        if (buf[i + j] != pattern[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Terminate the shell and everything it started. The session can't be used afterwards.
+   */
+  public void kill() {
+    killed = true;
+    if (pid > 0) {
+      try {
+        String target = processGroup ? "-" + pid : String.valueOf(pid);
+        new ProcessBuilder("kill", "-s", "TERM", "--", target).start().waitFor();
+      } catch (Exception e) {
+        LOGGER.warn("Can't send SIGTERM to shell session " + pid, e);
+      }
+    }
+    process.destroy();
+  }
+}
@@ -19,17 +19,26 @@ package org.apache.zeppelin.shell;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
 
+import java.io.IOException;
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
 
 import org.apache.zeppelin.interpreter.InterpreterContext;
+import org.apache.zeppelin.interpreter.InterpreterOutput;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.InterpreterResult.Code;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class ShellInterpreterTest {
+  private static final Logger LOG = LoggerFactory.getLogger(ShellInterpreterTest.class);
 
   private ShellInterpreter shell;
   private InterpreterContext context;
@@ -85,4 +94,114 @@ public class ShellInterpreterTest {
     assertEquals(Code.INCOMPLETE, result.code());
     assertTrue(result.message().get(0).getData().contains("Paragraph received a SIGTERM"));
   }
+
+  private ShellInterpreter createPersistentShell() {
+    Properties p = new Properties();
+    p.setProperty("shell.command.timeout.millisecs", "2000");
+    p.setProperty("shell.session.persistent", "true");
+    ShellInterpreter persistentShell = new ShellInterpreter(p);
+    persistentShell.open();
+    return persistentShell;
+  }
+
+  private InterpreterContext createContext(InterpreterOutput out) {
+    return new InterpreterContext("", "1", null, "", "", null, null, null, null, null, null, out);
+  }
+
+  private String output(InterpreterOutput out) throws IOException {
+    out.flush();
+    return new String(out.toByteArray());
+  }
+
+  @Test
+  public void testPersistentSession() throws IOException {
+    assumeFalse(System.getProperty("os.name").startsWith("Windows"));
+    ShellInterpreter persistentShell = createPersistentShell();
+    try {
+      result = persistentShell.interpret("export ZEPPELIN_TEST=session\ncd /", context);
+      assertEquals(Code.SUCCESS, result.code());
+
+      // environment and working directory carry over, stderr is streamed as well
+      InterpreterOutput out = new InterpreterOutput(null);
+      result = persistentShell.interpret("echo $ZEPPELIN_TEST; pwd; echo err >&2",
+          createContext(out));
+      assertEquals(Code.SUCCESS, result.code());
+      assertEquals("session\n/\nerr", output(out).trim());
+
+      result = persistentShell.interpret("false", context);
+      assertEquals(Code.ERROR, result.code());
+      assertTrue(result.message().get(0).getData().contains("ExitValue: 1"));
+
+      // timeout terminates the session, next paragraph starts a new one
+      result = persistentShell.interpret("sleep 4", context);
+      assertEquals(Code.INCOMPLETE, result.code());
+      assertTrue(result.message().get(0).getData().contains("Paragraph received a SIGTERM"));
+
+      out = new InterpreterOutput(null);
+      result = persistentShell.interpret("echo \"[$ZEPPELIN_TEST]\"", createContext(out));
+      assertEquals(Code.SUCCESS, result.code());
+      assertEquals("[]", output(out).trim());
+    } finally {
+      persistentShell.close();
+    }
+  }
+
+  @Test
+  public void testPersistentSessionReusesProcess() throws IOException {
+    assumeFalse(System.getProperty("os.name").startsWith("Windows"));
+    int commands = 100;
+
+    // without a session every paragraph starts its own bash
+    Set<String> pids = new HashSet<>();
+    for (int i = 0; i < 2; i++) {
+      InterpreterOutput out = new InterpreterOutput(null);
+      assertEquals(Code.SUCCESS, shell.interpret("echo $$", createContext(out)).code());
+      pids.add(output(out).trim());
+    }
+    assertEquals(2, pids.size());
+
+    pids.clear();
+    ShellInterpreter persistentShell = createPersistentShell();
+    try {
+      for (int i = 0; i < commands; i++) {
+        InterpreterOutput out = new InterpreterOutput(null);
+        assertEquals(Code.SUCCESS,
+            persistentShell.interpret("echo $$", createContext(out)).code());
+        pids.add(output(out).trim());
+      }
+    } finally {
+      persistentShell.close();
+    }
+    assertEquals(1, pids.size());
+  }
+
+  /**
+   * Run with -Dzeppelin.benchmark=true
+   */
+  @Test
+  public void benchmarkShortCommands() throws IOException {
+    assumeFalse(System.getProperty("os.name").startsWith("Windows"));
+    assumeTrue(Boolean.getBoolean("zeppelin.benchmark"));
+    int commands = 1000;
+
+    long start = System.nanoTime();
+    for (int i = 0; i < commands; i++) {
+      assertEquals(Code.SUCCESS, shell.interpret("echo " + i, context).code());
+    }
+    long processMicros = (System.nanoTime() - start) / commands / 1000;
+
+    ShellInterpreter persistentShell = createPersistentShell();
+    try {
+      start = System.nanoTime();
+      for (int i = 0; i < commands; i++) {
+        assertEquals(Code.SUCCESS, persistentShell.interpret("echo " + i, context).code());
+      }
+    } finally {
+      persistentShell.close();
+    }
+    long sessionMicros = (System.nanoTime() - start) / commands / 1000;
+
+    LOG.info("{} short commands: {}us per command with a process per paragraph, "
+        + "{}us in a persistent session", commands, processMicros, sessionMicros);
+  }
 }
@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.spark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.spark.SparkConf;
+import org.apache.spark.scheduler.SparkListenerJobEnd;
+import org.apache.spark.scheduler.SparkListenerJobStart;
+import org.apache.spark.scheduler.SparkListenerStageCompleted;
+import org.apache.spark.scheduler.SparkListenerStageSubmitted;
+import org.apache.spark.scheduler.SparkListenerTaskEnd;
+import org.apache.spark.scheduler.StageInfo;
+import org.apache.spark.ui.jobs.JobProgressListener;
+import org.apache.zeppelin.interpreter.BaseZeppelinContext;
+import org.apache.zeppelin.interpreter.InterpreterContext;
+import org.apache.zeppelin.interpreter.remote.RemoteEventClientWrapper;
+
+import scala.collection.JavaConversions;
+
+/**
+ * Spark listener that keeps, for each job group (i.e. each paragraph), the number of
+ * total and completed tasks of its active jobs. Counters are updated on job, stage and task
+ * events so that the progress of a paragraph is a simple lookup. The progress is pushed into
+ * the context of the paragraph when it is registered, and the outcome of each stage is sent
+ * to the paragraph as runtime info.
+ */
+public class JobGroupProgressListener extends JobProgressListener {
+
+  private static final String JOB_GROUP_ID = "spark.jobGroup.id";
+  static final String STAGE_INFO = "stageInfo";
+
+  /**
+   * Tasks counters of a job or of a job group.
+   */
+  static class TaskCounters {
+    final String jobGroupId;
+    final AtomicInteger totalTasks = new AtomicInteger();
+    final AtomicInteger completedTasks = new AtomicInteger();
+    final AtomicInteger activeJobs = new AtomicInteger();
+    final List<Integer> stageIds = new ArrayList<>();
+
+    TaskCounters(String jobGroupId) {
+      this.jobGroupId = jobGroupId;
+    }
+
+    int getProgress() {
+      int total = totalTasks.get();
+      if (total <= 0) {
+        return 0;
+      }
+      return Math.min(100, completedTasks.get() * 100 / total);
+    }
+  }
+
+  /**
+   * A stage of an active job.
+   */
+  static class StageProgress {
+    final int stageId;
+    final String name;
+    final int numTasks;
+    final List<Integer> parentIds;
+    final TaskCounters job;
+    boolean submitted;
+    boolean skipped;
+
+    StageProgress(StageInfo stageInfo, TaskCounters job) {
+      this.stageId = stageInfo.stageId();
+      this.name = stageInfo.name();
+      this.numTasks = stageInfo.numTasks();
+      this.parentIds = new ArrayList<>();
+      for (Object parentId : JavaConversions.seqAsJavaList(stageInfo.parentIds())) {
+        parentIds.add((Integer) parentId);
+      }
+      this.job = job;
+    }
+  }
+
+  final Map<String, TaskCounters> jobGroups = new ConcurrentHashMap<>();
+  final Map<Integer, TaskCounters> jobs = new ConcurrentHashMap<>();
+  final Map<Integer, StageProgress> stages = new ConcurrentHashMap<>();
+  final Map<String, InterpreterContext> contexts = new ConcurrentHashMap<>();
+  private volatile String sparkUrl;
+
+  public JobGroupProgressListener(SparkConf conf) {
+    super(conf);
+  }
+
+  public void setSparkUrl(String sparkUrl) {
+    this.sparkUrl = sparkUrl;
+  }
+
+  /**
+   * Register the context of the paragraph that will start the jobs of the given job group.
+   * The progress of these jobs is then pushed into this context.
+   */
+  public void registerContext(String jobGroupId, InterpreterContext context) {
+    contexts.put(jobGroupId, context);
+  }
+
+  /**
+   * Unregister the context of a finished paragraph. A context registered since by another run
+   * of the same paragraph is kept.
+   */
+  public void unregisterContext(String jobGroupId, InterpreterContext context) {
+    contexts.remove(jobGroupId, context);
+  }
+
+  /**
+   * @return progress (from 0 to 100) of the active jobs of the job group
+   */
+  public int getProgress(String jobGroupId) {
+    TaskCounters counters = jobGroups.get(jobGroupId);
+    return counters == null ? 0 : counters.getProgress();
+  }
+
+  @Override
+  public synchronized void onJobStart(SparkListenerJobStart jobStart) {
+    super.onJobStart(jobStart);
+    int jobId = jobStart.jobId();
+    String jobGroupId = jobStart.properties() == null ?
+        null : jobStart.properties().getProperty(JOB_GROUP_ID);
+    if (jobGroupId == null) {
+      return;
+    }
+
+    TaskCounters job = new TaskCounters(jobGroupId);
+    for (StageInfo stageInfo : JavaConversions.seqAsJavaList(jobStart.stageInfos())) {
+      job.totalTasks.addAndGet(stageInfo.numTasks());
+      job.stageIds.add(stageInfo.stageId());
+      stages.put(stageInfo.stageId(), new StageProgress(stageInfo, job));
+    }
+    jobs.put(jobId, job);
+
+    TaskCounters jobGroup = jobGroups.get(jobGroupId);
+    if (jobGroup == null) {
+      jobGroup = new TaskCounters(jobGroupId);
+      jobGroups.put(jobGroupId, jobGroup);
+    }
+    jobGroup.activeJobs.incrementAndGet();
+    jobGroup.totalTasks.addAndGet(job.totalTasks.get());
+    pushProgress(jobGroup);
+
+    sendJobUrl(jobId, jobGroupId, jobStart.properties().getProperty("spark.ui.enabled"));
+  }
+
+  @Override
+  public synchronized void onStageSubmitted(SparkListenerStageSubmitted stageSubmitted) {
+    super.onStageSubmitted(stageSubmitted);
+    StageProgress stage = stages.get(stageSubmitted.stageInfo().stageId());
+    if (stage == null) {
+      return;
+    }
+    stage.submitted = true;
+    // a stage only runs once the output of its parents is available, so the parents that
+    // were not submitted are skipped and their tasks will never run
+    skipParents(stage);
+    TaskCounters jobGroup = jobGroups.get(stage.job.jobGroupId);
+    if (jobGroup != null) {
+      pushProgress(jobGroup);
+    }
+  }
+
+  private void skipParents(StageProgress stage) {
+    for (Integer parentId : stage.parentIds) {
+      StageProgress parent = stages.get(parentId);
+      if (parent == null || parent.job != stage.job || parent.submitted || parent.skipped) {
+        continue;
+      }
+      parent.skipped = true;
+      parent.job.totalTasks.addAndGet(-parent.numTasks);
+      TaskCounters jobGroup = jobGroups.get(parent.job.jobGroupId);
+      if (jobGroup != null) {
+        jobGroup.totalTasks.addAndGet(-parent.numTasks);
+      }
+      sendStageInfo(parent, "skipped");
+      skipParents(parent);
+    }
+  }
+
+  @Override
+  public synchronized void onStageCompleted(SparkListenerStageCompleted stageCompleted) {
+    super.onStageCompleted(stageCompleted);
+    StageInfo stageInfo = stageCompleted.stageInfo();
+    StageProgress stage = stages.get(stageInfo.stageId());
+    if (stage == null) {
+      return;
+    }
+    sendStageInfo(stage, stageInfo.failureReason().isDefined() ? "failed" : "completed");
+  }
+
+  @Override
+  public synchronized void onTaskEnd(SparkListenerTaskEnd taskEnd) {
+    super.onTaskEnd(taskEnd);
+    if (taskEnd.taskInfo() == null || !taskEnd.taskInfo().successful()) {
+      return;
+    }
+
+    StageProgress stage = stages.get(taskEnd.stageId());
+    if (stage == null) {
+      return;
+    }
+    TaskCounters job = stage.job;
+    job.completedTasks.incrementAndGet();
+
+    TaskCounters jobGroup = jobGroups.get(job.jobGroupId);
+    if (jobGroup != null) {
+      jobGroup.completedTasks.incrementAndGet();
+      pushProgress(jobGroup);
+    }
+  }
+
+  @Override
+  public synchronized void onJobEnd(SparkListenerJobEnd jobEnd) {
+    super.onJobEnd(jobEnd);
+    TaskCounters job = jobs.remove(jobEnd.jobId());
+    if (job == null) {
+      return;
+    }
+    for (Integer stageId : job.stageIds) {
+      StageProgress stage = stages.get(stageId);
+      if (stage != null && stage.job == job) {
+        stages.remove(stageId);
+      }
+    }
+
+    TaskCounters jobGroup = jobGroups.get(job.jobGroupId);
+    if (jobGroup != null) {
+      if (jobGroup.activeJobs.decrementAndGet() <= 0) {
+        jobGroups.remove(job.jobGroupId);
+      } else {
+        // Only the active jobs are taken into account, as the former implementation did
+        jobGroup.totalTasks.addAndGet(-job.totalTasks.get());
+        jobGroup.completedTasks.addAndGet(-job.completedTasks.get());
+        pushProgress(jobGroup);
+      }
+    }
+  }
+
+  private void pushProgress(TaskCounters jobGroup) {
+    InterpreterContext context = contexts.get(jobGroup.jobGroupId);
+    if (context != null) {
+      context.setProgress(jobGroup.getProgress());
+    }
+  }
+
+  RemoteEventClientWrapper getEventClient() {
+    return BaseZeppelinContext.getEventClient();
+  }
+
+  private void sendStageInfo(StageProgress stage, String outcome) {
+    RemoteEventClientWrapper eventClient = getEventClient();
+    if (eventClient == null) {
+      return;
+    }
+    String jobGroupId = stage.job.jobGroupId;
+    Map<String, String> infos = new java.util.HashMap<>();
+    infos.put(STAGE_INFO, "Stage " + stage.stageId + " (" + stage.name + "): "
+        + stage.numTasks + " tasks, " + outcome);
+    infos.put("label", "SPARK STAGE");
+    infos.put("tooltip", "Stages of the Spark jobs run by the paragraph");
+    eventClient.onParaInfosReceived(Utils.getNoteId(jobGroupId),
+        Utils.getParagraphId(jobGroupId), infos);
+  }
+
+  private void sendJobUrl(int jobId, String jobGroupId, String uiEnabled) {
+    // Button visible if Spark UI property not set, set as invalid boolean or true
+    boolean showSparkUI = uiEnabled == null || !uiEnabled.trim().toLowerCase().equals("false");
+    if (!showSparkUI || sparkUrl == null) {
+      return;
+    }
+
+    RemoteEventClientWrapper eventClient = getEventClient();
+    if (eventClient != null) {
+      Map<String, String> infos = new java.util.HashMap<>();
+      infos.put("jobUrl", sparkUrl + "/jobs/job?id=" + jobId);
+      infos.put("label", "SPARK JOB");
+      infos.put("tooltip", "View in Spark web UI");
+      eventClient.onParaInfosReceived(Utils.getNoteId(jobGroupId),
+          Utils.getParagraphId(jobGroupId), infos);
+    }
+  }
+}
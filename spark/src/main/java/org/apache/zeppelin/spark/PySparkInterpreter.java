@@ -33,6 +33,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.compress.utils.IOUtils;
 import org.apache.commons.exec.CommandLine;
@@ -74,6 +77,7 @@ public class PySparkInterpreter extends Interpreter implements ExecuteResultHand
   private String scriptPath;
   boolean pythonscriptRunning = false;
   private static final int MAX_TIMEOUT_SEC = 10;
+  private static final long STATEMENT_POLL_INTERVAL_MS = 100;
   private long pythonPid;
 
   public PySparkInterpreter(Properties property) {
@@ -266,9 +270,16 @@ public class PySparkInterpreter extends Interpreter implements ExecuteResultHand
     executor.getWatchdog().destroyProcess();
     new File(scriptPath).delete();
     gatewayServer.shutdown();
+    requestQueue.clear();
+    resultQueue.clear();
   }
 
-  PythonInterpretRequest pythonInterpretRequest = null;
+  // Statements handed to the python process and their results. Both ends block on the queues,
+  // so a request is picked up as soon as it is offered instead of after a wait/notify hop.
+  private final BlockingQueue<PythonInterpretRequest> requestQueue =
+      new LinkedBlockingQueue<>();
+  private final BlockingQueue<PythonInterpretResult> resultQueue =
+      new LinkedBlockingQueue<>();
 
   /**
    *
@@ -298,33 +309,66 @@ public class PySparkInterpreter extends Interpreter implements ExecuteResultHand
     }
   }
 
-  Integer statementSetNotifier = new Integer(0);
+  /**
+   * Result of a statement executed by the python process
+   */
+  static class PythonInterpretResult {
+    final String output;
+    final boolean error;
+
+    PythonInterpretResult(String output, boolean error) {
+      this.output = output;
+      this.error = error;
+    }
+  }
 
+  /**
+   * Called by the python process to take the next statement. Blocks until a statement is
+   * available and returns null once the python process is gone.
+   */
   public PythonInterpretRequest getStatements() {
-    synchronized (statementSetNotifier) {
-      while (pythonInterpretRequest == null) {
-        try {
-          statementSetNotifier.wait(1000);
-        } catch (InterruptedException e) {
+    while (pythonscriptRunning) {
+      try {
+        PythonInterpretRequest req =
+            requestQueue.poll(STATEMENT_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (req != null) {
+          return req;
         }
+      } catch (InterruptedException e) {
+        return null;
       }
-      PythonInterpretRequest req = pythonInterpretRequest;
-      pythonInterpretRequest = null;
-      return req;
     }
+    return null;
   }
 
-  String statementOutput = null;
-  boolean statementError = false;
-  Integer statementFinishedNotifier = new Integer(0);
-
   public void setStatementsFinished(String out, boolean error) {
-    synchronized (statementFinishedNotifier) {
-      LOGGER.debug("Setting python statement output: " + out + ", error: " + error);
-      statementOutput = out;
-      statementError = error;
-      statementFinishedNotifier.notify();
+    LOGGER.debug("Setting python statement output: " + out + ", error: " + error);
+    resultQueue.offer(new PythonInterpretResult(out, error));
+  }
+
+  /**
+   * Hands statements to the python process and waits for the result.
+   *
+   * @param timeoutMs maximum time to wait for the result, or 0 to wait as long as the
+   *                  python process is running
+   * @return the result, or null when the python process didn't respond in time
+   */
+  private PythonInterpretResult sendStatements(PythonInterpretRequest request, long timeoutMs)
+      throws InterruptedException {
+    resultQueue.clear();
+    requestQueue.offer(request);
+    long startTime = System.currentTimeMillis();
+    while (pythonscriptRunning) {
+      PythonInterpretResult result =
+          resultQueue.poll(STATEMENT_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+      if (result != null) {
+        return result;
+      }
+      if (timeoutMs > 0 && System.currentTimeMillis() - startTime > timeoutMs) {
+        break;
+      }
     }
+    return null;
   }
 
   boolean pythonScriptInitialized = false;
@@ -339,6 +383,10 @@ public class PySparkInterpreter extends Interpreter implements ExecuteResultHand
     }
   }
 
+  /**
+   * Called by the python process with a chunk of output. The python side buffers stdout and
+   * sends it in chunks, so output keeps streaming without one gateway call per write.
+   */
   public void appendOutput(String message) throws IOException {
     LOGGER.debug("Output from python process: " + message);
     outputStream.getInterpreterOutput().write(message);
@@ -406,24 +454,20 @@ public class PySparkInterpreter extends Interpreter implements ExecuteResultHand
     SparkZeppelinContext __zeppelin__ = sparkInterpreter.getZeppelinContext();
     __zeppelin__.setInterpreterContext(context);
     __zeppelin__.setGui(context.getGui());
-    pythonInterpretRequest = new PythonInterpretRequest(st, jobGroup, jobDesc);
-    statementOutput = null;
-
-    synchronized (statementSetNotifier) {
-      statementSetNotifier.notify();
-    }
-
-    synchronized (statementFinishedNotifier) {
-      while (statementOutput == null) {
-        try {
-          statementFinishedNotifier.wait(1000);
-        } catch (InterruptedException e) {
-        }
-      }
+    PythonInterpretResult result;
+    sparkInterpreter.trackProgress(context);
+    try {
+      result = sendStatements(new PythonInterpretRequest(st, jobGroup, jobDesc), 0);
+    } catch (InterruptedException e) {
+      return new InterpreterResult(Code.ERROR, "interrupted while waiting for pyspark");
+    } finally {
+      sparkInterpreter.untrackProgress(context);
     }
 
-    if (statementError) {
-      return new InterpreterResult(Code.ERROR, statementOutput);
+    if (result == null) {
+      return new InterpreterResult(Code.ERROR, "pyspark process is terminated");
+    } else if (result.error) {
+      return new InterpreterResult(Code.ERROR, result.output);
     } else {
 
       try {
@@ -484,36 +528,23 @@ public class PySparkInterpreter extends Interpreter implements ExecuteResultHand
       return new LinkedList<>();
     }
 
-    pythonInterpretRequest = new PythonInterpretRequest(completionCommand, "", "");
-    statementOutput = null;
-
-    synchronized (statementSetNotifier) {
-      statementSetNotifier.notify();
+    PythonInterpretResult result;
+    try {
+      result = sendStatements(new PythonInterpretRequest(completionCommand, "", ""),
+          MAX_TIMEOUT_SEC * 1000);
+    } catch (InterruptedException e) {
+      LOGGER.info("wait drop");
+      return new LinkedList<>();
     }
-
-    String[] completionList = null;
-    synchronized (statementFinishedNotifier) {
-      long startTime = System.currentTimeMillis();
-      while (statementOutput == null
-        && pythonscriptRunning) {
-        try {
-          if (System.currentTimeMillis() - startTime > MAX_TIMEOUT_SEC * 1000) {
-            LOGGER.error("pyspark completion didn't have response for {}sec.", MAX_TIMEOUT_SEC);
-            break;
-          }
-          statementFinishedNotifier.wait(1000);
-        } catch (InterruptedException e) {
-          // not working
-          LOGGER.info("wait drop");
-          return new LinkedList<>();
-        }
-      }
-      if (statementError) {
-        return new LinkedList<>();
-      }
-      Gson gson = new Gson();
-      completionList = gson.fromJson(statementOutput, String[].class);
+    if (result == null) {
+      LOGGER.error("pyspark completion didn't have response for {}sec.", MAX_TIMEOUT_SEC);
+      return new LinkedList<>();
+    }
+    if (result.error) {
+      return new LinkedList<>();
     }
+    Gson gson = new Gson();
+    String[] completionList = gson.fromJson(result.output, String[].class);
     //end code for completion
 
     if (completionList == null) {
@@ -150,6 +150,7 @@ public class SparkRInterpreter extends Interpreter {
     logger.debug("set JobGroup:" + setJobGroup);
     lines = setJobGroup + "\n" + lines;
 
+    sparkInterpreter.trackProgress(interpreterContext);
     try {
       // render output with knitr
       if (useKnitr()) {
@@ -175,10 +176,7 @@ public class SparkRInterpreter extends Interpreter {
       logger.error("Exception while connecting to R", e);
       return new InterpreterResult(InterpreterResult.Code.ERROR, e.getMessage());
     } finally {
-      try {
-      } catch (Exception e) {
-        // Do nothing...
-      }
+      sparkInterpreter.untrackProgress(interpreterContext);
     }
   }
 
@@ -105,32 +105,37 @@ public class SparkSqlInterpreter extends Interpreter {
       sc.setLocalProperty("spark.scheduler.pool", null);
     }
 
-    String jobDesc = "Started by: " + Utils.getUserName(context.getAuthenticationInfo());
-    sc.setJobGroup(Utils.buildJobGroupId(context), jobDesc, false);
-    Object rdd = null;
+    sparkInterpreter.trackProgress(context);
     try {
-      // method signature of sqlc.sql() is changed
-      // from  def sql(sqlText: String): SchemaRDD (1.2 and prior)
-      // to    def sql(sqlText: String): DataFrame (1.3 and later).
-      // Therefore need to use reflection to keep binary compatibility for all spark versions.
-      Method sqlMethod = sqlc.getClass().getMethod("sql", String.class);
-      rdd = sqlMethod.invoke(sqlc, st);
-    } catch (InvocationTargetException ite) {
-      if (Boolean.parseBoolean(getProperty("zeppelin.spark.sql.stacktrace"))) {
-        throw new InterpreterException(ite);
+      String jobDesc = "Started by: " + Utils.getUserName(context.getAuthenticationInfo());
+      sc.setJobGroup(Utils.buildJobGroupId(context), jobDesc, false);
+      Object rdd = null;
+      try {
+        // method signature of sqlc.sql() is changed
+        // from  def sql(sqlText: String): SchemaRDD (1.2 and prior)
+        // to    def sql(sqlText: String): DataFrame (1.3 and later).
+        // Therefore need to use reflection to keep binary compatibility for all spark versions.
+        Method sqlMethod = sqlc.getClass().getMethod("sql", String.class);
+        rdd = sqlMethod.invoke(sqlc, st);
+      } catch (InvocationTargetException ite) {
+        if (Boolean.parseBoolean(getProperty("zeppelin.spark.sql.stacktrace"))) {
+          throw new InterpreterException(ite);
+        }
+        logger.error("Invocation target exception", ite);
+        String msg = ite.getTargetException().getMessage()
+                + "\nset zeppelin.spark.sql.stacktrace = true to see full stacktrace";
+        return new InterpreterResult(Code.ERROR, msg);
+      } catch (NoSuchMethodException | SecurityException | IllegalAccessException
+          | IllegalArgumentException e) {
+        throw new InterpreterException(e);
       }
-      logger.error("Invocation target exception", ite);
-      String msg = ite.getTargetException().getMessage()
-              + "\nset zeppelin.spark.sql.stacktrace = true to see full stacktrace";
-      return new InterpreterResult(Code.ERROR, msg);
-    } catch (NoSuchMethodException | SecurityException | IllegalAccessException
-        | IllegalArgumentException e) {
-      throw new InterpreterException(e);
-    }
 
-    String msg = sparkInterpreter.getZeppelinContext().showData(rdd);
-    sc.clearJobGroup();
-    return new InterpreterResult(Code.SUCCESS, msg);
+      String msg = sparkInterpreter.getZeppelinContext().showData(rdd);
+      sc.clearJobGroup();
+      return new InterpreterResult(Code.SUCCESS, msg);
+    } finally {
+      sparkInterpreter.untrackProgress(context);
+    }
   }
 
   @Override
@@ -132,36 +132,48 @@ public class SparkZeppelinContext extends BaseZeppelinContext {
       throw new InterpreterException(e);
     }
 
-    StringBuilder msg = new StringBuilder();
+    int numRows = Math.min(maxResult, rows.length);
+    int numColumns = columns.size();
+    // rough estimate of the table size, so the builder doesn't keep re-allocating for wide tables
+    StringBuilder msg = new StringBuilder(
+        (int) Math.min(Integer.MAX_VALUE / 2, 64L + (long) numRows * numColumns * 8));
     msg.append("%table ");
-    for (Attribute col : columns) {
-      msg.append(col.name() + "\t");
+    for (int i = 0; i < numColumns; i++) {
+      if (i > 0) {
+        msg.append('\t');
+      }
+      msg.append(columns.get(i).name());
     }
-    String trim = msg.toString().trim();
-    msg = new StringBuilder(trim);
-    msg.append("\n");
+    msg.append('\n');
 
     // ArrayType, BinaryType, BooleanType, ByteType, DecimalType, DoubleType, DynamicType,
     // FloatType, FractionalType, IntegerType, IntegralType, LongType, MapType, NativeType,
     // NullType, NumericType, ShortType, StringType, StructType
 
     try {
-      for (int r = 0; r < maxResult && r < rows.length; r++) {
+      // rows of a DataFrame share one class, so the reflective lookups are done once
+      Class<?> rowClass = null;
+      Method isNullAt = null;
+      Method apply = null;
+      for (int r = 0; r < numRows; r++) {
         Object row = rows[r];
-        Method isNullAt = row.getClass().getMethod("isNullAt", int.class);
-        Method apply = row.getClass().getMethod("apply", int.class);
+        if (row.getClass() != rowClass) {
+          rowClass = row.getClass();
+          isNullAt = rowClass.getMethod("isNullAt", int.class);
+          apply = rowClass.getMethod("apply", int.class);
+        }
 
-        for (int i = 0; i < columns.size(); i++) {
+        for (int i = 0; i < numColumns; i++) {
+          if (i > 0) {
+            msg.append('\t');
+          }
           if (!(Boolean) isNullAt.invoke(row, i)) {
             msg.append(apply.invoke(row, i).toString());
           } else {
             msg.append("null");
           }
-          if (i != columns.size() - 1) {
-            msg.append("\t");
-          }
         }
-        msg.append("\n");
+        msg.append('\n');
       }
     } catch (NoSuchMethodException | SecurityException | IllegalAccessException
         | IllegalArgumentException | InvocationTargetException e) {
@@ -22,23 +22,51 @@ from py4j.protocol import Py4JJavaError
 from pyspark.conf import SparkConf
 from pyspark.context import SparkContext
 import ast
+import threading
 import warnings
 
 # for back compatibility
 from pyspark.sql import SQLContext, HiveContext, Row
 
 class Logger(object):
-  def __init__(self):
-    pass
+  """Buffers stdout and sends it to the interpreter in chunks.
+
+  A chunk is sent once it grows past max_chunk_size, or at most flush_interval
+  seconds after the first buffered write, so output keeps streaming while a
+  statement runs without costing one gateway call per write.
+  """
+  def __init__(self, max_chunk_size=8192, flush_interval=0.1):
+    self.max_chunk_size = max_chunk_size
+    self.flush_interval = flush_interval
+    self.buffer = []
+    self.buffered_size = 0
+    self.lock = threading.RLock()
+    self.timer = None
 
   def write(self, message):
-    intp.appendOutput(message)
+    with self.lock:
+      self.buffer.append(message)
+      self.buffered_size += len(message)
+      if self.buffered_size >= self.max_chunk_size:
+        self.flush()
+      elif self.timer is None:
+        self.timer = threading.Timer(self.flush_interval, self.flush)
+        self.timer.daemon = True
+        self.timer.start()
 
   def reset(self):
-    pass
+    self.flush()
 
   def flush(self):
-    pass
+    with self.lock:
+      if self.timer is not None:
+        self.timer.cancel()
+        self.timer = None
+      if self.buffered_size > 0:
+        chunk = ''.join(self.buffer)
+        self.buffer = []
+        self.buffered_size = 0
+        intp.appendOutput(chunk)
 
 
 class PyZeppelinContext(dict):
@@ -49,7 +77,10 @@ class PyZeppelinContext(dict):
   def show(self, obj):
     from pyspark.sql import DataFrame
     if isinstance(obj, DataFrame):
-      print(self.z.showData(obj._jdf))
+      # the table is rendered and written to the paragraph output inside the JVM, so it
+      # doesn't have to cross the gateway twice. Flush first to keep output in order.
+      sys.stdout.flush()
+      self.z.show(obj._jdf)
     else:
       print(str(obj))
 
@@ -295,6 +326,9 @@ _zcUserQueryNameSpace["__zeppelin__"] = __zeppelin__
 
 while True :
   req = intp.getStatements()
+  if req == None:
+    break
+
   try:
     stmts = req.statements().split("\n")
     jobGroup = req.jobGroup()
@@ -343,6 +377,8 @@ while True :
           code = compile(mod, '<stdin>', 'exec')
           exec(code, _zcUserQueryNameSpace)
 
+        output.flush()
+
         intp.setStatementsFinished("", False)
       except Py4JJavaError:
         # raise it to outside try except
@@ -352,11 +388,14 @@ while True :
         m = re.search("File \"<stdin>\", line (\d+).*", exception)
         if m:
           line_no = int(m.group(1))
+          output.flush()
           intp.setStatementsFinished(
             "Fail to execute line {}: {}\n".format(line_no, stmts[line_no - 1]) + exception, True)
         else:
+          output.flush()
           intp.setStatementsFinished(exception, True)
     else:
+      output.flush()
       intp.setStatementsFinished("", False)
 
   except Py4JJavaError:
@@ -364,8 +403,10 @@ while True :
     innerErrorStart = excInnerError.find("Py4JJavaError:")
     if innerErrorStart > -1:
        excInnerError = excInnerError[innerErrorStart:]
+    output.flush()
     intp.setStatementsFinished(excInnerError + str(sys.exc_info()), True)
   except:
+    output.flush()
     intp.setStatementsFinished(traceback.format_exc(), True)
 
   output.reset()
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.spark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.spark.SparkConf;
+import org.apache.spark.SparkContext;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaRDDLike;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.api.java.function.Function;
+import org.apache.zeppelin.interpreter.InterpreterContext;
+import org.apache.zeppelin.interpreter.remote.RemoteEventClientWrapper;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import scala.Tuple2;
+
+/**
+ * Drives the listener with the events of jobs run on a local SparkContext.
+ */
+public class JobGroupProgressListenerTest {
+  private static SparkContext sc;
+  private static JobGroupProgressListener listener;
+  private static RemoteEventClientWrapper eventClient;
+
+  @BeforeClass
+  public static void setUp() {
+    SparkConf conf = new SparkConf()
+        .setMaster("local[2]")
+        .setAppName("JobGroupProgressListenerTest")
+        .set("spark.ui.enabled", "false");
+    sc = new SparkContext(conf);
+    eventClient = mock(RemoteEventClientWrapper.class);
+    listener = new JobGroupProgressListener(conf) {
+      @Override
+      RemoteEventClientWrapper getEventClient() {
+        return eventClient;
+      }
+    };
+    sc.addSparkListener(listener);
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    sc.stop();
+  }
+
+  private InterpreterContext newContext(String paragraphId) {
+    InterpreterContext context = mock(InterpreterContext.class);
+    when(context.getNoteId()).thenReturn("note");
+    when(context.getParagraphId()).thenReturn(paragraphId);
+    return context;
+  }
+
+  private void runJob(String jobGroupId) throws InterruptedException {
+    List<Integer> data = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      data.add(i);
+    }
+    runJob(jobGroupId, new JavaSparkContext(sc).parallelize(data, 4));
+  }
+
+  private void runJob(String jobGroupId, JavaRDDLike<?, ?> rdd) throws InterruptedException {
+    int completedJobs;
+    synchronized (listener) {
+      completedJobs = listener.completedJobs().size();
+    }
+    sc.setJobGroup(jobGroupId, "test", false);
+    rdd.count();
+    sc.clearJobGroup();
+
+    // the listener bus delivers events asynchronously
+    long start = System.currentTimeMillis();
+    while (System.currentTimeMillis() - start < 10 * 1000) {
+      synchronized (listener) {
+        if (listener.completedJobs().size() > completedJobs) {
+          return;
+        }
+      }
+      Thread.sleep(50);
+    }
+  }
+
+  @Test
+  public void testProgressAndCleanup() throws InterruptedException {
+    InterpreterContext context = newContext("paragraph1");
+    String jobGroupId = Utils.buildJobGroupId(context);
+
+    listener.registerContext(jobGroupId, context);
+    runJob(jobGroupId);
+    runJob(jobGroupId);
+
+    // all 4 tasks of the job completed
+    verify(context, atLeastOnce()).setProgress(100);
+    assertEquals(0, listener.getProgress(jobGroupId));
+    assertTrue(listener.jobs.isEmpty());
+    assertTrue(listener.jobGroups.isEmpty());
+    assertTrue(listener.stages.isEmpty());
+
+    listener.unregisterContext(jobGroupId, context);
+    assertTrue(listener.contexts.isEmpty());
+  }
+
+  @Test
+  public void testReusedJobGroupIdDoesNotUpdateFinishedParagraph() throws InterruptedException {
+    InterpreterContext finished = newContext("paragraph2");
+    InterpreterContext rerun = newContext("paragraph2");
+    String jobGroupId = Utils.buildJobGroupId(finished);
+
+    listener.registerContext(jobGroupId, finished);
+    listener.registerContext(jobGroupId, rerun);
+    // the first run finishing after the second one started keeps the context of the second run
+    listener.unregisterContext(jobGroupId, finished);
+    runJob(jobGroupId);
+    verify(finished, never()).setProgress(anyInt());
+    verify(rerun, atLeastOnce()).setProgress(100);
+
+    listener.unregisterContext(jobGroupId, rerun);
+    assertTrue(listener.contexts.isEmpty());
+    reset(rerun);
+    runJob(jobGroupId);
+    verify(rerun, never()).setProgress(anyInt());
+  }
+
+  @Test
+  public void testSkippedStagesAreNotCounted() throws InterruptedException {
+    List<Tuple2<Integer, Integer>> data = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      data.add(new Tuple2<>(i % 10, i));
+    }
+    JavaPairRDD<Integer, Integer> grouped =
+        new JavaSparkContext(sc).parallelizePairs(data, 4).groupByKey(2).mapValues(
+            new Function<Iterable<Integer>, Integer>() {
+              @Override
+              public Integer call(Iterable<Integer> values) {
+                return values.iterator().next();
+              }
+            });
+    InterpreterContext first = newContext("paragraph3");
+    String jobGroupId = Utils.buildJobGroupId(first);
+    listener.registerContext(jobGroupId, first);
+    runJob(jobGroupId, grouped);
+    verify(first, atLeastOnce()).setProgress(100);
+    listener.unregisterContext(jobGroupId, first);
+
+    // the second job reuses the shuffle output, its map stage is skipped
+    reset(eventClient);
+    InterpreterContext second = newContext("paragraph3");
+    listener.registerContext(jobGroupId, second);
+    runJob(jobGroupId, grouped);
+    verify(second, atLeastOnce()).setProgress(100);
+    listener.unregisterContext(jobGroupId, second);
+
+    ArgumentCaptor<Map> infos = ArgumentCaptor.forClass(Map.class);
+    verify(eventClient, atLeastOnce()).onParaInfosReceived(
+        eq("note"), eq("paragraph3"), infos.capture());
+    int skipped = 0;
+    int completed = 0;
+    for (Map info : infos.getAllValues()) {
+      String stageInfo = (String) info.get(JobGroupProgressListener.STAGE_INFO);
+      if (stageInfo == null) {
+        continue;
+      }
+      if (stageInfo.endsWith("4 tasks, skipped")) {
+        skipped++;
+      } else if (stageInfo.endsWith("2 tasks, completed")) {
+        completed++;
+      }
+    }
+    assertEquals(1, skipped);
+    assertEquals(1, completed);
+    assertTrue(listener.stages.isEmpty());
+  }
+}
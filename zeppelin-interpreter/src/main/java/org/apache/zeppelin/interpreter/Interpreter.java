@@ -372,6 +372,7 @@ public abstract class Interpreter {
     private boolean defaultInterpreter;
     private Map<String, DefaultInterpreterProperty> properties;
     private Map<String, Object> editor;
+    private boolean deterministic;
     private String path;
     private InterpreterOption option;
     private InterpreterRunner runner;
@@ -420,6 +421,10 @@ public abstract class Interpreter {
       return editor;
     }
 
+    public boolean isDeterministic() {
+      return deterministic;
+    }
+
     public void setPath(String path) {
       this.path = path;
     }
@@ -63,6 +63,7 @@ public class InterpreterContext {
   private RemoteEventClientWrapper client;
   private RemoteWorksController remoteWorksController;
   private final Map<String, Integer> progressMap;
+  private String traceId;
 
   // visible for testing
   public InterpreterContext(String noteId,
@@ -202,6 +203,17 @@ public class InterpreterContext {
     return out;
   }
 
+  /**
+   * @return id of the trace of this paragraph run, null if it's not traced
+   */
+  public String getTraceId() {
+    return traceId;
+  }
+
+  public void setTraceId(String traceId) {
+    this.traceId = traceId;
+  }
+
   /**
    * Set progress of paragraph manually
    * @param n integer from 0 to 100
@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.zeppelin.display.AngularObjectRegistry;
 import org.apache.zeppelin.interpreter.remote.RemoteInterpreterProcess;
@@ -57,6 +58,9 @@ public class InterpreterGroup extends ConcurrentHashMap<String, List<Interpreter
   ResourcePool resourcePool;
   boolean angularRegistryPushed = false;
 
+  // map [sessionKey, activity of the session], to find idle sessions
+  private final Map<String, SessionActivity> sessionActivities = new ConcurrentHashMap<>();
+
   // map [notebook session, Interpreters in the group], to support per note session interpreters
   //Map<String, List<Interpreter>> interpreters = new ConcurrentHashMap<String,
   // List<Interpreter>>();
@@ -224,6 +228,7 @@ public class InterpreterGroup extends ConcurrentHashMap<String, List<Interpreter
           } else {
             interpreterGroup.remove(sessionKey);
           }
+          interpreterGroup.sessionActivities.remove(sessionKey);
         }
       }
     };
@@ -260,6 +265,60 @@ public class InterpreterGroup extends ConcurrentHashMap<String, List<Interpreter
     close(intpToClose);
   }
 
+  /**
+   * Activity of a session
+   */
+  private static class SessionActivity {
+    final AtomicInteger running = new AtomicInteger();
+    volatile long lastActivity = System.currentTimeMillis();
+  }
+
+  private SessionActivity getSessionActivity(String sessionKey) {
+    SessionActivity activity = sessionActivities.get(sessionKey);
+    if (activity == null) {
+      SessionActivity created = new SessionActivity();
+      activity = sessionActivities.putIfAbsent(sessionKey, created);
+      if (activity == null) {
+        activity = created;
+      }
+    }
+    return activity;
+  }
+
+  /**
+   * Called when the session starts working, e.g. interpreting a paragraph
+   */
+  public void beginSessionActivity(String sessionKey) {
+    SessionActivity activity = getSessionActivity(sessionKey);
+    activity.running.incrementAndGet();
+    activity.lastActivity = System.currentTimeMillis();
+  }
+
+  /**
+   * Called when the session finishes the work started by beginSessionActivity()
+   */
+  public void endSessionActivity(String sessionKey) {
+    SessionActivity activity = getSessionActivity(sessionKey);
+    activity.running.decrementAndGet();
+    activity.lastActivity = System.currentTimeMillis();
+  }
+
+  /**
+   * @return true if the session is working
+   */
+  public boolean isSessionActive(String sessionKey) {
+    SessionActivity activity = sessionActivities.get(sessionKey);
+    return activity != null && activity.running.get() > 0;
+  }
+
+  /**
+   * @return time of the last activity of the session, or the first time it is asked for a
+   * session without activity
+   */
+  public long getSessionLastActivity(String sessionKey) {
+    return getSessionActivity(sessionKey).lastActivity;
+  }
+
   public void setResourcePool(ResourcePool resourcePool) {
     this.resourcePool = resourcePool;
   }
@@ -39,6 +39,7 @@ public class InterpreterOption {
   boolean setPermission;
   List<String> owners;
   boolean isUserImpersonate;
+  boolean isInProcess;
 
   public boolean isExistingProcess() {
     return isExistingProcess;
@@ -76,6 +77,14 @@ public class InterpreterOption {
     isUserImpersonate = userImpersonate;
   }
 
+  public boolean isInProcess() {
+    return isInProcess;
+  }
+
+  public void setInProcess(boolean isInProcess) {
+    this.isInProcess = isInProcess;
+  }
+
   public InterpreterOption() {
     this(false);
   }
@@ -106,6 +115,7 @@ public class InterpreterOption {
     option.perUser = other.perUser;
     option.isExistingProcess = other.isExistingProcess;
     option.setPermission = other.setPermission;
+    option.isInProcess = other.isInProcess;
     option.owners = (null == other.owners) ?
         new ArrayList<String>() : new ArrayList<>(other.owners);
 
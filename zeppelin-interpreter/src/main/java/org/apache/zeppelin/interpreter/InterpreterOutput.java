@@ -268,9 +268,72 @@ public class InterpreterOutput extends OutputStream {
 
   @Override
   public void write(byte [] b, int off, int len) throws IOException {
-    for (int i = off; i < len; i++) {
-      write(b[i]);
+    int end = off + len;
+    synchronized (resultMessageOutputs) {
+      int i = off;
+      while (i < end && !truncated) {
+        if (firstCharIsPercentSign || (startOfTheNewLine && b[i] == '%')) {
+          // display system detection goes byte by byte
+          write(b[i]);
+          i++;
+          continue;
+        }
+
+        InterpreterResultMessageOutput out = getCurrentOutputForWriting();
+        InterpreterResult.Type type = out.getType();
+        boolean table = type == InterpreterResult.Type.TABLE;
+        boolean limited = table || type == InterpreterResult.Type.TEXT;
+        int spanEnd = scanSpan(b, i, end, table, limited ? (long) limit - size : Long.MAX_VALUE);
+        if (spanEnd == i) {
+          // output limit or empty table row
+          write(b[i]);
+          i++;
+          continue;
+        }
+
+        // pass all the lines that need no special handling in one shot
+        size += spanEnd - i;
+        out.write(b, i, spanEnd - i);
+        previousChar = b[spanEnd - 1];
+        // as in write(int), only an empty line starts a new line in a table, and a span
+        // never holds one
+        startOfTheNewLine = !table && previousChar == NEW_LINE_CHAR;
+        i = spanEnd;
+      }
+    }
+  }
+
+  /**
+   * Find the end of the span starting from 'from' that can be written as is.
+   * Span stops before a line starting with '%' (except in a table), before a newline
+   * that exceeds the output limit, and before an empty line in a table.
+   */
+  private int scanSpan(byte[] b, int from, int to, boolean table, long remaining) {
+    for (int j = from; j < to; j++) {
+      if (b[j] != NEW_LINE_CHAR) {
+        continue;
+      }
+
+      if (j - from + 1 > remaining) {
+        return j;
+      }
+      if (table && (j == from ? previousChar : b[j - 1]) == NEW_LINE_CHAR) {
+        return j;
+      }
+      if (!table && j + 1 < to && b[j + 1] == '%') {
+        return j + 1;
+      }
+    }
+    return to;
+  }
+
+  static int lastIndexOf(byte[] b, int c, int from, int to) {
+    for (int i = to - 1; i >= from; i--) {
+      if (b[i] == c) {
+        return i;
+      }
     }
+    return -1;
   }
 
   /**
@@ -21,8 +21,13 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * InterpreterMessageOutputStream
@@ -40,6 +45,17 @@ public class InterpreterResultMessageOutput extends OutputStream {
   private InterpreterResult.Type type = InterpreterResult.Type.TEXT;
   private boolean firstWrite = true;
 
+  // change static vars to set how often appended lines are sent to the listener.
+  // complete lines are batched until either threshold is reached.
+  // interval <= 0 sends every line as soon as it is written.
+  public static int flushSize = Constants.ZEPPELIN_INTERPRETER_OUTPUT_FLUSH_SIZE;
+  public static long flushIntervalMs = Constants.ZEPPELIN_INTERPRETER_OUTPUT_FLUSH_INTERVAL;
+
+  private static ScheduledExecutorService flushScheduler;
+
+  private long lastFlushTime = 0;
+  private boolean flushScheduled = false;
+
   public InterpreterResultMessageOutput(
       InterpreterResult.Type type,
       InterpreterResultMessageOutputListener listener) {
@@ -87,18 +103,7 @@ public class InterpreterResultMessageOutput extends OutputStream {
     synchronized (outList) {
       buffer.write(b);
       if (b == NEW_LINE_CHAR) {
-        // first time use of this outputstream.
-        if (firstWrite) {
-          // clear the output on gui
-          if (flushListener != null) {
-            flushListener.onUpdate(this);
-          }
-          firstWrite = false;
-        }
-
-        if (isAppendSupported()) {
-          flush(true);
-        }
+        onNewLine();
       }
     }
   }
@@ -111,12 +116,82 @@ public class InterpreterResultMessageOutput extends OutputStream {
   @Override
   public void write(byte [] b, int off, int len) throws IOException {
     synchronized (outList) {
-      for (int i = off; i < len; i++) {
-        write(b[i]);
+      buffer.write(b, off, len);
+      if (InterpreterOutput.lastIndexOf(b, NEW_LINE_CHAR, off, off + len) >= 0) {
+        onNewLine();
       }
     }
   }
 
+  private void onNewLine() throws IOException {
+    // first time use of this outputstream.
+    if (firstWrite) {
+      // clear the output on gui
+      if (flushListener != null) {
+        flushListener.onUpdate(this);
+      }
+      firstWrite = false;
+    }
+
+    if (!isAppendSupported()) {
+      return;
+    }
+
+    long elapsed = System.currentTimeMillis() - lastFlushTime;
+    if (flushIntervalMs <= 0 || elapsed >= flushIntervalMs || buffer.size() >= flushSize) {
+      flushLines();
+    } else if (!flushScheduled) {
+      flushScheduled = true;
+      getFlushScheduler().schedule(new Runnable() {
+        @Override
+        public void run() {
+          synchronized (outList) {
+            flushScheduled = false;
+            try {
+              if (isAppendSupported()) {
+                flushLines();
+              }
+            } catch (IOException e) {
+              logger.error(e.getMessage(), e);
+            }
+          }
+        }
+      }, flushIntervalMs - elapsed, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Append all complete lines in the buffer. Trailing partial line stays in the buffer.
+   */
+  private void flushLines() throws IOException {
+    byte[] bytes = buffer.toByteArray();
+    int last = InterpreterOutput.lastIndexOf(bytes, NEW_LINE_CHAR, 0, bytes.length);
+
+    if (last < 0) {
+      return;
+    } else if (last == bytes.length - 1) {
+      flush(true);
+    } else {
+      buffer.reset();
+      buffer.write(bytes, last + 1, bytes.length - last - 1);
+      append(Arrays.copyOf(bytes, last + 1));
+    }
+  }
+
+  private static synchronized ScheduledExecutorService getFlushScheduler() {
+    if (flushScheduler == null) {
+      flushScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread t = new Thread(r, "InterpreterResultMessageOutput-flush");
+          t.setDaemon(true);
+          return t;
+        }
+      });
+    }
+    return flushScheduler;
+  }
+
   /**
    * In dev mode, it monitors file and update ZeppelinServer
    * @param file
@@ -173,6 +248,10 @@ public class InterpreterResultMessageOutput extends OutputStream {
     List<Object> all = new LinkedList<>();
 
     synchronized (outList) {
+      // lines waiting for the next batched append are part of the output already
+      if (isAppendSupported()) {
+        flushLines();
+      }
       all.addAll(outList);
     }
 
@@ -206,19 +285,25 @@ public class InterpreterResultMessageOutput extends OutputStream {
     synchronized (outList) {
       buffer.flush();
       byte[] bytes = buffer.toByteArray();
+      buffer.reset();
       if (bytes != null && bytes.length > 0) {
-        outList.add(bytes);
         if (append) {
-          if (flushListener != null) {
-            flushListener.onAppend(this, bytes);
-          }
+          append(bytes);
         } else {
+          outList.add(bytes);
           if (flushListener != null) {
             flushListener.onUpdate(this);
           }
         }
       }
-      buffer.reset();
+    }
+  }
+
+  private void append(byte[] bytes) {
+    outList.add(bytes);
+    lastFlushTime = System.currentTimeMillis();
+    if (flushListener != null) {
+      flushListener.onAppend(this, bytes);
     }
   }
 
@@ -27,6 +27,8 @@ public class AppendOutputBuffer {
   private String paragraphId;
   private int index;
   private String data;
+  // System.nanoTime() when the buffer was queued
+  private final long createdAt = System.nanoTime();
 
   public AppendOutputBuffer(String noteId, String paragraphId, int index, String data) {
     this.noteId = noteId;
@@ -51,4 +53,8 @@ public class AppendOutputBuffer {
     return data;
   }
 
+  public long getCreatedAt() {
+    return createdAt;
+  }
+
 }
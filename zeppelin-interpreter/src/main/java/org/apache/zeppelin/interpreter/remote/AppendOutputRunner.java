@@ -24,6 +24,10 @@ import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.metrics.Timer;
+import org.apache.zeppelin.tracing.Trace;
+import org.apache.zeppelin.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +44,9 @@ public class AppendOutputRunner implements Runnable {
   public static final Long BUFFER_TIME_MS = new Long(100);
   private static final Long SAFE_PROCESSING_TIME = new Long(10);
   private static final Long SAFE_PROCESSING_STRING_SIZE = new Long(100000);
+  private static final Timer flushTimer = MetricRegistry.singleton().timer(
+      "zeppelin_output_append_flush_seconds",
+      "Time to merge and send buffered append-output to listener");
 
   private final BlockingQueue<AppendOutputBuffer> queue = new LinkedBlockingQueue<>();
   private final RemoteInterpreterProcessListener listener;
@@ -67,6 +74,7 @@ public class AppendOutputRunner implements Runnable {
     } catch (InterruptedException e) {
       logger.error("Wait for OutputBuffer queue interrupted: " + e.getMessage());
     }
+    long flushStart = System.nanoTime();
     Long processingStartTime = System.currentTimeMillis();
     queue.drainTo(list);
 
@@ -76,6 +84,11 @@ public class AppendOutputRunner implements Runnable {
       int index = buffer.getIndex();
       String stringBufferKey = noteId + ":" + paragraphId + ":" + index;
 
+      Trace trace = Tracer.singleton().get(noteId, paragraphId);
+      if (trace != null) {
+        trace.record("output.buffer", buffer.getCreatedAt(), flushStart);
+      }
+
       StringBuilder builder = stringBufferMap.containsKey(stringBufferKey) ?
           stringBufferMap.get(stringBufferKey) : new StringBuilder();
 
@@ -107,6 +120,7 @@ public class AppendOutputRunner implements Runnable {
       logger.debug("Processing size for append-output is " +
           sizeProcessed + " characters");
     }
+    flushTimer.update(System.nanoTime() - flushStart);
   }
 
   public void appendBuffer(String noteId, String paragraphId, int index, String outputToAppend) {
@@ -23,45 +23,74 @@ import java.util.Map;
 import org.apache.commons.pool2.BasePooledObjectFactory;
 import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
-import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TProtocol;
 import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
 import org.apache.thrift.transport.TTransportException;
 import org.apache.zeppelin.interpreter.InterpreterException;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  *
  */
 public class ClientFactory extends BasePooledObjectFactory<Client>{
+  private static final Logger logger = LoggerFactory.getLogger(ClientFactory.class);
   private String host;
   private int port;
-  Map<Client, TSocket> clientSocketMap = new HashMap<>();
+  private volatile RemoteInterpreterTransport transport;
+  private volatile boolean negotiated = false;
+  Map<Client, TTransport> clientSocketMap = new HashMap<>();
 
   public ClientFactory(String host, int port) {
+    this(host, port, RemoteInterpreterTransport.DEFAULT);
+  }
+
+  public ClientFactory(String host, int port, RemoteInterpreterTransport transport) {
     this.host = host;
     this.port = port;
+    this.transport = transport;
   }
 
   @Override
   public Client create() throws Exception {
-    TSocket transport = new TSocket(host, port);
+    TSocket socket = new TSocket(host, port);
     try {
-      transport.open();
+      socket.open();
     } catch (TTransportException e) {
       throw new InterpreterException(e);
     }
 
-    TProtocol protocol = new  TBinaryProtocol(transport);
+    TProtocol protocol = transport.getClientProtocol(socket);
     Client client = new RemoteInterpreterService.Client(protocol);
 
+    if (!negotiated && !transport.isDefault()) {
+      // interpreter process of an earlier version closes the connection on the preamble
+      try {
+        client.getStatus("", "");
+        negotiated = true;
+      } catch (TException e) {
+        logger.warn("Interpreter process at {}:{} does not accept {} transport, " +
+            "falling back to the default transport", host, port, transport);
+        socket.close();
+        transport = RemoteInterpreterTransport.DEFAULT;
+        return create();
+      }
+    }
+
     synchronized (clientSocketMap) {
-      clientSocketMap.put(client, transport);
+      clientSocketMap.put(client, protocol.getTransport());
     }
     return client;
   }
 
+  public RemoteInterpreterTransport getTransport() {
+    return transport;
+  }
+
   @Override
   public PooledObject<Client> wrap(Client client) {
     return new DefaultPooledObject<>(client);
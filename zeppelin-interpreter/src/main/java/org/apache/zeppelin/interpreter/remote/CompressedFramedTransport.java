@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter.remote;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.thrift.TByteArrayOutputStream;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+
+/**
+ * Framed transport that deflates frames larger than the given threshold.
+ *
+ * Each frame is a 4 byte header followed by the payload. The highest bit of the header
+ * marks a compressed frame, the rest is the payload size. Compressed payload starts with
+ * the 4 byte size of the uncompressed frame. Neither size may exceed the max frame length.
+ */
+public class CompressedFramedTransport extends TTransport {
+  private static final int COMPRESSED_FLAG = 0x80000000;
+  // same as TFramedTransport
+  public static final int DEFAULT_MAX_LENGTH = 16384000;
+
+  private final TTransport transport;
+  private final int compressionThreshold;
+  private final int maxLength;
+
+  private final TByteArrayOutputStream writeBuffer = new TByteArrayOutputStream(1024);
+  private byte[] compressBuffer = new byte[0];
+  private byte[] frameBuffer = new byte[0];
+  private byte[] readBuffer = new byte[0];
+  private int readPos = 0;
+  private int readLimit = 0;
+  private final byte[] header = new byte[4];
+
+  private Deflater deflater;
+  private Inflater inflater;
+
+  /**
+   * @param transport underlying transport
+   * @param compressionThreshold frames of this size or larger are compressed. negative value
+   *                             disables compression of outgoing frames
+   */
+  public CompressedFramedTransport(TTransport transport, int compressionThreshold) {
+    this(transport, compressionThreshold, DEFAULT_MAX_LENGTH);
+  }
+
+  /**
+   * @param maxLength max size of a frame read, before and after decompression
+   */
+  public CompressedFramedTransport(TTransport transport, int compressionThreshold,
+      int maxLength) {
+    this.transport = transport;
+    this.compressionThreshold = compressionThreshold;
+    this.maxLength = maxLength;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return transport.isOpen();
+  }
+
+  @Override
+  public void open() throws TTransportException {
+    transport.open();
+  }
+
+  @Override
+  public void close() {
+    transport.close();
+    if (deflater != null) {
+      deflater.end();
+    }
+    if (inflater != null) {
+      inflater.end();
+    }
+  }
+
+  @Override
+  public int read(byte[] buf, int off, int len) throws TTransportException {
+    // empty frames carry no data
+    while (readPos == readLimit) {
+      readFrame();
+    }
+    int n = Math.min(len, readLimit - readPos);
+    System.arraycopy(readBuffer, readPos, buf, off, n);
+    readPos += n;
+    return n;
+  }
+
+  @Override
+  public byte[] getBuffer() {
+    return readBuffer;
+  }
+
+  @Override
+  public int getBufferPosition() {
+    return readPos;
+  }
+
+  @Override
+  public int getBytesRemainingInBuffer() {
+    return readLimit - readPos;
+  }
+
+  @Override
+  public void consumeBuffer(int len) {
+    readPos += len;
+  }
+
+  private void readFrame() throws TTransportException {
+    readFully(header, 4);
+    int h = decodeInt(header, 0);
+    boolean compressed = (h & COMPRESSED_FLAG) != 0;
+    int size = h & ~COMPRESSED_FLAG;
+    checkFrameSize(size);
+
+    // protocol may keep references to the read buffer, so each frame gets a new one
+    if (!compressed) {
+      readBuffer = new byte[size];
+      readFully(readBuffer, size);
+      readLimit = size;
+    } else {
+      if (size < 4) {
+        throw new TTransportException("Compressed frame of " + size + " bytes has no size");
+      }
+      frameBuffer = ensureCapacity(frameBuffer, size);
+      readFully(frameBuffer, size);
+
+      int rawSize = decodeInt(frameBuffer, 0);
+      checkFrameSize(rawSize);
+      readBuffer = new byte[rawSize];
+      if (inflater == null) {
+        inflater = new Inflater();
+      }
+      inflater.reset();
+      inflater.setInput(frameBuffer, 4, size - 4);
+      int n = 0;
+      try {
+        while (n < rawSize) {
+          int inflated = inflater.inflate(readBuffer, n, rawSize - n);
+          if (inflated == 0 && (inflater.finished() || inflater.needsInput()
+              || inflater.needsDictionary())) {
+            break;
+          }
+          n += inflated;
+        }
+      } catch (DataFormatException e) {
+        throw new TTransportException(e);
+      }
+      if (n != rawSize) {
+        throw new TTransportException("Compressed frame inflated to " + n
+            + " bytes, expected " + rawSize);
+      }
+      readLimit = rawSize;
+    }
+    readPos = 0;
+  }
+
+  private void checkFrameSize(int size) throws TTransportException {
+    if (size < 0) {
+      throw new TTransportException("Read a negative frame size (" + size + ")!");
+    }
+    if (size > maxLength) {
+      throw new TTransportException("Frame size (" + size + ") larger than max length ("
+          + maxLength + ")!");
+    }
+  }
+
+  private void readFully(byte[] buf, int len) throws TTransportException {
+    int got = 0;
+    while (got < len) {
+      int n = transport.read(buf, got, len - got);
+      if (n <= 0) {
+        throw new TTransportException(TTransportException.END_OF_FILE,
+            "End of stream after " + got + " of " + len + " bytes");
+      }
+      got += n;
+    }
+  }
+
+  @Override
+  public void write(byte[] buf, int off, int len) throws TTransportException {
+    writeBuffer.write(buf, off, len);
+  }
+
+  @Override
+  public void flush() throws TTransportException {
+    byte[] data = writeBuffer.get();
+    int len = writeBuffer.len();
+    writeBuffer.reset();
+
+    if (compressionThreshold >= 0 && len >= compressionThreshold) {
+      if (deflater == null) {
+        deflater = new Deflater(Deflater.BEST_SPEED);
+      }
+      deflater.reset();
+      deflater.setInput(data, 0, len);
+      deflater.finish();
+
+      byte[] out = ensureCapacity(compressBuffer, len + 4);
+      int clen = 4;
+      while (!deflater.finished() && clen < out.length) {
+        clen += deflater.deflate(out, clen, out.length - clen);
+      }
+      compressBuffer = out;
+
+      // send it as is when compression doesn't pay off
+      if (deflater.finished() && clen < len) {
+        encodeInt(len, out, 0);
+        encodeInt(clen | COMPRESSED_FLAG, header, 0);
+        transport.write(header, 0, 4);
+        transport.write(out, 0, clen);
+        transport.flush();
+        return;
+      }
+    }
+
+    encodeInt(len, header, 0);
+    transport.write(header, 0, 4);
+    transport.write(data, 0, len);
+    transport.flush();
+  }
+
+  private static byte[] ensureCapacity(byte[] buf, int size) {
+    return buf.length >= size ? buf : new byte[size];
+  }
+
+  static void encodeInt(int i, byte[] buf, int off) {
+    buf[off] = (byte) (0xff & (i >> 24));
+    buf[off + 1] = (byte) (0xff & (i >> 16));
+    buf[off + 2] = (byte) (0xff & (i >> 8));
+    buf[off + 3] = (byte) (0xff & (i));
+  }
+
+  static int decodeInt(byte[] buf, int off) {
+    return ((buf[off] & 0xff) << 24) |
+        ((buf[off + 1] & 0xff) << 16) |
+        ((buf[off + 2] & 0xff) << 8) |
+        ((buf[off + 3] & 0xff));
+  }
+}
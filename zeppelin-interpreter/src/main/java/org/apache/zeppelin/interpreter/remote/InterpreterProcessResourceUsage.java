@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter.remote;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+
+import com.google.gson.Gson;
+
+/**
+ * Memory and cpu usage of an interpreter process
+ */
+public class InterpreterProcessResourceUsage {
+  private static final Gson gson = new Gson();
+  private static final File PROC_STATUS = new File("/proc/self/status");
+
+  private long rss = -1;
+  private long heapUsed;
+  private long heapCommitted;
+  private long heapMax;
+  private long nonHeapUsed;
+  private long processCpuTime = -1;
+  private double processCpuLoad = -1;
+  private int availableProcessors;
+  private int threadCount;
+  private long uptime;
+
+  /**
+   * Collect usage of the current process
+   */
+  public static InterpreterProcessResourceUsage collect() {
+    InterpreterProcessResourceUsage usage = new InterpreterProcessResourceUsage();
+
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    MemoryUsage heap = memory.getHeapMemoryUsage();
+    usage.heapUsed = heap.getUsed();
+    usage.heapCommitted = heap.getCommitted();
+    usage.heapMax = heap.getMax();
+    usage.nonHeapUsed = memory.getNonHeapMemoryUsage().getUsed();
+
+    OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    usage.availableProcessors = os.getAvailableProcessors();
+    if (os instanceof com.sun.management.OperatingSystemMXBean) {
+      com.sun.management.OperatingSystemMXBean sunOs = (com.sun.management.OperatingSystemMXBean) os;
+      usage.processCpuTime = sunOs.getProcessCpuTime();
+      usage.processCpuLoad = sunOs.getProcessCpuLoad();
+    }
+
+    usage.threadCount = ManagementFactory.getThreadMXBean().getThreadCount();
+    usage.uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+    usage.rss = readRss();
+    return usage;
+  }
+
+  /**
+   * Resident set size from /proc/self/status. -1 when not available
+   */
+  private static long readRss() {
+    if (!PROC_STATUS.canRead()) {
+      return -1;
+    }
+
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(new FileInputStream(PROC_STATUS), StandardCharsets.US_ASCII))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        // VmRSS:    123456 kB
+        if (line.startsWith("VmRSS:")) {
+          String[] tokens = line.substring("VmRSS:".length()).trim().split("\\s+");
+          return Long.parseLong(tokens[0]) * 1024;
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      return -1;
+    }
+    return -1;
+  }
+
+  /**
+   * Memory held by the process. Resident set size if available, committed memory of the jvm
+   * otherwise
+   */
+  public long getMemory() {
+    return rss >= 0 ? rss : heapCommitted + nonHeapUsed;
+  }
+
+  public long getRss() {
+    return rss;
+  }
+
+  public long getHeapUsed() {
+    return heapUsed;
+  }
+
+  public long getHeapCommitted() {
+    return heapCommitted;
+  }
+
+  public long getHeapMax() {
+    return heapMax;
+  }
+
+  public long getNonHeapUsed() {
+    return nonHeapUsed;
+  }
+
+  public long getProcessCpuTime() {
+    return processCpuTime;
+  }
+
+  public double getProcessCpuLoad() {
+    return processCpuLoad;
+  }
+
+  public int getAvailableProcessors() {
+    return availableProcessors;
+  }
+
+  public int getThreadCount() {
+    return threadCount;
+  }
+
+  public long getUptime() {
+    return uptime;
+  }
+
+  public String toJson() {
+    return gson.toJson(this);
+  }
+
+  public static InterpreterProcessResourceUsage fromJson(String json) {
+    return gson.fromJson(json, InterpreterProcessResourceUsage.class);
+  }
+}
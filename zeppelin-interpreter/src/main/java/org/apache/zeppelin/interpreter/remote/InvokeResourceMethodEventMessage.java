@@ -31,6 +31,8 @@ public class InvokeResourceMethodEventMessage implements JsonSerializable {
   public final String[] paramClassnames;
   public final Object[] params;
   public final String returnResourceName;
+  // correlates the response with the request. not part of equals()
+  private long requestId;
 
   public InvokeResourceMethodEventMessage(
       ResourceId resourceId,
@@ -67,6 +69,14 @@ public class InvokeResourceMethodEventMessage implements JsonSerializable {
     return types;
   }
 
+  public long getRequestId() {
+    return requestId;
+  }
+
+  public void setRequestId(long requestId) {
+    this.requestId = requestId;
+  }
+
   public boolean shouldPutResultIntoResourcePool() {
     return (returnResourceName != null);
   }
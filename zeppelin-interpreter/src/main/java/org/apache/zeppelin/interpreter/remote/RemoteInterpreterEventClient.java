@@ -16,7 +16,9 @@
  */
 package org.apache.zeppelin.interpreter.remote;
 
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 import org.apache.zeppelin.display.AngularObject;
 import org.apache.zeppelin.interpreter.InterpreterContextRunner;
 import org.apache.zeppelin.interpreter.InterpreterResult;
@@ -35,6 +37,13 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Thread connection ZeppelinServer -> RemoteInterpreterServer does not provide
@@ -48,11 +57,98 @@ import java.util.Map;
 public class RemoteInterpreterEventClient implements ResourcePoolConnector {
   private final Logger logger = LoggerFactory.getLogger(RemoteInterpreterEventClient.class);
   private final List<RemoteInterpreterEvent> eventQueue = new LinkedList<>();
-  private final List<ResourceSet> getAllResourceResponse = new LinkedList<>();
-  private final Map<ResourceId, Object> getResourceResponse = new HashMap<>();
-  private final Map<InvokeResourceMethodEventMessage, Object> getInvokeResponse = new HashMap<>();
   private final Gson gson = new Gson();
 
+  public static final String REQUEST_ID = "requestId";
+  public static final long DEFAULT_REQUEST_TIMEOUT = 5 * 60 * 1000;
+  private static final String GET_ALL_RESOURCES = "getAllResources";
+
+  // requests waiting for response from ZeppelinServer, by request id
+  private final AtomicLong requestIdGenerator = new AtomicLong(0);
+  private final ConcurrentNavigableMap<Long, PendingRequest> pendingRequests =
+      new ConcurrentSkipListMap<>();
+  private PendingRequest getAllResourcesRequest;
+  private volatile long requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+
+  /**
+   * Request sent to ZeppelinServer waiting for its response
+   */
+  private static class PendingRequest {
+    final long id;
+    // matches response that doesn't carry the request id
+    final Object key;
+    final SettableFuture<Object> response = SettableFuture.create();
+
+    PendingRequest(long id, Object key) {
+      this.id = id;
+      this.key = key;
+    }
+  }
+
+  /**
+   * How long to wait for the response of resource requests before giving up
+   */
+  public void setRequestTimeout(long requestTimeout) {
+    this.requestTimeout = requestTimeout;
+  }
+
+  public int getNumPendingRequests() {
+    return pendingRequests.size();
+  }
+
+  /**
+   * Cancel all requests waiting for response. Waiting threads get null.
+   */
+  public void cancelPendingRequests() {
+    for (PendingRequest request : pendingRequests.values()) {
+      pendingRequests.remove(request.id);
+      request.response.cancel(false);
+    }
+  }
+
+  private PendingRequest newRequest(Object key) {
+    PendingRequest request = new PendingRequest(requestIdGenerator.incrementAndGet(), key);
+    pendingRequests.put(request.id, request);
+    return request;
+  }
+
+  private Object waitForResponse(PendingRequest request, String name) {
+    try {
+      return request.response.get(requestTimeout, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      logger.warn("No response for {} from ZeppelinServer in {} ms", name, requestTimeout);
+    } catch (InterruptedException e) {
+      logger.warn("Interrupted while waiting for {}", name);
+      Thread.currentThread().interrupt();
+    } catch (CancellationException e) {
+      logger.warn("Request for {} cancelled", name);
+    } catch (ExecutionException e) {
+      logger.error(e.getMessage(), e);
+    } finally {
+      pendingRequests.remove(request.id);
+    }
+    return null;
+  }
+
+  private void putResponse(long requestId, Object key, Object response) {
+    PendingRequest request = pendingRequests.remove(requestId);
+    if (request == null && requestId == 0) {
+      // response without request id. take the oldest request of the same key
+      for (PendingRequest r : pendingRequests.values()) {
+        if (r.key.equals(key) && pendingRequests.remove(r.id) != null) {
+          request = r;
+          break;
+        }
+      }
+    }
+
+    if (request == null) {
+      logger.warn("Discard response for {}, request is timed out or cancelled", key);
+    } else {
+      request.response.set(response);
+    }
+  }
+
   /**
    * Run paragraph
    * @param runner
@@ -111,57 +207,45 @@ public class RemoteInterpreterEventClient implements ResourcePoolConnector {
 
 
   /**
-   * Get all resources except for specific resourcePool
+   * Get all resources except for specific resourcePool.
+   * Concurrent callers share the request that is not answered yet.
    * @return
    */
   @Override
   public ResourceSet getAllResources() {
-    // request
-    sendEvent(new RemoteInterpreterEvent(RemoteInterpreterEventType.RESOURCE_POOL_GET_ALL, null));
-
-    synchronized (getAllResourceResponse) {
-      while (getAllResourceResponse.isEmpty()) {
-        try {
-          getAllResourceResponse.wait();
-        } catch (InterruptedException e) {
-          logger.warn(e.getMessage(), e);
-        }
+    PendingRequest request;
+    boolean send = false;
+    synchronized (pendingRequests) {
+      request = getAllResourcesRequest;
+      if (request == null || !pendingRequests.containsKey(request.id)) {
+        request = newRequest(GET_ALL_RESOURCES);
+        getAllResourcesRequest = request;
+        send = true;
       }
-      ResourceSet resourceSet = getAllResourceResponse.remove(0);
-      return resourceSet;
     }
+
+    if (send) {
+      sendEvent(new RemoteInterpreterEvent(
+          RemoteInterpreterEventType.RESOURCE_POOL_GET_ALL, null));
+    }
+
+    ResourceSet resourceSet = (ResourceSet) waitForResponse(request, GET_ALL_RESOURCES);
+    return resourceSet == null ? new ResourceSet() : resourceSet;
   }
 
   @Override
   public Object readResource(ResourceId resourceId) {
     logger.debug("Request Read Resource {} from ZeppelinServer", resourceId.getName());
-    synchronized (getResourceResponse) {
-      // wait for previous response consumed
-      while (getResourceResponse.containsKey(resourceId)) {
-        try {
-          getResourceResponse.wait();
-        } catch (InterruptedException e) {
-          logger.warn(e.getMessage(), e);
-        }
-      }
+    PendingRequest request = newRequest(resourceId);
 
-      // send request
-      sendEvent(new RemoteInterpreterEvent(
-          RemoteInterpreterEventType.RESOURCE_GET,
-          resourceId.toJson()));
+    // ZeppelinServer sends back the request as is with the response
+    JsonObject json = gson.toJsonTree(resourceId).getAsJsonObject();
+    json.addProperty(REQUEST_ID, request.id);
+    sendEvent(new RemoteInterpreterEvent(
+        RemoteInterpreterEventType.RESOURCE_GET,
+        gson.toJson(json)));
 
-      // wait for response
-      while (!getResourceResponse.containsKey(resourceId)) {
-        try {
-          getResourceResponse.wait();
-        } catch (InterruptedException e) {
-          logger.warn(e.getMessage(), e);
-        }
-      }
-      Object o = getResourceResponse.remove(resourceId);
-      getResourceResponse.notifyAll();
-      return o;
-    }
+    return waitForResponse(request, "resource " + resourceId.getName());
   }
 
   /**
@@ -186,32 +270,7 @@ public class RemoteInterpreterEventClient implements ResourcePoolConnector {
         paramTypes,
         params,
         null);
-
-    synchronized (getInvokeResponse) {
-      // wait for previous response consumed
-      while (getInvokeResponse.containsKey(invokeMethod)) {
-        try {
-          getInvokeResponse.wait();
-        } catch (InterruptedException e) {
-          logger.warn(e.getMessage(), e);
-        }
-      }
-      // send request
-      sendEvent(new RemoteInterpreterEvent(
-          RemoteInterpreterEventType.RESOURCE_INVOKE_METHOD,
-          invokeMethod.toJson()));
-      // wait for response
-      while (!getInvokeResponse.containsKey(invokeMethod)) {
-        try {
-          getInvokeResponse.wait();
-        } catch (InterruptedException e) {
-          logger.warn(e.getMessage(), e);
-        }
-      }
-      Object o = getInvokeResponse.remove(invokeMethod);
-      getInvokeResponse.notifyAll();
-      return o;
-    }
+    return invoke(invokeMethod);
   }
 
   /**
@@ -238,32 +297,18 @@ public class RemoteInterpreterEventClient implements ResourcePoolConnector {
         paramTypes,
         params,
         returnResourceName);
+    return (Resource) invoke(invokeMethod);
+  }
 
-    synchronized (getInvokeResponse) {
-      // wait for previous response consumed
-      while (getInvokeResponse.containsKey(invokeMethod)) {
-        try {
-          getInvokeResponse.wait();
-        } catch (InterruptedException e) {
-          logger.warn(e.getMessage(), e);
-        }
-      }
-      // send request
-      sendEvent(new RemoteInterpreterEvent(
-          RemoteInterpreterEventType.RESOURCE_INVOKE_METHOD,
-          invokeMethod.toJson()));
-      // wait for response
-      while (!getInvokeResponse.containsKey(invokeMethod)) {
-        try {
-          getInvokeResponse.wait();
-        } catch (InterruptedException e) {
-          logger.warn(e.getMessage(), e);
-        }
-      }
-      Resource o = (Resource) getInvokeResponse.remove(invokeMethod);
-      getInvokeResponse.notifyAll();
-      return o;
-    }
+  private Object invoke(InvokeResourceMethodEventMessage invokeMethod) {
+    PendingRequest request = newRequest(invokeMethod);
+    invokeMethod.setRequestId(request.id);
+    sendEvent(new RemoteInterpreterEvent(
+        RemoteInterpreterEventType.RESOURCE_INVOKE_METHOD,
+        invokeMethod.toJson()));
+
+    return waitForResponse(request, "method " + invokeMethod.methodName + " of resource " +
+        invokeMethod.resourceId.getName());
   }
 
   /**
@@ -279,10 +324,7 @@ public class RemoteInterpreterEventClient implements ResourcePoolConnector {
       resourceSet.add(resource);
     }
 
-    synchronized (getAllResourceResponse) {
-      getAllResourceResponse.add(resourceSet);
-      getAllResourceResponse.notify();
-    }
+    putResponse(0, GET_ALL_RESOURCES, resourceSet);
   }
 
   /**
@@ -292,6 +334,8 @@ public class RemoteInterpreterEventClient implements ResourcePoolConnector {
    */
   public void putResponseGetResource(String resourceId, ByteBuffer object) {
     ResourceId rid = ResourceId.fromJson(resourceId);
+    JsonObject json = gson.fromJson(resourceId, JsonObject.class);
+    long requestId = json.has(REQUEST_ID) ? json.get(REQUEST_ID).getAsLong() : 0;
 
     logger.debug("Response resource {} from RemoteInterpreter", rid.getName());
 
@@ -304,10 +348,7 @@ public class RemoteInterpreterEventClient implements ResourcePoolConnector {
       logger.error(e.getMessage(), e);
     }
 
-    synchronized (getResourceResponse) {
-      getResourceResponse.put(rid, o);
-      getResourceResponse.notifyAll();
-    }
+    putResponse(requestId, rid, o);
   }
 
 
@@ -327,10 +368,7 @@ public class RemoteInterpreterEventClient implements ResourcePoolConnector {
       logger.error(e.getMessage(), e);
     }
 
-    synchronized (getInvokeResponse) {
-      getInvokeResponse.put(invokeMessage, o);
-      getInvokeResponse.notifyAll();
-    }
+    putResponse(invokeMessage.getRequestId(), invokeMessage, o);
   }
 
   /**
@@ -340,10 +378,7 @@ public class RemoteInterpreterEventClient implements ResourcePoolConnector {
    */
   public void putResponseInvokeMethod(
       InvokeResourceMethodEventMessage invokeMessage, Resource resource) {
-    synchronized (getInvokeResponse) {
-      getInvokeResponse.put(invokeMessage, resource);
-      getInvokeResponse.notifyAll();
-    }
+    putResponse(invokeMessage.getRequestId(), invokeMessage, resource);
   }
 
   /**
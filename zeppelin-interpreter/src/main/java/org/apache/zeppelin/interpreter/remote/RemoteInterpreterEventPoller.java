@@ -31,10 +31,15 @@ import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterEvent;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterEventType;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
 import org.apache.zeppelin.interpreter.thrift.ZeppelinServerResourceParagraphRunner;
+import org.apache.zeppelin.metrics.Counter;
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.metrics.Timer;
 import org.apache.zeppelin.resource.Resource;
 import org.apache.zeppelin.resource.ResourceId;
 import org.apache.zeppelin.resource.ResourcePool;
 import org.apache.zeppelin.resource.ResourceSet;
+import org.apache.zeppelin.tracing.Trace;
+import org.apache.zeppelin.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,6 +59,23 @@ import java.util.concurrent.TimeUnit;
  */
 public class RemoteInterpreterEventPoller extends Thread {
   private static final Logger logger = LoggerFactory.getLogger(RemoteInterpreterEventPoller.class);
+  private static final Timer processTimer = MetricRegistry.singleton().timer(
+      "zeppelin_remote_interpreter_event_process_seconds",
+      "Time to handle an event received from remote interpreter process");
+  // indexed by RemoteInterpreterEventType.ordinal()
+  private static final Counter[] eventCounters;
+
+  static {
+    RemoteInterpreterEventType[] types = RemoteInterpreterEventType.values();
+    eventCounters = new Counter[types.length];
+    for (int i = 0; i < types.length; i++) {
+      eventCounters[i] = MetricRegistry.singleton().counter(
+          "zeppelin_remote_interpreter_events_total",
+          "Number of events received from remote interpreter process",
+          "event", types[i].name());
+    }
+  }
+
   private final ScheduledExecutorService appendService =
       Executors.newSingleThreadScheduledExecutor();
   private final RemoteInterpreterProcessListener listener;
@@ -121,15 +143,17 @@ public class RemoteInterpreterEventPoller extends Thread {
         interpreterProcess.releaseClient(client, broken);
       }
 
+      if (event.getType() == RemoteInterpreterEventType.NO_OP) {
+        continue;
+      }
+
       AngularObjectRegistry angularObjectRegistry = interpreterGroup.getAngularObjectRegistry();
 
+      eventCounters[event.getType().ordinal()].inc();
+      long start = System.nanoTime();
       try {
-        if (event.getType() != RemoteInterpreterEventType.NO_OP) {
-          logger.debug("Receive message from RemoteInterpreter Process: " + event.toString());
-        }
-        if (event.getType() == RemoteInterpreterEventType.NO_OP) {
-          continue;
-        } else if (event.getType() == RemoteInterpreterEventType.ANGULAR_OBJECT_ADD) {
+        logger.debug("Receive message from RemoteInterpreter Process: " + event.toString());
+        if (event.getType() == RemoteInterpreterEventType.ANGULAR_OBJECT_ADD) {
           AngularObject angularObject = AngularObject.fromJson(event.getData());
           angularObjectRegistry.add(angularObject.getName(),
               angularObject.get(), angularObject.getNoteId(), angularObject.getParagraphId());
@@ -163,7 +187,8 @@ public class RemoteInterpreterEventPoller extends Thread {
           ResourceId resourceId = ResourceId.fromJson(resourceIdString);
           logger.debug("RESOURCE_GET {} {}", resourceId.getResourcePoolId(), resourceId.getName());
           Object o = getResource(resourceId);
-          sendResourceResponseGet(resourceId, o);
+          // send back the request as is. it carries the request id
+          sendResourceResponseGet(resourceIdString, o);
         } else if (event.getType() == RemoteInterpreterEventType.RESOURCE_INVOKE_METHOD) {
           String message = event.getData();
           InvokeResourceMethodEventMessage invokeMethodMessage =
@@ -186,6 +211,7 @@ public class RemoteInterpreterEventPoller extends Thread {
           } else {
             appListener.onOutputAppend(noteId, paragraphId, index, appId, outputToAppend);
           }
+          recordOutputRelay(noteId, paragraphId, start);
         } else if (event.getType() == RemoteInterpreterEventType.OUTPUT_UPDATE_ALL) {
           Map<String, Object> outputUpdate = gson.fromJson(
               event.getData(), new TypeToken<Map<String, Object>>() {}.getType());
@@ -207,6 +233,7 @@ public class RemoteInterpreterEventPoller extends Thread {
               listener.onOutputUpdated(noteId, paragraphId, i, type, outputToUpdate);
             }
           }
+          recordOutputRelay(noteId, paragraphId, start);
         } else if (event.getType() == RemoteInterpreterEventType.OUTPUT_UPDATE) {
           // on output update
           Map<String, String> outputAppend = gson.fromJson(
@@ -224,6 +251,7 @@ public class RemoteInterpreterEventPoller extends Thread {
           } else {
             appListener.onOutputUpdated(noteId, paragraphId, index, appId, type, outputToUpdate);
           }
+          recordOutputRelay(noteId, paragraphId, start);
         } else if (event.getType() == RemoteInterpreterEventType.APP_STATUS_UPDATE) {
           // on output update
           Map<String, String> appStatusUpdate = gson.fromJson(
@@ -263,6 +291,8 @@ public class RemoteInterpreterEventPoller extends Thread {
         logger.debug("Event from remote process {}", event.getType());
       } catch (Exception e) {
         logger.error("Can't handle event " + event, e);
+      } finally {
+        processTimer.update(System.nanoTime() - start);
       }
     }
     try {
@@ -275,6 +305,13 @@ public class RemoteInterpreterEventPoller extends Thread {
     }
   }
 
+  private void recordOutputRelay(String noteId, String paragraphId, long start) {
+    Trace trace = Tracer.singleton().get(noteId, paragraphId);
+    if (trace != null) {
+      trace.record("output.relay", start);
+    }
+  }
+
   private void clearUnreadEvents(Client client) throws TException {
     while (client.getEvent().getType() != RemoteInterpreterEventType.NO_OP) {}
   }
@@ -412,13 +449,11 @@ public class RemoteInterpreterEventPoller extends Thread {
     return resourceSet;
   }
 
-  private void sendResourceResponseGet(ResourceId resourceId, Object o) {
+  private void sendResourceResponseGet(String rid, Object o) {
     Client client = null;
     boolean broken = false;
     try {
       client = interpreterProcess.getClient();
-      Gson gson = new Gson();
-      String rid = gson.toJson(resourceId);
       ByteBuffer obj;
       if (o == null) {
         obj = ByteBuffer.allocate(0);
@@ -22,6 +22,8 @@ import org.apache.thrift.TException;
 import org.apache.zeppelin.helium.ApplicationEventListener;
 import org.apache.zeppelin.interpreter.InterpreterGroup;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.metrics.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -31,6 +33,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public abstract class RemoteInterpreterProcess {
   private static final Logger logger = LoggerFactory.getLogger(RemoteInterpreterProcess.class);
+  private static final Timer borrowTimer = MetricRegistry.singleton().timer(
+      "zeppelin_remote_interpreter_client_borrow_seconds",
+      "Time to borrow a thrift client from the pool of remote interpreter process");
 
   // number of sessions that are attached to this process
   private final AtomicInteger referenceCount;
@@ -39,6 +44,7 @@ public abstract class RemoteInterpreterProcess {
   private final RemoteInterpreterEventPoller remoteInterpreterEventPoller;
   private final InterpreterContextRunnerPool interpreterContextRunnerPool;
   private int connectTimeout;
+  private RemoteInterpreterTransport transport = RemoteInterpreterTransport.DEFAULT;
 
   public RemoteInterpreterProcess(
       int connectTimeout,
@@ -66,6 +72,18 @@ public abstract class RemoteInterpreterProcess {
     return connectTimeout;
   }
 
+  /**
+   * Set transport and protocol stack of the connections. Takes effect when the first
+   * connection is made.
+   */
+  public void setTransport(RemoteInterpreterTransport transport) {
+    this.transport = transport;
+  }
+
+  public RemoteInterpreterTransport getTransport() {
+    return transport;
+  }
+
   public int reference(InterpreterGroup interpreterGroup, String userName,
                        Boolean isUserImpersonate) {
     synchronized (referenceCount) {
@@ -74,7 +92,8 @@ public abstract class RemoteInterpreterProcess {
       }
 
       if (clientPool == null) {
-        clientPool = new GenericObjectPool<>(new ClientFactory(getHost(), getPort()));
+        clientPool = new GenericObjectPool<>(
+            new ClientFactory(getHost(), getPort(), transport));
         clientPool.setTestOnBorrow(true);
 
         remoteInterpreterEventPoller.setInterpreterGroup(interpreterGroup);
@@ -89,7 +108,12 @@ public abstract class RemoteInterpreterProcess {
     if (clientPool == null || clientPool.isClosed()) {
       return null;
     }
-    return clientPool.borrowObject();
+    long start = System.nanoTime();
+    try {
+      return clientPool.borrowObject();
+    } finally {
+      borrowTimer.update(System.nanoTime() - start);
+    }
   }
 
   public void releaseClient(Client client) {
@@ -236,6 +260,37 @@ public abstract class RemoteInterpreterProcess {
     }
   }
 
+  /**
+   * Get memory and cpu usage of the process.
+   * @return usage, null when the process is not running or not responding
+   */
+  public InterpreterProcessResourceUsage getResourceUsage() {
+    if (!isRunning()) {
+      return null;
+    }
+
+    Client client = null;
+    boolean broken = false;
+    try {
+      client = getClient();
+      if (client == null) {
+        return null;
+      }
+      return InterpreterProcessResourceUsage.fromJson(client.getResourceUsage());
+    } catch (TException e) {
+      broken = true;
+      logger.warn("Can't get resource usage of interpreter process", e);
+      return null;
+    } catch (Exception e) {
+      logger.warn("Can't get resource usage of interpreter process", e);
+      return null;
+    } finally {
+      if (client != null) {
+        releaseClient(client, broken);
+      }
+    }
+  }
+
   public InterpreterContextRunnerPool getInterpreterContextRunnerPool() {
     return interpreterContextRunnerPool;
   }
@@ -45,6 +45,7 @@ import org.apache.zeppelin.scheduler.Job.Status;
 import org.apache.zeppelin.scheduler.JobListener;
 import org.apache.zeppelin.scheduler.JobProgressPoller;
 import org.apache.zeppelin.scheduler.Scheduler;
+import org.apache.zeppelin.tracing.Trace;
 import org.apache.zeppelin.user.AuthenticationInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +61,7 @@ public class RemoteInterpreterServer
   extends Thread
   implements RemoteInterpreterService.Iface, AngularObjectRegistryListener {
   Logger logger = LoggerFactory.getLogger(RemoteInterpreterServer.class);
+  private static final String TRACE_SERVICE = "zeppelin-interpreter";
 
   InterpreterGroup interpreterGroup;
   AngularObjectRegistry angularObjectRegistry;
@@ -93,7 +95,10 @@ public class RemoteInterpreterServer
     processor = new RemoteInterpreterService.Processor<>(this);
     TServerSocket serverTransport = new TServerSocket(port);
     server = new TThreadPoolServer(
-        new TThreadPoolServer.Args(serverTransport).processor(processor));
+        new TThreadPoolServer.Args(serverTransport)
+            .transportFactory(new RemoteInterpreterTransport.ServerTransportFactory())
+            .protocolFactory(new RemoteInterpreterTransport.ServerProtocolFactory())
+            .processor(processor));
     remoteWorksResponsePool = Collections.synchronizedMap(new HashMap<String, Object>());
     remoteWorksController = new ZeppelinRemoteWorksController(this, remoteWorksResponsePool);
   }
@@ -107,6 +112,7 @@ public class RemoteInterpreterServer
   @Override
   public void shutdown() throws TException {
     eventClient.waitForEventQueueBecomesEmpty(DEFAULT_SHUTDOWN_TIMEOUT);
+    eventClient.cancelPendingRequests();
     if (interpreterGroup != null) {
       interpreterGroup.close();
     }
@@ -175,6 +181,18 @@ public class RemoteInterpreterServer
         InterpreterOutput.limit = Integer.parseInt(
             properties.get("zeppelin.interpreter.output.limit"));
       }
+      if (properties.containsKey("zeppelin.interpreter.resource.timeout")) {
+        eventClient.setRequestTimeout(Long.parseLong(
+            properties.get("zeppelin.interpreter.resource.timeout")));
+      }
+      if (properties.containsKey("zeppelin.interpreter.output.flush.size")) {
+        InterpreterResultMessageOutput.flushSize = Integer.parseInt(
+            properties.get("zeppelin.interpreter.output.flush.size"));
+      }
+      if (properties.containsKey("zeppelin.interpreter.output.flush.interval")) {
+        InterpreterResultMessageOutput.flushIntervalMs = Long.parseLong(
+            properties.get("zeppelin.interpreter.output.flush.interval"));
+      }
 
       depLoader = new DependencyResolver(localRepoPath);
       appLoader = new ApplicationLoader(resourcePool, depLoader);
@@ -312,6 +330,13 @@ public class RemoteInterpreterServer
     InterpreterContext context = convert(interpreterContext);
     context.setClassName(intp.getClassName());
 
+    // stages in this process are sent back with the result
+    Trace trace = null;
+    if (context.getTraceId() != null) {
+      trace = new Trace(context.getTraceId(), TRACE_SERVICE,
+          context.getNoteId(), context.getParagraphId());
+    }
+
     Scheduler scheduler = intp.getScheduler();
     InterpretJobListener jobListener = new InterpretJobListener();
     InterpretJob job = new InterpretJob(
@@ -321,7 +346,8 @@ public class RemoteInterpreterServer
         JobProgressPoller.DEFAULT_INTERVAL_MSEC,
         intp,
         st,
-        context);
+        context,
+        trace);
 
     scheduler.submit(job);
 
@@ -350,7 +376,8 @@ public class RemoteInterpreterServer
     }
     return convert(result,
         context.getConfig(),
-        context.getGui());
+        context.getGui(),
+        trace == null ? null : trace.spansToJson());
   }
 
   @Override
@@ -411,6 +438,7 @@ public class RemoteInterpreterServer
     private Interpreter interpreter;
     private String script;
     private InterpreterContext context;
+    private Trace trace;
     private Map<String, Object> infos;
     private Object results;
 
@@ -422,10 +450,24 @@ public class RemoteInterpreterServer
         Interpreter interpreter,
         String script,
         InterpreterContext context) {
+      this(jobId, jobName, listener, progressUpdateIntervalMsec, interpreter, script, context,
+          null);
+    }
+
+    public InterpretJob(
+        String jobId,
+        String jobName,
+        JobListener listener,
+        long progressUpdateIntervalMsec,
+        Interpreter interpreter,
+        String script,
+        InterpreterContext context,
+        Trace trace) {
       super(jobId, jobName, listener, progressUpdateIntervalMsec);
       this.interpreter = interpreter;
       this.script = script;
       this.context = context;
+      this.trace = trace;
     }
 
     @Override
@@ -446,6 +488,17 @@ public class RemoteInterpreterServer
       return infos;
     }
 
+    @Override
+    public String getUser() {
+      AuthenticationInfo authenticationInfo = context.getAuthenticationInfo();
+      return authenticationInfo == null ? null : authenticationInfo.getUser();
+    }
+
+    @Override
+    public String getNoteId() {
+      return context.getNoteId();
+    }
+
     private void processInterpreterHooks(final String noteId) {
       InterpreterHookListener hookListener = new InterpreterHookListener() {
         @Override
@@ -486,6 +539,9 @@ public class RemoteInterpreterServer
 
     @Override
     protected Object jobRun() throws Throwable {
+      if (trace != null && getPendingSince() != 0) {
+        trace.record("interpreter.queue", getPendingSince());
+      }
       try {
         InterpreterContext.set(context);
 
@@ -496,8 +552,12 @@ public class RemoteInterpreterServer
         // is from within the open() method.
         LazyOpenInterpreter lazy = (LazyOpenInterpreter) interpreter;
         if (!lazy.isOpen()) {
+          long openStart = System.nanoTime();
           lazy.open();
           result = lazy.executePrecode(context);
+          if (trace != null) {
+            trace.record("interpreter.open", openStart);
+          }
         }
 
         if (result == null || result.code() == Code.SUCCESS) {
@@ -505,7 +565,11 @@ public class RemoteInterpreterServer
           // Global scope first, followed by notebook scope
           processInterpreterHooks(null);
           processInterpreterHooks(context.getNoteId());
+          long interpretStart = System.nanoTime();
           result = interpreter.interpret(script, context);
+          if (trace != null) {
+            trace.record("interpreter.interpret", interpretStart);
+          }
         }
 
         // data from context.out is prepended to InterpreterResult if both defined
@@ -601,7 +665,7 @@ public class RemoteInterpreterServer
       contextRunners.add(new ParagraphRunner(this, r.getNoteId(), r.getParagraphId()));
     }
 
-    return new InterpreterContext(
+    InterpreterContext context = new InterpreterContext(
         ric.getNoteId(),
         ric.getParagraphId(),
         ric.getReplName(),
@@ -614,6 +678,8 @@ public class RemoteInterpreterServer
         interpreterGroup.getAngularObjectRegistry(),
         interpreterGroup.getResourcePool(),
         contextRunners, output, remoteWorksController, eventClient, progressMap);
+    context.setTraceId(ric.getTraceId());
+    return context;
   }
 
 
@@ -742,7 +808,7 @@ public class RemoteInterpreterServer
   }
 
   private RemoteInterpreterResult convert(InterpreterResult result,
-      Map<String, Object> config, GUI gui) {
+      Map<String, Object> config, GUI gui, String trace) {
 
     List<RemoteInterpreterResultMessage> msg = new LinkedList<>();
     for (InterpreterResultMessage m : result.message()) {
@@ -755,7 +821,8 @@ public class RemoteInterpreterServer
         result.code().name(),
         msg,
         gson.toJson(config),
-        gui.toJson());
+        gui.toJson(),
+        trace);
   }
 
   @Override
@@ -788,7 +855,10 @@ public class RemoteInterpreterServer
     return "Unknown";
   }
 
-
+  @Override
+  public String getResourceUsage() throws TException {
+    return InterpreterProcessResourceUsage.collect().toJson();
+  }
 
   @Override
   public void onAdd(String interpreterGroupId, AngularObject object) {
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter.remote;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.apache.thrift.transport.TTransportFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transport and protocol stack between ZeppelinServer and interpreter process.
+ *
+ * Default stack is plain socket with binary protocol. When other stack is configured,
+ * client sends a preamble on each new connection and RemoteInterpreterServer builds
+ * the same stack for it. Connections without preamble get the default stack, so clients
+ * and servers of earlier versions keep working with each other.
+ */
+public class RemoteInterpreterTransport {
+  private static final Logger logger = LoggerFactory.getLogger(RemoteInterpreterTransport.class);
+
+  public static final String TRANSPORT_PROPERTY = "zeppelin.interpreter.transport";
+  public static final String PROTOCOL_PROPERTY = "zeppelin.interpreter.protocol";
+  public static final String COMPRESSION_THRESHOLD_PROPERTY =
+      "zeppelin.interpreter.compression.threshold";
+
+  public static final String TRANSPORT_SOCKET = "socket";
+  public static final String TRANSPORT_FRAMED = "framed";
+  public static final String PROTOCOL_BINARY = "binary";
+  public static final String PROTOCOL_COMPACT = "compact";
+
+  // first two bytes of the preamble. binary protocol message always starts with 0x80 0x01
+  // and earlier servers reject 0x80 0x5A as a bad protocol version.
+  private static final byte[] PREAMBLE_MAGIC = new byte[] {(byte) 0x80, 0x5A};
+  private static final int FLAG_FRAMED = 1;
+  private static final int FLAG_COMPACT = 2;
+
+  public static final RemoteInterpreterTransport DEFAULT =
+      new RemoteInterpreterTransport(false, false, -1);
+
+  private final boolean framed;
+  private final boolean compact;
+  private final int compressionThreshold;
+
+  public RemoteInterpreterTransport(boolean framed, boolean compact, int compressionThreshold) {
+    this.framed = framed;
+    this.compact = compact;
+    this.compressionThreshold = framed ? compressionThreshold : -1;
+  }
+
+  public static RemoteInterpreterTransport fromProperties(Properties properties) {
+    String transport = properties.getProperty(TRANSPORT_PROPERTY, TRANSPORT_SOCKET).trim();
+    String protocol = properties.getProperty(PROTOCOL_PROPERTY, PROTOCOL_BINARY).trim();
+    int threshold = -1;
+    String thresholdValue = properties.getProperty(COMPRESSION_THRESHOLD_PROPERTY);
+    if (thresholdValue != null && !thresholdValue.trim().isEmpty()) {
+      try {
+        threshold = Integer.parseInt(thresholdValue.trim());
+      } catch (NumberFormatException e) {
+        logger.warn("Invalid {} {}, compression disabled",
+            COMPRESSION_THRESHOLD_PROPERTY, thresholdValue);
+      }
+    }
+
+    if (!TRANSPORT_SOCKET.equals(transport) && !TRANSPORT_FRAMED.equals(transport)) {
+      logger.warn("Unknown {} {}, using {}", TRANSPORT_PROPERTY, transport, TRANSPORT_SOCKET);
+    }
+    if (!PROTOCOL_BINARY.equals(protocol) && !PROTOCOL_COMPACT.equals(protocol)) {
+      logger.warn("Unknown {} {}, using {}", PROTOCOL_PROPERTY, protocol, PROTOCOL_BINARY);
+    }
+    return new RemoteInterpreterTransport(TRANSPORT_FRAMED.equals(transport),
+        PROTOCOL_COMPACT.equals(protocol), threshold);
+  }
+
+  public boolean isDefault() {
+    return !framed && !compact;
+  }
+
+  public boolean isFramed() {
+    return framed;
+  }
+
+  public boolean isCompact() {
+    return compact;
+  }
+
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Build the client side stack on top of the opened socket. Sends preamble unless
+   * default stack is used.
+   */
+  public TProtocol getClientProtocol(TTransport socket) throws TTransportException {
+    if (!isDefault()) {
+      byte[] preamble = new byte[7];
+      preamble[0] = PREAMBLE_MAGIC[0];
+      preamble[1] = PREAMBLE_MAGIC[1];
+      preamble[2] = (byte) ((framed ? FLAG_FRAMED : 0) | (compact ? FLAG_COMPACT : 0));
+      CompressedFramedTransport.encodeInt(compressionThreshold, preamble, 3);
+      socket.write(preamble);
+      socket.flush();
+    }
+    return getProtocol(getTransport(socket));
+  }
+
+  TTransport getTransport(TTransport socket) {
+    return framed ? new CompressedFramedTransport(socket, compressionThreshold) : socket;
+  }
+
+  TProtocol getProtocol(TTransport transport) {
+    return compact ? new TCompactProtocol(transport) : new TBinaryProtocol(transport);
+  }
+
+  @Override
+  public String toString() {
+    return (framed ? TRANSPORT_FRAMED : TRANSPORT_SOCKET) + "/" +
+        (compact ? PROTOCOL_COMPACT : PROTOCOL_BINARY) +
+        (compressionThreshold >= 0 ? "/compression>=" + compressionThreshold : "");
+  }
+
+  /**
+   * Read the preamble of the connection, if there is one.
+   */
+  static NegotiatedTransport negotiate(TTransport socket) {
+    byte[] magic = new byte[2];
+    try {
+      socket.readAll(magic, 0, 2);
+      if (magic[0] != PREAMBLE_MAGIC[0] || magic[1] != PREAMBLE_MAGIC[1]) {
+        return new NegotiatedTransport(socket, DEFAULT, magic);
+      }
+
+      byte[] option = new byte[5];
+      socket.readAll(option, 0, 5);
+      RemoteInterpreterTransport transport = new RemoteInterpreterTransport(
+          (option[0] & FLAG_FRAMED) != 0,
+          (option[0] & FLAG_COMPACT) != 0,
+          CompressedFramedTransport.decodeInt(option, 1));
+      logger.debug("Client connected with {} transport", transport);
+      return new NegotiatedTransport(transport.getTransport(socket), transport, null);
+    } catch (TTransportException e) {
+      // connection closed before sending anything. let the server loop see it.
+      return new NegotiatedTransport(socket, DEFAULT, null);
+    }
+  }
+
+  /**
+   * Server side transport factory. Builds the stack requested by the client preamble.
+   */
+  public static class ServerTransportFactory extends TTransportFactory {
+    // server asks for input and output transport of each connection in turn
+    private final Map<TTransport, NegotiatedTransport> transports =
+        Collections.synchronizedMap(new WeakHashMap<TTransport, NegotiatedTransport>());
+
+    @Override
+    public TTransport getTransport(TTransport socket) {
+      NegotiatedTransport transport = transports.remove(socket);
+      if (transport == null) {
+        transport = negotiate(socket);
+        transports.put(socket, transport);
+      }
+      return transport;
+    }
+  }
+
+  /**
+   * Server side protocol factory to be used with ServerTransportFactory.
+   */
+  public static class ServerProtocolFactory implements TProtocolFactory {
+    @Override
+    public TProtocol getProtocol(TTransport transport) {
+      if (transport instanceof NegotiatedTransport) {
+        return ((NegotiatedTransport) transport).getOption().getProtocol(transport);
+      }
+      return DEFAULT.getProtocol(transport);
+    }
+  }
+
+  /**
+   * Transport of a server side connection, with the bytes read while looking for preamble.
+   */
+  static class NegotiatedTransport extends TTransport {
+    private final TTransport transport;
+    private final RemoteInterpreterTransport option;
+    private byte[] pushback;
+    private int pushbackPos = 0;
+
+    NegotiatedTransport(TTransport transport, RemoteInterpreterTransport option,
+        byte[] pushback) {
+      this.transport = transport;
+      this.option = option;
+      this.pushback = pushback;
+    }
+
+    RemoteInterpreterTransport getOption() {
+      return option;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return transport.isOpen();
+    }
+
+    @Override
+    public void open() throws TTransportException {
+      transport.open();
+    }
+
+    @Override
+    public void close() {
+      transport.close();
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws TTransportException {
+      if (pushback != null) {
+        int n = Math.min(len, pushback.length - pushbackPos);
+        System.arraycopy(pushback, pushbackPos, buf, off, n);
+        pushbackPos += n;
+        if (pushbackPos == pushback.length) {
+          pushback = null;
+        }
+        return n;
+      }
+      return transport.read(buf, off, len);
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) throws TTransportException {
+      transport.write(buf, off, len);
+    }
+
+    @Override
+    public void flush() throws TTransportException {
+      transport.flush();
+    }
+
+    @Override
+    public byte[] getBuffer() {
+      return pushback == null ? transport.getBuffer() : null;
+    }
+
+    @Override
+    public int getBufferPosition() {
+      return pushback == null ? transport.getBufferPosition() : 0;
+    }
+
+    @Override
+    public int getBytesRemainingInBuffer() {
+      return pushback == null ? transport.getBytesRemainingInBuffer() : -1;
+    }
+
+    @Override
+    public void consumeBuffer(int len) {
+      transport.consumeBuffer(len);
+    }
+  }
+}
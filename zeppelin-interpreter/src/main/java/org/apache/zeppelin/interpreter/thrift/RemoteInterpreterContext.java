@@ -64,6 +64,7 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
   private static final org.apache.thrift.protocol.TField CONFIG_FIELD_DESC = new org.apache.thrift.protocol.TField("config", org.apache.thrift.protocol.TType.STRING, (short)7);
   private static final org.apache.thrift.protocol.TField GUI_FIELD_DESC = new org.apache.thrift.protocol.TField("gui", org.apache.thrift.protocol.TType.STRING, (short)8);
   private static final org.apache.thrift.protocol.TField RUNNERS_FIELD_DESC = new org.apache.thrift.protocol.TField("runners", org.apache.thrift.protocol.TType.STRING, (short)9);
+  private static final org.apache.thrift.protocol.TField TRACE_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("traceId", org.apache.thrift.protocol.TType.STRING, (short)10);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -80,6 +81,7 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
   public String config; // required
   public String gui; // required
   public String runners; // required
+  public String traceId; // required
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -91,7 +93,8 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
     AUTHENTICATION_INFO((short)6, "authenticationInfo"),
     CONFIG((short)7, "config"),
     GUI((short)8, "gui"),
-    RUNNERS((short)9, "runners");
+    RUNNERS((short)9, "runners"),
+    TRACE_ID((short)10, "traceId");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -124,6 +127,8 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
           return GUI;
         case 9: // RUNNERS
           return RUNNERS;
+        case 10: // TRACE_ID
+          return TRACE_ID;
         default:
           return null;
       }
@@ -185,6 +190,8 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
     tmpMap.put(_Fields.RUNNERS, new org.apache.thrift.meta_data.FieldMetaData("runners", org.apache.thrift.TFieldRequirementType.DEFAULT, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+    tmpMap.put(_Fields.TRACE_ID, new org.apache.thrift.meta_data.FieldMetaData("traceId", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(RemoteInterpreterContext.class, metaDataMap);
   }
@@ -201,7 +208,8 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
     String authenticationInfo,
     String config,
     String gui,
-    String runners)
+    String runners,
+    String traceId)
   {
     this();
     this.noteId = noteId;
@@ -213,6 +221,7 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
     this.config = config;
     this.gui = gui;
     this.runners = runners;
+    this.traceId = traceId;
   }
 
   /**
@@ -246,6 +255,9 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
     if (other.isSetRunners()) {
       this.runners = other.runners;
     }
+    if (other.isSetTraceId()) {
+      this.traceId = other.traceId;
+    }
   }
 
   public RemoteInterpreterContext deepCopy() {
@@ -263,6 +275,7 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
     this.config = null;
     this.gui = null;
     this.runners = null;
+    this.traceId = null;
   }
 
   public String getNoteId() {
@@ -481,6 +494,30 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
     }
   }
 
+  public String getTraceId() {
+    return this.traceId;
+  }
+
+  public RemoteInterpreterContext setTraceId(String traceId) {
+    this.traceId = traceId;
+    return this;
+  }
+
+  public void unsetTraceId() {
+    this.traceId = null;
+  }
+
+  /** Returns true if field traceId is set (has been assigned a value) and false otherwise */
+  public boolean isSetTraceId() {
+    return this.traceId != null;
+  }
+
+  public void setTraceIdIsSet(boolean value) {
+    if (!value) {
+      this.traceId = null;
+    }
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case NOTE_ID:
@@ -555,6 +592,14 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
       }
       break;
 
+    case TRACE_ID:
+      if (value == null) {
+        unsetTraceId();
+      } else {
+        setTraceId((String)value);
+      }
+      break;
+
     }
   }
 
@@ -587,6 +632,9 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
     case RUNNERS:
       return getRunners();
 
+    case TRACE_ID:
+      return getTraceId();
+
     }
     throw new IllegalStateException();
   }
@@ -616,6 +664,8 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
       return isSetGui();
     case RUNNERS:
       return isSetRunners();
+    case TRACE_ID:
+      return isSetTraceId();
     }
     throw new IllegalStateException();
   }
@@ -714,6 +764,15 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
         return false;
     }
 
+    boolean this_present_traceId = true && this.isSetTraceId();
+    boolean that_present_traceId = true && that.isSetTraceId();
+    if (this_present_traceId || that_present_traceId) {
+      if (!(this_present_traceId && that_present_traceId))
+        return false;
+      if (!this.traceId.equals(that.traceId))
+        return false;
+    }
+
     return true;
   }
 
@@ -766,6 +825,11 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
     if (present_runners)
       list.add(runners);
 
+    boolean present_traceId = true && (isSetTraceId());
+    list.add(present_traceId);
+    if (present_traceId)
+      list.add(traceId);
+
     return list.hashCode();
   }
 
@@ -867,6 +931,16 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetTraceId()).compareTo(other.isSetTraceId());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetTraceId()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.traceId, other.traceId);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -958,6 +1032,14 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
       sb.append(this.runners);
     }
     first = false;
+    if (!first) sb.append(", ");
+    sb.append("traceId:");
+    if (this.traceId == null) {
+      sb.append("null");
+    } else {
+      sb.append(this.traceId);
+    }
+    first = false;
     sb.append(")");
     return sb.toString();
   }
@@ -1073,6 +1155,14 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 10: // TRACE_ID
+            if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+              struct.traceId = iprot.readString();
+              struct.setTraceIdIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -1133,6 +1223,11 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
         oprot.writeString(struct.runners);
         oprot.writeFieldEnd();
       }
+      if (struct.traceId != null) {
+        oprot.writeFieldBegin(TRACE_ID_FIELD_DESC);
+        oprot.writeString(struct.traceId);
+        oprot.writeFieldEnd();
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -1178,7 +1273,10 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
       if (struct.isSetRunners()) {
         optionals.set(8);
       }
-      oprot.writeBitSet(optionals, 9);
+      if (struct.isSetTraceId()) {
+        optionals.set(9);
+      }
+      oprot.writeBitSet(optionals, 10);
       if (struct.isSetNoteId()) {
         oprot.writeString(struct.noteId);
       }
@@ -1206,12 +1304,15 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
       if (struct.isSetRunners()) {
         oprot.writeString(struct.runners);
       }
+      if (struct.isSetTraceId()) {
+        oprot.writeString(struct.traceId);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, RemoteInterpreterContext struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(9);
+      BitSet incoming = iprot.readBitSet(10);
       if (incoming.get(0)) {
         struct.noteId = iprot.readString();
         struct.setNoteIdIsSet(true);
@@ -1248,6 +1349,10 @@ public class RemoteInterpreterContext implements org.apache.thrift.TBase<RemoteI
         struct.runners = iprot.readString();
         struct.setRunnersIsSet(true);
       }
+      if (incoming.get(9)) {
+        struct.traceId = iprot.readString();
+        struct.setTraceIdIsSet(true);
+      }
     }
   }
 
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing count
+ */
+public class Counter extends Metric implements CounterMXBean {
+  private final AtomicLong count = new AtomicLong();
+
+  Counter(String name, String help, String[] labels) {
+    super(name, help, labels);
+  }
+
+  public void inc() {
+    count.incrementAndGet();
+  }
+
+  public void inc(long n) {
+    count.addAndGet(n);
+  }
+
+  @Override
+  public long getCount() {
+    return count.get();
+  }
+
+  @Override
+  String getType() {
+    return "counter";
+  }
+
+  @Override
+  void writeSamples(StringBuilder sb) {
+    writeSample(sb, "", null, null, Long.toString(count.get()));
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.metrics;
+
+/**
+ * Gauge registered in MetricRegistry
+ */
+public class GaugeMetric extends Metric implements GaugeMXBean {
+  private final Gauge gauge;
+
+  GaugeMetric(String name, String help, String[] labels, Gauge gauge) {
+    super(name, help, labels);
+    this.gauge = gauge;
+  }
+
+  @Override
+  public long getValue() {
+    return gauge.getValue();
+  }
+
+  @Override
+  String getType() {
+    return "gauge";
+  }
+
+  @Override
+  void writeSamples(StringBuilder sb) {
+    writeSample(sb, "", null, null, Long.toString(getValue()));
+  }
+}
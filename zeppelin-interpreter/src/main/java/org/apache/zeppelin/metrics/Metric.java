@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.metrics;
+
+/**
+ * Base class of metrics in MetricRegistry.
+ * Labels are given as key, value pairs.
+ */
+public abstract class Metric {
+  private final String name;
+  private final String help;
+  private final String[] labels;
+
+  Metric(String name, String help, String[] labels) {
+    if (labels.length % 2 != 0) {
+      throw new IllegalArgumentException("Labels should be key, value pairs: " + name);
+    }
+    this.name = name;
+    this.help = help;
+    this.labels = labels;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getHelp() {
+    return help;
+  }
+
+  String[] getLabels() {
+    return labels;
+  }
+
+  /**
+   * Prometheus metric type
+   */
+  abstract String getType();
+
+  /**
+   * Append samples of this metric in Prometheus text format
+   */
+  abstract void writeSamples(StringBuilder sb);
+
+  void writeSample(StringBuilder sb, String suffix, String extraLabel, String extraValue,
+      String value) {
+    sb.append(name).append(suffix);
+    writeLabels(sb, labels, extraLabel, extraValue);
+    sb.append(' ').append(value).append('\n');
+  }
+
+  static String id(String name, String[] labels) {
+    StringBuilder sb = new StringBuilder(name);
+    writeLabels(sb, labels, null, null);
+    return sb.toString();
+  }
+
+  private static void writeLabels(StringBuilder sb, String[] labels, String extraLabel,
+      String extraValue) {
+    if (labels.length == 0 && extraLabel == null) {
+      return;
+    }
+    sb.append('{');
+    for (int i = 0; i < labels.length; i += 2) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      writeLabel(sb, labels[i], labels[i + 1]);
+    }
+    if (extraLabel != null) {
+      if (labels.length > 0) {
+        sb.append(',');
+      }
+      writeLabel(sb, extraLabel, extraValue);
+    }
+    sb.append('}');
+  }
+
+  private static void writeLabel(StringBuilder sb, String key, String value) {
+    sb.append(key).append("=\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' || c == '"') {
+        sb.append('\\').append(c);
+      } else if (c == '\n') {
+        sb.append("\\n");
+      } else {
+        sb.append(c);
+      }
+    }
+    sb.append('"');
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of metrics. Metrics are exported in Prometheus text format and optionally as JMX
+ * MXBeans under the 'org.apache.zeppelin' domain.
+ *
+ * Get metrics once, e.g. in a static field, and update them in hot paths. Getting a metric
+ * looks it up by name and labels, which allocates.
+ */
+public class MetricRegistry {
+  private static final Logger logger = LoggerFactory.getLogger(MetricRegistry.class);
+  private static final String JMX_DOMAIN = "org.apache.zeppelin";
+
+  private static final MetricRegistry singleton = new MetricRegistry();
+
+  // sorted by id, so metrics of the same name are next to each other
+  private final ConcurrentSkipListMap<String, Metric> metrics = new ConcurrentSkipListMap<>();
+  private volatile boolean jmxEnabled = false;
+
+  public static MetricRegistry singleton() {
+    return singleton;
+  }
+
+  public Counter counter(String name, String help, String... labels) {
+    return getOrAdd(new Counter(name, help, labels), Counter.class);
+  }
+
+  public Timer timer(String name, String help, String... labels) {
+    return getOrAdd(new Timer(name, help, labels), Timer.class);
+  }
+
+  /**
+   * Register a gauge. Replaces the gauge registered with the same name and labels.
+   */
+  public void gauge(String name, String help, Gauge gauge, String... labels) {
+    GaugeMetric metric = new GaugeMetric(name, help, labels, gauge);
+    String id = Metric.id(name, labels);
+    Metric prev = metrics.put(id, metric);
+    if (prev != null) {
+      unregisterMBean(prev);
+    }
+    registerMBean(metric);
+  }
+
+  public void remove(String name, String... labels) {
+    Metric metric = metrics.remove(Metric.id(name, labels));
+    if (metric != null) {
+      unregisterMBean(metric);
+    }
+  }
+
+  public Metric get(String name, String... labels) {
+    return metrics.get(Metric.id(name, labels));
+  }
+
+  private <T extends Metric> T getOrAdd(T metric, Class<T> type) {
+    String id = Metric.id(metric.getName(), metric.getLabels());
+    Metric prev = metrics.putIfAbsent(id, metric);
+    if (prev == null) {
+      registerMBean(metric);
+      return metric;
+    }
+    if (!type.isInstance(prev)) {
+      throw new IllegalArgumentException(id + " is already registered as " + prev.getType());
+    }
+    return type.cast(prev);
+  }
+
+  /**
+   * @return all metrics in Prometheus text format
+   */
+  public String toPrometheusText() {
+    StringBuilder sb = new StringBuilder();
+    String lastName = null;
+    for (Metric metric : metrics.values()) {
+      if (!metric.getName().equals(lastName)) {
+        lastName = metric.getName();
+        if (metric.getHelp() != null) {
+          sb.append("# HELP ").append(lastName).append(' ')
+              .append(metric.getHelp().replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        }
+        sb.append("# TYPE ").append(lastName).append(' ').append(metric.getType()).append('\n');
+      }
+      try {
+        metric.writeSamples(sb);
+      } catch (RuntimeException e) {
+        logger.warn("Can't collect metric " + metric.getName(), e);
+      }
+    }
+    return sb.toString();
+  }
+
+  public boolean isJmxEnabled() {
+    return jmxEnabled;
+  }
+
+  /**
+   * Register all metrics, including ones added later, as MXBeans
+   */
+  public synchronized void setJmxEnabled(boolean enabled) {
+    if (jmxEnabled == enabled) {
+      return;
+    }
+    jmxEnabled = enabled;
+    for (Metric metric : metrics.values()) {
+      if (enabled) {
+        registerMBean(metric);
+      } else {
+        unregisterMBean(metric, true);
+      }
+    }
+  }
+
+  private void registerMBean(Metric metric) {
+    if (!jmxEnabled) {
+      return;
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName objectName = objectName(metric);
+      if (!server.isRegistered(objectName)) {
+        server.registerMBean(metric, objectName);
+      }
+    } catch (JMException e) {
+      logger.warn("Can't register metric " + metric.getName() + " to JMX", e);
+    }
+  }
+
+  private void unregisterMBean(Metric metric) {
+    unregisterMBean(metric, false);
+  }
+
+  private void unregisterMBean(Metric metric, boolean force) {
+    if (!jmxEnabled && !force) {
+      return;
+    }
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName objectName = objectName(metric);
+      if (server.isRegistered(objectName)) {
+        server.unregisterMBean(objectName);
+      }
+    } catch (JMException e) {
+      logger.warn("Can't unregister metric " + metric.getName() + " from JMX", e);
+    }
+  }
+
+  private static ObjectName objectName(Metric metric) throws JMException {
+    StringBuilder sb = new StringBuilder(JMX_DOMAIN)
+        .append(":type=").append(metric.getType())
+        .append(",name=").append(metric.getName());
+    String[] labels = metric.getLabels();
+    for (int i = 0; i < labels.length; i += 2) {
+      String key = labels[i];
+      if (key.equals("type") || key.equals("name")) {
+        // keys should be unique in ObjectName
+        key = "label_" + key;
+      }
+      sb.append(',').append(key).append('=').append(ObjectName.quote(labels[i + 1]));
+    }
+    return new ObjectName(sb.toString());
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations. Recording a duration does not allocate, so it can be used in hot paths
+ * <pre>
+ *   long start = System.nanoTime();
+ *   try {
+ *     ...
+ *   } finally {
+ *     timer.update(System.nanoTime() - start);
+ *   }
+ * </pre>
+ */
+public class Timer extends Metric implements TimerMXBean {
+  // upper bounds of buckets in seconds
+  private static final double[] BUCKETS =
+      {0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10, 60};
+  private static final long[] BUCKETS_NANOS = new long[BUCKETS.length];
+  private static final String[] BUCKET_LABELS = new String[BUCKETS.length];
+
+  static {
+    for (int i = 0; i < BUCKETS.length; i++) {
+      BUCKETS_NANOS[i] = (long) (BUCKETS[i] * TimeUnit.SECONDS.toNanos(1));
+      BUCKET_LABELS[i] = Double.toString(BUCKETS[i]);
+    }
+  }
+
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong totalNanos = new AtomicLong();
+  private final AtomicLong maxNanos = new AtomicLong();
+  // the last one counts durations over the largest bucket
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS.length + 1);
+
+  Timer(String name, String help, String[] labels) {
+    super(name, help, labels);
+  }
+
+  /**
+   * Record a duration
+   * @param nanos duration in nanoseconds
+   */
+  public void update(long nanos) {
+    if (nanos < 0) {
+      return;
+    }
+
+    int i = 0;
+    while (i < BUCKETS_NANOS.length && nanos > BUCKETS_NANOS[i]) {
+      i++;
+    }
+    buckets.incrementAndGet(i);
+    totalNanos.addAndGet(nanos);
+    count.incrementAndGet();
+
+    long max = maxNanos.get();
+    while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+      max = maxNanos.get();
+    }
+  }
+
+  @Override
+  public long getCount() {
+    return count.get();
+  }
+
+  @Override
+  public double getMeanMillis() {
+    long n = count.get();
+    return n == 0 ? 0 : getTotalMillis() / n;
+  }
+
+  @Override
+  public double getMaxMillis() {
+    return maxNanos.get() / 1e6;
+  }
+
+  @Override
+  public double getTotalMillis() {
+    return totalNanos.get() / 1e6;
+  }
+
+  @Override
+  String getType() {
+    return "histogram";
+  }
+
+  @Override
+  void writeSamples(StringBuilder sb) {
+    long cumulative = 0;
+    for (int i = 0; i < BUCKETS.length; i++) {
+      cumulative += buckets.get(i);
+      writeSample(sb, "_bucket", "le", BUCKET_LABELS[i], Long.toString(cumulative));
+    }
+    cumulative += buckets.get(BUCKETS.length);
+    writeSample(sb, "_bucket", "le", "+Inf", Long.toString(cumulative));
+    writeSample(sb, "_sum", null, null, Double.toString(totalNanos.get() / 1e9));
+    writeSample(sb, "_count", null, null, Long.toString(cumulative));
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.scheduler;
+
+import java.util.Collection;
+
+import org.apache.zeppelin.interpreter.InterpreterResult;
+import org.apache.zeppelin.interpreter.InterpreterResult.Code;
+import org.apache.zeppelin.metrics.Counter;
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.scheduler.Job.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides whether a scheduler takes a submitted job into its queue.
+ *
+ * A job that is already waiting in the queue is not added again. A job is rejected when the
+ * queue is full, or when its user has too many waiting jobs. Rejected jobs finish right away
+ * with ERROR status and the reason as result, instead of waiting in the queue.
+ */
+public class AdmissionControl {
+  private static final Logger logger = LoggerFactory.getLogger(AdmissionControl.class);
+
+  /**
+   * Outcome of check()
+   */
+  public enum Decision {
+    ACCEPT,
+    // the same job is already waiting, nothing to do
+    ALREADY_WAITING,
+    // another job with the same id is already waiting
+    DUPLICATE,
+    QUEUE_FULL,
+    USER_LIMIT
+  }
+
+  private final String schedulerName;
+  private final Counter rejected;
+  private final Counter deduplicated;
+  private volatile int queueCapacity;
+  private volatile int maxPendingPerUser;
+
+  public AdmissionControl(String schedulerName, MetricRegistry registry) {
+    this.schedulerName = schedulerName;
+    this.rejected = registry.counter("zeppelin_scheduler_rejected_total",
+        "Number of jobs rejected by scheduler", "scheduler", schedulerName);
+    this.deduplicated = registry.counter("zeppelin_scheduler_deduplicated_total",
+        "Number of submissions of already waiting jobs", "scheduler", schedulerName);
+  }
+
+  /**
+   * @param queueCapacity max waiting jobs, 0 or less for no limit
+   * @param maxPendingPerUser max waiting jobs of a user, 0 or less for no limit
+   */
+  public void setLimits(int queueCapacity, int maxPendingPerUser) {
+    this.queueCapacity = queueCapacity;
+    this.maxPendingPerUser = maxPendingPerUser;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public int getMaxPendingPerUser() {
+    return maxPendingPerUser;
+  }
+
+  public long getRejectedCount() {
+    return rejected.getCount();
+  }
+
+  public long getDeduplicatedCount() {
+    return deduplicated.getCount();
+  }
+
+  /**
+   * Check a submitted job against the waiting jobs. Call it with the queue locked,
+   * and add the job only if it returns ACCEPT. Otherwise pass the decision to reject().
+   */
+  public Decision check(Collection<Job> waiting, Job job) {
+    int capacity = queueCapacity;
+    int perUser = maxPendingPerUser;
+    String user = job.getUser();
+    int userPending = 0;
+
+    for (Job w : waiting) {
+      if (w.getId().equals(job.getId())) {
+        return w == job ? Decision.ALREADY_WAITING : Decision.DUPLICATE;
+      }
+      if (perUser > 0 && user != null && user.equals(w.getUser())) {
+        userPending++;
+      }
+    }
+    if (capacity > 0 && waiting.size() >= capacity) {
+      return Decision.QUEUE_FULL;
+    }
+    if (perUser > 0 && user != null && userPending >= perUser) {
+      return Decision.USER_LIMIT;
+    }
+    return Decision.ACCEPT;
+  }
+
+  /**
+   * Finish a job that was not accepted. Call it without the queue locked,
+   * as it notifies the job listener.
+   */
+  public void reject(Job job, Decision decision) {
+    if (decision == Decision.ACCEPT) {
+      return;
+    }
+    if (decision == Decision.ALREADY_WAITING) {
+      deduplicated.inc();
+      logger.info("Job {} is already waiting in scheduler {}", job.getId(), schedulerName);
+      return;
+    }
+
+    rejected.inc();
+    String message = rejectionMessage(decision, job);
+    logger.warn("Reject job {}: {}", job.getId(), message);
+    if (job.isRunning()) {
+      // submitted again while running, leave the running one alone
+      return;
+    }
+    JobRejectedException e = new JobRejectedException(message);
+    job.setResult(new InterpreterResult(Code.ERROR, message));
+    job.setException(e);
+    job.setStatus(Status.ERROR);
+  }
+
+  private String rejectionMessage(Decision decision, Job job) {
+    if (decision == Decision.DUPLICATE) {
+      return "Job " + job.getId() + " is already waiting to run";
+    } else if (decision == Decision.QUEUE_FULL) {
+      return "Too many jobs are waiting to run (" + queueCapacity + "). Please try again later";
+    } else {
+      return "User " + job.getUser() + " has too many jobs waiting to run ("
+          + maxPendingPerUser + "). Please try again later";
+    }
+  }
+}
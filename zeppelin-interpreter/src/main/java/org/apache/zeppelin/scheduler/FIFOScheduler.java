@@ -34,6 +34,7 @@ public class FIFOScheduler implements Scheduler {
   List<Job> queue = new LinkedList<>();
   private ExecutorService executor;
   private SchedulerListener listener;
+  private volatile AdmissionControl admissionControl;
   boolean terminate = false;
   Job runningJob = null;
   private String name;
@@ -78,13 +79,35 @@ public class FIFOScheduler implements Scheduler {
 
   @Override
   public void submit(Job job) {
-    job.setStatus(Status.PENDING);
+    if (!job.isRunning()) {
+      job.setStatus(Status.PENDING);
+    }
+    AdmissionControl.Decision decision = AdmissionControl.Decision.ACCEPT;
     synchronized (queue) {
-      queue.add(job);
-      queue.notify();
+      if (admissionControl != null) {
+        decision = admissionControl.check(queue, job);
+      }
+      if (decision == AdmissionControl.Decision.ACCEPT) {
+        queue.add(job);
+        queue.notify();
+      }
+    }
+    if (admissionControl != null) {
+      admissionControl.reject(job, decision);
     }
   }
 
+  /**
+   * @param admissionControl decides which submitted jobs are queued, null to queue all
+   */
+  public void setAdmissionControl(AdmissionControl admissionControl) {
+    this.admissionControl = admissionControl;
+  }
+
+  public AdmissionControl getAdmissionControl() {
+    return admissionControl;
+  }
+
 
   @Override
   public Job removeFromWaitingQueue(String jobId) {
@@ -117,6 +140,7 @@ public class FIFOScheduler implements Scheduler {
           }
 
           runningJob = queue.remove(0);
+          runningJob.markDispatched();
         }
 
         final Scheduler scheduler = this;
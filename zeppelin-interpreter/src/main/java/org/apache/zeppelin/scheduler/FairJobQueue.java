@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.scheduler;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queue of FairScheduler. Not thread safe.
+ *
+ * Jobs are taken by priority class first. A job that has waited long enough is moved up
+ * one class per aging period, so cron and run-all jobs can't starve. Within a class, users
+ * are served by start-time fair queuing: each dispatch advances the user's virtual time by
+ * 1 / weight, and the user with the lowest virtual time goes next. Notes of the same user are
+ * served the same way, and jobs of the same note in submission order.
+ */
+class FairJobQueue {
+  static final String ANONYMOUS = "";
+  // forget virtual times of idle users and notes past this many entries
+  private static final int MAX_IDLE_SHARES = 1000;
+
+  private final int maxConcurrencyPerUser;
+  private final long agingNanos;
+  private final Map<String, Integer> weights;
+
+  private final List<Entry> entries = new LinkedList<>();
+  private final Map<String, Share> shares = new HashMap<>();
+  // virtual time of the last dispatch
+  private double clock;
+  private long seq;
+
+  /**
+   * @param maxConcurrencyPerUser max dispatched jobs per user, 0 or less for no limit
+   * @param agingNanos waiting time after which a job moves up one priority class,
+   *                   0 or less to disable aging
+   * @param weights share of each user, 1 for users not in the map
+   */
+  FairJobQueue(int maxConcurrencyPerUser, long agingNanos, Map<String, Integer> weights) {
+    this.maxConcurrencyPerUser = maxConcurrencyPerUser;
+    this.agingNanos = agingNanos;
+    this.weights = weights;
+  }
+
+  static String userOf(Job job) {
+    return job.getUser() == null ? ANONYMOUS : job.getUser();
+  }
+
+  void add(Job job, long now) {
+    entries.add(new Entry(job, now, seq++));
+  }
+
+  Job remove(String jobId) {
+    Iterator<Entry> it = entries.iterator();
+    while (it.hasNext()) {
+      Job job = it.next().job;
+      if (job.getId().equals(jobId)) {
+        it.remove();
+        return job;
+      }
+    }
+    return null;
+  }
+
+  List<Job> getJobs() {
+    List<Job> jobs = new LinkedList<>();
+    for (Entry e : entries) {
+      jobs.add(e.job);
+    }
+    return jobs;
+  }
+
+  boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  /**
+   * Take the next job to dispatch
+   *
+   * @param dispatched number of dispatched, not finished jobs of each user
+   * @param now System.nanoTime()
+   * @return null if the queue is empty or all users with waiting jobs are at their limit
+   */
+  Job poll(Map<String, Integer> dispatched, long now) {
+    Entry best = null;
+    int bestClass = 0;
+    double bestUserTime = 0;
+    double bestNoteTime = 0;
+
+    for (Entry e : entries) {
+      String user = userOf(e.job);
+      if (maxConcurrencyPerUser > 0) {
+        Integer count = dispatched.get(user);
+        if (count != null && count >= maxConcurrencyPerUser) {
+          continue;
+        }
+      }
+
+      int priorityClass = priorityClass(e, now);
+      Share share = shares.get(user);
+      double ut = share == null ? clock : Math.max(share.time, clock);
+      double nt = share == null ? 0 : share.noteTime(e.job.getNoteId());
+      if (best == null || priorityClass < bestClass
+          || (priorityClass == bestClass && (ut < bestUserTime
+              || (ut == bestUserTime && (nt < bestNoteTime
+                  || (nt == bestNoteTime && e.seq < best.seq)))))) {
+        best = e;
+        bestClass = priorityClass;
+        bestUserTime = ut;
+        bestNoteTime = nt;
+      }
+    }
+
+    if (best == null) {
+      return null;
+    }
+    entries.remove(best);
+    charge(best.job, bestUserTime, bestNoteTime);
+    return best.job;
+  }
+
+  int priorityClass(Entry e, long now) {
+    int priorityClass = e.job.getPriority().ordinal();
+    if (agingNanos > 0) {
+      priorityClass -= (int) Math.min(priorityClass, (now - e.enqueuedAt) / agingNanos);
+    }
+    return priorityClass;
+  }
+
+  private int weight(String user) {
+    Integer weight = weights.get(user);
+    return weight == null || weight <= 0 ? 1 : weight;
+  }
+
+  private void charge(Job job, double ut, double nt) {
+    String user = userOf(job);
+    Share share = shares.get(user);
+    if (share == null) {
+      if (shares.size() >= MAX_IDLE_SHARES) {
+        forgetIdle();
+      }
+      share = new Share();
+      shares.put(user, share);
+    }
+    clock = Math.max(clock, ut);
+    share.time = ut + 1.0 / weight(user);
+    share.charge(job.getNoteId(), nt);
+  }
+
+  /**
+   * Users that are behind the clock and have nothing waiting are the same as new users,
+   * coming back from idle at the current clock instead of using saved up share.
+   */
+  private void forgetIdle() {
+    Map<String, Boolean> waiting = new HashMap<>();
+    for (Entry e : entries) {
+      waiting.put(userOf(e.job), true);
+    }
+    Iterator<Map.Entry<String, Share>> it = shares.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<String, Share> e = it.next();
+      if (e.getValue().time <= clock && !waiting.containsKey(e.getKey())) {
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Virtual times of a user and of the user's notes
+   */
+  private static class Share {
+    double time;
+    double noteClock;
+    final Map<String, Double> notes = new HashMap<>();
+
+    double noteTime(String noteId) {
+      Double t = notes.get(noteId);
+      return t == null ? noteClock : Math.max(t, noteClock);
+    }
+
+    void charge(String noteId, double nt) {
+      noteClock = Math.max(noteClock, nt);
+      if (notes.size() >= MAX_IDLE_SHARES) {
+        Iterator<Double> it = notes.values().iterator();
+        while (it.hasNext()) {
+          if (it.next() <= noteClock) {
+            it.remove();
+          }
+        }
+      }
+      notes.put(noteId, nt + 1);
+    }
+  }
+
+  static class Entry {
+    final Job job;
+    final long enqueuedAt;
+    final long seq;
+
+    Entry(Job job, long enqueuedAt, long seq) {
+      this.job = job;
+      this.enqueuedAt = enqueuedAt;
+      this.seq = seq;
+    }
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.scheduler;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.zeppelin.scheduler.Job.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fair scheduler sits in front of another scheduler and decides which waiting job it gets next.
+ *
+ * Jobs are held back until the underlying scheduler has no waiting job, so the order is decided
+ * as late as possible. Interactive jobs go before run-all jobs, which go before cron jobs.
+ * Within a priority class users get their share in turn, so one user's run-all doesn't block
+ * another user's paragraphs. See FairJobQueue.
+ */
+public class FairScheduler implements Scheduler {
+  public static final String SCHEDULER_PROPERTY = "zeppelin.interpreter.scheduler";
+  public static final String USER_CONCURRENCY_PROPERTY =
+      "zeppelin.interpreter.scheduler.fair.user.concurrency";
+  public static final String AGING_PROPERTY = "zeppelin.interpreter.scheduler.fair.aging.ms";
+  public static final String WEIGHTS_PROPERTY = "zeppelin.interpreter.scheduler.fair.weights";
+  public static final String SCHEDULER_FAIR = "fair";
+  public static final long DEFAULT_AGING_MS = 60 * 1000;
+
+  private static final Logger logger = LoggerFactory.getLogger(FairScheduler.class);
+  // fallback in case a change of the underlying scheduler is not notified
+  private static final long CHECK_INTERVAL_MS = 500;
+
+  private final String name;
+  private final Scheduler delegate;
+  private final FairJobQueue queue;
+  private volatile AdmissionControl admissionControl;
+  // guarded by queue, set when the underlying scheduler changed since we last looked at it
+  private boolean delegateChanged = false;
+  boolean terminate = false;
+
+  /**
+   * @param maxConcurrencyPerUser max jobs of a user in the underlying scheduler at a time,
+   *                              0 or less for no limit
+   * @param agingMs waiting time after which a job moves up one priority class,
+   *                0 or less to disable aging
+   * @param weights share of each user, 1 for users not in the map
+   */
+  public FairScheduler(String name, Scheduler delegate, int maxConcurrencyPerUser, long agingMs,
+      Map<String, Integer> weights) {
+    this.name = name;
+    this.delegate = delegate;
+    this.queue = new FairJobQueue(maxConcurrencyPerUser,
+        TimeUnit.MILLISECONDS.toNanos(agingMs), weights);
+  }
+
+  /**
+   * @return whether the interpreter setting properties select the fair scheduler
+   */
+  public static boolean isEnabled(Properties properties) {
+    return properties != null
+        && SCHEDULER_FAIR.equals(properties.getProperty(SCHEDULER_PROPERTY, "").trim());
+  }
+
+  public static FairScheduler fromProperties(String name, Scheduler delegate,
+      Properties properties) {
+    int maxConcurrencyPerUser = 0;
+    long agingMs = DEFAULT_AGING_MS;
+    try {
+      maxConcurrencyPerUser = Integer.parseInt(
+          properties.getProperty(USER_CONCURRENCY_PROPERTY, "0").trim());
+      agingMs = Long.parseLong(
+          properties.getProperty(AGING_PROPERTY, Long.toString(DEFAULT_AGING_MS)).trim());
+    } catch (NumberFormatException e) {
+      logger.warn("Invalid fair scheduler property, using defaults", e);
+    }
+    return new FairScheduler(name, delegate, maxConcurrencyPerUser, agingMs,
+        parseWeights(properties.getProperty(WEIGHTS_PROPERTY)));
+  }
+
+  /**
+   * @param weights e.g. 'etl:3, alice:2'
+   */
+  static Map<String, Integer> parseWeights(String weights) {
+    if (StringUtils.isBlank(weights)) {
+      return Collections.emptyMap();
+    }
+    Map<String, Integer> result = new HashMap<>();
+    for (String pair : weights.split(",")) {
+      int i = pair.lastIndexOf(':');
+      if (i <= 0) {
+        logger.warn("Invalid fair scheduler weight '{}', expected user:weight", pair.trim());
+        continue;
+      }
+      try {
+        result.put(pair.substring(0, i).trim(), Integer.parseInt(pair.substring(i + 1).trim()));
+      } catch (NumberFormatException e) {
+        logger.warn("Invalid fair scheduler weight '{}', expected user:weight", pair.trim());
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  public Scheduler getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public Collection<Job> getJobsWaiting() {
+    List<Job> ret;
+    synchronized (queue) {
+      ret = queue.getJobs();
+    }
+    ret.addAll(delegate.getJobsWaiting());
+    return ret;
+  }
+
+  @Override
+  public Collection<Job> getJobsRunning() {
+    return delegate.getJobsRunning();
+  }
+
+  @Override
+  public void submit(Job job) {
+    if (!job.isRunning()) {
+      job.setStatus(Status.PENDING);
+    }
+    AdmissionControl.Decision decision = AdmissionControl.Decision.ACCEPT;
+    // see run() about not calling the underlying scheduler with our lock held
+    List<Job> waiting = admissionControl == null ? null : new LinkedList<>(
+        delegate.getJobsWaiting());
+    synchronized (queue) {
+      if (admissionControl != null) {
+        waiting.addAll(queue.getJobs());
+        decision = admissionControl.check(waiting, job);
+      }
+      if (decision == AdmissionControl.Decision.ACCEPT) {
+        queue.add(job, System.nanoTime());
+        queue.notify();
+      }
+    }
+    if (admissionControl != null) {
+      admissionControl.reject(job, decision);
+    }
+  }
+
+  /**
+   * @param admissionControl decides which submitted jobs are queued, null to queue all
+   */
+  public void setAdmissionControl(AdmissionControl admissionControl) {
+    this.admissionControl = admissionControl;
+  }
+
+  public AdmissionControl getAdmissionControl() {
+    return admissionControl;
+  }
+
+  @Override
+  public Job removeFromWaitingQueue(String jobId) {
+    Job job;
+    synchronized (queue) {
+      job = queue.remove(jobId);
+    }
+    return job != null ? job : delegate.removeFromWaitingQueue(jobId);
+  }
+
+  /**
+   * Called when a job of the underlying scheduler starts or finishes
+   */
+  public void onDelegateChange() {
+    synchronized (queue) {
+      delegateChanged = true;
+      queue.notify();
+    }
+  }
+
+  @Override
+  public void run() {
+    while (terminate == false) {
+      synchronized (queue) {
+        delegateChanged = false;
+      }
+      // don't hold our lock while calling the underlying scheduler, it notifies us under its own
+      Collection<Job> waiting = delegate.getJobsWaiting();
+      Map<String, Integer> dispatched = waiting.isEmpty() ?
+          countByUser(delegate.getJobsRunning()) : null;
+
+      Job job = null;
+      synchronized (queue) {
+        if (dispatched != null && !queue.isEmpty()) {
+          job = queue.poll(dispatched, System.nanoTime());
+        }
+        if (job == null) {
+          if (delegateChanged) {
+            // look again, what we've seen is already outdated
+            delegateChanged = false;
+            continue;
+          }
+          try {
+            queue.wait(CHECK_INTERVAL_MS);
+          } catch (InterruptedException e) {
+            logger.error("Exception in FairScheduler while queue.wait", e);
+          }
+          continue;
+        }
+      }
+      delegate.submit(job);
+    }
+  }
+
+  private static Map<String, Integer> countByUser(Collection<Job> jobs) {
+    Map<String, Integer> counts = new HashMap<>();
+    for (Job job : jobs) {
+      String user = FairJobQueue.userOf(job);
+      Integer count = counts.get(user);
+      counts.put(user, count == null ? 1 : count + 1);
+    }
+    return counts;
+  }
+
+  @Override
+  public void stop() {
+    terminate = true;
+    synchronized (queue) {
+      queue.notify();
+    }
+  }
+}
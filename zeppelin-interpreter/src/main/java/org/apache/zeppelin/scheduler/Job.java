@@ -64,6 +64,17 @@ public abstract class Job {
     }
   }
 
+  /**
+   * Scheduling class of a job, used by schedulers ordering jobs by priority.
+   *
+   * INTERACTIVE - Job is run by a user, e.g. a single paragraph run.
+   * RUN_ALL - Job is part of a run of the whole note.
+   * CRON - Job is part of a scheduled run of the note.
+   */
+  public static enum Priority {
+    INTERACTIVE, RUN_ALL, CRON
+  }
+
   private String jobName;
   String id;
 
@@ -80,6 +91,11 @@ public abstract class Job {
   private transient Throwable exception;
   private transient JobListener listener;
   private long progressUpdateIntervalMs;
+  // System.nanoTime() when the job became PENDING, to measure time spent in scheduler queue
+  private transient volatile long pendingSince;
+  // System.nanoTime() when scheduler took the job from its queue
+  private transient volatile long dispatchedAt;
+  private transient volatile Priority priority = Priority.INTERACTIVE;
 
   public Job(String jobName, JobListener listener, long progressUpdateIntervalMs) {
     this.jobName = jobName;
@@ -147,6 +163,9 @@ public abstract class Job {
     }
     Status before = this.status;
     Status after = status;
+    if (after == Status.PENDING) {
+      pendingSince = System.nanoTime();
+    }
     if (listener != null) {
       listener.beforeStatusChange(this, before, after);
     }
@@ -156,6 +175,49 @@ public abstract class Job {
     }
   }
 
+  /**
+   * @return System.nanoTime() when the job became PENDING, 0 if it never did
+   */
+  public long getPendingSince() {
+    return pendingSince;
+  }
+
+  /**
+   * Called by scheduler when it takes the job from its queue to run it
+   */
+  void markDispatched() {
+    dispatchedAt = System.nanoTime();
+  }
+
+  /**
+   * @return System.nanoTime() when scheduler took the job from its queue, 0 if it never did
+   */
+  public long getDispatchedAt() {
+    return dispatchedAt;
+  }
+
+  public Priority getPriority() {
+    return priority;
+  }
+
+  public void setPriority(Priority priority) {
+    this.priority = priority;
+  }
+
+  /**
+   * @return user who runs the job, null if unknown
+   */
+  public String getUser() {
+    return null;
+  }
+
+  /**
+   * @return id of the note the job belongs to, null if unknown
+   */
+  public String getNoteId() {
+    return null;
+  }
+
   public void setListener(JobListener listener) {
     this.listener = listener;
   }
@@ -35,6 +35,7 @@ public class ParallelScheduler implements Scheduler {
   List<Job> running = new LinkedList<>();
   private ExecutorService executor;
   private SchedulerListener listener;
+  private volatile AdmissionControl admissionControl;
   boolean terminate = false;
   private String name;
   private int maxConcurrency;
@@ -95,11 +96,33 @@ public class ParallelScheduler implements Scheduler {
 
   @Override
   public void submit(Job job) {
-    job.setStatus(Status.PENDING);
+    if (!job.isRunning()) {
+      job.setStatus(Status.PENDING);
+    }
+    AdmissionControl.Decision decision = AdmissionControl.Decision.ACCEPT;
     synchronized (queue) {
-      queue.add(job);
-      queue.notify();
+      if (admissionControl != null) {
+        decision = admissionControl.check(queue, job);
+      }
+      if (decision == AdmissionControl.Decision.ACCEPT) {
+        queue.add(job);
+        queue.notify();
+      }
     }
+    if (admissionControl != null) {
+      admissionControl.reject(job, decision);
+    }
+  }
+
+  /**
+   * @param admissionControl decides which submitted jobs are queued, null to queue all
+   */
+  public void setAdmissionControl(AdmissionControl admissionControl) {
+    this.admissionControl = admissionControl;
+  }
+
+  public AdmissionControl getAdmissionControl() {
+    return admissionControl;
   }
 
   @Override
@@ -117,6 +140,7 @@ public class ParallelScheduler implements Scheduler {
         }
 
         job = queue.remove(0);
+        job.markDispatched();
         running.add(job);
       }
       Scheduler scheduler = this;
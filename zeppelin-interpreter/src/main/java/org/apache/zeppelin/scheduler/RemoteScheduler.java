@@ -42,6 +42,7 @@ public class RemoteScheduler implements Scheduler {
   List<Job> running = new LinkedList<>();
   private ExecutorService executor;
   private SchedulerListener listener;
+  private volatile AdmissionControl admissionControl;
   boolean terminate = false;
   private String name;
   private int maxConcurrency;
@@ -75,6 +76,7 @@ public class RemoteScheduler implements Scheduler {
         }
 
         job = queue.remove(0);
+        job.markDispatched();
         running.add(job);
       }
 
@@ -144,14 +146,35 @@ public class RemoteScheduler implements Scheduler {
     if (terminate) {
       throw new RuntimeException("Scheduler already terminated");
     }
-    job.setStatus(Status.PENDING);
-
+    if (!job.isRunning()) {
+      job.setStatus(Status.PENDING);
+    }
+    AdmissionControl.Decision decision = AdmissionControl.Decision.ACCEPT;
     synchronized (queue) {
-      queue.add(job);
-      queue.notify();
+      if (admissionControl != null) {
+        decision = admissionControl.check(queue, job);
+      }
+      if (decision == AdmissionControl.Decision.ACCEPT) {
+        queue.add(job);
+        queue.notify();
+      }
+    }
+    if (admissionControl != null) {
+      admissionControl.reject(job, decision);
     }
   }
 
+  /**
+   * @param admissionControl decides which submitted jobs are queued, null to queue all
+   */
+  public void setAdmissionControl(AdmissionControl admissionControl) {
+    this.admissionControl = admissionControl;
+  }
+
+  public AdmissionControl getAdmissionControl() {
+    return admissionControl;
+  }
+
   public void setMaxConcurrency(int maxConcurrency) {
     this.maxConcurrency = maxConcurrency;
     synchronized (queue) {
@@ -22,9 +22,14 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.zeppelin.interpreter.remote.RemoteInterpreterProcess;
+import org.apache.zeppelin.metrics.Gauge;
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.metrics.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +40,12 @@ public class SchedulerFactory implements SchedulerListener {
   private static final Logger logger = LoggerFactory.getLogger(SchedulerFactory.class);
   ExecutorService executor;
   Map<String, Scheduler> schedulers = new LinkedHashMap<>();
+  private final Map<String, Timer> waitTimers = new ConcurrentHashMap<>();
+  // fair schedulers by name of the scheduler they sit in front of
+  private final Map<String, FairScheduler> fairSchedulers = new ConcurrentHashMap<>();
+  private final Map<String, AdmissionControl> admissionControls = new ConcurrentHashMap<>();
+  private volatile int queueCapacity = 0;
+  private volatile int maxPendingPerUser = 0;
 
   private static SchedulerFactory singleton;
   private static Long singletonLock = new Long(0);
@@ -65,8 +76,10 @@ public class SchedulerFactory implements SchedulerListener {
   public Scheduler createOrGetFIFOScheduler(String name) {
     synchronized (schedulers) {
       if (schedulers.containsKey(name) == false) {
-        Scheduler s = new FIFOScheduler(name, executor, this);
+        FIFOScheduler s = new FIFOScheduler(name, executor, this);
+        s.setAdmissionControl(createAdmissionControl(name));
         schedulers.put(name, s);
+        registerMetrics(s);
         executor.execute(s);
       }
       return schedulers.get(name);
@@ -74,10 +87,21 @@ public class SchedulerFactory implements SchedulerListener {
   }
 
   public Scheduler createOrGetParallelScheduler(String name, int maxConcurrency) {
+    return createOrGetParallelScheduler(name, maxConcurrency, executor);
+  }
+
+  /**
+   * @param jobExecutor runs the jobs of the scheduler, it may be shared to bound the threads
+   *                    of several schedulers
+   */
+  public Scheduler createOrGetParallelScheduler(String name, int maxConcurrency,
+      ExecutorService jobExecutor) {
     synchronized (schedulers) {
       if (schedulers.containsKey(name) == false) {
-        Scheduler s = new ParallelScheduler(name, executor, this, maxConcurrency);
+        ParallelScheduler s = new ParallelScheduler(name, jobExecutor, this, maxConcurrency);
+        s.setAdmissionControl(createAdmissionControl(name));
         schedulers.put(name, s);
+        registerMetrics(s);
         executor.execute(s);
       }
       return schedulers.get(name);
@@ -92,30 +116,106 @@ public class SchedulerFactory implements SchedulerListener {
 
     synchronized (schedulers) {
       if (schedulers.containsKey(name) == false) {
-        Scheduler s = new RemoteScheduler(
+        RemoteScheduler s = new RemoteScheduler(
             name,
             executor,
             noteId,
             interpreterProcess,
             this,
             maxConcurrency);
+        s.setAdmissionControl(createAdmissionControl(name));
+        schedulers.put(name, s);
+        registerMetrics(s);
+        executor.execute(s);
+      }
+      return schedulers.get(name);
+    }
+  }
+
+  /**
+   * Put a FairScheduler in front of the given scheduler
+   */
+  public Scheduler createOrGetFairScheduler(String name, Scheduler delegate,
+      Properties properties) {
+    synchronized (schedulers) {
+      if (schedulers.containsKey(name) == false) {
+        FairScheduler s = FairScheduler.fromProperties(name, delegate, properties);
+        s.setAdmissionControl(createAdmissionControl(name));
         schedulers.put(name, s);
+        fairSchedulers.put(delegate.getName(), s);
+        registerMetrics(s);
         executor.execute(s);
       }
       return schedulers.get(name);
     }
   }
 
+  /**
+   * @return the given scheduler, or a FairScheduler in front of it if the interpreter setting
+   *   properties select it
+   */
+  public Scheduler applySchedulerPolicy(Scheduler scheduler, Properties properties) {
+    if (scheduler == null || !FairScheduler.isEnabled(properties)) {
+      return scheduler;
+    }
+    return createOrGetFairScheduler(scheduler.getName() + "_fair", scheduler, properties);
+  }
+
   public Scheduler removeScheduler(String name) {
     synchronized (schedulers) {
       Scheduler s = schedulers.remove(name);
       if (s != null) {
         s.stop();
+        unregisterMetrics(name);
+        if (s instanceof FairScheduler) {
+          String delegateName = ((FairScheduler) s).getDelegate().getName();
+          fairSchedulers.remove(delegateName);
+          removeScheduler(delegateName);
+        }
       }
     }
     return null;
   }
 
+  /**
+   * Limit the queues of all schedulers, 0 or less for no limit
+   *
+   * @param queueCapacity max waiting jobs in a scheduler
+   * @param maxPendingPerUser max waiting jobs of a user in a scheduler
+   */
+  public void setAdmissionLimits(int queueCapacity, int maxPendingPerUser) {
+    this.queueCapacity = queueCapacity;
+    this.maxPendingPerUser = maxPendingPerUser;
+    for (AdmissionControl admissionControl : admissionControls.values()) {
+      admissionControl.setLimits(queueCapacity, maxPendingPerUser);
+    }
+  }
+
+  /**
+   * @return admission control of the scheduler, null if there's no such scheduler
+   */
+  public AdmissionControl getAdmissionControl(String schedulerName) {
+    return admissionControls.get(schedulerName);
+  }
+
+  /**
+   * @return queue size and admission counts of all schedulers
+   */
+  public List<SchedulerStatus> getSchedulerStatus() {
+    List<SchedulerStatus> status = new LinkedList<>();
+    for (Scheduler s : listScheduler(null)) {
+      status.add(new SchedulerStatus(s, admissionControls.get(s.getName())));
+    }
+    return status;
+  }
+
+  private AdmissionControl createAdmissionControl(String name) {
+    AdmissionControl admissionControl = new AdmissionControl(name, MetricRegistry.singleton());
+    admissionControl.setLimits(queueCapacity, maxPendingPerUser);
+    admissionControls.put(name, admissionControl);
+    return admissionControl;
+  }
+
   public Collection<Scheduler> listScheduler(String name) {
     List<Scheduler> s = new LinkedList<>();
     synchronized (schedulers) {
@@ -126,16 +226,59 @@ public class SchedulerFactory implements SchedulerListener {
     return s;
   }
 
+  private void registerMetrics(final Scheduler s) {
+    MetricRegistry registry = MetricRegistry.singleton();
+    registry.gauge("zeppelin_scheduler_queue_size", "Number of jobs waiting in scheduler",
+        new Gauge() {
+          @Override
+          public long getValue() {
+            return s.getJobsWaiting().size();
+          }
+        }, "scheduler", s.getName());
+    registry.gauge("zeppelin_scheduler_running_jobs", "Number of jobs running in scheduler",
+        new Gauge() {
+          @Override
+          public long getValue() {
+            return s.getJobsRunning().size();
+          }
+        }, "scheduler", s.getName());
+    waitTimers.put(s.getName(), registry.timer("zeppelin_scheduler_wait_seconds",
+        "Time jobs spent waiting in scheduler before running", "scheduler", s.getName()));
+  }
+
+  private void unregisterMetrics(String name) {
+    MetricRegistry registry = MetricRegistry.singleton();
+    registry.remove("zeppelin_scheduler_queue_size", "scheduler", name);
+    registry.remove("zeppelin_scheduler_running_jobs", "scheduler", name);
+    registry.remove("zeppelin_scheduler_wait_seconds", "scheduler", name);
+    registry.remove("zeppelin_scheduler_rejected_total", "scheduler", name);
+    registry.remove("zeppelin_scheduler_deduplicated_total", "scheduler", name);
+    waitTimers.remove(name);
+    admissionControls.remove(name);
+  }
+
   @Override
   public void jobStarted(Scheduler scheduler, Job job) {
     logger.info("Job " + job.getJobName() + " started by scheduler " + scheduler.getName());
-
+    Timer waitTimer = waitTimers.get(scheduler.getName());
+    long pendingSince = job.getPendingSince();
+    if (waitTimer != null && pendingSince != 0) {
+      waitTimer.update(System.nanoTime() - pendingSince);
+    }
+    notifyFairScheduler(scheduler);
   }
 
   @Override
   public void jobFinished(Scheduler scheduler, Job job) {
     logger.info("Job " + job.getJobName() + " finished by scheduler " + scheduler.getName());
+    notifyFairScheduler(scheduler);
+  }
 
+  private void notifyFairScheduler(Scheduler scheduler) {
+    FairScheduler fair = fairSchedulers.get(scheduler.getName());
+    if (fair != null) {
+      fair.onDelegateChange();
+    }
   }
 
 
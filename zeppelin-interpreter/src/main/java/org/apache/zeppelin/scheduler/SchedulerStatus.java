@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.scheduler;
+
+/**
+ * Queue size and admission counts of a scheduler
+ */
+public class SchedulerStatus {
+  private final String name;
+  private final int waiting;
+  private final int running;
+  private final int queueCapacity;
+  private final int maxPendingPerUser;
+  private final long rejected;
+  private final long deduplicated;
+
+  public SchedulerStatus(Scheduler scheduler, AdmissionControl admissionControl) {
+    this.name = scheduler.getName();
+    this.waiting = scheduler.getJobsWaiting().size();
+    this.running = scheduler.getJobsRunning().size();
+    if (admissionControl != null) {
+      this.queueCapacity = admissionControl.getQueueCapacity();
+      this.maxPendingPerUser = admissionControl.getMaxPendingPerUser();
+      this.rejected = admissionControl.getRejectedCount();
+      this.deduplicated = admissionControl.getDeduplicatedCount();
+    } else {
+      this.queueCapacity = 0;
+      this.maxPendingPerUser = 0;
+      this.rejected = 0;
+      this.deduplicated = 0;
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getWaiting() {
+    return waiting;
+  }
+
+  public int getRunning() {
+    return running;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public int getMaxPendingPerUser() {
+    return maxPendingPerUser;
+  }
+
+  public long getRejected() {
+    return rejected;
+  }
+
+  public long getDeduplicated() {
+    return deduplicated;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.tracing;
+
+/**
+ * Time spent in one stage of a trace. Repeated stages, e.g. relaying output events, are merged
+ * into one span that keeps the start of the first one, the total duration and the count.
+ */
+public class Span {
+  private String name;
+  private String service;
+  // epoch microseconds
+  private long timestamp;
+  private long durationNanos;
+  private int count;
+
+  public Span(String name, String service, long timestamp, long durationNanos) {
+    this.name = name;
+    this.service = service;
+    this.timestamp = timestamp;
+    this.durationNanos = durationNanos;
+    this.count = 1;
+  }
+
+  Span(Span other) {
+    this.name = other.name;
+    this.service = other.service;
+    this.timestamp = other.timestamp;
+    this.durationNanos = other.durationNanos;
+    this.count = other.count;
+  }
+
+  void merge(long timestamp, long durationNanos, int count) {
+    this.timestamp = Math.min(this.timestamp, timestamp);
+    this.durationNanos += durationNanos;
+    this.count += count;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getService() {
+    return service;
+  }
+
+  /**
+   * @return start of the (first) stage in epoch microseconds
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  public int getCount() {
+    return count;
+  }
+}
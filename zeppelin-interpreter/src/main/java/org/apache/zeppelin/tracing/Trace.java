@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.tracing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Timing of one paragraph run, identified by trace id. Each stage is recorded as a Span.
+ * Spans with the same name are merged.
+ */
+public class Trace {
+  private static final Gson gson = new Gson();
+
+  private final String traceId;
+  private final String service;
+  private final String noteId;
+  private final String paragraphId;
+  private final long startMillis = System.currentTimeMillis();
+  private final Map<String, Span> spans = new LinkedHashMap<>();
+
+  public Trace(String traceId, String service, String noteId, String paragraphId) {
+    this.traceId = traceId;
+    this.service = service;
+    this.noteId = noteId;
+    this.paragraphId = paragraphId;
+  }
+
+  /**
+   * @return random 128 bit trace id in hex
+   */
+  public static String newTraceId() {
+    return UUID.randomUUID().toString().replace("-", "");
+  }
+
+  public String getTraceId() {
+    return traceId;
+  }
+
+  public String getNoteId() {
+    return noteId;
+  }
+
+  public String getParagraphId() {
+    return paragraphId;
+  }
+
+  long getStartMillis() {
+    return startMillis;
+  }
+
+  /**
+   * Record a stage that started at startNanos (System.nanoTime()) and ends now
+   */
+  public void record(String name, long startNanos) {
+    record(name, startNanos, System.nanoTime());
+  }
+
+  /**
+   * Record a stage between startNanos and endNanos (System.nanoTime())
+   */
+  public void record(String name, long startNanos, long endNanos) {
+    long timestamp = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis())
+        - TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    add(name, timestamp, endNanos - startNanos);
+  }
+
+  /**
+   * Record a stage
+   * @param timestamp start in epoch microseconds
+   * @param durationNanos duration in nanoseconds
+   */
+  public void add(String name, long timestamp, long durationNanos) {
+    if (durationNanos < 0) {
+      return;
+    }
+    synchronized (spans) {
+      Span span = spans.get(name);
+      if (span == null) {
+        spans.put(name, new Span(name, service, timestamp, durationNanos));
+      } else {
+        span.merge(timestamp, durationNanos, 1);
+      }
+    }
+  }
+
+  /**
+   * Merge spans recorded somewhere else, e.g. in interpreter process, into this trace
+   */
+  public void addAll(Collection<Span> others) {
+    synchronized (spans) {
+      for (Span other : others) {
+        Span span = spans.get(other.getName());
+        if (span == null) {
+          spans.put(other.getName(), new Span(other));
+        } else {
+          span.merge(other.getTimestamp(), other.getDurationNanos(), other.getCount());
+        }
+      }
+    }
+  }
+
+  public List<Span> getSpans() {
+    List<Span> copy = new ArrayList<>();
+    synchronized (spans) {
+      for (Span span : spans.values()) {
+        copy.add(new Span(span));
+      }
+    }
+    return copy;
+  }
+
+  /**
+   * @return stages in the order they were first recorded, e.g.
+   *   'scheduler.queue 3 ms, interpret 120 ms, output.relay 2 ms (x4)'
+   */
+  public String getBreakdown() {
+    StringBuilder sb = new StringBuilder();
+    for (Span span : getSpans()) {
+      if (sb.length() > 0) {
+        sb.append(", ");
+      }
+      sb.append(span.getName()).append(' ')
+          .append(TimeUnit.NANOSECONDS.toMillis(span.getDurationNanos())).append(" ms");
+      if (span.getCount() > 1) {
+        sb.append(" (x").append(span.getCount()).append(')');
+      }
+    }
+    return sb.toString();
+  }
+
+  public String spansToJson() {
+    return gson.toJson(getSpans());
+  }
+
+  public static List<Span> spansFromJson(String json) {
+    return gson.fromJson(json, new TypeToken<List<Span>>() {}.getType());
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.tracing;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps traces of running paragraphs so that each hop (scheduler, thrift call, interpreter
+ * process, output relay, websocket) can record its stage by trace id or by paragraph.
+ * Finished traces are passed to the TraceExporter, if any.
+ */
+public class Tracer {
+  private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+  // traces that are never finished, e.g. because of an error, are dropped after a while
+  static final int MAX_ACTIVE_TRACES = 10000;
+  static final long STALE_TRACE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  private static final Tracer singleton = new Tracer();
+
+  private final Map<String, Trace> traces = new ConcurrentHashMap<>();
+  private final Map<String, Trace> paragraphTraces = new ConcurrentHashMap<>();
+  private volatile String service = "zeppelin-server";
+  private volatile TraceExporter exporter;
+
+  public static Tracer singleton() {
+    return singleton;
+  }
+
+  /**
+   * Start a new trace of a paragraph run
+   */
+  public Trace start(String noteId, String paragraphId) {
+    return start(Trace.newTraceId(), noteId, paragraphId);
+  }
+
+  /**
+   * Start a trace with the given id, e.g. one propagated from another process
+   */
+  public Trace start(String traceId, String noteId, String paragraphId) {
+    Trace trace = new Trace(traceId, service, noteId, paragraphId);
+    if (traces.size() >= MAX_ACTIVE_TRACES) {
+      evictStale();
+      if (traces.size() >= MAX_ACTIVE_TRACES) {
+        // still usable by the caller, but other hops can't find it
+        logger.warn("Too many active traces, {} is not tracked", traceId);
+        return trace;
+      }
+    }
+    traces.put(traceId, trace);
+    if (noteId != null && paragraphId != null) {
+      paragraphTraces.put(paragraphKey(noteId, paragraphId), trace);
+    }
+    return trace;
+  }
+
+  /**
+   * @return active trace of the given id, null if there's none
+   */
+  public Trace get(String traceId) {
+    return traceId == null ? null : traces.get(traceId);
+  }
+
+  /**
+   * @return active trace of the paragraph, null if there's none
+   */
+  public Trace get(String noteId, String paragraphId) {
+    if (noteId == null || paragraphId == null) {
+      return null;
+    }
+    return paragraphTraces.get(paragraphKey(noteId, paragraphId));
+  }
+
+  /**
+   * Stop tracking the trace without exporting it
+   */
+  public void remove(Trace trace) {
+    traces.remove(trace.getTraceId());
+    if (trace.getNoteId() != null && trace.getParagraphId() != null) {
+      String key = paragraphKey(trace.getNoteId(), trace.getParagraphId());
+      // paragraph may already run again with a new trace
+      if (paragraphTraces.get(key) == trace) {
+        paragraphTraces.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Stop tracking the trace and export it
+   */
+  public void finish(Trace trace) {
+    remove(trace);
+    TraceExporter e = exporter;
+    if (e != null) {
+      try {
+        e.export(trace);
+      } catch (RuntimeException ex) {
+        logger.warn("Can't export trace " + trace.getTraceId(), ex);
+      }
+    }
+  }
+
+  public String getService() {
+    return service;
+  }
+
+  /**
+   * Name of this process in exported spans, e.g. 'zeppelin-server'
+   */
+  public void setService(String service) {
+    this.service = service;
+  }
+
+  public TraceExporter getExporter() {
+    return exporter;
+  }
+
+  public void setExporter(TraceExporter exporter) {
+    TraceExporter prev = this.exporter;
+    this.exporter = exporter;
+    if (prev != null && prev != exporter) {
+      prev.close();
+    }
+  }
+
+  int getActiveTraceCount() {
+    return traces.size();
+  }
+
+  private void evictStale() {
+    long staleBefore = System.currentTimeMillis() - STALE_TRACE_MILLIS;
+    Iterator<Trace> it = traces.values().iterator();
+    while (it.hasNext()) {
+      Trace trace = it.next();
+      if (trace.getStartMillis() < staleBefore) {
+        remove(trace);
+      }
+    }
+  }
+
+  private static String paragraphKey(String noteId, String paragraphId) {
+    return noteId + ":" + paragraphId;
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.tracing;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports traces in Zipkin v2 JSON format. Each trace is a root 'paragraph' span with one child
+ * span per stage. Traces are appended to a file, one JSON array per line, and/or posted to a
+ * collector such as http://localhost:9411/api/v2/spans.
+ *
+ * Export runs in a background thread. Traces are dropped when the thread can't keep up.
+ */
+public class ZipkinTraceExporter implements TraceExporter {
+  private static final Logger logger = LoggerFactory.getLogger(ZipkinTraceExporter.class);
+  private static final int QUEUE_SIZE = 1000;
+  private static final int TIMEOUT_MS = 10000;
+
+  private final File file;
+  private final URL url;
+  private final Random random = new Random();
+  private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1,
+      0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(QUEUE_SIZE),
+      new ThreadPoolExecutor.DiscardPolicy());
+
+  /**
+   * @param file file to append traces to, null for none
+   * @param url collector endpoint to post traces to, null for none
+   */
+  public ZipkinTraceExporter(File file, URL url) {
+    this.file = file;
+    this.url = url;
+  }
+
+  @Override
+  public void export(final Trace trace) {
+    final String json = toJson(trace);
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          if (file != null) {
+            writeToFile(json);
+          }
+          if (url != null) {
+            post(json);
+          }
+        } catch (IOException e) {
+          logger.warn("Can't export trace " + trace.getTraceId(), e);
+        }
+      }
+    });
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  String toJson(Trace trace) {
+    List<Span> spans = trace.getSpans();
+    JsonArray array = new JsonArray();
+    if (spans.isEmpty()) {
+      return array.toString();
+    }
+
+    // root span covers all stages
+    long start = Long.MAX_VALUE;
+    long end = Long.MIN_VALUE;
+    for (Span span : spans) {
+      start = Math.min(start, span.getTimestamp());
+      end = Math.max(end, span.getTimestamp()
+          + TimeUnit.NANOSECONDS.toMicros(span.getDurationNanos()));
+    }
+    String rootId = spanId();
+    JsonObject root = span(trace, rootId, null, "paragraph", Tracer.singleton().getService(),
+        start, end - start);
+    if (trace.getNoteId() != null) {
+      root.getAsJsonObject("tags").addProperty("noteId", trace.getNoteId());
+    }
+    if (trace.getParagraphId() != null) {
+      root.getAsJsonObject("tags").addProperty("paragraphId", trace.getParagraphId());
+    }
+    array.add(root);
+
+    for (Span span : spans) {
+      JsonObject child = span(trace, spanId(), rootId, span.getName(), span.getService(),
+          span.getTimestamp(), TimeUnit.NANOSECONDS.toMicros(span.getDurationNanos()));
+      child.getAsJsonObject("tags").addProperty("count", Integer.toString(span.getCount()));
+      array.add(child);
+    }
+    return array.toString();
+  }
+
+  private JsonObject span(Trace trace, String id, String parentId, String name, String service,
+      long timestamp, long duration) {
+    JsonObject span = new JsonObject();
+    span.addProperty("traceId", trace.getTraceId());
+    span.addProperty("id", id);
+    if (parentId != null) {
+      span.addProperty("parentId", parentId);
+    }
+    span.addProperty("name", name);
+    span.addProperty("timestamp", timestamp);
+    // zipkin ignores 0 duration
+    span.addProperty("duration", Math.max(1, duration));
+    JsonObject endpoint = new JsonObject();
+    endpoint.addProperty("serviceName", service);
+    span.add("localEndpoint", endpoint);
+    span.add("tags", new JsonObject());
+    return span;
+  }
+
+  private String spanId() {
+    return String.format("%016x", random.nextLong());
+  }
+
+  private synchronized void writeToFile(String json) throws IOException {
+    try (OutputStream out = new FileOutputStream(file, true)) {
+      out.write((json + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private void post(String json) throws IOException {
+    HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+    try {
+      conn.setConnectTimeout(TIMEOUT_MS);
+      conn.setReadTimeout(TIMEOUT_MS);
+      conn.setRequestMethod("POST");
+      conn.setRequestProperty("Content-Type", "application/json");
+      conn.setDoOutput(true);
+      try (OutputStream out = conn.getOutputStream()) {
+        out.write(json.getBytes(StandardCharsets.UTF_8));
+      }
+      int code = conn.getResponseCode();
+      if (code / 100 != 2) {
+        logger.warn("Trace collector {} responded {}", url, code);
+      }
+    } finally {
+      conn.disconnect();
+    }
+  }
+}
@@ -27,7 +27,8 @@ struct RemoteInterpreterContext {
   6: string authenticationInfo,
   7: string config,   // json serialized config
   8: string gui,      // json serialized gui
-  9: string runners   // json serialized runner
+  9: string runners,  // json serialized runner
+  10: string traceId
 }
 
 struct RemoteInterpreterResultMessage {
@@ -38,7 +39,8 @@ struct RemoteInterpreterResult {
   1: string code,
   2: list<RemoteInterpreterResultMessage> msg,
   3: string config,   // json serialized config
-  4: string gui       // json serialized gui
+  4: string gui,      // json serialized gui
+  5: string trace     // json serialized spans recorded in interpreter process
 }
 
 enum RemoteInterpreterEventType {
@@ -130,4 +132,7 @@ service RemoteInterpreterService {
   RemoteApplicationResult runApplication(1: string applicationInstanceId);
 
   void onReceivedZeppelinResource(1: string object);
+
+  // json serialized memory and cpu usage of the interpreter process
+  string getResourceUsage();
 }
@@ -19,6 +19,7 @@ package org.apache.zeppelin.interpreter;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.junit.After;
 import org.junit.Before;
@@ -40,6 +41,9 @@ public class InterpreterOutputTest implements InterpreterOutputListener {
   @After
   public void tearDown() throws IOException {
     out.close();
+    InterpreterResultMessageOutput.flushSize = Constants.ZEPPELIN_INTERPRETER_OUTPUT_FLUSH_SIZE;
+    InterpreterResultMessageOutput.flushIntervalMs =
+        Constants.ZEPPELIN_INTERPRETER_OUTPUT_FLUSH_INTERVAL;
   }
 
   @Test
@@ -191,6 +195,114 @@ public class InterpreterOutputTest implements InterpreterOutputListener {
     InterpreterOutput.limit = Constants.ZEPPELIN_INTERPRETER_OUTPUT_LIMIT;
   }
 
+  @Test
+  public void testWriteWithOffset() throws IOException {
+    byte[] bytes = "skip%html <div>\nhello</div>\nskip".getBytes();
+    out.write(bytes, 4, bytes.length - 8);
+    out.flush();
+    assertEquals(1, out.size());
+    assertEquals(InterpreterResult.Type.HTML, out.getOutputAt(0).getType());
+    assertEquals("<div>\nhello</div>\n", new String(out.getOutputAt(0).toByteArray()));
+  }
+
+  @Test
+  public void testBatchAppendByInterval() throws IOException, InterruptedException {
+    InterpreterResultMessageOutput.flushIntervalMs = 200;
+
+    // first line is sent right away
+    out.write("line1\n");
+    assertEquals(1, numAppendEvent);
+
+    // following lines are batched until the interval elapses
+    out.write("line2\n");
+    out.write("line3\npartial");
+    assertEquals(1, numAppendEvent);
+
+    Thread.sleep(1000);
+    assertEquals(2, numAppendEvent);
+    assertEquals("line1\nline2\nline3\n", new String(out.getOutputAt(0).toByteArray()));
+
+    out.flush();
+    assertEquals(3, numAppendEvent);
+    assertEquals("line1\nline2\nline3\npartial",
+        new String(out.getOutputAt(0).toByteArray()));
+  }
+
+  @Test
+  public void testBatchAppendBySize() throws IOException {
+    InterpreterResultMessageOutput.flushIntervalMs = 60 * 60 * 1000;
+    InterpreterResultMessageOutput.flushSize = 10;
+
+    out.write("a\n");
+    assertEquals(1, numAppendEvent);
+    out.write("b\n");
+    assertEquals(1, numAppendEvent);
+    out.write("0123456789\n");
+    assertEquals(2, numAppendEvent);
+  }
+
+  @Test
+  public void testBulkWrite() throws IOException {
+    InterpreterOutput.limit = Integer.MAX_VALUE;
+    InterpreterResultMessageOutput.flushIntervalMs = 60 * 60 * 1000;
+    out = new InterpreterOutput(this);
+
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      sb.append("line ").append(i).append("\n");
+    }
+    byte[] bytes = sb.toString().getBytes();
+
+    out.write(bytes);
+    out.flush();
+
+    // one append per flushSize bytes instead of one per line
+    assertTrue(numAppendEvent <=
+        bytes.length / InterpreterResultMessageOutput.flushSize + 2);
+    assertEquals(sb.toString(), new String(out.getOutputAt(0).toByteArray()));
+
+    // restore default
+    InterpreterOutput.limit = Constants.ZEPPELIN_INTERPRETER_OUTPUT_LIMIT;
+  }
+
+  @Test
+  public void testBulkWriteTableMatchesByteWrite() throws IOException {
+    // in a table, a row starting with '%' is data, only an empty line ends the table
+    String rowStartingWithPercent = "%table a\tb\n%1\t2\n%html x\n";
+    List<InterpreterResultMessage> messages = assertBulkWriteMatchesByteWrite(
+        rowStartingWithPercent);
+    assertEquals(1, messages.size());
+    assertEquals(InterpreterResult.Type.TABLE, messages.get(0).getType());
+    assertEquals("a\tb\n%1\t2\n%html x\n", messages.get(0).getData());
+
+    String emptyLineEndsTable = "%table a\tb\n1\t2\n\n%html x\n";
+    messages = assertBulkWriteMatchesByteWrite(emptyLineEndsTable);
+    assertEquals(2, messages.size());
+    assertEquals(InterpreterResult.Type.TABLE, messages.get(0).getType());
+    assertEquals(InterpreterResult.Type.HTML, messages.get(1).getType());
+  }
+
+  private List<InterpreterResultMessage> assertBulkWriteMatchesByteWrite(String text)
+      throws IOException {
+    byte[] bytes = text.getBytes();
+    InterpreterOutput bulk = new InterpreterOutput(this);
+    bulk.write(bytes);
+    bulk.flush();
+    InterpreterOutput single = new InterpreterOutput(this);
+    for (byte b : bytes) {
+      single.write(b);
+    }
+    single.flush();
+
+    List<InterpreterResultMessage> expected = single.toInterpreterResultMessage();
+    List<InterpreterResultMessage> actual = bulk.toInterpreterResultMessage();
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getType(), actual.get(i).getType());
+      assertEquals(expected.get(i).getData(), actual.get(i).getData());
+    }
+    return actual;
+  }
 
   @Override
   public void onUpdateAll(InterpreterOutput out) {
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterEvent;
+import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterEventType;
+import org.apache.zeppelin.resource.Resource;
+import org.apache.zeppelin.resource.ResourceId;
+import org.apache.zeppelin.resource.ResourceSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RemoteInterpreterEventClientTest {
+  private final Gson gson = new Gson();
+  private RemoteInterpreterEventClient eventClient;
+  private ExecutorService executor;
+  private ResourceId resourceId;
+
+  @Before
+  public void setUp() {
+    eventClient = new RemoteInterpreterEventClient();
+    executor = Executors.newFixedThreadPool(10);
+    resourceId = ResourceId.fromJson(
+        "{\"resourcePoolId\":\"pool1\",\"name\":\"res1\",\"noteId\":\"note1\"}");
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private List<RemoteInterpreterEvent> pollEvents(int num, RemoteInterpreterEventType type) {
+    List<RemoteInterpreterEvent> events = new ArrayList<>();
+    while (events.size() < num) {
+      RemoteInterpreterEvent event = eventClient.pollEvent();
+      if (event.getType() == type) {
+        events.add(event);
+      }
+    }
+    return events;
+  }
+
+  @Test
+  public void testConcurrentReadResource() throws Exception {
+    List<Future<Object>> results = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      results.add(executor.submit(new Callable<Object>() {
+        @Override
+        public Object call() throws Exception {
+          return eventClient.readResource(resourceId);
+        }
+      }));
+    }
+
+    // all requests for the same resource are in flight at the same time
+    List<RemoteInterpreterEvent> requests = pollEvents(10, RemoteInterpreterEventType.RESOURCE_GET);
+    assertEquals(10, eventClient.getNumPendingRequests());
+
+    // answer in reverse order. each request gets its own response
+    Collections.reverse(requests);
+    for (RemoteInterpreterEvent request : requests) {
+      JsonObject json = gson.fromJson(request.getData(), JsonObject.class);
+      String value = "value" + json.get(RemoteInterpreterEventClient.REQUEST_ID).getAsLong();
+      eventClient.putResponseGetResource(request.getData(), Resource.serializeObject(value));
+    }
+
+    Set<Object> values = new HashSet<>();
+    for (Future<Object> result : results) {
+      values.add(result.get());
+    }
+    assertEquals(10, values.size());
+    assertEquals(0, eventClient.getNumPendingRequests());
+  }
+
+  @Test
+  public void testResponseWithoutRequestId() throws Exception {
+    Future<Object> result = executor.submit(new Callable<Object>() {
+      @Override
+      public Object call() throws Exception {
+        return eventClient.readResource(resourceId);
+      }
+    });
+    pollEvents(1, RemoteInterpreterEventType.RESOURCE_GET);
+
+    // ZeppelinServer of an earlier version sends back ResourceId only
+    eventClient.putResponseGetResource(resourceId.toJson(), Resource.serializeObject("value"));
+    assertEquals("value", result.get());
+  }
+
+  @Test
+  public void testInvokeMethod() throws Exception {
+    Future<Object> result = executor.submit(new Callable<Object>() {
+      @Override
+      public Object call() throws Exception {
+        return eventClient.invokeMethod(resourceId, "length", null, null);
+      }
+    });
+
+    RemoteInterpreterEvent request =
+        pollEvents(1, RemoteInterpreterEventType.RESOURCE_INVOKE_METHOD).get(0);
+    InvokeResourceMethodEventMessage message =
+        InvokeResourceMethodEventMessage.fromJson(request.getData());
+    assertTrue(message.getRequestId() > 0);
+    eventClient.putResponseInvokeMethod(message, Resource.serializeObject(4));
+    assertEquals(4, result.get());
+  }
+
+  @Test
+  public void testTimeout() throws IOException {
+    eventClient.setRequestTimeout(100);
+    long start = System.currentTimeMillis();
+    assertNull(eventClient.readResource(resourceId));
+    assertTrue(System.currentTimeMillis() - start < 10 * 1000);
+    assertEquals(0, eventClient.getNumPendingRequests());
+
+    // late response is discarded
+    eventClient.putResponseGetResource(resourceId.toJson(), Resource.serializeObject("value"));
+    assertEquals(0, eventClient.getNumPendingRequests());
+  }
+
+  @Test
+  public void testCancel() throws Exception {
+    Future<Object> result = executor.submit(new Callable<Object>() {
+      @Override
+      public Object call() throws Exception {
+        return eventClient.readResource(resourceId);
+      }
+    });
+    pollEvents(1, RemoteInterpreterEventType.RESOURCE_GET);
+
+    eventClient.cancelPendingRequests();
+    assertNull(result.get());
+    assertEquals(0, eventClient.getNumPendingRequests());
+  }
+
+  @Test
+  public void testGetAllResourcesShareRequest() throws Exception {
+    List<Future<ResourceSet>> results = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      results.add(executor.submit(new Callable<ResourceSet>() {
+        @Override
+        public ResourceSet call() throws Exception {
+          return eventClient.getAllResources();
+        }
+      }));
+    }
+    pollEvents(1, RemoteInterpreterEventType.RESOURCE_POOL_GET_ALL);
+    // wait for all callers to join the request
+    Thread.sleep(500);
+
+    eventClient.putResponseGetAllResources(new ArrayList<String>());
+    for (Future<ResourceSet> result : results) {
+      assertEquals(0, result.get().size());
+    }
+    assertEquals(0, eventClient.getNumPendingRequests());
+  }
+}
@@ -18,6 +18,7 @@
 package org.apache.zeppelin.interpreter.remote;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.concurrent.ScheduledExecutorService;
@@ -75,6 +76,20 @@ public class RemoteInterpreterServerTest {
     assertEquals(false, running);
   }
 
+  @Test
+  public void testGetResourceUsage() throws IOException, TException {
+    RemoteInterpreterServer server = new RemoteInterpreterServer(
+        RemoteInterpreterUtils.findRandomAvailablePortOnAllLocalInterfaces());
+    InterpreterProcessResourceUsage usage =
+        InterpreterProcessResourceUsage.fromJson(server.getResourceUsage());
+
+    assertTrue(usage.getHeapCommitted() > 0);
+    assertTrue(usage.getHeapUsed() > 0);
+    assertTrue(usage.getThreadCount() > 0);
+    assertTrue(usage.getAvailableProcessors() > 0);
+    assertTrue(usage.getMemory() > 0);
+  }
+
   class ShutdownRun implements Runnable {
     private RemoteInterpreterServer serv = null;
     public ShutdownRun(RemoteInterpreterServer serv) {
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Properties;
+
+import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.apache.thrift.transport.TServerSocket;
+import org.apache.thrift.transport.TTransportException;
+import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService;
+import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class RemoteInterpreterTransportTest {
+  private static final Logger logger =
+      LoggerFactory.getLogger(RemoteInterpreterTransportTest.class);
+  private static final RemoteInterpreterTransport[] TRANSPORTS = new RemoteInterpreterTransport[] {
+      RemoteInterpreterTransport.DEFAULT,
+      new RemoteInterpreterTransport(true, false, -1),
+      new RemoteInterpreterTransport(false, true, -1),
+      new RemoteInterpreterTransport(true, true, 1024)
+  };
+  private RemoteInterpreterServer server;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new RemoteInterpreterServer(
+        RemoteInterpreterUtils.findRandomAvailablePortOnAllLocalInterfaces());
+    server.start();
+    long startTime = System.currentTimeMillis();
+    while (System.currentTimeMillis() - startTime < 10 * 1000 && !server.isRunning()) {
+      Thread.sleep(100);
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.shutdown();
+  }
+
+  @Test
+  public void testFromProperties() {
+    assertTrue(RemoteInterpreterTransport.fromProperties(new Properties()).isDefault());
+
+    Properties p = new Properties();
+    p.setProperty(RemoteInterpreterTransport.TRANSPORT_PROPERTY, "framed");
+    p.setProperty(RemoteInterpreterTransport.PROTOCOL_PROPERTY, "compact");
+    p.setProperty(RemoteInterpreterTransport.COMPRESSION_THRESHOLD_PROPERTY, "4096");
+    RemoteInterpreterTransport transport = RemoteInterpreterTransport.fromProperties(p);
+    assertTrue(transport.isFramed());
+    assertTrue(transport.isCompact());
+    assertEquals(4096, transport.getCompressionThreshold());
+
+    // compression needs framed transport
+    p.setProperty(RemoteInterpreterTransport.TRANSPORT_PROPERTY, "socket");
+    transport = RemoteInterpreterTransport.fromProperties(p);
+    assertFalse(transport.isFramed());
+    assertEquals(-1, transport.getCompressionThreshold());
+  }
+
+  @Test
+  public void testCompressedFrame() throws Exception {
+    // 10MB of table result
+    StringBuilder sb = new StringBuilder();
+    int row = 0;
+    while (sb.length() < 10 * 1024 * 1024) {
+      sb.append("row").append(row).append('\t').append(row * 31 % 1000).append('\n');
+      row++;
+    }
+    byte[] data = sb.toString().getBytes();
+
+    TMemoryBuffer buffer = new TMemoryBuffer(data.length);
+    CompressedFramedTransport out = new CompressedFramedTransport(buffer, 1024);
+    out.write(data, 0, data.length);
+    out.flush();
+    // small frame is not compressed
+    out.write(new byte[] {1, 2, 3}, 0, 3);
+    out.flush();
+    logger.info("10MB table compressed to {} bytes", buffer.length());
+    assertTrue(buffer.length() < data.length / 2);
+
+    CompressedFramedTransport in = new CompressedFramedTransport(buffer, 1024);
+    byte[] read = new byte[data.length];
+    in.readAll(read, 0, read.length);
+    assertEquals(sb.toString(), new String(read));
+    byte[] small = new byte[3];
+    in.readAll(small, 0, 3);
+    assertEquals(3, small[2]);
+  }
+
+  @Test(expected = TTransportException.class)
+  public void testFrameLargerThanMaxLength() throws Exception {
+    TMemoryBuffer buffer = new TMemoryBuffer(4096);
+    CompressedFramedTransport out = new CompressedFramedTransport(buffer, -1);
+    out.write(new byte[2048], 0, 2048);
+    out.flush();
+
+    new CompressedFramedTransport(buffer, -1, 1024).readAll(new byte[2048], 0, 2048);
+  }
+
+  @Test(expected = TTransportException.class)
+  public void testInflatedFrameLargerThanMaxLength() throws Exception {
+    TMemoryBuffer buffer = new TMemoryBuffer(4096);
+    CompressedFramedTransport out = new CompressedFramedTransport(buffer, 1024);
+    out.write(new byte[4096], 0, 4096);
+    out.flush();
+    // compressed frame fits, its uncompressed size doesn't
+    assertTrue(buffer.length() < 1024);
+
+    new CompressedFramedTransport(buffer, 1024, 2048).readAll(new byte[4096], 0, 4096);
+  }
+
+  @Test
+  public void testTruncatedFrame() throws Exception {
+    TMemoryBuffer buffer = new TMemoryBuffer(4096);
+    CompressedFramedTransport out = new CompressedFramedTransport(buffer, -1);
+    out.write(new byte[2048], 0, 2048);
+    out.flush();
+
+    TMemoryBuffer truncated = new TMemoryBuffer(4096);
+    truncated.write(buffer.getArray(), 0, buffer.length() - 10);
+    try {
+      new CompressedFramedTransport(truncated, -1).readAll(new byte[2048], 0, 2048);
+      fail("Expected end of stream");
+    } catch (TTransportException e) {
+      assertEquals(TTransportException.END_OF_FILE, e.getType());
+    }
+
+    try {
+      new CompressedFramedTransport(new TMemoryBuffer(0), -1).readAll(new byte[1], 0, 1);
+      fail("Expected end of stream");
+    } catch (TTransportException e) {
+      assertEquals(TTransportException.END_OF_FILE, e.getType());
+    }
+  }
+
+  @Test(expected = TTransportException.class)
+  public void testCompressedFrameShorterThanItsSize() throws Exception {
+    TMemoryBuffer buffer = new TMemoryBuffer(4096);
+    CompressedFramedTransport out = new CompressedFramedTransport(buffer, 1024);
+    out.write(new byte[4096], 0, 4096);
+    out.flush();
+
+    // claim one more byte than the compressed payload inflates to
+    byte[] frame = buffer.getArray();
+    CompressedFramedTransport.encodeInt(4097, frame, 4);
+    new CompressedFramedTransport(buffer, 1024).readAll(new byte[4097], 0, 4097);
+  }
+
+  /**
+   * Makes the given number of small round trips over a negotiated transport.
+   * @return elapsed time in nanoseconds
+   */
+  private long roundTrips(RemoteInterpreterTransport transport, int count) throws Exception {
+    ClientFactory factory = new ClientFactory("localhost", server.getPort(), transport);
+    Client client = factory.create();
+    try {
+      assertEquals(transport, factory.getTransport());
+      long start = System.nanoTime();
+      for (int i = 0; i < count; i++) {
+        assertEquals("Unknown", client.getStatus("session", "job" + i));
+      }
+      return System.nanoTime() - start;
+    } finally {
+      client.getOutputProtocol().getTransport().close();
+    }
+  }
+
+  @Test
+  public void testTransports() throws Exception {
+    for (RemoteInterpreterTransport transport : TRANSPORTS) {
+      roundTrips(transport, 10);
+    }
+  }
+
+  /**
+   * 10k small round trips per transport, like event polling.
+   * Run with -Dzeppelin.benchmark=true.
+   */
+  @Test
+  public void benchmarkTransports() throws Exception {
+    assumeTrue(Boolean.getBoolean("zeppelin.benchmark"));
+    for (RemoteInterpreterTransport transport : TRANSPORTS) {
+      long nanos = roundTrips(transport, 10000);
+      logger.info("10000 round trips with {} transport took {} ms ({} us per round trip)",
+          transport, nanos / 1000000, nanos / 10000 / 1000);
+    }
+  }
+
+  @Test
+  public void testFallbackToDefaultTransport() throws Exception {
+    // server of an earlier version, without transport negotiation
+    TServerSocket serverSocket = new TServerSocket(
+        RemoteInterpreterUtils.findRandomAvailablePortOnAllLocalInterfaces());
+    final TThreadPoolServer legacyServer = new TThreadPoolServer(
+        new TThreadPoolServer.Args(serverSocket)
+            .processor(new RemoteInterpreterService.Processor<>(server)));
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        legacyServer.serve();
+      }
+    });
+    thread.start();
+    while (!legacyServer.isServing()) {
+      Thread.sleep(100);
+    }
+
+    ClientFactory factory = new ClientFactory("localhost",
+        serverSocket.getServerSocket().getLocalPort(),
+        new RemoteInterpreterTransport(true, true, 1024));
+    Client client = factory.create();
+    assertTrue(factory.getTransport().isDefault());
+    assertEquals("Unknown", client.getStatus("session", "job"));
+
+    client.getOutputProtocol().getTransport().close();
+    legacyServer.stop();
+  }
+}
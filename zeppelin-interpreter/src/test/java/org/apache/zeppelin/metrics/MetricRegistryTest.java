@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricRegistryTest {
+  private MetricRegistry registry;
+
+  @Before
+  public void setUp() {
+    registry = new MetricRegistry();
+  }
+
+  @After
+  public void tearDown() {
+    registry.setJmxEnabled(false);
+  }
+
+  @Test
+  public void testCounter() {
+    Counter counter = registry.counter("test_total", "help", "k", "v");
+    assertSame(counter, registry.counter("test_total", "help", "k", "v"));
+    counter.inc();
+    counter.inc(2);
+
+    String text = registry.toPrometheusText();
+    assertTrue(text.contains("# HELP test_total help\n"));
+    assertTrue(text.contains("# TYPE test_total counter\n"));
+    assertTrue(text.contains("test_total{k=\"v\"} 3\n"));
+  }
+
+  @Test
+  public void testTimer() {
+    Timer timer = registry.timer("test_seconds", "help");
+    timer.update(TimeUnit.MILLISECONDS.toNanos(2));
+    timer.update(TimeUnit.SECONDS.toNanos(2));
+    timer.update(-1);
+
+    assertEquals(2, timer.getCount());
+    assertEquals(2000, timer.getMaxMillis(), 0.01);
+    assertEquals(1001, timer.getMeanMillis(), 0.01);
+
+    String text = registry.toPrometheusText();
+    assertTrue(text.contains("# TYPE test_seconds histogram\n"));
+    assertTrue(text.contains("test_seconds_bucket{le=\"0.001\"} 0\n"));
+    assertTrue(text.contains("test_seconds_bucket{le=\"0.005\"} 1\n"));
+    assertTrue(text.contains("test_seconds_bucket{le=\"5.0\"} 2\n"));
+    assertTrue(text.contains("test_seconds_bucket{le=\"+Inf\"} 2\n"));
+    assertTrue(text.contains("test_seconds_count 2\n"));
+  }
+
+  @Test
+  public void testGauge() {
+    registry.gauge("test_gauge", "help", new Gauge() {
+      @Override
+      public long getValue() {
+        return 1;
+      }
+    });
+    registry.gauge("test_gauge", "help", new Gauge() {
+      @Override
+      public long getValue() {
+        return 2;
+      }
+    });
+    assertTrue(registry.toPrometheusText().contains("test_gauge 2\n"));
+
+    registry.remove("test_gauge");
+    assertNull(registry.get("test_gauge"));
+    assertFalse(registry.toPrometheusText().contains("test_gauge"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTypeMismatch() {
+    registry.counter("test_metric", "help");
+    registry.timer("test_metric", "help");
+  }
+
+  @Test
+  public void testLabelEscape() {
+    registry.counter("test_total", "help", "k", "a\"b\\c\nd").inc();
+    assertTrue(registry.toPrometheusText().contains("test_total{k=\"a\\\"b\\\\c\\nd\"} 1\n"));
+  }
+
+  @Test
+  public void testJmx() throws Exception {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(
+        "org.apache.zeppelin:type=counter,name=test_jmx_total,label_type=\"t\"");
+
+    Counter counter = registry.counter("test_jmx_total", "help", "type", "t");
+    counter.inc();
+    assertFalse(server.isRegistered(name));
+
+    registry.setJmxEnabled(true);
+    assertTrue(server.isRegistered(name));
+    assertEquals(1L, server.getAttribute(name, "Count"));
+
+    registry.setJmxEnabled(false);
+    assertFalse(server.isRegistered(name));
+  }
+}
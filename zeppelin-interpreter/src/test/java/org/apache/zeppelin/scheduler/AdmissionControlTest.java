@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.zeppelin.interpreter.InterpreterResult;
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.scheduler.AdmissionControl.Decision;
+import org.apache.zeppelin.scheduler.Job.Status;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdmissionControlTest {
+
+  private SchedulerFactory schedulerSvc;
+
+  @Before
+  public void setUp() throws Exception {
+    schedulerSvc = new SchedulerFactory();
+  }
+
+  @After
+  public void tearDown() {
+    schedulerSvc.removeScheduler("test");
+  }
+
+  @Test
+  public void testDeduplicateWaitingJob() throws InterruptedException {
+    Scheduler s = schedulerSvc.createOrGetFIFOScheduler("test");
+    Job running = new SleepingJob("running", null, 500);
+    Job waiting = new UserJob("paragraph_1", "user1");
+    s.submit(running);
+    Thread.sleep(100);
+
+    s.submit(waiting);
+    s.submit(waiting);
+    assertEquals(1, s.getJobsWaiting().size());
+    assertEquals(Status.PENDING, waiting.getStatus());
+    assertEquals(1, schedulerSvc.getAdmissionControl("test").getDeduplicatedCount());
+
+    // a different job for the same paragraph is rejected, the waiting one is kept
+    Job sameId = new UserJob("paragraph_1", "user1");
+    s.submit(sameId);
+    assertEquals(1, s.getJobsWaiting().size());
+    assertEquals(Status.PENDING, waiting.getStatus());
+    assertEquals(Status.ERROR, sameId.getStatus());
+    assertTrue(sameId.getException() instanceof JobRejectedException);
+    assertEquals(1, schedulerSvc.getAdmissionControl("test").getRejectedCount());
+  }
+
+  @Test
+  public void testQueueCapacity() throws InterruptedException {
+    schedulerSvc.setAdmissionLimits(2, 0);
+    Scheduler s = schedulerSvc.createOrGetFIFOScheduler("test");
+    s.submit(new SleepingJob("running", null, 500));
+    Thread.sleep(100);
+
+    Job job1 = new UserJob("job1", "user1");
+    Job job2 = new UserJob("job2", "user2");
+    Job job3 = new UserJob("job3", "user3");
+    s.submit(job1);
+    s.submit(job2);
+    s.submit(job3);
+
+    assertEquals(2, s.getJobsWaiting().size());
+    assertEquals(Status.PENDING, job2.getStatus());
+    assertEquals(Status.ERROR, job3.getStatus());
+    InterpreterResult result = (InterpreterResult) job3.getReturn();
+    assertEquals(InterpreterResult.Code.ERROR, result.code());
+    assertTrue(result.message().get(0).getData().contains("Too many jobs"));
+
+    // limits apply to existing schedulers
+    schedulerSvc.setAdmissionLimits(0, 0);
+    s.submit(job3);
+    assertEquals(3, s.getJobsWaiting().size());
+    assertEquals(Status.PENDING, job3.getStatus());
+  }
+
+  @Test
+  public void testUserPendingLimit() throws InterruptedException {
+    schedulerSvc.setAdmissionLimits(0, 1);
+    Scheduler s = schedulerSvc.createOrGetParallelScheduler("test", 1);
+    s.submit(new SleepingJob("running", null, 500));
+    Thread.sleep(100);
+
+    Job job1 = new UserJob("job1", "user1");
+    Job job2 = new UserJob("job2", "user1");
+    Job job3 = new UserJob("job3", "user2");
+    s.submit(job1);
+    s.submit(job2);
+    s.submit(job3);
+
+    assertEquals(2, s.getJobsWaiting().size());
+    assertEquals(Status.ERROR, job2.getStatus());
+    assertEquals(Status.PENDING, job3.getStatus());
+
+    SchedulerStatus status = schedulerSvc.getSchedulerStatus().get(0);
+    assertEquals("test", status.getName());
+    assertEquals(2, status.getWaiting());
+    assertEquals(1, status.getRunning());
+    assertEquals(1, status.getMaxPendingPerUser());
+    assertEquals(1, status.getRejected());
+  }
+
+  @Test
+  public void testRunningJobIsNotRejected() {
+    AdmissionControl admissionControl = new AdmissionControl("test",
+        new MetricRegistry());
+    Job job = new UserJob("job1", "user1");
+    job.setStatus(Status.RUNNING);
+
+    admissionControl.reject(job, Decision.QUEUE_FULL);
+    assertEquals(Status.RUNNING, job.getStatus());
+    assertEquals(1, admissionControl.getRejectedCount());
+  }
+
+  private static class UserJob extends SleepingJob {
+    private final String user;
+
+    UserJob(String jobId, String user) {
+      super("job", null, 100);
+      setId(jobId);
+      this.user = user;
+    }
+
+    @Override
+    public String getUser() {
+      return user;
+    }
+  }
+}
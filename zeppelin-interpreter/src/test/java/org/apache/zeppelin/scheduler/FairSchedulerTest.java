@@ -0,0 +1,356 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.zeppelin.scheduler.Job.Priority;
+import org.apache.zeppelin.scheduler.Job.Status;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class FairSchedulerTest {
+  private static final Logger LOG = LoggerFactory.getLogger(FairSchedulerTest.class);
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+  private static final Map<String, Integer> NO_WEIGHTS = Collections.emptyMap();
+  private static final Map<String, Integer> NOTHING_DISPATCHED = Collections.emptyMap();
+
+  private SchedulerFactory schedulerSvc;
+
+  @Before
+  public void setUp() throws Exception {
+    schedulerSvc = new SchedulerFactory();
+  }
+
+  @After
+  public void tearDown() {
+    schedulerSvc.removeScheduler("test_fair");
+  }
+
+  @Test
+  public void testPriorityClasses() {
+    FairJobQueue queue = new FairJobQueue(0, 0, NO_WEIGHTS);
+    Job cron = new UserJob("cron", "user1", "note1", Priority.CRON, 0);
+    Job runAll = new UserJob("runAll", "user1", "note1", Priority.RUN_ALL, 0);
+    Job interactive = new UserJob("interactive", "user1", "note1", Priority.INTERACTIVE, 0);
+    queue.add(cron, 0);
+    queue.add(runAll, 0);
+    queue.add(interactive, 0);
+
+    assertSame(interactive, queue.poll(NOTHING_DISPATCHED, 0));
+    assertSame(runAll, queue.poll(NOTHING_DISPATCHED, 0));
+    assertSame(cron, queue.poll(NOTHING_DISPATCHED, 0));
+    assertNull(queue.poll(NOTHING_DISPATCHED, 0));
+  }
+
+  @Test
+  public void testUsersTakeTurns() {
+    FairJobQueue queue = new FairJobQueue(0, 0, NO_WEIGHTS);
+    List<Job> user1Jobs = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Job job = new UserJob("user1_" + i, "user1", "note1", Priority.RUN_ALL, 0);
+      user1Jobs.add(job);
+      queue.add(job, 0);
+    }
+    Job user2Job = new UserJob("user2", "user2", "note2", Priority.RUN_ALL, 0);
+    queue.add(user2Job, 0);
+
+    assertSame(user1Jobs.get(0), queue.poll(NOTHING_DISPATCHED, 0));
+    // user2 goes next, though it submitted after all jobs of user1
+    assertSame(user2Job, queue.poll(NOTHING_DISPATCHED, 0));
+    assertSame(user1Jobs.get(1), queue.poll(NOTHING_DISPATCHED, 0));
+  }
+
+  @Test
+  public void testNotesOfUserTakeTurns() {
+    FairJobQueue queue = new FairJobQueue(0, 0, NO_WEIGHTS);
+    Job note1First = new UserJob("a", "user1", "note1", Priority.RUN_ALL, 0);
+    Job note1Second = new UserJob("b", "user1", "note1", Priority.RUN_ALL, 0);
+    Job note2First = new UserJob("c", "user1", "note2", Priority.RUN_ALL, 0);
+    queue.add(note1First, 0);
+    queue.add(note1Second, 0);
+    queue.add(note2First, 0);
+
+    assertSame(note1First, queue.poll(NOTHING_DISPATCHED, 0));
+    assertSame(note2First, queue.poll(NOTHING_DISPATCHED, 0));
+    assertSame(note1Second, queue.poll(NOTHING_DISPATCHED, 0));
+  }
+
+  @Test
+  public void testWeights() {
+    Map<String, Integer> weights = FairScheduler.parseWeights("user1:3, user2 : 1, bad, x:y");
+    assertEquals(2, weights.size());
+    assertEquals(Integer.valueOf(3), weights.get("user1"));
+
+    FairJobQueue queue = new FairJobQueue(0, 0, weights);
+    for (int i = 0; i < 8; i++) {
+      queue.add(new UserJob("user1_" + i, "user1", "note1", Priority.RUN_ALL, 0), 0);
+      queue.add(new UserJob("user2_" + i, "user2", "note2", Priority.RUN_ALL, 0), 0);
+    }
+    int user1 = 0;
+    for (int i = 0; i < 8; i++) {
+      if ("user1".equals(queue.poll(NOTHING_DISPATCHED, 0).getUser())) {
+        user1++;
+      }
+    }
+    assertEquals(6, user1);
+  }
+
+  @Test
+  public void testUserConcurrencyLimit() {
+    FairJobQueue queue = new FairJobQueue(1, 0, NO_WEIGHTS);
+    Job user1Job = new UserJob("user1", "user1", "note1", Priority.INTERACTIVE, 0);
+    Job user2Job = new UserJob("user2", "user2", "note2", Priority.CRON, 0);
+    queue.add(user1Job, 0);
+    queue.add(user2Job, 0);
+
+    Map<String, Integer> dispatched = new HashMap<>();
+    dispatched.put("user1", 1);
+    assertSame(user2Job, queue.poll(dispatched, 0));
+    assertNull(queue.poll(dispatched, 0));
+    dispatched.put("user1", 0);
+    assertSame(user1Job, queue.poll(dispatched, 0));
+  }
+
+  @Test
+  public void testAging() {
+    FairJobQueue queue = new FairJobQueue(0, 60 * SECOND, NO_WEIGHTS);
+    Job cron = new UserJob("cron", "user1", "note1", Priority.CRON, 0);
+    queue.add(cron, 0);
+    Job interactive = new UserJob("interactive", "user2", "note2", Priority.INTERACTIVE, 0);
+    queue.add(interactive, 120 * SECOND);
+
+    // waited two aging periods, so it is interactive as well and submitted first
+    assertSame(cron, queue.poll(NOTHING_DISPATCHED, 120 * SECOND));
+    assertSame(interactive, queue.poll(NOTHING_DISPATCHED, 120 * SECOND));
+  }
+
+  @Test
+  public void testRunInFrontOfParallelScheduler() throws InterruptedException {
+    Scheduler delegate = schedulerSvc.createOrGetParallelScheduler("test", 1);
+    Properties properties = new Properties();
+    properties.setProperty(FairScheduler.SCHEDULER_PROPERTY, FairScheduler.SCHEDULER_FAIR);
+    Scheduler s = schedulerSvc.applySchedulerPolicy(delegate, properties);
+    assertTrue(s instanceof FairScheduler);
+    assertSame(s, schedulerSvc.applySchedulerPolicy(delegate, properties));
+    assertSame(delegate, schedulerSvc.applySchedulerPolicy(delegate, new Properties()));
+
+    Job runAll1 = new UserJob("runAll1", "user1", "note1", Priority.RUN_ALL, 300);
+    Job runAll2 = new UserJob("runAll2", "user1", "note1", Priority.RUN_ALL, 300);
+    Job runAll3 = new UserJob("runAll3", "user1", "note1", Priority.RUN_ALL, 300);
+    Job interactive = new UserJob("interactive", "user2", "note2", Priority.INTERACTIVE, 300);
+    s.submit(runAll1);
+    Thread.sleep(100);
+    // handed to the parallel scheduler right away, as it has no waiting job
+    s.submit(runAll2);
+    Thread.sleep(50);
+    s.submit(runAll3);
+    s.submit(interactive);
+    Thread.sleep(100);
+
+    assertEquals(Status.RUNNING, runAll1.getStatus());
+    assertEquals(1, s.getJobsRunning().size());
+    assertEquals(3, s.getJobsWaiting().size());
+
+    Thread.sleep(200);
+    assertEquals(Status.RUNNING, runAll2.getStatus());
+    Thread.sleep(300);
+    // interactive goes before runAll3, though submitted after it
+    assertEquals(Status.RUNNING, interactive.getStatus());
+    assertEquals(Status.PENDING, runAll3.getStatus());
+
+    assertSame(runAll3, s.removeFromWaitingQueue(runAll3.getId()));
+    Thread.sleep(400);
+    assertEquals(Status.FINISHED, interactive.getStatus());
+    assertEquals(0, s.getJobsWaiting().size());
+    assertEquals(0, s.getJobsRunning().size());
+  }
+
+  /**
+   * Simulates a day of a shared interpreter running one paragraph at a time, with FIFO order
+   * and with FairJobQueue, on a virtual clock.
+   */
+  @Test
+  public void testInteractiveWaitShorterThanFifo() {
+    List<UserJob> workload = workload(new Random(1));
+    Map<Priority, List<Long>> fifo = simulate(workload, null);
+    Map<Priority, List<Long>> fair = simulate(workload,
+        new FairJobQueue(0, 60 * SECOND, NO_WEIGHTS));
+
+    // interactive paragraphs only wait for the running paragraph and each other
+    assertTrue(percentile(fair.get(Priority.INTERACTIVE), 99)
+        < percentile(fifo.get(Priority.INTERACTIVE), 50));
+    assertEquals(fifo.get(Priority.INTERACTIVE).size(), fair.get(Priority.INTERACTIVE).size());
+  }
+
+  /**
+   * Run with -Dzeppelin.benchmark=true
+   */
+  @Test
+  public void benchmarkWaitTimeByPriority() {
+    Assume.assumeTrue(Boolean.getBoolean("zeppelin.benchmark"));
+    List<UserJob> workload = workload(new Random(1));
+    Map<Priority, List<Long>> fifo = simulate(workload, null);
+    Map<Priority, List<Long>> fair = simulate(workload,
+        new FairJobQueue(0, 60 * SECOND, NO_WEIGHTS));
+
+    for (Priority priority : Priority.values()) {
+      LOG.info("{}: {} jobs, wait p50/p99 FIFO {}/{} s, fair {}/{} s",
+          priority, fifo.get(priority).size(),
+          percentile(fifo.get(priority), 50), percentile(fifo.get(priority), 99),
+          percentile(fair.get(priority), 50), percentile(fair.get(priority), 99));
+    }
+  }
+
+  /**
+   * Two users running all 40 paragraphs of their notes every 20 minutes, a cron job running
+   * 20 paragraphs every 30 minutes, and six users running single paragraphs every two
+   * minutes on average.
+   */
+  private List<UserJob> workload(Random random) {
+    List<UserJob> jobs = new ArrayList<>();
+    long day = TimeUnit.DAYS.toNanos(1);
+    for (int user = 0; user < 2; user++) {
+      for (long t = user * 600 * SECOND; t < day; t += 1200 * SECOND) {
+        for (int i = 0; i < 40; i++) {
+          jobs.add(new UserJob("batch" + user, "batch" + user, "batchNote" + user,
+              Priority.RUN_ALL, t, (5 + random.nextInt(11)) * SECOND));
+        }
+      }
+    }
+    for (long t = 0; t < day; t += 1800 * SECOND) {
+      for (int i = 0; i < 20; i++) {
+        jobs.add(new UserJob("cron", "cron", "cronNote", Priority.CRON, t,
+            (5 + random.nextInt(11)) * SECOND));
+      }
+    }
+    for (int user = 0; user < 6; user++) {
+      long t = 0;
+      while (t < day) {
+        t += (long) (-Math.log(1 - random.nextDouble()) * 120 * SECOND);
+        jobs.add(new UserJob("user" + user, "user" + user, "note" + user,
+            Priority.INTERACTIVE, t, (1 + random.nextInt(5)) * SECOND));
+      }
+    }
+    Collections.sort(jobs, new Comparator<UserJob>() {
+      @Override
+      public int compare(UserJob a, UserJob b) {
+        return Long.compare(a.submitAt, b.submitAt);
+      }
+    });
+    return jobs;
+  }
+
+  /**
+   * @param fairQueue null for FIFO
+   * @return wait time in seconds of each job by priority
+   */
+  private Map<Priority, List<Long>> simulate(List<UserJob> workload, FairJobQueue fairQueue) {
+    Map<Priority, List<Long>> waits = new EnumMap<>(Priority.class);
+    for (Priority priority : Priority.values()) {
+      waits.put(priority, new ArrayList<Long>());
+    }
+    LinkedList<UserJob> fifoQueue = new LinkedList<>();
+    int waiting = 0;
+    int next = 0;
+    // when the interpreter is free to run the next job
+    long free = 0;
+
+    while (next < workload.size() || waiting > 0) {
+      if (waiting == 0) {
+        free = Math.max(free, workload.get(next).submitAt);
+      }
+      while (next < workload.size() && workload.get(next).submitAt <= free) {
+        UserJob job = workload.get(next++);
+        if (fairQueue == null) {
+          fifoQueue.add(job);
+        } else {
+          fairQueue.add(job, job.submitAt);
+        }
+        waiting++;
+      }
+
+      UserJob job = (UserJob) (fairQueue == null ?
+          fifoQueue.removeFirst() : fairQueue.poll(NOTHING_DISPATCHED, free));
+      waiting--;
+      waits.get(job.getPriority()).add((free - job.submitAt) / SECOND);
+      free += job.duration;
+    }
+    return waits;
+  }
+
+  private static long percentile(List<Long> values, int percentile) {
+    List<Long> sorted = new ArrayList<>(values);
+    Collections.sort(sorted);
+    return sorted.get((int) Math.ceil(percentile / 100.0 * sorted.size()) - 1);
+  }
+
+  private static class UserJob extends SleepingJob {
+    private final String user;
+    private final String noteId;
+    final long submitAt;
+    final long duration;
+
+    UserJob(String name, String user, String noteId, Priority priority, int sleepMs) {
+      this(name, user, noteId, priority, 0, 0, sleepMs);
+    }
+
+    UserJob(String name, String user, String noteId, Priority priority, long submitAt,
+        long duration) {
+      this(name, user, noteId, priority, submitAt, duration, 0);
+    }
+
+    private UserJob(String name, String user, String noteId, Priority priority, long submitAt,
+        long duration, int sleepMs) {
+      super(name, null, sleepMs);
+      this.user = user;
+      this.noteId = noteId;
+      this.submitAt = submitAt;
+      this.duration = duration;
+      setPriority(priority);
+    }
+
+    @Override
+    public String getUser() {
+      return user;
+    }
+
+    @Override
+    public String getNoteId() {
+      return noteId;
+    }
+  }
+}
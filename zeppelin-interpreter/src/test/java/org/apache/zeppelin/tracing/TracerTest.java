@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.tracing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TracerTest {
+  private Tracer tracer;
+  private List<Trace> exported;
+
+  @Before
+  public void setUp() {
+    tracer = new Tracer();
+    exported = new LinkedList<>();
+    tracer.setExporter(new TraceExporter() {
+      @Override
+      public void export(Trace trace) {
+        exported.add(trace);
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+  }
+
+  @After
+  public void tearDown() {
+    tracer.setExporter(null);
+  }
+
+  @Test
+  public void testSpansAreMergedByName() {
+    Trace trace = new Trace("t1", "server", "note", "paragraph");
+    trace.add("scheduler.queue", 1000, TimeUnit.MILLISECONDS.toNanos(3));
+    trace.add("output.relay", 2000, TimeUnit.MILLISECONDS.toNanos(1));
+    trace.add("output.relay", 1500, TimeUnit.MILLISECONDS.toNanos(2));
+    // negative duration, e.g. stage never started, is ignored
+    trace.add("interpret", 3000, -1);
+
+    List<Span> spans = trace.getSpans();
+    assertEquals(2, spans.size());
+    assertEquals("output.relay", spans.get(1).getName());
+    assertEquals(1500, spans.get(1).getTimestamp());
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(3), spans.get(1).getDurationNanos());
+    assertEquals(2, spans.get(1).getCount());
+    assertEquals("scheduler.queue 3 ms, output.relay 3 ms (x2)", trace.getBreakdown());
+  }
+
+  @Test
+  public void testRemoteSpansRoundTrip() {
+    Trace remote = new Trace("t1", "interpreter", null, null);
+    remote.add("interpreter.interpret", 1000, 5000);
+    remote.add("interpreter.interpret", 2000, 5000);
+
+    Trace trace = new Trace("t1", "server", "note", "paragraph");
+    trace.add("interpret", 500, 20000);
+    trace.addAll(Trace.spansFromJson(remote.spansToJson()));
+
+    List<Span> spans = trace.getSpans();
+    assertEquals(2, spans.size());
+    Span span = spans.get(1);
+    assertEquals("interpreter.interpret", span.getName());
+    assertEquals("interpreter", span.getService());
+    assertEquals(10000, span.getDurationNanos());
+    assertEquals(2, span.getCount());
+  }
+
+  @Test
+  public void testStartGetFinish() {
+    Trace trace = tracer.start("note", "paragraph");
+    assertSame(trace, tracer.get(trace.getTraceId()));
+    assertSame(trace, tracer.get("note", "paragraph"));
+    assertNull(tracer.get("note", "other"));
+
+    // paragraph runs again before the previous trace finished
+    Trace next = tracer.start("note", "paragraph");
+    tracer.finish(trace);
+    assertNull(tracer.get(trace.getTraceId()));
+    assertSame(next, tracer.get("note", "paragraph"));
+    assertEquals(1, exported.size());
+    assertSame(trace, exported.get(0));
+
+    tracer.remove(next);
+    assertNull(tracer.get("note", "paragraph"));
+    assertEquals(0, tracer.getActiveTraceCount());
+    assertEquals(1, exported.size());
+  }
+
+  @Test
+  public void testZipkinJson() {
+    Trace trace = new Trace("0123456789abcdef0123456789abcdef", "zeppelin-server",
+        "note", "paragraph");
+    trace.add("scheduler.queue", 1000, TimeUnit.MICROSECONDS.toNanos(100));
+    trace.add("interpret", 1100, TimeUnit.MICROSECONDS.toNanos(400));
+
+    ZipkinTraceExporter exporter = new ZipkinTraceExporter(null, null);
+    try {
+      JsonArray spans = new JsonParser().parse(exporter.toJson(trace)).getAsJsonArray();
+      assertEquals(3, spans.size());
+
+      JsonObject root = spans.get(0).getAsJsonObject();
+      assertEquals("paragraph", root.get("name").getAsString());
+      assertEquals(1000, root.get("timestamp").getAsLong());
+      assertEquals(500, root.get("duration").getAsLong());
+      assertEquals("note", root.getAsJsonObject("tags").get("noteId").getAsString());
+      assertTrue(root.get("parentId") == null);
+
+      JsonObject child = spans.get(2).getAsJsonObject();
+      assertEquals(trace.getTraceId(), child.get("traceId").getAsString());
+      assertEquals(root.get("id").getAsString(), child.get("parentId").getAsString());
+      assertEquals("interpret", child.get("name").getAsString());
+      assertEquals(400, child.get("duration").getAsLong());
+      assertEquals("zeppelin-server",
+          child.getAsJsonObject("localEndpoint").get("serviceName").getAsString());
+    } finally {
+      exporter.close();
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.jupyter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.gson.stream.JsonWriter;
+import org.apache.zeppelin.notebook.Note;
+import org.apache.zeppelin.notebook.repo.NotebookRepo;
+import org.apache.zeppelin.notebook.utility.IdHashes;
+import org.apache.zeppelin.user.AuthenticationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Imports Jupyter notebooks into a NotebookRepo.
+ *
+ * A directory is imported by a fixed number of threads, each converting and saving one notebook
+ * at a time with JupyterStreamConverter. Notebooks without a title are named after their path
+ * in the directory, so sub directories become folders.
+ */
+public class JupyterImporter {
+  private static final Logger LOG = LoggerFactory.getLogger(JupyterImporter.class);
+  private static final String EXTENSION = ".ipynb";
+
+  private final NotebookRepo notebookRepo;
+  private final AuthenticationInfo subject;
+  private final JupyterStreamConverter converter;
+  private final int threads;
+
+  public JupyterImporter(NotebookRepo notebookRepo, AuthenticationInfo subject,
+      String codeReplaced, String markdownReplaced, int threads) {
+    this.notebookRepo = notebookRepo;
+    this.subject = subject;
+    this.converter = new JupyterStreamConverter(codeReplaced, markdownReplaced);
+    this.threads = Math.max(1, threads);
+  }
+
+  /**
+   * Convert a notebook and save it to the repo. The note is converted to a temporary file,
+   * so the notebook, its converted JSON and the note are never all in memory at once. The
+   * note itself is, as the repo saves note objects.
+   *
+   * @param noteName name of the note when the notebook has no title
+   */
+  public Note importNotebook(Path file, String noteName) throws IOException {
+    Path json = Files.createTempFile("jupyter-import", ".json");
+    try {
+      try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+          Writer out = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+        converter.convert(in, new JsonWriter(out), IdHashes.generateId(), noteName);
+      }
+      Note note;
+      try (Reader in = Files.newBufferedReader(json, StandardCharsets.UTF_8)) {
+        note = Note.fromJson(in);
+      }
+      notebookRepo.save(note, subject);
+      return note;
+    } finally {
+      Files.deleteIfExists(json);
+    }
+  }
+
+  /**
+   * Import all notebooks in the directory and its sub directories. A notebook that fails to
+   * import is logged and counted, the others are still imported.
+   */
+  public Summary importDirectory(final Path dir) throws IOException {
+    // bounded queue, the directory walk waits for the importing threads
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+        0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(threads * 4),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    final Summary summary = new Summary();
+    long start = System.nanoTime();
+
+    try {
+      Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+          if (attrs.isRegularFile() && file.getFileName().toString().endsWith(EXTENSION)) {
+            executor.execute(new Runnable() {
+              @Override
+              public void run() {
+                importFile(file, getNoteName(dir, file), attrs.size(), summary);
+              }
+            });
+          }
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    } finally {
+      executor.shutdown();
+      try {
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        executor.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    summary.elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    LOG.info("Imported notebooks from {}: {}", dir, summary);
+    return summary;
+  }
+
+  private void importFile(Path file, String noteName, long size, Summary summary) {
+    try {
+      importNotebook(file, noteName);
+      summary.imported.incrementAndGet();
+      summary.bytes.addAndGet(size);
+    } catch (Exception e) {
+      LOG.error("Failed to import " + file, e);
+      summary.failed.add(file);
+    }
+  }
+
+  private static String getNoteName(Path dir, Path file) {
+    String name = dir.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    return name.substring(0, name.length() - EXTENSION.length());
+  }
+
+  /**
+   * Result of importing a directory
+   */
+  public static class Summary {
+    private final AtomicInteger imported = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private final List<Path> failed = Collections.synchronizedList(new ArrayList<Path>());
+    private volatile long elapsedMs;
+
+    public int getImported() {
+      return imported.get();
+    }
+
+    public List<Path> getFailed() {
+      return failed;
+    }
+
+    /**
+     * @return size of the imported notebooks
+     */
+    public long getBytes() {
+      return bytes.get();
+    }
+
+    public long getElapsedMs() {
+      return elapsedMs;
+    }
+
+    public double getNotesPerSecond() {
+      return imported.get() * 1000.0 / Math.max(1, elapsedMs);
+    }
+
+    public double getMegabytesPerSecond() {
+      return bytes.get() * 1000.0 / Math.max(1, elapsedMs) / (1024 * 1024);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d imported, %d failed in %d ms (%.1f notes/s, %.1f MB/s)",
+          getImported(), failed.size(), elapsedMs, getNotesPerSecond(), getMegabytesPerSecond());
+    }
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.jupyter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import org.apache.zeppelin.jupyter.zformat.Paragraph;
+import org.apache.zeppelin.jupyter.zformat.Result;
+import org.apache.zeppelin.jupyter.zformat.TypeData;
+
+/**
+ * Converts a Jupyter notebook to a Zeppelin note one cell at a time.
+ *
+ * Produces the same note as JupyterUtil.getNote(), but reads the notebook with a JsonReader
+ * and writes each paragraph as soon as its cell is read. At most a single cell output is
+ * held in memory, so large outputs and images don't need several copies of the whole notebook
+ * on the heap.
+ */
+public class JupyterStreamConverter {
+  static final String DEFAULT_NOTE_NAME = "Note converted from Jupyter";
+
+  private final String codeReplaced;
+  private final String markdownReplaced;
+  private final String lineSeparator = System.lineSeparator();
+  private final JsonParser parser = new JsonParser();
+  private final Gson gson = new Gson();
+
+  public JupyterStreamConverter(String codeReplaced, String markdownReplaced) {
+    this.codeReplaced = codeReplaced;
+    this.markdownReplaced = markdownReplaced;
+  }
+
+  public void convert(Reader in, Writer out) throws IOException {
+    convert(in, new JsonWriter(out), null, DEFAULT_NOTE_NAME);
+  }
+
+  /**
+   * @param noteId id of the note, null to leave it out
+   * @param defaultName name of the note when the notebook has no title
+   */
+  public void convert(Reader in, JsonWriter writer, String noteId, String defaultName)
+      throws IOException {
+    JsonReader reader = new JsonReader(in);
+    // same as Gson.fromJson(), accept comments like the license header of test notebooks
+    reader.setLenient(true);
+    String name = null;
+    boolean cellsWritten = false;
+
+    writer.beginObject();
+    if (noteId != null) {
+      writer.name("id").value(noteId);
+    }
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String key = reader.nextName();
+      if ("cells".equals(key)) {
+        writer.name("paragraphs").beginArray();
+        reader.beginArray();
+        while (reader.hasNext()) {
+          convertCell(reader, writer);
+        }
+        reader.endArray();
+        writer.endArray();
+        cellsWritten = true;
+      } else if ("metadata".equals(key)) {
+        name = readTitle(reader);
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    if (!cellsWritten) {
+      writer.name("paragraphs").beginArray().endArray();
+    }
+    writer.name("name").value(name == null ? defaultName : name);
+    writer.endObject();
+    writer.flush();
+  }
+
+  private String readTitle(JsonReader reader) throws IOException {
+    String title = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      if ("title".equals(reader.nextName()) && reader.peek() == JsonToken.STRING) {
+        title = reader.nextString();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    return title;
+  }
+
+  private void convertCell(JsonReader reader, JsonWriter writer) throws IOException {
+    Paragraph paragraph = new Paragraph();
+    String cellType = null;
+    String source = "";
+    boolean resultsWritten = false;
+
+    // outputs are written while they are read, text once the cell type is known
+    writer.beginObject();
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String key = reader.nextName();
+      if ("cell_type".equals(key)) {
+        cellType = reader.nextString();
+      } else if ("source".equals(key)) {
+        source = joinLines(parser.parse(reader), lineSeparator);
+      } else if ("outputs".equals(key)) {
+        writer.name("results");
+        convertOutputs(reader, writer);
+        resultsWritten = true;
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+
+    if (!resultsWritten) {
+      writer.name("results").beginObject()
+          .name("code").value(Result.SUCCESS)
+          .name("msg").beginArray().endArray()
+          .endObject();
+    }
+    writer.name("text").value(getInterpreterName(cellType) + lineSeparator + source);
+    writer.name("id").value(paragraph.getId());
+    writer.name("status").value(paragraph.getStatus());
+    writer.endObject();
+  }
+
+  private String getInterpreterName(String cellType) {
+    if ("code".equals(cellType)) {
+      return codeReplaced;
+    } else if ("markdown".equals(cellType) || "heading".equals(cellType)) {
+      return markdownReplaced;
+    } else if ("raw".equals(cellType)) {
+      return "";
+    }
+    throw new JsonParseException("Unknown cell_type: " + cellType);
+  }
+
+  private void convertOutputs(JsonReader reader, JsonWriter writer) throws IOException {
+    writer.beginObject();
+    writer.name("code").value(Result.SUCCESS);
+    writer.name("msg").beginArray();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      convertOutput(parser.parse(reader).getAsJsonObject(), writer);
+    }
+    reader.endArray();
+    writer.endArray();
+    writer.endObject();
+  }
+
+  private void convertOutput(JsonObject output, JsonWriter writer) throws IOException {
+    String outputType = getString(output, "output_type");
+    if ("stream".equals(outputType)) {
+      writeTypeData(writer, TypeData.TEXT, joinLines(output.get("text"), lineSeparator));
+    } else if ("execute_result".equals(outputType) || "display_data".equals(outputType)) {
+      JsonElement data = output.get("data");
+      if (data == null || !data.isJsonObject()) {
+        return;
+      }
+      for (Map.Entry<String, JsonElement> datum : data.getAsJsonObject().entrySet()) {
+        if (JupyterUtil.TEXT_PLAIN.equals(datum.getKey())) {
+          writeTypeData(writer, TypeData.TEXT, joinLines(datum.getValue(), lineSeparator));
+        } else if (JupyterUtil.IMAGE_PNG.equals(datum.getKey())) {
+          writeTypeData(writer, TypeData.HTML,
+              JupyterUtil.makeHTML(joinLines(datum.getValue(), "").replace("\n", "")));
+        } else {
+          writeTypeData(writer, TypeData.TEXT,
+              String.valueOf(gson.fromJson(datum.getValue(), Object.class)));
+        }
+      }
+    } else if ("error".equals(outputType)) {
+      writeTypeData(writer, TypeData.TEXT,
+          getString(output, "ename") + lineSeparator + getString(output, "evalue"));
+    } else {
+      throw new JsonParseException("Unknown output_type: " + outputType);
+    }
+  }
+
+  private void writeTypeData(JsonWriter writer, String type, String data) throws IOException {
+    writer.beginObject();
+    writer.name("type").value(type);
+    writer.name("data").value(data);
+    writer.endObject();
+  }
+
+  private String getString(JsonObject object, String name) {
+    JsonElement element = object.get(name);
+    return element == null || element.isJsonNull() ? null : element.getAsString();
+  }
+
+  /**
+   * Multiline strings of nbformat are either a string or a list of lines
+   */
+  private String joinLines(JsonElement lines, String separator) {
+    if (lines == null || lines.isJsonNull()) {
+      return "";
+    }
+    if (!lines.isJsonArray()) {
+      return lines.getAsString();
+    }
+    JsonArray array = lines.getAsJsonArray();
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < array.size(); i++) {
+      if (i > 0) {
+        sb.append(separator);
+      }
+      sb.append(array.get(i).getAsString());
+    }
+    return sb.toString();
+  }
+}
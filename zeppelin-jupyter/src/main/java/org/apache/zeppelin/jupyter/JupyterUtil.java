@@ -21,6 +21,7 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -30,6 +31,7 @@ import java.util.Map;
 import com.google.common.base.Joiner;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 import com.google.gson.typeadapters.RuntimeTypeAdapterFactory;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -37,6 +39,7 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.apache.zeppelin.conf.ZeppelinConfiguration;
 
 import org.apache.zeppelin.jupyter.nbformat.Cell;
 import org.apache.zeppelin.jupyter.nbformat.CodeCell;
@@ -53,14 +56,20 @@ import org.apache.zeppelin.jupyter.zformat.Note;
 import org.apache.zeppelin.jupyter.zformat.Paragraph;
 import org.apache.zeppelin.jupyter.zformat.Result;
 import org.apache.zeppelin.jupyter.zformat.TypeData;
+import org.apache.zeppelin.notebook.repo.NotebookRepo;
+import org.apache.zeppelin.notebook.repo.NotebookRepoSync;
+import org.apache.zeppelin.user.AuthenticationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  *
  */
 public class JupyterUtil {
+  private static final Logger LOG = LoggerFactory.getLogger(JupyterUtil.class);
 
-  private static final String TEXT_PLAIN = "text/plain";
-  private static final String IMAGE_PNG = "image/png";
+  static final String TEXT_PLAIN = "text/plain";
+  static final String IMAGE_PNG = "image/png";
 
   private final RuntimeTypeAdapterFactory<Cell> cellTypeFactory;
   private final RuntimeTypeAdapterFactory<Output> outputTypeFactory;
@@ -97,7 +106,7 @@ public class JupyterUtil {
 
     String name = nbformat.getMetadata().getTitle();
     if (null == name) {
-      name = "Note converted from Jupyter";
+      name = JupyterStreamConverter.DEFAULT_NOTE_NAME;
     }
     note.setName(name);
 
@@ -173,15 +182,18 @@ public class JupyterUtil {
         .registerTypeAdapterFactory(outputTypeFactory).create();
   }
 
-  private String makeHTML(String image) {
+  static String makeHTML(String image) {
     return "<div style='width:auto;height:auto'><img src=data:image/png;base64," + image
         + " style='width=auto;height:auto'/></div>";
   }
 
   public static void main(String[] args) throws ParseException, IOException {
     Options options = new Options();
-    options.addOption("i", true, "Jupyter notebook file");
+    options.addOption("i", true, "Jupyter notebook file, or directory of notebooks to import into "
+        + "the notebook storage of Zeppelin");
     options.addOption("o", true, "Zeppelin note file. Default: note.json");
+    options.addOption("t", true, "Number of threads importing a directory. "
+        + "Default: number of processors");
 
     CommandLineParser parser = new DefaultParser();
     CommandLine cmd = parser.parse(options, args);
@@ -192,13 +204,33 @@ public class JupyterUtil {
     }
 
     Path jupyterPath = Paths.get(cmd.getOptionValue("i"));
+
+    if (Files.isDirectory(jupyterPath)) {
+      int threads = cmd.hasOption("t") ? Integer.parseInt(cmd.getOptionValue("t")) :
+          Runtime.getRuntime().availableProcessors();
+      NotebookRepo notebookRepo = new NotebookRepoSync(ZeppelinConfiguration.create());
+      try {
+        JupyterImporter importer = new JupyterImporter(notebookRepo, AuthenticationInfo.ANONYMOUS,
+            "%python", "%md", threads);
+        JupyterImporter.Summary summary = importer.importDirectory(jupyterPath);
+        LOG.info("Import of {}: {}", jupyterPath, summary);
+        for (Path failed : summary.getFailed()) {
+          LOG.warn("Failed: {}", failed);
+        }
+      } finally {
+        notebookRepo.close();
+      }
+      return;
+    }
+
     Path zeppelinPath = Paths.get(cmd.hasOption("o") ? cmd.getOptionValue("o") : "note.json");
 
     try (BufferedReader in = new BufferedReader(new FileReader(jupyterPath.toFile()));
         FileWriter fw = new FileWriter(zeppelinPath.toFile())) {
-      Note note = new JupyterUtil().getNote(in, "python", "md");
-      Gson gson = new GsonBuilder().setPrettyPrinting().create();
-      gson.toJson(note, fw);
+      JsonWriter writer = new JsonWriter(fw);
+      writer.setIndent("  ");
+      new JupyterStreamConverter("python", "md").convert(in, writer, null,
+          JupyterStreamConverter.DEFAULT_NOTE_NAME);
     }
   }
 }
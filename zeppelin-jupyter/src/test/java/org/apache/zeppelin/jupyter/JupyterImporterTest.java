@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.jupyter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.io.BaseEncoding;
+import org.apache.commons.io.FileUtils;
+import org.apache.zeppelin.notebook.Note;
+import org.apache.zeppelin.notebook.NoteInfo;
+import org.apache.zeppelin.notebook.repo.NotebookRepo;
+import org.apache.zeppelin.notebook.repo.NotebookRepoSettingsInfo;
+import org.apache.zeppelin.user.AuthenticationInfo;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class JupyterImporterTest {
+  private static final Logger LOG = LoggerFactory.getLogger(JupyterImporterTest.class);
+
+  private Path dir;
+  private InMemoryNotebookRepo repo;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("jupyter-import");
+    repo = new InMemoryNotebookRepo(true);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(dir.toFile());
+  }
+
+  @Test
+  public void testImportDirectory() throws IOException {
+    copyResource("/examples.ipynb", dir.resolve("examples.ipynb"));
+    Files.createDirectories(dir.resolve("folder"));
+    copyResource("/basic.ipynb", dir.resolve("folder").resolve("basic.ipynb"));
+    Files.write(dir.resolve("broken.ipynb"), "{\"cells\": [".getBytes(StandardCharsets.UTF_8));
+    Files.write(dir.resolve("README.md"), "not a notebook".getBytes(StandardCharsets.UTF_8));
+
+    JupyterImporter importer = new JupyterImporter(repo, AuthenticationInfo.ANONYMOUS,
+        "%python", "%md", 2);
+    JupyterImporter.Summary summary = importer.importDirectory(dir);
+
+    assertEquals(2, summary.getImported());
+    assertEquals(1, summary.getFailed().size());
+    assertEquals("broken.ipynb", summary.getFailed().get(0).getFileName().toString());
+    assertEquals(2, repo.notes.size());
+
+    Set<String> names = new HashSet<>();
+    for (Note note : repo.notes.values()) {
+      assertNotNull(note.getId());
+      assertTrue(note.getParagraphs().size() > 0);
+      assertTrue(note.getParagraphs().get(0).getText().startsWith("%"));
+      names.add(note.getName());
+    }
+    assertTrue(names.contains("examples"));
+    assertTrue(names.contains("folder/basic"));
+  }
+
+  /**
+   * Run with -Dzeppelin.benchmark=true
+   */
+  @Test
+  public void benchmarkImportDirectory() throws IOException {
+    Assume.assumeTrue(Boolean.getBoolean("zeppelin.benchmark"));
+    int notebooks = Integer.getInteger("zeppelin.jupyter.benchmark.notebooks", 1000);
+    generateNotebooks(notebooks);
+    int processors = Runtime.getRuntime().availableProcessors();
+
+    for (int threads : new int[] {1, processors}) {
+      InMemoryNotebookRepo counter = new InMemoryNotebookRepo(false);
+      JupyterImporter importer = new JupyterImporter(counter, AuthenticationInfo.ANONYMOUS,
+          "%python", "%md", threads);
+      JupyterImporter.Summary summary = importer.importDirectory(dir);
+
+      assertEquals(notebooks, summary.getImported());
+      assertEquals(notebooks, counter.saved.size());
+      LOG.info("Import {} notebooks with {} threads: {}", notebooks, threads, summary);
+    }
+  }
+
+  private void generateNotebooks(int count) throws IOException {
+    Random random = new Random(0);
+    byte[] image = new byte[16 * 1024];
+    random.nextBytes(image);
+    String png = BaseEncoding.base64().encode(image);
+
+    for (int i = 0; i < count; i++) {
+      StringBuilder sb = new StringBuilder("{\"cells\": [");
+      for (int c = 0; c < 20; c++) {
+        if (c > 0) {
+          sb.append(",");
+        }
+        if (c % 4 == 0) {
+          sb.append("{\"cell_type\": \"markdown\", \"metadata\": {}, \"source\": [\"# Cell ")
+              .append(c).append("\"]}");
+        } else {
+          sb.append("{\"cell_type\": \"code\", \"execution_count\": ").append(c)
+              .append(", \"metadata\": {}, \"outputs\": [")
+              .append("{\"name\": \"stdout\", \"output_type\": \"stream\", \"text\": [\"")
+              .append(random.nextLong()).append("\\n\"]}");
+          if (c % 10 == 1) {
+            sb.append(", {\"data\": {\"image/png\": \"").append(png)
+                .append("\", \"text/plain\": [\"<Figure>\"]}, \"metadata\": {},")
+                .append(" \"output_type\": \"display_data\"}");
+          }
+          sb.append("], \"source\": [\"x = ").append(c).append("\\n\", \"print(x)\"]}");
+        }
+      }
+      sb.append("], \"metadata\": {}, \"nbformat\": 4, \"nbformat_minor\": 2}");
+      Files.write(dir.resolve("notebook" + i + ".ipynb"),
+          sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private void copyResource(String resource, Path target) throws IOException {
+    try (InputStream in = getClass().getResourceAsStream(resource)) {
+      Files.copy(in, target);
+    }
+  }
+
+  /**
+   * Keeps saved notes in memory, or only their ids
+   */
+  private static class InMemoryNotebookRepo implements NotebookRepo {
+    private final boolean keep;
+    final Map<String, Note> notes = new ConcurrentHashMap<>();
+    final Set<String> saved = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    InMemoryNotebookRepo(boolean keep) {
+      this.keep = keep;
+    }
+
+    @Override
+    public List<NoteInfo> list(AuthenticationInfo subject) {
+      List<NoteInfo> infos = new ArrayList<>();
+      for (Note note : notes.values()) {
+        infos.add(new NoteInfo(note));
+      }
+      return infos;
+    }
+
+    @Override
+    public Note get(String noteId, AuthenticationInfo subject) {
+      return notes.get(noteId);
+    }
+
+    @Override
+    public void save(Note note, AuthenticationInfo subject) {
+      saved.add(note.getId());
+      if (keep) {
+        notes.put(note.getId(), note);
+      }
+    }
+
+    @Override
+    public void remove(String noteId, AuthenticationInfo subject) {
+      notes.remove(noteId);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public Revision checkpoint(String noteId, String checkpointMsg, AuthenticationInfo subject) {
+      return null;
+    }
+
+    @Override
+    public Note get(String noteId, String revId, AuthenticationInfo subject) {
+      return notes.get(noteId);
+    }
+
+    @Override
+    public List<Revision> revisionHistory(String noteId, AuthenticationInfo subject) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Note setNoteRevision(String noteId, String revId, AuthenticationInfo subject) {
+      return notes.get(noteId);
+    }
+
+    @Override
+    public List<NotebookRepoSettingsInfo> getSettings(AuthenticationInfo subject) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public void updateSettings(Map<String, String> settings, AuthenticationInfo subject) {
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.jupyter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.CharStreams;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+import org.apache.commons.io.FileUtils;
+import org.apache.zeppelin.jupyter.zformat.Note;
+import org.apache.zeppelin.jupyter.zformat.Paragraph;
+import org.apache.zeppelin.jupyter.zformat.TypeData;
+import org.junit.Test;
+
+public class JupyterStreamConverterTest {
+  private static final String SEP = System.lineSeparator();
+
+  @Test
+  public void testSameNoteAsJupyterUtil() throws IOException {
+    for (String resource : new String[] {"/basic.ipynb", "/examples.ipynb"}) {
+      Note expected = new JupyterUtil().getNote(
+          new InputStreamReader(getClass().getResourceAsStream(resource)), "%python", "%md");
+      Note actual = convert(new InputStreamReader(getClass().getResourceAsStream(resource)));
+
+      assertEquals(expected.getName(), actual.getName());
+      assertEquals(expected.getParagraphs().size(), actual.getParagraphs().size());
+      for (int i = 0; i < expected.getParagraphs().size(); i++) {
+        Paragraph e = expected.getParagraphs().get(i);
+        Paragraph a = actual.getParagraphs().get(i);
+        assertEquals(e.getText(), a.getText());
+        assertEquals(e.getStatus(), a.getStatus());
+        assertEquals(e.getResults().getCode(), a.getResults().getCode());
+        List<TypeData> expectedMsg = e.getResults().getMsg();
+        List<TypeData> actualMsg = a.getResults().getMsg();
+        assertEquals(expectedMsg.size(), actualMsg.size());
+        for (int j = 0; j < expectedMsg.size(); j++) {
+          assertEquals(expectedMsg.get(j).getType(), actualMsg.get(j).getType());
+          assertEquals(expectedMsg.get(j).getData(), actualMsg.get(j).getData());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testAnyKeyOrder() throws IOException {
+    String notebook = "{\"metadata\": {\"kernelspec\": {\"name\": \"python3\"}, \"title\": \"t\"},"
+        + "\"nbformat\": 4, \"cells\": ["
+        + "{\"outputs\": [{\"text\": \"out\", \"output_type\": \"stream\"}],"
+        + "\"source\": \"print('out')\", \"cell_type\": \"code\"},"
+        + "{\"cell_type\": \"markdown\", \"source\": [\"# a\", \"b\"]},"
+        + "{\"cell_type\": \"raw\", \"source\": []}]}";
+    Note note = convert(new StringReader(notebook));
+
+    assertEquals("t", note.getName());
+    assertEquals(3, note.getParagraphs().size());
+    Paragraph code = note.getParagraphs().get(0);
+    assertEquals("%python" + SEP + "print('out')", code.getText());
+    assertEquals(1, code.getResults().getMsg().size());
+    assertEquals(TypeData.TEXT, code.getResults().getMsg().get(0).getType());
+    assertEquals("out", code.getResults().getMsg().get(0).getData());
+    assertEquals("%md" + SEP + "# a" + SEP + "b", note.getParagraphs().get(1).getText());
+    assertEquals(0, note.getParagraphs().get(1).getResults().getMsg().size());
+    assertEquals(SEP, note.getParagraphs().get(2).getText());
+  }
+
+  @Test
+  public void testNoteIdAndDefaultName() throws IOException {
+    StringWriter out = new StringWriter();
+    new JupyterStreamConverter("%python", "%md").convert(new StringReader("{\"metadata\": {}}"),
+        new JsonWriter(out), "2ABCDEFGH", "folder/note");
+    Note note = new Gson().fromJson(out.toString(), Note.class);
+
+    assertEquals("folder/note", note.getName());
+    assertTrue(note.getParagraphs().isEmpty());
+    assertTrue(out.toString().contains("\"id\":\"2ABCDEFGH\""));
+  }
+
+  /**
+   * Converts a notebook of 25MB of images in a JVM with a 24MB heap
+   */
+  @Test
+  public void testBoundedHeap() throws IOException, InterruptedException {
+    Path dir = Files.createTempDirectory("jupyter-heap");
+    try {
+      Path notebook = dir.resolve("images.ipynb");
+      byte[] image = new byte[384 * 1024];
+      new Random(0).nextBytes(image);
+      String png = BaseEncoding.base64().encode(image);
+      try (Writer w = Files.newBufferedWriter(notebook, StandardCharsets.UTF_8)) {
+        w.write("{\"cells\": [");
+        for (int c = 0; c < 50; c++) {
+          w.write(c == 0 ? "" : ",");
+          w.write("{\"cell_type\": \"code\", \"source\": [\"plot()\"], \"outputs\": ["
+              + "{\"output_type\": \"display_data\", \"data\": {\"image/png\": \"" + png
+              + "\"}}]}");
+        }
+        w.write("], \"metadata\": {}}");
+      }
+      Path note = dir.resolve("note.json");
+
+      String java = System.getProperty("java.home") + File.separator + "bin" + File.separator
+          + "java";
+      Process process = new ProcessBuilder(java, "-Xmx24m",
+          "-cp", System.getProperty("java.class.path"), JupyterUtil.class.getName(),
+          "-i", notebook.toString(), "-o", note.toString())
+          .redirectErrorStream(true).start();
+      String output = CharStreams.toString(
+          new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+      assertEquals(output, 0, process.waitFor());
+
+      try (Reader in = Files.newBufferedReader(note, StandardCharsets.UTF_8)) {
+        Note converted = new Gson().fromJson(in, Note.class);
+        assertEquals(50, converted.getParagraphs().size());
+        assertEquals(TypeData.HTML,
+            converted.getParagraphs().get(49).getResults().getMsg().get(0).getType());
+      }
+    } finally {
+      FileUtils.deleteDirectory(dir.toFile());
+    }
+  }
+
+  @Test(expected = JsonParseException.class)
+  public void testUnknownCellType() throws IOException {
+    convert(new StringReader("{\"cells\": [{\"cell_type\": \"unknown\", \"source\": []}]}"));
+  }
+
+  private Note convert(Reader in) throws IOException {
+    StringWriter out = new StringWriter();
+    new JupyterStreamConverter("%python", "%md").convert(in, out);
+    return new Gson().fromJson(out.toString(), Note.class);
+  }
+}
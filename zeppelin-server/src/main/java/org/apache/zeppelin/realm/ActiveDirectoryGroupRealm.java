@@ -45,6 +45,7 @@ import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
 import javax.naming.ldap.LdapContext;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 
 /**
@@ -79,6 +80,13 @@ public class ActiveDirectoryGroupRealm extends AbstractLdapRealm {
    */
   private Map<String, String> groupRolesMap;
 
+  // cache of user roles and user search results, see DirectoryCache
+  private long directoryCacheTtl = 60;
+  private long directoryCacheRefreshInterval = 30;
+  private int directoryCacheMaxSize = 1000;
+  private DirectoryCache<Set<String>> rolesCache;
+  private DirectoryCache<List<String>> userSearchCache;
+
     /*--------------------------------------------
     |         C O N S T R U C T O R S           |
     ============================================*/
@@ -87,6 +95,18 @@ public class ActiveDirectoryGroupRealm extends AbstractLdapRealm {
     this.groupRolesMap = groupRolesMap;
   }
 
+  public void setDirectoryCacheTtl(long directoryCacheTtl) {
+    this.directoryCacheTtl = directoryCacheTtl;
+  }
+
+  public void setDirectoryCacheRefreshInterval(long directoryCacheRefreshInterval) {
+    this.directoryCacheRefreshInterval = directoryCacheRefreshInterval;
+  }
+
+  public void setDirectoryCacheMaxSize(int directoryCacheMaxSize) {
+    this.directoryCacheMaxSize = directoryCacheMaxSize;
+  }
+
     /*--------------------------------------------
     |               M E T H O D S               |
     ============================================*/
@@ -198,7 +218,10 @@ public class ActiveDirectoryGroupRealm extends AbstractLdapRealm {
       LdapUtils.closeContext(ctx);
     }
 
-    return buildAuthenticationInfo(upToken.getUsername(), upToken.getPassword());
+    AuthenticationInfo info = buildAuthenticationInfo(upToken.getUsername(), upToken.getPassword());
+    // reload roles of the user on login
+    invalidateCache((String) getAvailablePrincipal(info.getPrincipals()));
+    return info;
   }
 
   private Boolean isValidPrincipalName(String userPrincipalName) {
@@ -243,20 +266,65 @@ public class ActiveDirectoryGroupRealm extends AbstractLdapRealm {
       PrincipalCollection principals,
       LdapContextFactory ldapContextFactory) throws NamingException {
 
-    String username = (String) getAvailablePrincipal(principals);
+    final String username = (String) getAvailablePrincipal(principals);
+    final LdapContextFactory contextFactory = ldapContextFactory;
+
+    Set<String> roleNames = getRolesCache().get(username, new Callable<Set<String>>() {
+      @Override
+      public Set<String> call() throws Exception {
+        // Perform context search
+        LdapContext ldapContext = contextFactory.getSystemLdapContext();
+        try {
+          return Collections.unmodifiableSet(getRoleNamesForUser(username, ldapContext));
+        } finally {
+          LdapUtils.closeContext(ldapContext);
+        }
+      }
+    });
 
-    // Perform context search
-    LdapContext ldapContext = ldapContextFactory.getSystemLdapContext();
+    return buildAuthorizationInfo(new LinkedHashSet<>(roleNames));
+  }
 
-    Set<String> roleNames;
+  @Override
+  protected void onLogout(PrincipalCollection principals) {
+    super.onLogout(principals);
+    Object principal = getAvailablePrincipal(principals);
+    if (principal != null) {
+      invalidateCache(principal.toString());
+    }
+  }
 
-    try {
-      roleNames = getRoleNamesForUser(username, ldapContext);
-    } finally {
-      LdapUtils.closeContext(ldapContext);
+  /**
+   * Drop cached roles of the user, they are reloaded from the directory on next access.
+   */
+  public void invalidateCache(String userName) {
+    if (userName != null) {
+      getRolesCache().invalidate(userName);
+    }
+  }
+
+  /**
+   * Drop all cached roles and user search results.
+   */
+  public void invalidateAllCaches() {
+    getRolesCache().invalidateAll();
+    getUserSearchCache().invalidateAll();
+  }
+
+  synchronized DirectoryCache<Set<String>> getRolesCache() {
+    if (rolesCache == null) {
+      rolesCache = new DirectoryCache<>("active directory roles", directoryCacheTtl,
+          directoryCacheRefreshInterval, directoryCacheMaxSize);
     }
+    return rolesCache;
+  }
 
-    return buildAuthorizationInfo(roleNames);
+  public synchronized DirectoryCache<List<String>> getUserSearchCache() {
+    if (userSearchCache == null) {
+      userSearchCache = new DirectoryCache<>("active directory user search", directoryCacheTtl,
+          directoryCacheRefreshInterval, directoryCacheMaxSize);
+    }
+    return userSearchCache;
   }
 
   protected AuthorizationInfo buildAuthorizationInfo(Set<String> roleNames) {
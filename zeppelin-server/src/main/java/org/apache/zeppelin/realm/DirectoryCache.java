@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.realm;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.naming.NamingException;
+
+/**
+ * TTL bounded, size limited cache of directory (LDAP / AD) lookups used by the realms.
+ *
+ * Entries expire {@code ttl} seconds after they were loaded. Entries older than
+ * {@code refreshInterval} seconds are still served but reloaded in background, so frequent
+ * callers like {@code SecurityUtils.getRoles()} don't wait on the directory.
+ * Concurrent misses on the same key share a single directory query.
+ * A ttl of 0 or less disables caching.
+ */
+public class DirectoryCache<V> {
+  private static final Logger LOG = LoggerFactory.getLogger(DirectoryCache.class);
+
+  private static final ExecutorService REFRESH_EXECUTOR = Executors.newFixedThreadPool(2,
+      new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread t = new Thread(r, "DirectoryCacheRefresh");
+          t.setDaemon(true);
+          return t;
+        }
+      });
+
+  private final String name;
+  private final long ttlMs;
+  private final long refreshIntervalMs;
+  private final Cache<String, Entry<V>> cache;
+  private final Set<String> refreshing =
+      Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong loads = new AtomicLong();
+
+  public DirectoryCache(String name, long ttlSeconds, long refreshIntervalSeconds,
+                        int maxSize) {
+    this.name = name;
+    this.ttlMs = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    this.refreshIntervalMs = TimeUnit.SECONDS.toMillis(refreshIntervalSeconds);
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(Math.max(maxSize, 1))
+        .expireAfterWrite(Math.max(ttlMs, 1), TimeUnit.MILLISECONDS)
+        .build();
+  }
+
+  public boolean isEnabled() {
+    return ttlMs > 0;
+  }
+
+  /**
+   * Return the cached value of the key, loading it with the loader when absent or expired.
+   */
+  public V get(final String key, final Callable<V> loader) throws NamingException {
+    if (!isEnabled()) {
+      return load(loader);
+    }
+
+    Entry<V> entry = cache.getIfPresent(key);
+    if (entry != null) {
+      hits.incrementAndGet();
+      if (refreshIntervalMs > 0 && entry.age() >= refreshIntervalMs) {
+        refreshInBackground(key, entry, loader);
+      }
+      return entry.value;
+    }
+
+    misses.incrementAndGet();
+    try {
+      return cache.get(key, new Callable<Entry<V>>() {
+        @Override
+        public Entry<V> call() throws Exception {
+          return new Entry<>(load(loader));
+        }
+      }).value;
+    } catch (ExecutionException e) {
+      throw toNamingException(e.getCause());
+    } catch (UncheckedExecutionException e) {
+      throw toNamingException(e.getCause());
+    }
+  }
+
+  private void refreshInBackground(final String key, final Entry<V> current,
+                                   final Callable<V> loader) {
+    if (!refreshing.add(key)) {
+      return;
+    }
+    REFRESH_EXECUTOR.submit(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          Entry<V> refreshed = new Entry<>(load(loader));
+          // don't resurrect an entry which was invalidated while refreshing
+          cache.asMap().replace(key, current, refreshed);
+        } catch (Exception e) {
+          LOG.warn("Failed to refresh " + name + " cache entry " + key, e);
+        } finally {
+          refreshing.remove(key);
+        }
+      }
+    });
+  }
+
+  private V load(Callable<V> loader) throws NamingException {
+    loads.incrementAndGet();
+    try {
+      return loader.call();
+    } catch (Exception e) {
+      throw toNamingException(e);
+    }
+  }
+
+  private NamingException toNamingException(Throwable e) {
+    if (e instanceof NamingException) {
+      return (NamingException) e;
+    }
+    if (e instanceof RuntimeException) {
+      throw (RuntimeException) e;
+    }
+    NamingException ne = new NamingException(e.getMessage());
+    ne.setRootCause(e);
+    return ne;
+  }
+
+  public void invalidate(String key) {
+    cache.invalidate(key);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * @return number of directory queries issued by this cache, including background refreshes
+   */
+  public long getLoadCount() {
+    return loads.get();
+  }
+
+  private static class Entry<V> {
+    final V value;
+    final long loadedAt = System.currentTimeMillis();
+
+    Entry(V value) {
+      this.value = value;
+    }
+
+    long age() {
+      return System.currentTimeMillis() - loadedAt;
+    }
+  }
+}
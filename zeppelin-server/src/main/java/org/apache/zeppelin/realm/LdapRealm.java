@@ -50,6 +50,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.naming.AuthenticationException;
@@ -193,6 +194,13 @@ public class LdapRealm extends JndiLdapRealm {
 
   private HashService hashService = new DefaultHashService();
 
+  // cache of user roles and user search results, see DirectoryCache
+  private long directoryCacheTtl = 60;
+  private long directoryCacheRefreshInterval = 30;
+  private int directoryCacheMaxSize = 1000;
+  private DirectoryCache<UserRolesAndGroups> rolesCache;
+  private DirectoryCache<List<String>> userSearchCache;
+
   public LdapRealm() {
     HashedCredentialsMatcher credentialsMatcher = new HashedCredentialsMatcher(HASHING_ALGORITHM);
     setCredentialsMatcher(credentialsMatcher);
@@ -225,7 +233,9 @@ public class LdapRealm extends JndiLdapRealm {
                                                           LdapContextFactory ldapContextFactory)
       throws NamingException {
     AuthenticationInfo info = super.queryForAuthenticationInfo(token, ldapContextFactory);
-    // Credentials were verified. Verify that the principal has all allowedRulesForAuthentication
+    // Credentials were verified, reload roles of the user on login
+    invalidateCache((String) getAvailablePrincipal(info.getPrincipals()));
+    // Verify that the principal has all allowedRulesForAuthentication
     if (!hasAllowedAuthenticationRules(info.getPrincipals(), ldapContextFactory)) {
       throw new NamingException("Principal does not have any of the allowedRolesForAuthentication");
     }
@@ -283,23 +293,16 @@ public class LdapRealm extends JndiLdapRealm {
       throws NamingException {
     final String username = (String) getAvailablePrincipal(principals);
 
-    LdapContext systemLdapCtx = null;
     try {
-      systemLdapCtx = ldapContextFactory.getSystemLdapContext();
-      return rolesFor(principals, username, systemLdapCtx, ldapContextFactory);
+      return rolesFor(principals, username, ldapContextFactory);
     } catch (AuthenticationException ae) {
       ae.printStackTrace();
       return Collections.emptySet();
-    } finally {
-      LdapUtils.closeContext(systemLdapCtx);
     }
   }
 
   private Set<String> rolesFor(PrincipalCollection principals, 
-        String userNameIn, final LdapContext ldapCtx,
-      final LdapContextFactory ldapContextFactory) throws NamingException {
-    final Set<String> roleNames = new HashSet<>();
-    final Set<String> groupNames = new HashSet<>();
+        String userNameIn, final LdapContextFactory ldapContextFactory) throws NamingException {
     final String userName;
     if (getUserLowerCase()) {
       log.debug("userLowerCase true");
@@ -307,7 +310,41 @@ public class LdapRealm extends JndiLdapRealm {
     } else {
       userName = userNameIn;
     }
-    
+
+    UserRolesAndGroups rolesAndGroups = getRolesCache().get(userName,
+        new Callable<UserRolesAndGroups>() {
+          @Override
+          public UserRolesAndGroups call() throws Exception {
+            LdapContext systemLdapCtx = null;
+            try {
+              systemLdapCtx = ldapContextFactory.getSystemLdapContext();
+              return searchRolesAndGroups(userName, systemLdapCtx, ldapContextFactory);
+            } finally {
+              LdapUtils.closeContext(systemLdapCtx);
+            }
+          }
+        });
+    final Set<String> roleNames = new HashSet<>(rolesAndGroups.roleNames);
+    final Set<String> groupNames = new HashSet<>(rolesAndGroups.groupNames);
+
+    // save role names and group names in session so that they can be
+    // easily looked up outside of this object
+    SecurityUtils.getSubject().getSession().setAttribute(SUBJECT_USER_ROLES, roleNames);
+    SecurityUtils.getSubject().getSession().setAttribute(SUBJECT_USER_GROUPS, groupNames);
+    if (!groupNames.isEmpty() && (principals instanceof MutablePrincipalCollection)) {
+      ((MutablePrincipalCollection) principals).addAll(groupNames, getName());
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("User RoleNames: " + userName + "::" + roleNames);  
+    }
+    return roleNames;
+  }
+
+  private UserRolesAndGroups searchRolesAndGroups(String userName, final LdapContext ldapCtx,
+      final LdapContextFactory ldapContextFactory) throws NamingException {
+    final Set<String> roleNames = new HashSet<>();
+    final Set<String> groupNames = new HashSet<>();
+
     String userDn;
     if (userSearchAttributeName == null || userSearchAttributeName.isEmpty()) {
       // memberAttributeValuePrefix and memberAttributeValueSuffix 
@@ -400,17 +437,7 @@ public class LdapRealm extends JndiLdapRealm {
     } catch (IOException e) {
       log.error("Unabled to setup paged results");
     }
-    // save role names and group names in session so that they can be
-    // easily looked up outside of this object
-    SecurityUtils.getSubject().getSession().setAttribute(SUBJECT_USER_ROLES, roleNames);
-    SecurityUtils.getSubject().getSession().setAttribute(SUBJECT_USER_GROUPS, groupNames);
-    if (!groupNames.isEmpty() && (principals instanceof MutablePrincipalCollection)) {
-      ((MutablePrincipalCollection) principals).addAll(groupNames, getName());
-    }
-    if (log.isDebugEnabled()) {
-      log.debug("User RoleNames: " + userName + "::" + roleNames);  
-    }
-    return roleNames;
+    return new UserRolesAndGroups(roleNames, groupNames);
   }
 
   private void addRoleIfMember(final String userDn, final SearchResult group, 
@@ -503,6 +530,74 @@ public class LdapRealm extends JndiLdapRealm {
     return perms;
   }
 
+  @Override
+  protected void onLogout(PrincipalCollection principals) {
+    super.onLogout(principals);
+    Object principal = getAvailablePrincipal(principals);
+    if (principal != null) {
+      invalidateCache(principal.toString());
+    }
+  }
+
+  /**
+   * Drop cached roles of the user, they are reloaded from the directory on next access.
+   */
+  public void invalidateCache(String userName) {
+    if (userName == null) {
+      return;
+    }
+    getRolesCache().invalidate(userName);
+    getRolesCache().invalidate(userName.toLowerCase());
+  }
+
+  /**
+   * Drop all cached roles and user search results.
+   */
+  public void invalidateAllCaches() {
+    getRolesCache().invalidateAll();
+    getUserSearchCache().invalidateAll();
+  }
+
+  synchronized DirectoryCache<UserRolesAndGroups> getRolesCache() {
+    if (rolesCache == null) {
+      rolesCache = new DirectoryCache<>("ldap roles", directoryCacheTtl,
+          directoryCacheRefreshInterval, directoryCacheMaxSize);
+    }
+    return rolesCache;
+  }
+
+  public synchronized DirectoryCache<List<String>> getUserSearchCache() {
+    if (userSearchCache == null) {
+      userSearchCache = new DirectoryCache<>("ldap user search", directoryCacheTtl,
+          directoryCacheRefreshInterval, directoryCacheMaxSize);
+    }
+    return userSearchCache;
+  }
+
+  public long getDirectoryCacheTtl() {
+    return directoryCacheTtl;
+  }
+
+  public void setDirectoryCacheTtl(long directoryCacheTtl) {
+    this.directoryCacheTtl = directoryCacheTtl;
+  }
+
+  public long getDirectoryCacheRefreshInterval() {
+    return directoryCacheRefreshInterval;
+  }
+
+  public void setDirectoryCacheRefreshInterval(long directoryCacheRefreshInterval) {
+    this.directoryCacheRefreshInterval = directoryCacheRefreshInterval;
+  }
+
+  public int getDirectoryCacheMaxSize() {
+    return directoryCacheMaxSize;
+  }
+
+  public void setDirectoryCacheMaxSize(int directoryCacheMaxSize) {
+    this.directoryCacheMaxSize = directoryCacheMaxSize;
+  }
+
   public String getSearchBase() {
     return searchBase;
   }
@@ -950,4 +1045,17 @@ public class LdapRealm extends JndiLdapRealm {
     }
     return output;
   }
+
+  /**
+   * Roles and groups of a user, as resolved from the directory
+   */
+  static class UserRolesAndGroups {
+    final Set<String> roleNames;
+    final Set<String> groupNames;
+
+    UserRolesAndGroups(Set<String> roleNames, Set<String> groupNames) {
+      this.roleNames = Collections.unmodifiableSet(roleNames);
+      this.groupNames = Collections.unmodifiableSet(groupNames);
+    }
+  }
 }
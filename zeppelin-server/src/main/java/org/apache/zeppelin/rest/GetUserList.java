@@ -22,6 +22,7 @@ import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.shiro.realm.jdbc.JdbcRealm;
 import org.apache.shiro.realm.ldap.JndiLdapContextFactory;
 import org.apache.shiro.realm.ldap.JndiLdapRealm;
+import org.apache.shiro.realm.ldap.LdapUtils;
 import org.apache.shiro.realm.text.IniRealm;
 import org.apache.shiro.util.JdbcUtils;
 import org.apache.zeppelin.realm.ActiveDirectoryGroupRealm;
@@ -30,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
 import javax.naming.directory.Attributes;
 import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
@@ -39,9 +41,11 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * This is class which help fetching users from different realms.
@@ -122,17 +126,32 @@ public class GetUserList {
   /**
    * function to extract users from Zeppelin LdapRealm
    */
-  public List<String> getUserList(LdapRealm r, String searchText) {
-    List<String> userList = new ArrayList<>();
+  public List<String> getUserList(final LdapRealm r, final String searchText) {
     if (LOG.isDebugEnabled()) {
       LOG.debug("SearchText: " + searchText);
     }
+    try {
+      return new ArrayList<>(r.getUserSearchCache().get(searchText,
+          new Callable<List<String>>() {
+            @Override
+            public List<String> call() throws Exception {
+              return searchUserList(r, searchText);
+            }
+          }));
+    } catch (Exception e) {
+      LOG.error("Error retrieving User list from Ldap Realm", e);
+    }
+    return new ArrayList<>();
+  }
+
+  private List<String> searchUserList(LdapRealm r, String searchText) throws NamingException {
+    List<String> userList = new ArrayList<>();
     String userAttribute = r.getUserSearchAttributeName();
     String userSearchRealm = r.getUserSearchBase();
     String userObjectClass = r.getUserObjectClass();
     JndiLdapContextFactory CF = (JndiLdapContextFactory) r.getContextFactory();
+    LdapContext ctx = CF.getSystemLdapContext();
     try {
-      LdapContext ctx = CF.getSystemLdapContext();
       SearchControls constraints = new SearchControls();
       constraints.setSearchScope(SearchControls.SUBTREE_SCOPE);
       String[] attrIDs = {userAttribute};
@@ -157,10 +176,10 @@ public class GetUserList {
           userList.add(currentUser.trim());
         }
       }
-    } catch (Exception e) {
-      LOG.error("Error retrieving User list from Ldap Realm", e);
+    } finally {
+      LdapUtils.closeContext(ctx);
     }
-    return userList;
+    return Collections.unmodifiableList(userList);
   }
   
   /***
@@ -186,11 +205,20 @@ public class GetUserList {
   }
   
 
-  public List<String> getUserList(ActiveDirectoryGroupRealm r, String searchText) {
+  public List<String> getUserList(final ActiveDirectoryGroupRealm r, final String searchText) {
     List<String> userList = new ArrayList<>();
     try {
-      LdapContext ctx = r.getLdapContextFactory().getSystemLdapContext();
-      userList = r.searchForUserName(searchText, ctx);
+      userList.addAll(r.getUserSearchCache().get(searchText, new Callable<List<String>>() {
+        @Override
+        public List<String> call() throws Exception {
+          LdapContext ctx = r.getLdapContextFactory().getSystemLdapContext();
+          try {
+            return Collections.unmodifiableList(r.searchForUserName(searchText, ctx));
+          } finally {
+            LdapUtils.closeContext(ctx);
+          }
+        }
+      }));
     } catch (Exception e) {
       LOG.error("Error retrieving User list from ActiveDirectory Realm", e);
     }
@@ -44,6 +44,7 @@ import org.apache.zeppelin.interpreter.InterpreterSettingManager;
 import org.apache.zeppelin.rest.message.NewInterpreterSettingRequest;
 import org.apache.zeppelin.rest.message.RestartInterpreterRequest;
 import org.apache.zeppelin.rest.message.UpdateInterpreterSettingRequest;
+import org.apache.zeppelin.scheduler.SchedulerFactory;
 import org.apache.zeppelin.server.JsonResponse;
 import org.apache.zeppelin.socket.NotebookServer;
 import org.apache.zeppelin.utils.SecurityUtils;
@@ -281,6 +282,29 @@ public class InterpreterRestApi {
     return new JsonResponse(Status.OK).build();
   }
 
+  /**
+   * Get memory and cpu usage of interpreter processes and activity of their sessions
+   * per interpreter setting
+   */
+  @GET
+  @Path("resources")
+  @ZeppelinApi
+  public Response listResourceUsage() {
+    return new JsonResponse<>(Status.OK, "",
+        interpreterSettingManager.getProcessGovernor().getUsage()).build();
+  }
+
+  /**
+   * Get queue size, limits and rejected job counts of interpreter schedulers
+   */
+  @GET
+  @Path("scheduler")
+  @ZeppelinApi
+  public Response listSchedulerStatus() {
+    return new JsonResponse<>(Status.OK, "",
+        SchedulerFactory.singleton().getSchedulerStatus()).build();
+  }
+
   /**
    * Get available types for property
    */
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.rest;
+
+import org.apache.zeppelin.annotation.ZeppelinApi;
+import org.apache.zeppelin.metrics.MetricRegistry;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+
+/**
+ * Metrics Rest API Endpoint. Metrics are returned in Prometheus text exposition format.
+ */
+@Path("/metrics")
+@Produces("text/plain; version=0.0.4; charset=utf-8")
+public class MetricsRestApi {
+
+  public MetricsRestApi() {
+  }
+
+  @GET
+  @ZeppelinApi
+  public Response getMetrics() {
+    return Response.ok(MetricRegistry.singleton().toPrometheusText()).build();
+  }
+}
@@ -19,6 +19,8 @@ package org.apache.zeppelin.server;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
@@ -29,6 +31,7 @@ import javax.ws.rs.core.Application;
 import org.apache.commons.lang.StringUtils;
 import org.apache.shiro.web.env.EnvironmentLoaderListener;
 import org.apache.shiro.web.servlet.ShiroFilter;
+import org.apache.zeppelin.conf.ConfigurationChangeListener;
 import org.apache.zeppelin.conf.ZeppelinConfiguration;
 import org.apache.zeppelin.conf.ZeppelinConfiguration.ConfVars;
 import org.apache.zeppelin.dep.DependencyResolver;
@@ -38,7 +41,9 @@ import org.apache.zeppelin.helium.HeliumBundleFactory;
 import org.apache.zeppelin.interpreter.InterpreterFactory;
 import org.apache.zeppelin.interpreter.InterpreterOption;
 import org.apache.zeppelin.interpreter.InterpreterOutput;
+import org.apache.zeppelin.interpreter.InterpreterResultMessageOutput;
 import org.apache.zeppelin.interpreter.InterpreterSettingManager;
+import org.apache.zeppelin.metrics.MetricRegistry;
 import org.apache.zeppelin.notebook.Notebook;
 import org.apache.zeppelin.notebook.NotebookAuthorization;
 import org.apache.zeppelin.notebook.repo.NotebookRepoSync;
@@ -47,6 +52,7 @@ import org.apache.zeppelin.rest.CredentialRestApi;
 import org.apache.zeppelin.rest.HeliumRestApi;
 import org.apache.zeppelin.rest.InterpreterRestApi;
 import org.apache.zeppelin.rest.LoginRestApi;
+import org.apache.zeppelin.rest.MetricsRestApi;
 import org.apache.zeppelin.rest.NotebookRepoRestApi;
 import org.apache.zeppelin.rest.NotebookRestApi;
 import org.apache.zeppelin.rest.SecurityRestApi;
@@ -55,6 +61,8 @@ import org.apache.zeppelin.scheduler.SchedulerFactory;
 import org.apache.zeppelin.search.LuceneSearch;
 import org.apache.zeppelin.search.SearchService;
 import org.apache.zeppelin.socket.NotebookServer;
+import org.apache.zeppelin.tracing.Tracer;
+import org.apache.zeppelin.tracing.ZipkinTraceExporter;
 import org.apache.zeppelin.user.Credentials;
 import org.apache.zeppelin.utils.SecurityUtils;
 import org.eclipse.jetty.http.HttpVersion;
@@ -101,7 +109,33 @@ public class ZeppelinServer extends Application {
     this.depResolver = new DependencyResolver(
         conf.getString(ConfVars.ZEPPELIN_INTERPRETER_LOCALREPO));
 
-    InterpreterOutput.limit = conf.getInt(ConfVars.ZEPPELIN_INTERPRETER_OUTPUT_LIMIT);
+    applyOutputConfiguration(conf);
+    MetricRegistry.singleton().setJmxEnabled(
+        conf.getBoolean(ConfVars.ZEPPELIN_METRICS_JMX_ENABLED));
+    applyTraceConfiguration(conf);
+    applySchedulerConfiguration(conf);
+    conf.addChangeListener(new ConfigurationChangeListener() {
+      @Override
+      public void onConfigurationChange(ZeppelinConfiguration conf, Set<ConfVars> changed) {
+        if (changed.contains(ConfVars.ZEPPELIN_INTERPRETER_OUTPUT_LIMIT)
+            || changed.contains(ConfVars.ZEPPELIN_INTERPRETER_OUTPUT_FLUSH_SIZE)
+            || changed.contains(ConfVars.ZEPPELIN_INTERPRETER_OUTPUT_FLUSH_INTERVAL)) {
+          applyOutputConfiguration(conf);
+        }
+        if (changed.contains(ConfVars.ZEPPELIN_METRICS_JMX_ENABLED)) {
+          MetricRegistry.singleton().setJmxEnabled(
+              conf.getBoolean(ConfVars.ZEPPELIN_METRICS_JMX_ENABLED));
+        }
+        if (changed.contains(ConfVars.ZEPPELIN_TRACE_EXPORT_FILE)
+            || changed.contains(ConfVars.ZEPPELIN_TRACE_EXPORT_URL)) {
+          applyTraceConfiguration(conf);
+        }
+        if (changed.contains(ConfVars.ZEPPELIN_SCHEDULER_QUEUE_CAPACITY)
+            || changed.contains(ConfVars.ZEPPELIN_SCHEDULER_USER_PENDING_LIMIT)) {
+          applySchedulerConfiguration(conf);
+        }
+      }
+    });
 
     HeliumApplicationFactory heliumApplicationFactory = new HeliumApplicationFactory();
     HeliumBundleFactory heliumBundleFactory;
@@ -137,9 +171,9 @@ public class ZeppelinServer extends Application {
         heliumBundleFactory,
         heliumApplicationFactory);
 
-    // create bundle
+    // create bundle in background, unchanged packages are served from the bundle cache
     try {
-      heliumBundleFactory.buildAllPackages(helium.getBundlePackagesToBundle());
+      heliumBundleFactory.buildAllPackagesInBackground(helium.getBundlePackagesToBundle());
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
     }
@@ -167,6 +201,39 @@ public class ZeppelinServer extends Application {
     notebook.addNotebookEventListener(notebookWsServer.getNotebookInformationListener());
   }
 
+  private static void applyOutputConfiguration(ZeppelinConfiguration conf) {
+    InterpreterOutput.limit = conf.getInt(ConfVars.ZEPPELIN_INTERPRETER_OUTPUT_LIMIT);
+    InterpreterResultMessageOutput.flushSize =
+        conf.getInt(ConfVars.ZEPPELIN_INTERPRETER_OUTPUT_FLUSH_SIZE);
+    InterpreterResultMessageOutput.flushIntervalMs =
+        conf.getLong(ConfVars.ZEPPELIN_INTERPRETER_OUTPUT_FLUSH_INTERVAL);
+  }
+
+  private static void applySchedulerConfiguration(ZeppelinConfiguration conf) {
+    SchedulerFactory.singleton().setAdmissionLimits(
+        conf.getInt(ConfVars.ZEPPELIN_SCHEDULER_QUEUE_CAPACITY),
+        conf.getInt(ConfVars.ZEPPELIN_SCHEDULER_USER_PENDING_LIMIT));
+  }
+
+  private static void applyTraceConfiguration(ZeppelinConfiguration conf) {
+    String file = conf.getString(ConfVars.ZEPPELIN_TRACE_EXPORT_FILE);
+    String url = conf.getString(ConfVars.ZEPPELIN_TRACE_EXPORT_URL);
+    URL collector = null;
+    if (!StringUtils.isBlank(url)) {
+      try {
+        collector = new URL(url);
+      } catch (MalformedURLException e) {
+        LOG.error("Invalid " + ConfVars.ZEPPELIN_TRACE_EXPORT_URL.getVarName() + ": " + url, e);
+      }
+    }
+    if (StringUtils.isBlank(file) && collector == null) {
+      Tracer.singleton().setExporter(null);
+    } else {
+      Tracer.singleton().setExporter(new ZipkinTraceExporter(
+          StringUtils.isBlank(file) ? null : new File(file), collector));
+    }
+  }
+
   public static void main(String[] args) throws InterruptedException {
 
     ZeppelinConfiguration conf = ZeppelinConfiguration.create();
@@ -208,6 +275,7 @@ public class ZeppelinServer extends Application {
           jettyWebServer.stop();
           notebook.getInterpreterSettingManager().shutdown();
           notebook.close();
+          Tracer.singleton().setExporter(null);
           Thread.sleep(3000);
         } catch (Exception e) {
           LOG.error("Error while stopping servlet container", e);
@@ -408,6 +476,9 @@ public class ZeppelinServer extends Application {
     ConfigurationsRestApi settingsApi = new ConfigurationsRestApi(notebook);
     singletons.add(settingsApi);
 
+    MetricsRestApi metricsApi = new MetricsRestApi();
+    singletons.add(metricsApi);
+
     return singletons;
   }
 
@@ -51,6 +51,8 @@ import org.apache.zeppelin.interpreter.remote.RemoteAngularObjectRegistry;
 import org.apache.zeppelin.interpreter.remote.RemoteInterpreterProcessListener;
 import org.apache.zeppelin.interpreter.thrift.InterpreterCompletion;
 import org.apache.zeppelin.json.NotebookTypeAdapterFactory;
+import org.apache.zeppelin.metrics.Gauge;
+import org.apache.zeppelin.metrics.MetricRegistry;
 import org.apache.zeppelin.notebook.JobListenerFactory;
 import org.apache.zeppelin.notebook.Folder;
 import org.apache.zeppelin.notebook.Note;
@@ -70,6 +72,8 @@ import org.apache.zeppelin.scheduler.Job;
 import org.apache.zeppelin.scheduler.Job.Status;
 import org.apache.zeppelin.server.ZeppelinServer;
 import org.apache.zeppelin.ticket.TicketContainer;
+import org.apache.zeppelin.tracing.Trace;
+import org.apache.zeppelin.tracing.Tracer;
 import org.apache.zeppelin.types.InterpreterSettingsList;
 import org.apache.zeppelin.user.AuthenticationInfo;
 import org.apache.zeppelin.util.WatcherSecurityKey;
@@ -146,6 +150,16 @@ public class NotebookServer extends WebSocketServlet
    */
   final Queue<NotebookSocket> watcherSockets = Queues.newConcurrentLinkedQueue();
 
+  public NotebookServer() {
+    MetricRegistry.singleton().gauge("zeppelin_websocket_connections",
+        "Number of connected websockets", new Gauge() {
+          @Override
+          public long getValue() {
+            return connectedSockets.size();
+          }
+        });
+  }
+
   private Notebook notebook() {
     return ZeppelinServer.notebook;
   }
@@ -1653,6 +1667,10 @@ public class NotebookServer extends WebSocketServlet
         gson.fromJson(String.valueOf(fromMessage.data.get("paragraphs")),
             new TypeToken<List<Map<String, Object>>>() {}.getType());
 
+    // apply all edits first, then persist the note once and submit the paragraphs,
+    // instead of saving and re-indexing the whole note for every paragraph
+    Note note = notebook.getNote(noteId);
+    List<Paragraph> toRun = new LinkedList<>();
     for (Map<String, Object> raw : paragraphs) {
       String paragraphId = (String) raw.get("id");
       if (paragraphId == null) {
@@ -1664,11 +1682,29 @@ public class NotebookServer extends WebSocketServlet
       Map<String, Object> params = (Map<String, Object>) raw.get("params");
       Map<String, Object> config = (Map<String, Object>) raw.get("config");
 
-      Note note = notebook.getNote(noteId);
-      Paragraph p = setParagraphUsingMessage(note, fromMessage,
-          paragraphId, text, title, params, config);
+      toRun.add(setParagraphUsingMessage(note, fromMessage,
+          paragraphId, text, title, params, config));
+    }
+    if (toRun.isEmpty()) {
+      return;
+    }
+
+    Paragraph last = toRun.get(toRun.size() - 1);
+    addNewParagraphIfLastParagraphIsExecuted(note, last);
+    if (!persistNoteWithAuthInfo(conn, note, last)) {
+      return;
+    }
 
-      persistAndExecuteSingleParagraph(conn, note, p);
+    if (note.isDagRunMode()) {
+      try {
+        note.runAll(last.getAuthenticationInfo());
+      } catch (Exception ex) {
+        LOG.error("Exception from run", ex);
+      }
+    } else {
+      for (Paragraph p : toRun) {
+        executeSingleParagraph(note, p);
+      }
     }
   }
 
@@ -1798,7 +1834,10 @@ public class NotebookServer extends WebSocketServlet
     if (!persistNoteWithAuthInfo(conn, note, p)) {
       return;
     }
+    executeSingleParagraph(note, p);
+  }
 
+  private void executeSingleParagraph(Note note, Paragraph p) {
     try {
       note.run(p.getId());
     } catch (Exception ex) {
@@ -1935,9 +1974,11 @@ public class NotebookServer extends WebSocketServlet
    */
   @Override
   public void onOutputAppend(String noteId, String paragraphId, int index, String output) {
+    long start = System.nanoTime();
     Message msg = new Message(OP.PARAGRAPH_APPEND_OUTPUT).put("noteId", noteId)
         .put("paragraphId", paragraphId).put("index", index).put("data", output);
     broadcast(noteId, msg);
+    recordWebsocketSend(noteId, paragraphId, start);
   }
 
   /**
@@ -1948,6 +1989,7 @@ public class NotebookServer extends WebSocketServlet
   @Override
   public void onOutputUpdated(String noteId, String paragraphId, int index,
       InterpreterResult.Type type, String output) {
+    long start = System.nanoTime();
     Message msg = new Message(OP.PARAGRAPH_UPDATE_OUTPUT).put("noteId", noteId)
         .put("paragraphId", paragraphId).put("index", index).put("type", type).put("data", output);
     Note note = notebook().getNote(noteId);
@@ -1959,6 +2001,18 @@ public class NotebookServer extends WebSocketServlet
     } else {
       broadcast(noteId, msg);
     }
+    recordWebsocketSend(noteId, paragraphId, start);
+  }
+
+  /**
+   * Adds the time spent pushing a paragraph message to the websocket clients
+   * to the paragraph's running trace, if any.
+   */
+  private static void recordWebsocketSend(String noteId, String paragraphId, long start) {
+    Trace trace = Tracer.singleton().get(noteId, paragraphId);
+    if (trace != null) {
+      trace.record("websocket.send", start);
+    }
   }
 
 
@@ -2229,7 +2283,9 @@ public class NotebookServer extends WebSocketServlet
       if (job instanceof Paragraph) {
         Paragraph p = (Paragraph) job;
         p.setStatusToUserParagraph(job.getStatus());
+        long start = System.nanoTime();
         notebookServer.broadcastParagraph(note, p);
+        recordWebsocketSend(note.getId(), p.getId(), start);
       }
       try {
         notebookServer.broadcastUpdateNoteJobInfo(System.currentTimeMillis() - 5000);
@@ -2243,11 +2299,13 @@ public class NotebookServer extends WebSocketServlet
      */
     @Override
     public void onOutputAppend(Paragraph paragraph, int idx, String output) {
+      long start = System.nanoTime();
       Message msg =
           new Message(OP.PARAGRAPH_APPEND_OUTPUT).put("noteId", paragraph.getNote().getId())
               .put("paragraphId", paragraph.getId()).put("data", output);
 
       notebookServer.broadcast(paragraph.getNote().getId(), msg);
+      recordWebsocketSend(paragraph.getNote().getId(), paragraph.getId(), start);
     }
 
     /**
@@ -2255,12 +2313,14 @@ public class NotebookServer extends WebSocketServlet
      */
     @Override
     public void onOutputUpdate(Paragraph paragraph, int idx, InterpreterResultMessage result) {
+      long start = System.nanoTime();
       String output = result.getData();
       Message msg =
           new Message(OP.PARAGRAPH_UPDATE_OUTPUT).put("noteId", paragraph.getNote().getId())
               .put("paragraphId", paragraph.getId()).put("data", output);
 
       notebookServer.broadcast(paragraph.getNote().getId(), msg);
+      recordWebsocketSend(paragraph.getNote().getId(), paragraph.getId(), start);
     }
 
     @Override
@@ -17,10 +17,14 @@
 package org.apache.zeppelin.socket;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.zeppelin.metrics.Gauge;
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.metrics.Timer;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.WebSocketAdapter;
 
@@ -28,6 +32,21 @@ import org.eclipse.jetty.websocket.api.WebSocketAdapter;
  * Notebook websocket
  */
 public class NotebookSocket extends WebSocketAdapter {
+  // number of messages being sent or waiting for another send to the same socket
+  private static final AtomicInteger pendingSends = new AtomicInteger();
+  private static final Timer sendTimer = MetricRegistry.singleton().timer(
+      "zeppelin_websocket_send_seconds",
+      "Time to send a message to websocket, including wait for other sends to the same socket");
+
+  static {
+    MetricRegistry.singleton().gauge("zeppelin_websocket_pending_messages",
+        "Number of messages being sent to websockets", new Gauge() {
+          @Override
+          public long getValue() {
+            return pendingSends.get();
+          }
+        });
+  }
 
   private Session connection;
   private NotebookSocketListener listener;
@@ -68,8 +87,17 @@ public class NotebookSocket extends WebSocketAdapter {
     return protocol;
   }
 
-  public synchronized void send(String serializeMessage) throws IOException {
-    connection.getRemote().sendString(serializeMessage);
+  public void send(String serializeMessage) throws IOException {
+    pendingSends.incrementAndGet();
+    long start = System.nanoTime();
+    try {
+      synchronized (this) {
+        connection.getRemote().sendString(serializeMessage);
+      }
+    } finally {
+      pendingSends.decrementAndGet();
+      sendTimer.update(System.nanoTime() - start);
+    }
   }
 
   public String getUser() {
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.realm;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.naming.NamingException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class DirectoryCacheTest {
+
+  private Callable<Integer> countingLoader(final AtomicInteger counter) {
+    return new Callable<Integer>() {
+      @Override
+      public Integer call() throws Exception {
+        return counter.incrementAndGet();
+      }
+    };
+  }
+
+  @Test
+  public void testStaleEntryIsRefreshedInBackground() throws Exception {
+    DirectoryCache<Integer> cache = new DirectoryCache<>("test", 60, 1, 10);
+    AtomicInteger loads = new AtomicInteger();
+
+    assertEquals(1, (int) cache.get("k", countingLoader(loads)));
+    Thread.sleep(1100);
+    // stale value is served while refresh runs in background
+    assertEquals(1, (int) cache.get("k", countingLoader(loads)));
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (loads.get() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Thread.sleep(100);
+    assertEquals(2, (int) cache.get("k", countingLoader(loads)));
+    assertEquals(2, cache.getLoadCount());
+  }
+
+  @Test
+  public void testSizeLimitAndInvalidation() throws Exception {
+    DirectoryCache<Integer> cache = new DirectoryCache<>("test", 60, 60, 2);
+    AtomicInteger loads = new AtomicInteger();
+    for (int i = 0; i < 10; i++) {
+      cache.get("k" + i, countingLoader(loads));
+    }
+    assertEquals(2, cache.size());
+
+    cache.invalidateAll();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testLoaderExceptionIsNotCached() throws Exception {
+    DirectoryCache<Integer> cache = new DirectoryCache<>("test", 60, 60, 10);
+    try {
+      cache.get("k", new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          throw new NamingException("directory down");
+        }
+      });
+      fail("should throw NamingException");
+    } catch (NamingException e) {
+      assertEquals("directory down", e.getMessage());
+    }
+    assertEquals(0, cache.size());
+  }
+}
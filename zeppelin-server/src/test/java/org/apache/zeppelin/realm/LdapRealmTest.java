@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.realm;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.InMemoryListenerConfig;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.realm.ldap.JndiLdapContextFactory;
+import org.apache.shiro.session.Session;
+import org.apache.shiro.subject.SimplePrincipalCollection;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests role caching of {@link LdapRealm} against an in-memory LDAP server.
+ */
+public class LdapRealmTest {
+  private static final String BASE_DN = "dc=zeppelin,dc=apache,dc=org";
+  private static final String PEOPLE_DN = "ou=people," + BASE_DN;
+  private static final String GROUPS_DN = "ou=groups," + BASE_DN;
+  private static final String ADMIN_DN = "cn=admin";
+  private static final String ADMIN_PASSWORD = "secret";
+
+  private static final int USERS = 5;
+  private static final int THREADS = 8;
+  private static final int LOOKUPS_PER_THREAD = 200;
+
+  private AtomicInteger searchCount;
+  private InMemoryDirectoryServer ldapServer;
+  private JndiLdapContextFactory contextFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    searchCount = new AtomicInteger();
+
+    InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+    config.addAdditionalBindCredentials(ADMIN_DN, ADMIN_PASSWORD);
+    config.setListenerConfigs(InMemoryListenerConfig.createLDAPConfig("default", 0));
+    config.addInMemoryOperationInterceptor(new InMemoryOperationInterceptor() {
+      @Override
+      public void processSearchRequest(InMemoryInterceptedSearchRequest request) {
+        if (GROUPS_DN.equalsIgnoreCase(request.getRequest().getBaseDN())) {
+          searchCount.incrementAndGet();
+        }
+      }
+    });
+    ldapServer = new InMemoryDirectoryServer(config);
+    ldapServer.add("dn: " + BASE_DN, "objectClass: top", "objectClass: domain", "dc: zeppelin");
+    ldapServer.add("dn: " + PEOPLE_DN, "objectClass: top", "objectClass: organizationalUnit",
+        "ou: people");
+    ldapServer.add("dn: " + GROUPS_DN, "objectClass: top", "objectClass: organizationalUnit",
+        "ou: groups");
+    for (int i = 0; i < USERS; i++) {
+      ldapServer.add("dn: uid=user" + i + "," + PEOPLE_DN, "objectClass: top",
+          "objectClass: person", "objectClass: organizationalPerson",
+          "objectClass: inetOrgPerson", "uid: user" + i, "cn: user" + i, "sn: user" + i);
+      ldapServer.add("dn: cn=group" + i + "," + GROUPS_DN, "objectClass: top",
+          "objectClass: groupOfNames", "cn: group" + i,
+          "member: uid=user" + i + "," + PEOPLE_DN);
+    }
+    ldapServer.startListening();
+
+    contextFactory = new JndiLdapContextFactory();
+    contextFactory.setUrl("ldap://localhost:" + ldapServer.getListenPort());
+    contextFactory.setSystemUsername(ADMIN_DN);
+    contextFactory.setSystemPassword(ADMIN_PASSWORD);
+  }
+
+  @After
+  public void tearDown() {
+    if (ldapServer != null) {
+      ldapServer.shutDown(true);
+    }
+  }
+
+  private LdapRealm createRealm(long cacheTtl) {
+    LdapRealm realm = new LdapRealm();
+    realm.setAuthorizationEnabled(true);
+    realm.setGroupSearchBase(GROUPS_DN);
+    realm.setMemberAttributeValueTemplate("uid={0}," + PEOPLE_DN);
+    realm.setDirectoryCacheTtl(cacheTtl);
+    realm.setDirectoryCacheRefreshInterval(cacheTtl);
+    return realm;
+  }
+
+  private void bindSubject() {
+    Subject subject = mock(Subject.class);
+    when(subject.getSession()).thenReturn(mock(Session.class));
+    ThreadContext.bind(subject);
+  }
+
+  private AuthorizationInfo lookupRoles(LdapRealm realm, String user) throws Exception {
+    return realm.queryForAuthorizationInfo(
+        new SimplePrincipalCollection(user, "ldapRealm"), contextFactory);
+  }
+
+  private int lookupRolesUnderLoad(final LdapRealm realm) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<Integer>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      futures.add(executor.submit(new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          bindSubject();
+          try {
+            for (int i = 0; i < LOOKUPS_PER_THREAD; i++) {
+              int user = i % USERS;
+              AuthorizationInfo info = lookupRoles(realm, "user" + user);
+              assertTrue(info.getRoles().contains("group" + user));
+            }
+          } finally {
+            ThreadContext.unbindSubject();
+          }
+          return LOOKUPS_PER_THREAD;
+        }
+      }));
+    }
+    int lookups = 0;
+    for (Future<Integer> f : futures) {
+      lookups += f.get();
+    }
+    executor.shutdown();
+    return lookups;
+  }
+
+  @Test
+  public void testRolesAreResolvedFromDirectory() throws Exception {
+    LdapRealm realm = createRealm(60);
+    bindSubject();
+    try {
+      AuthorizationInfo info = lookupRoles(realm, "user0");
+      assertEquals(1, info.getRoles().size());
+      assertTrue(info.getRoles().contains("group0"));
+    } finally {
+      ThreadContext.unbindSubject();
+    }
+  }
+
+  @Test
+  public void testRolesAreCachedUnderLoad() throws Exception {
+    LdapRealm realm = createRealm(60);
+
+    lookupRolesUnderLoad(realm);
+
+    // one directory query per user, concurrent misses share the query
+    assertEquals(USERS, searchCount.get());
+    assertEquals(USERS, realm.getRolesCache().size());
+
+    // explicit invalidation reloads only that user
+    realm.invalidateCache("user0");
+    bindSubject();
+    try {
+      lookupRoles(realm, "user0");
+      lookupRoles(realm, "user1");
+    } finally {
+      ThreadContext.unbindSubject();
+    }
+    assertEquals(USERS + 1, searchCount.get());
+  }
+
+  @Test
+  public void testRepeatedLookupsQueryDirectoryOnce() throws Exception {
+    LdapRealm realm = createRealm(60);
+    bindSubject();
+    try {
+      for (int i = 0; i < LOOKUPS_PER_THREAD; i++) {
+        lookupRoles(realm, "user0");
+      }
+    } finally {
+      ThreadContext.unbindSubject();
+    }
+    assertEquals(1, searchCount.get());
+    assertEquals(1, realm.getRolesCache().size());
+  }
+
+  @Test
+  public void testRolesAreNotCachedWhenDisabled() throws Exception {
+    LdapRealm realm = createRealm(0);
+
+    int lookups = lookupRolesUnderLoad(realm);
+
+    assertEquals(lookups, searchCount.get());
+    assertTrue(searchCount.get() > USERS);
+  }
+}
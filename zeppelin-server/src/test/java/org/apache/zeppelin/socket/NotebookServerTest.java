@@ -24,6 +24,8 @@ import org.apache.zeppelin.display.AngularObjectRegistry;
 import org.apache.zeppelin.interpreter.InterpreterGroup;
 import org.apache.zeppelin.interpreter.InterpreterSetting;
 import org.apache.zeppelin.interpreter.remote.RemoteAngularObjectRegistry;
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.metrics.Timer;
 import org.apache.zeppelin.notebook.Note;
 import org.apache.zeppelin.notebook.Notebook;
 import org.apache.zeppelin.notebook.Paragraph;
@@ -42,11 +44,16 @@ import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.Mockito.*;
 
 
@@ -402,6 +409,97 @@ public class NotebookServerTest extends AbstractTestRestApi {
     notebook.removeNote(createdNote.getId(), anonymous);
   }
 
+  private List<Map<String, Object>> addDisabledParagraphs(Note note, int numParagraphs) {
+    List<Map<String, Object>> paragraphs = new LinkedList<>();
+    for (int i = 0; i < numParagraphs; i++) {
+      Paragraph p = note.addNewParagraph(anonymous);
+      Map<String, Object> raw = new HashMap<>();
+      raw.put("id", p.getId());
+      raw.put("paragraph", "%md paragraph " + i);
+      raw.put("title", "title " + i);
+      raw.put("params", new HashMap<String, Object>());
+      // disabled, so that running them doesn't persist the note again
+      Map<String, Object> config = new HashMap<>();
+      config.put("enabled", false);
+      raw.put("config", config);
+      paragraphs.add(raw);
+    }
+    return paragraphs;
+  }
+
+  @Test
+  public void testRunAllParagraphsPersistsNoteOnce() throws IOException {
+    int numParagraphs = 100;
+    Note note = notebook.createNote(anonymous);
+    List<Map<String, Object>> paragraphs = addDisabledParagraphs(note, numParagraphs);
+
+    // Note.persist() times each NotebookRepo.save() with this timer
+    Timer saves = (Timer) MetricRegistry.singleton().get("zeppelin_note_persist_seconds");
+    long savesBefore = saves.getCount();
+
+    NotebookSocket sock = createWebSocket();
+    notebookServer.onOpen(sock);
+    notebookServer.onMessage(sock, new Message(OP.RUN_ALL_PARAGRAPHS)
+        .put("noteId", note.getId())
+        .put("paragraphs", gson.toJson(paragraphs)).toJson());
+
+    assertEquals(1, saves.getCount() - savesBefore);
+    for (int i = 0; i < numParagraphs; i++) {
+      assertEquals("%md paragraph " + i, note.getParagraphs().get(i).getText());
+    }
+    notebook.removeNote(note.getId(), anonymous);
+  }
+
+  /**
+   * Compares running all paragraphs of a 100 paragraph note, which saves the note once, with
+   * saving it once per paragraph. Run with -Dzeppelin.benchmark=true.
+   */
+  @Test
+  public void benchmarkRunAllParagraphsPersist() throws IOException {
+    assumeTrue(Boolean.getBoolean("zeppelin.benchmark"));
+    int numParagraphs = 100;
+    Note note = notebook.createNote(anonymous);
+    List<Map<String, Object>> paragraphs = addDisabledParagraphs(note, numParagraphs);
+    Timer saves = (Timer) MetricRegistry.singleton().get("zeppelin_note_persist_seconds");
+
+    // previous behavior: one save of the note per paragraph
+    long[] latencies = new long[numParagraphs];
+    long countBefore = saves.getCount();
+    double totalBefore = saves.getTotalMillis();
+    long start = System.nanoTime();
+    for (int i = 0; i < numParagraphs; i++) {
+      long persistStart = System.nanoTime();
+      note.persist(anonymous);
+      latencies[i] = System.nanoTime() - persistStart;
+    }
+    long perParagraphNanos = System.nanoTime() - start;
+    long perParagraphSaves = saves.getCount() - countBefore;
+    double perParagraphMeanMillis =
+        (saves.getTotalMillis() - totalBefore) / Math.max(1, perParagraphSaves);
+    Arrays.sort(latencies);
+    double p99Millis = latencies[(int) Math.ceil(0.99 * numParagraphs) - 1] / 1e6;
+
+    NotebookSocket sock = createWebSocket();
+    notebookServer.onOpen(sock);
+    countBefore = saves.getCount();
+    totalBefore = saves.getTotalMillis();
+    start = System.nanoTime();
+    notebookServer.onMessage(sock, new Message(OP.RUN_ALL_PARAGRAPHS)
+        .put("noteId", note.getId())
+        .put("paragraphs", gson.toJson(paragraphs)).toJson());
+    long batchedNanos = System.nanoTime() - start;
+    long batchedSaves = saves.getCount() - countBefore;
+    double batchedMeanMillis =
+        (saves.getTotalMillis() - totalBefore) / Math.max(1, batchedSaves);
+
+    LOG.info("run all of {} paragraphs: {}ms, {} persist(s), persist mean {}ms",
+        numParagraphs, batchedNanos / 1e6, batchedSaves, batchedMeanMillis);
+    LOG.info("persist per paragraph: {}ms, {} persists, persist mean {}ms, p99 {}ms, max {}ms",
+        perParagraphNanos / 1e6, perParagraphSaves, perParagraphMeanMillis, p99Millis,
+        saves.getMaxMillis());
+    notebook.removeNote(note.getId(), anonymous);
+  }
+
   private NotebookSocket createWebSocket() {
     NotebookSocket sock = mock(NotebookSocket.class);
     when(sock.getRequest()).thenReturn(mockRequest);
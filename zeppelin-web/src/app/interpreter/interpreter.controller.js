@@ -370,6 +370,9 @@ function InterpreterCtrl($rootScope, $scope, $http, baseUrlSrv, ngToast, $timeou
           if (setting.option.isUserImpersonate === undefined) {
             setting.option.isUserImpersonate = false
           }
+          if (setting.option.isInProcess === undefined) {
+            setting.option.isInProcess = false
+          }
           if (!($scope.getInterpreterRunningOption(settingId) === 'Per User' &&
             $scope.getPerUserOption(settingId) === 'isolated')) {
             setting.option.isUserImpersonate = false
@@ -560,6 +563,7 @@ function InterpreterCtrl($rootScope, $scope, $http, baseUrlSrv, ngToast, $timeou
       option: {
         remote: true,
         isExistingProcess: false,
+        isInProcess: false,
         setPermission: false,
         session: false,
         process: false
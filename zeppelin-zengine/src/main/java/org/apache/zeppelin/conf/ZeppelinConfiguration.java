@@ -18,11 +18,21 @@
 package org.apache.zeppelin.conf;
 
 import java.io.File;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.XMLConfiguration;
@@ -44,11 +54,22 @@ public class ZeppelinConfiguration extends XMLConfiguration {
 
   private static final String HELIUM_PACKAGE_DEFAULT_URL =
       "https://s3.amazonaws.com/helium-package/helium.json";
-  private static ZeppelinConfiguration conf;
+  private static volatile ZeppelinConfiguration conf;
+
+  // properties of zeppelin-site.xml. replaced as a whole on reload
+  private volatile SiteSnapshot snapshot = SiteSnapshot.EMPTY;
+  private URL url;
+  private long lastModified;
+  private final List<ConfigurationChangeListener> listeners = new CopyOnWriteArrayList<>();
+  private ScheduledExecutorService reloadExecutor;
+  private volatile AllowedOrigins allowedOrigins;
 
   public ZeppelinConfiguration(URL url) throws ConfigurationException {
     setDelimiterParsingDisabled(true);
     load(url);
+    this.url = url;
+    this.lastModified = getLastModified(url);
+    this.snapshot = new SiteSnapshot(getRootNode());
   }
 
   public ZeppelinConfiguration() {
@@ -77,119 +98,269 @@ public class ZeppelinConfiguration extends XMLConfiguration {
    *url = ZeppelinConfiguration.class.getResource(ZEPPELIN_SITE_XML);
    * @throws ConfigurationException
    */
-  public static synchronized ZeppelinConfiguration create() {
-    if (conf != null) {
+  public static ZeppelinConfiguration create() {
+    ZeppelinConfiguration c = conf;
+    if (c != null) {
+      return c;
+    }
+
+    synchronized (ZeppelinConfiguration.class) {
+      if (conf != null) {
+        return conf;
+      }
+
+      ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+      URL url;
+
+      url = ZeppelinConfiguration.class.getResource(ZEPPELIN_SITE_XML);
+      if (url == null) {
+        ClassLoader cl = ZeppelinConfiguration.class.getClassLoader();
+        if (cl != null) {
+          url = cl.getResource(ZEPPELIN_SITE_XML);
+        }
+      }
+      if (url == null) {
+        url = classLoader.getResource(ZEPPELIN_SITE_XML);
+      }
+
+      if (url == null) {
+        LOG.warn("Failed to load configuration, proceeding with a default");
+        c = new ZeppelinConfiguration();
+      } else {
+        try {
+          LOG.info("Load configuration from " + url);
+          c = new ZeppelinConfiguration(url);
+        } catch (ConfigurationException e) {
+          LOG.warn("Failed to load configuration from " + url + " proceeding with a default", e);
+          c = new ZeppelinConfiguration();
+        }
+      }
+
+      LOG.info("Server Host: " + c.getServerAddress());
+      if (c.useSsl() == false) {
+        LOG.info("Server Port: " + c.getServerPort());
+      } else {
+        LOG.info("Server SSL Port: " + c.getServerSslPort());
+      }
+      LOG.info("Context Path: " + c.getServerContextPath());
+      LOG.info("Zeppelin Version: " + Util.getVersion());
+
+      long reloadInterval = c.getLong(ConfVars.ZEPPELIN_CONFIG_RELOAD_INTERVAL);
+      if (reloadInterval > 0) {
+        c.startReloadWatcher(reloadInterval);
+      }
+
+      conf = c;
       return conf;
     }
+  }
 
-    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-    URL url;
+  /**
+   * Properties of zeppelin-site.xml indexed by name, with values of ConfVars parsed by their type.
+   */
+  private static class SiteSnapshot {
+    static final SiteSnapshot EMPTY = new SiteSnapshot(null);
+
+    final Map<String, String> values;
+    final Map<String, Object> typedValues;
+
+    SiteSnapshot(ConfigurationNode root) {
+      Map<String, String> values = new HashMap<>();
+      List<ConfigurationNode> properties = root == null ? null : root.getChildren();
+      if (properties != null) {
+        for (ConfigurationNode p : properties) {
+          if (p.getChildren("name") == null || p.getChildren("name").isEmpty()
+              || p.getChildren("value") == null || p.getChildren("value").isEmpty()) {
+            continue;
+          }
+          String name = (String) p.getChildren("name").get(0).getValue();
+          // first one wins, as it used to when properties were searched in order
+          if (name != null && !values.containsKey(name)) {
+            values.put(name, (String) p.getChildren("value").get(0).getValue());
+          }
+        }
+      }
 
-    url = ZeppelinConfiguration.class.getResource(ZEPPELIN_SITE_XML);
-    if (url == null) {
-      ClassLoader cl = ZeppelinConfiguration.class.getClassLoader();
-      if (cl != null) {
-        url = cl.getResource(ZEPPELIN_SITE_XML);
+      Map<String, Object> typedValues = new HashMap<>();
+      for (ConfVars v : ConfVars.values()) {
+        String value = values.get(v.getVarName());
+        if (value == null) {
+          continue;
+        }
+        try {
+          switch (v.getType()) {
+              case INT:
+                typedValues.put(v.getVarName(), Integer.parseInt(value));
+                break;
+              case LONG:
+                typedValues.put(v.getVarName(), Long.parseLong(value));
+                break;
+              case FLOAT:
+                typedValues.put(v.getVarName(), Float.parseFloat(value));
+                break;
+              case BOOLEAN:
+                typedValues.put(v.getVarName(), Boolean.parseBoolean(value));
+                break;
+              default:
+                break;
+          }
+        } catch (NumberFormatException e) {
+          LOG.warn("Invalid value {} of {}", value, v.getVarName());
+        }
       }
+
+      this.values = Collections.unmodifiableMap(values);
+      this.typedValues = Collections.unmodifiableMap(typedValues);
     }
-    if (url == null) {
-      url = classLoader.getResource(ZEPPELIN_SITE_XML);
+  }
+
+  /**
+   * Allowed origins parsed from the value of ZEPPELIN_ALLOWED_ORIGINS
+   */
+  private static class AllowedOrigins {
+    final String value;
+    final List<String> origins;
+
+    AllowedOrigins(String value) {
+      this.value = value;
+      if (value.isEmpty()) {
+        origins = Collections.emptyList();
+      } else {
+        origins = Collections.unmodifiableList(Arrays.asList(value.toLowerCase().split(",")));
+      }
     }
+  }
 
+  public void addChangeListener(ConfigurationChangeListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeChangeListener(ConfigurationChangeListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Read zeppelin-site.xml again and notify listeners about changed properties.
+   * Environment variables and system properties keep precedence over the file.
+   * @return changed properties
+   */
+  public synchronized Set<ConfVars> reload() throws ConfigurationException {
+    Set<ConfVars> changed = EnumSet.noneOf(ConfVars.class);
     if (url == null) {
-      LOG.warn("Failed to load configuration, proceeding with a default");
-      conf = new ZeppelinConfiguration();
-    } else {
-      try {
-        LOG.info("Load configuration from " + url);
-        conf = new ZeppelinConfiguration(url);
-      } catch (ConfigurationException e) {
-        LOG.warn("Failed to load configuration from " + url + " proceeding with a default", e);
-        conf = new ZeppelinConfiguration();
-      }
+      return changed;
     }
 
-    LOG.info("Server Host: " + conf.getServerAddress());
-    if (conf.useSsl() == false) {
-      LOG.info("Server Port: " + conf.getServerPort());
-    } else {
-      LOG.info("Server SSL Port: " + conf.getServerSslPort());
+    XMLConfiguration xml = new XMLConfiguration();
+    xml.setDelimiterParsingDisabled(true);
+    xml.load(url);
+    lastModified = getLastModified(url);
+    SiteSnapshot next = new SiteSnapshot(xml.getRootNode());
+
+    SiteSnapshot prev = snapshot;
+    for (ConfVars v : ConfVars.values()) {
+      String before = prev.values.get(v.getVarName());
+      String after = next.values.get(v.getVarName());
+      if (before == null ? after != null : !before.equals(after)) {
+        changed.add(v);
+      }
     }
-    LOG.info("Context Path: " + conf.getServerContextPath());
-    LOG.info("Zeppelin Version: " + Util.getVersion());
+    snapshot = next;
 
-    return conf;
+    if (!changed.isEmpty()) {
+      LOG.info("Configuration reloaded from {}, changed {}", url, changed);
+      for (ConfigurationChangeListener listener : listeners) {
+        try {
+          listener.onConfigurationChange(this, changed);
+        } catch (RuntimeException e) {
+          LOG.error("Error while notifying configuration change", e);
+        }
+      }
+    }
+    return changed;
   }
 
+  private synchronized void startReloadWatcher(long interval) {
+    if (reloadExecutor != null || getLastModified(url) == 0) {
+      return;
+    }
 
-  private String getStringValue(String name, String d) {
-    List<ConfigurationNode> properties = getRootNode().getChildren();
-    if (properties == null || properties.isEmpty()) {
-      return d;
-    }
-    for (ConfigurationNode p : properties) {
-      if (p.getChildren("name") != null && !p.getChildren("name").isEmpty()
-          && name.equals(p.getChildren("name").get(0).getValue())) {
-        return (String) p.getChildren("value").get(0).getValue();
+    LOG.info("Reload {} on change, checking every {} ms", url, interval);
+    reloadExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, "ZeppelinConfiguration-reload");
+        t.setDaemon(true);
+        return t;
       }
+    });
+    reloadExecutor.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          if (getLastModified(url) != lastModified) {
+            reload();
+          }
+        } catch (Exception e) {
+          LOG.error("Failed to reload configuration from " + url, e);
+        }
+      }
+    }, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  private static long getLastModified(URL url) {
+    if (url == null || !"file".equals(url.getProtocol())) {
+      return 0;
+    }
+    try {
+      return new File(url.toURI()).lastModified();
+    } catch (URISyntaxException e) {
+      return 0;
     }
-    return d;
+  }
+
+  private String getStringValue(String name, String d) {
+    String value = snapshot.values.get(name);
+    return value == null ? d : value;
   }
 
   private int getIntValue(String name, int d) {
-    List<ConfigurationNode> properties = getRootNode().getChildren();
-    if (properties == null || properties.isEmpty()) {
-      return d;
-    }
-    for (ConfigurationNode p : properties) {
-      if (p.getChildren("name") != null && !p.getChildren("name").isEmpty()
-          && name.equals(p.getChildren("name").get(0).getValue())) {
-        return Integer.parseInt((String) p.getChildren("value").get(0).getValue());
-      }
+    SiteSnapshot s = snapshot;
+    Object typed = s.typedValues.get(name);
+    if (typed instanceof Integer) {
+      return (Integer) typed;
     }
-    return d;
+    String value = s.values.get(name);
+    return value == null ? d : Integer.parseInt(value);
   }
 
   private long getLongValue(String name, long d) {
-    List<ConfigurationNode> properties = getRootNode().getChildren();
-    if (properties == null || properties.isEmpty()) {
-      return d;
-    }
-    for (ConfigurationNode p : properties) {
-      if (p.getChildren("name") != null && !p.getChildren("name").isEmpty()
-          && name.equals(p.getChildren("name").get(0).getValue())) {
-        return Long.parseLong((String) p.getChildren("value").get(0).getValue());
-      }
+    SiteSnapshot s = snapshot;
+    Object typed = s.typedValues.get(name);
+    if (typed instanceof Long) {
+      return (Long) typed;
     }
-    return d;
+    String value = s.values.get(name);
+    return value == null ? d : Long.parseLong(value);
   }
 
   private float getFloatValue(String name, float d) {
-    List<ConfigurationNode> properties = getRootNode().getChildren();
-    if (properties == null || properties.isEmpty()) {
-      return d;
-    }
-    for (ConfigurationNode p : properties) {
-      if (p.getChildren("name") != null && !p.getChildren("name").isEmpty()
-          && name.equals(p.getChildren("name").get(0).getValue())) {
-        return Float.parseFloat((String) p.getChildren("value").get(0).getValue());
-      }
+    SiteSnapshot s = snapshot;
+    Object typed = s.typedValues.get(name);
+    if (typed instanceof Float) {
+      return (Float) typed;
     }
-    return d;
+    String value = s.values.get(name);
+    return value == null ? d : Float.parseFloat(value);
   }
 
   private boolean getBooleanValue(String name, boolean d) {
-    List<ConfigurationNode> properties = getRootNode().getChildren();
-    if (properties == null || properties.isEmpty()) {
-      return d;
-    }
-    for (ConfigurationNode p : properties) {
-      if (p.getChildren("name") != null && !p.getChildren("name").isEmpty()
-          && name.equals(p.getChildren("name").get(0).getValue())) {
-        return Boolean.parseBoolean((String) p.getChildren("value").get(0).getValue());
-      }
+    SiteSnapshot s = snapshot;
+    Object typed = s.typedValues.get(name);
+    if (typed instanceof Boolean) {
+      return (Boolean) typed;
     }
-    return d;
+    String value = s.values.get(name);
+    return value == null ? d : Boolean.parseBoolean(value);
   }
 
   public String getString(ConfVars c) {
@@ -440,6 +611,10 @@ public class ZeppelinConfiguration extends XMLConfiguration {
     return getRelativeDir(String.format("%s/notebook-authorization.json", getConfDir()));
   }
 
+  public long getNotebookAuthorizationPersistDelay() {
+    return getLong(ConfVars.ZEPPELIN_NOTEBOOK_AUTHORIZATION_PERSIST_DELAY);
+  }
+
   public Boolean credentialsPersist() {
     return getBoolean(ConfVars.ZEPPELIN_CREDENTIALS_PERSIST);
   }
@@ -457,6 +632,28 @@ public class ZeppelinConfiguration extends XMLConfiguration {
     return getRelativeDir(ConfVars.ZEPPELIN_INTERPRETER_REMOTE_RUNNER);
   }
 
+  public List<String> getInterpreterInProcessAllowed() {
+    List<String> allowed = new ArrayList<>();
+    String value = getString(ConfVars.ZEPPELIN_INTERPRETER_INPROCESS_ALLOWED);
+    if (value == null) {
+      return allowed;
+    }
+    for (String group : value.split(",")) {
+      if (!group.trim().isEmpty()) {
+        allowed.add(group.trim());
+      }
+    }
+    return allowed;
+  }
+
+  public int getInterpreterInProcessConcurrency() {
+    return getInt(ConfVars.ZEPPELIN_INTERPRETER_INPROCESS_CONCURRENCY);
+  }
+
+  public int getInterpreterResultCacheSize() {
+    return getInt(ConfVars.ZEPPELIN_INTERPRETER_RESULT_CACHE_SIZE);
+  }
+
   public String getInterpreterLocalRepoPath() {
     return getRelativeDir(ConfVars.ZEPPELIN_INTERPRETER_LOCALREPO);
   }
@@ -495,11 +692,29 @@ public class ZeppelinConfiguration extends XMLConfiguration {
 
   public List<String> getAllowedOrigins()
   {
-    if (getString(ConfVars.ZEPPELIN_ALLOWED_ORIGINS).isEmpty()) {
-      return Arrays.asList(new String[0]);
+    String value = getString(ConfVars.ZEPPELIN_ALLOWED_ORIGINS);
+    AllowedOrigins origins = allowedOrigins;
+    if (origins == null || !origins.value.equals(value)) {
+      origins = new AllowedOrigins(value);
+      allowedOrigins = origins;
     }
+    return origins.origins;
+  }
+
+  public int getCronMaxConcurrentRunsPerSetting() {
+    return getInt(ConfVars.ZEPPELIN_NOTEBOOK_CRON_MAX_CONCURRENT_RUNS_PER_SETTING);
+  }
+
+  public String getCronOverlapPolicy() {
+    return getString(ConfVars.ZEPPELIN_NOTEBOOK_CRON_OVERLAP_POLICY);
+  }
+
+  public String getCronMisfirePolicy() {
+    return getString(ConfVars.ZEPPELIN_NOTEBOOK_CRON_MISFIRE_POLICY);
+  }
 
-    return Arrays.asList(getString(ConfVars.ZEPPELIN_ALLOWED_ORIGINS).toLowerCase().split(","));
+  public int getCronPollInterval() {
+    return getInt(ConfVars.ZEPPELIN_NOTEBOOK_CRON_POLL_INTERVAL);
   }
 
   public String getWebsocketMaxTextMessageSize() {
@@ -619,6 +834,14 @@ public class ZeppelinConfiguration extends XMLConfiguration {
         + "livy,alluxio,file,psql,flink,python,ignite,lens,cassandra,geode,kylin,elasticsearch,"
         + "scalding,jdbc,hbase,bigquery,beam,pig,scio,groovy"),
     ZEPPELIN_INTERPRETER_OUTPUT_LIMIT("zeppelin.interpreter.output.limit", 1024 * 100),
+    ZEPPELIN_INTERPRETER_MEMORY_BUDGET("zeppelin.interpreter.memory.budget", 0L),
+    ZEPPELIN_INTERPRETER_IDLE_TIMEOUT("zeppelin.interpreter.idle.timeout", 0L),
+    ZEPPELIN_INTERPRETER_GOVERNOR_INTERVAL("zeppelin.interpreter.governor.interval", 60000L),
+    ZEPPELIN_INTERPRETER_OUTPUT_FLUSH_SIZE("zeppelin.interpreter.output.flush.size", 1024 * 32),
+    ZEPPELIN_INTERPRETER_OUTPUT_FLUSH_INTERVAL("zeppelin.interpreter.output.flush.interval", 100L),
+    ZEPPELIN_INTERPRETER_INPROCESS_ALLOWED("zeppelin.interpreter.inprocess.allowed", "md,angular"),
+    ZEPPELIN_INTERPRETER_INPROCESS_CONCURRENCY("zeppelin.interpreter.inprocess.concurrency", 10),
+    ZEPPELIN_INTERPRETER_RESULT_CACHE_SIZE("zeppelin.interpreter.result.cache.size", 1000),
     ZEPPELIN_ENCODING("zeppelin.encoding", "UTF-8"),
     ZEPPELIN_NOTEBOOK_DIR("zeppelin.notebook.dir", "notebook"),
     // use specified notebook (id) as homescreen
@@ -643,6 +866,16 @@ public class ZeppelinConfiguration extends XMLConfiguration {
     ZEPPELIN_NOTEBOOK_ONE_WAY_SYNC("zeppelin.notebook.one.way.sync", false),
     // whether by default note is public or private
     ZEPPELIN_NOTEBOOK_PUBLIC("zeppelin.notebook.public", true),
+    // maximum number of cron runs sharing an interpreter setting at a time, 0 for no limit
+    ZEPPELIN_NOTEBOOK_CRON_MAX_CONCURRENT_RUNS_PER_SETTING(
+        "zeppelin.notebook.cron.maxConcurrentRunsPerSetting", 0),
+    // what to do when a note is fired while still running: 'skip' or 'queue'
+    ZEPPELIN_NOTEBOOK_CRON_OVERLAP_POLICY("zeppelin.notebook.cron.overlapPolicy", "skip"),
+    // what to do with triggers missed while the server was busy or down: 'fireOnce' or 'skip'
+    ZEPPELIN_NOTEBOOK_CRON_MISFIRE_POLICY("zeppelin.notebook.cron.misfirePolicy", "fireOnce"),
+    ZEPPELIN_NOTEBOOK_CRON_POLL_INTERVAL("zeppelin.notebook.cron.pollInterval", 1000),
+    ZEPPELIN_NOTEBOOK_AUTHORIZATION_PERSIST_DELAY("zeppelin.notebook.authorization.persistDelay",
+        500L),
     ZEPPELIN_INTERPRETER_REMOTE_RUNNER("zeppelin.interpreter.remoterunner",
         System.getProperty("os.name")
                 .startsWith("Windows") ? "bin/interpreter.cmd" : "bin/interpreter.sh"),
@@ -664,7 +897,13 @@ public class ZeppelinConfiguration extends XMLConfiguration {
     ZEPPELIN_CREDENTIALS_PERSIST("zeppelin.credentials.persist", true),
     ZEPPELIN_WEBSOCKET_MAX_TEXT_MESSAGE_SIZE("zeppelin.websocket.max.text.message.size", "1024000"),
     ZEPPELIN_SERVER_DEFAULT_DIR_ALLOWED("zeppelin.server.default.dir.allowed", false),
-    ZEPPELIN_SERVER_JETTY_NAME("zeppelin.server.jetty.name", null);
+    ZEPPELIN_SERVER_JETTY_NAME("zeppelin.server.jetty.name", null),
+    ZEPPELIN_CONFIG_RELOAD_INTERVAL("zeppelin.config.reload.interval", 0L),
+    ZEPPELIN_METRICS_JMX_ENABLED("zeppelin.metrics.jmx.enabled", true),
+    ZEPPELIN_TRACE_EXPORT_FILE("zeppelin.trace.export.file", ""),
+    ZEPPELIN_TRACE_EXPORT_URL("zeppelin.trace.export.url", ""),
+    ZEPPELIN_SCHEDULER_QUEUE_CAPACITY("zeppelin.scheduler.queue.capacity", 1000),
+    ZEPPELIN_SCHEDULER_USER_PENDING_LIMIT("zeppelin.scheduler.user.pending.limit", 0);
 
     private String varName;
     @SuppressWarnings("rawtypes")
@@ -40,7 +40,14 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.zeppelin.conf.ZeppelinConfiguration;
 
@@ -62,6 +69,8 @@ public class HeliumBundleFactory {
   private static final String PACKAGE_JSON = "package.json";
   private static final String HELIUM_BUNDLE_CACHE = "helium.bundle.cache.js";
   private static final String HELIUM_BUNDLE = "helium.bundle.js";
+  private static final String HELIUM_BUNDLE_HASH = "helium.bundle.hash";
+  private static final String HELIUM_BUNDLE_LAST_GOOD = "helium.bundle.last.js";
   private static final String HELIUM_BUNDLES_VAR = "heliumBundles";
   private static final int FETCH_RETRY_COUNT = 2;
   private static final int FETCH_RETRY_FACTOR_COUNT = 1;
@@ -84,6 +93,19 @@ public class HeliumBundleFactory {
 
   private ByteArrayOutputStream out  = new ByteArrayOutputStream();
 
+  // builds requested at startup run here so the server doesn't wait for npm/webpack
+  private final ExecutorService backgroundBuildExecutor = Executors.newSingleThreadExecutor(
+      new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread t = new Thread(r, "HeliumBundleBuilder");
+          t.setDaemon(true);
+          return t;
+        }
+      });
+  // background builds that are queued or running
+  private final AtomicInteger backgroundBuilds = new AtomicInteger();
+
   public HeliumBundleFactory(
       ZeppelinConfiguration conf,
       File nodeInstallationDir,
@@ -200,6 +222,32 @@ public class HeliumBundleFactory {
     buildAllPackages(pkgs, false);
   }
 
+  /**
+   * Build all packages on a background thread. Packages whose content hash didn't change are
+   * served from cache, and while a build is running the last good bundle of each package keeps
+   * being served by {@link #buildPackage(HeliumPackage, boolean, boolean)}.
+   */
+  public Future<?> buildAllPackagesInBackground(final List<HeliumPackage> pkgs) {
+    // counted on submit, so a build that is queued behind another one keeps the flag up
+    backgroundBuilds.incrementAndGet();
+    return backgroundBuildExecutor.submit(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          buildAllPackages(pkgs, false);
+        } catch (Exception e) {
+          logger.error("Failed to build helium packages in background", e);
+        } finally {
+          backgroundBuilds.decrementAndGet();
+        }
+      }
+    });
+  }
+
+  public boolean isBackgroundBuildInProgress() {
+    return backgroundBuilds.get() > 0;
+  }
+
   private File getHeliumPackageDirectory(String pkgName) {
     return new File(heliumBundleDirectory, pkgName);
   }
@@ -212,6 +260,14 @@ public class HeliumBundleFactory {
     return new File(heliumBundleDirectory, pkgName + "/" + HELIUM_BUNDLE_CACHE);
   }
 
+  private File getHeliumPackageBundleHash(String pkgName) {
+    return new File(heliumBundleDirectory, pkgName + "/" + HELIUM_BUNDLE_HASH);
+  }
+
+  private File getHeliumPackageLastGoodBundle(String pkgName) {
+    return new File(heliumBundleDirectory, pkgName + "." + HELIUM_BUNDLE_LAST_GOOD);
+  }
+
   private static List<String> unTgz(File tarFile, File directory) throws IOException {
     List<String> result = new ArrayList<>();
     try (TarArchiveInputStream in = new TarArchiveInputStream(
@@ -393,13 +449,35 @@ public class HeliumBundleFactory {
     return heliumBundle;
   }
 
-  public synchronized File buildPackage(HeliumPackage pkg,
-                                        boolean rebuild,
-                                        boolean recopyLocalModule) throws IOException {
+  public File buildPackage(HeliumPackage pkg,
+                           boolean rebuild,
+                           boolean recopyLocalModule) throws IOException {
     if (pkg == null) {
       return null;
     }
 
+    // don't block on a running background build, serve the last good bundle instead.
+    // If the build finishes meanwhile, buildPackageIfChanged() below holds the lock and checks
+    // the content hash again, so it returns the new bundle without building it twice.
+    if (!rebuild && isBackgroundBuildInProgress()) {
+      File bundleCache = getHeliumPackageBundleCache(pkg.getName());
+      if (bundleCache.isFile()) {
+        return bundleCache;
+      }
+      File lastGoodBundle = getHeliumPackageLastGoodBundle(pkg.getName());
+      if (lastGoodBundle.isFile()) {
+        return lastGoodBundle;
+      }
+    }
+
+    return buildPackageIfChanged(pkg, rebuild, recopyLocalModule);
+  }
+
+  private synchronized File buildPackageIfChanged(HeliumPackage pkg,
+                                                  boolean rebuild,
+                                                  boolean recopyLocalModule)
+      throws IOException {
+
     String[] moduleNameVersion = getNpmModuleNameAndVersion(pkg);
     if (moduleNameVersion == null) {
       logger.error("Can't get module name and version of package " + pkg.getName());
@@ -409,11 +487,70 @@ public class HeliumBundleFactory {
     String pkgName = pkg.getName();
     File bundleDir = getHeliumPackageDirectory(pkgName);
     File bundleCache = getHeliumPackageBundleCache(pkgName);
+    File bundleHash = getHeliumPackageBundleHash(pkgName);
 
-    if (!rebuild && bundleCache.exists() && !bundleCache.isDirectory()) {
+    String hash = computeBundleHash(pkg, moduleNameVersion);
+    if (!rebuild && isBundleUpToDate(bundleCache, bundleHash, hash)) {
+      logger.info("Helium package {} is unchanged, using cached bundle", pkgName);
       return bundleCache;
     }
 
+    // keep the last good bundle, `downloadPackage` wipes the package directory
+    File lastGoodBundle = getHeliumPackageLastGoodBundle(pkgName);
+    FileUtils.deleteQuietly(lastGoodBundle);
+    if (bundleCache.isFile()) {
+      FileUtils.copyFile(bundleCache, lastGoodBundle);
+    }
+
+    try {
+      File built = bundlePackage(pkg, moduleNameVersion, bundleDir, bundleCache,
+          recopyLocalModule);
+      FileUtils.write(bundleHash, hash, "UTF-8");
+      FileUtils.deleteQuietly(lastGoodBundle);
+      return built;
+    } catch (IOException e) {
+      restoreLastGoodBundle(lastGoodBundle, bundleCache);
+      throw e;
+    } catch (RuntimeException e) {
+      restoreLastGoodBundle(lastGoodBundle, bundleCache);
+      throw e;
+    }
+  }
+
+  private boolean isBundleUpToDate(File bundleCache, File bundleHash, String hash)
+      throws IOException {
+    return bundleCache.isFile() && bundleHash.isFile() &&
+        hash.equals(FileUtils.readFileToString(bundleHash, "UTF-8").trim());
+  }
+
+  private boolean isBundleUpToDate(HeliumPackage pkg) throws IOException {
+    String[] moduleNameVersion = getNpmModuleNameAndVersion(pkg);
+    if (moduleNameVersion == null) {
+      return false;
+    }
+    return isBundleUpToDate(getHeliumPackageBundleCache(pkg.getName()),
+        getHeliumPackageBundleHash(pkg.getName()), computeBundleHash(pkg, moduleNameVersion));
+  }
+
+  private void restoreLastGoodBundle(File lastGoodBundle, File bundleCache) {
+    if (!lastGoodBundle.isFile()) {
+      return;
+    }
+    try {
+      FileUtils.deleteQuietly(bundleCache);
+      FileUtils.moveFile(lastGoodBundle, bundleCache);
+      logger.info("Restored last good bundle " + bundleCache);
+    } catch (IOException e) {
+      logger.error("Can't restore last good bundle " + lastGoodBundle, e);
+    }
+  }
+
+  private File bundlePackage(HeliumPackage pkg,
+                             String[] moduleNameVersion,
+                             File bundleDir,
+                             File bundleCache,
+                             boolean recopyLocalModule) throws IOException {
+
     // 0. install node, npm (should be called before `downloadPackage`
     try {
       installNodeAndNpm();
@@ -466,18 +603,88 @@ public class HeliumBundleFactory {
       return;
     }
 
-    // DON't recopy local modules when build all packages to avoid duplicated copies.
-    boolean recopyLocalModules = false;
+    // Recopy local modules only for the first package that is actually built,
+    // to avoid duplicated copies while still picking up updated framework modules.
+    boolean recopyLocalModules = true;
 
     for (HeliumPackage pkg : pkgs) {
       try {
-        buildPackage(pkg, rebuild, recopyLocalModules);
+        if (!rebuild && isBundleUpToDate(pkg)) {
+          logger.info("Helium package {} is unchanged, using cached bundle", pkg.getName());
+          continue;
+        }
+        buildPackageIfChanged(pkg, rebuild, recopyLocalModules);
+        recopyLocalModules = false;
       } catch (IOException e) {
         logger.error("Failed to build helium package: " + pkg.getArtifact(), e);
       }
     }
   }
 
+  /**
+   * Hash of everything that goes into the bundle of a package: package definition and config,
+   * resolved module version, local package sources, framework modules and build templates.
+   */
+  String computeBundleHash(HeliumPackage pkg, String[] moduleNameVersion) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+
+    updateDigest(digest, gson.toJson(pkg));
+    updateDigest(digest, moduleNameVersion[0] + "@" + moduleNameVersion[1]);
+    updateDigest(digest, NODE_VERSION + "/" + NPM_VERSION + "/" + YARN_VERSION);
+    updateDigest(digest, Resources.toString(
+        Resources.getResource("helium/webpack.config.js"), Charsets.UTF_8));
+    updateDigest(digest, Resources.toString(
+        Resources.getResource("helium/" + PACKAGE_JSON), Charsets.UTF_8));
+
+    if (isLocalPackage(pkg)) {
+      updateDigest(digest, new File(pkg.getArtifact()));
+    }
+    updateDigest(digest, tabledataModulePath);
+    updateDigest(digest, visualizationModulePath);
+    updateDigest(digest, spellModulePath);
+
+    StringBuilder hex = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  private void updateDigest(MessageDigest digest, String value) {
+    digest.update(value.getBytes(Charsets.UTF_8));
+    digest.update((byte) 0);
+  }
+
+  private void updateDigest(MessageDigest digest, File file) throws IOException {
+    if (file == null || !file.exists()) {
+      return;
+    }
+    String fileName = file.getName();
+    if (fileName.startsWith(".") || fileName.startsWith("#") || fileName.startsWith("~") ||
+        fileName.equals("node_modules")) {
+      return;
+    }
+
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+      if (children == null) {
+        return;
+      }
+      Arrays.sort(children);
+      for (File child : children) {
+        updateDigest(digest, child);
+      }
+    } else {
+      updateDigest(digest, fileName);
+      digest.update(FileUtils.readFileToByteArray(file));
+    }
+  }
+
   private void copyFrameworkModule(boolean recopy, FileFilter filter,
                            File src, File dest) throws IOException {
     if (src != null) {
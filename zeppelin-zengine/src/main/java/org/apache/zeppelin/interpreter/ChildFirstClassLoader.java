@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Classloader that loads classes from its own jars before asking its parent, so that
+ * interpreters run in the server process can use other versions of the libraries the server
+ * uses. Classes shared with the server, i.e. the JDK, logging and the Zeppelin interpreter API,
+ * are always loaded by the parent.
+ */
+class ChildFirstClassLoader extends URLClassLoader {
+  private static final String[] SHARED_PREFIXES = {
+    "java.",
+    "javax.",
+    "sun.",
+    "org.slf4j.",
+    "org.apache.log4j.",
+    "org.apache.thrift.",
+    // packages of zeppelin-interpreter
+    "org.apache.zeppelin.annotation.",
+    "org.apache.zeppelin.common.",
+    "org.apache.zeppelin.completer.",
+    "org.apache.zeppelin.dep.",
+    "org.apache.zeppelin.display.",
+    "org.apache.zeppelin.helium.",
+    "org.apache.zeppelin.interpreter.",
+    "org.apache.zeppelin.metrics.",
+    "org.apache.zeppelin.resource.",
+    "org.apache.zeppelin.scheduler.",
+    "org.apache.zeppelin.tabledata.",
+    "org.apache.zeppelin.tracing.",
+    "org.apache.zeppelin.user."
+  };
+
+  ChildFirstClassLoader(URL[] urls, ClassLoader parent) {
+    super(urls, parent);
+  }
+
+  static boolean isShared(String className) {
+    for (String prefix : SHARED_PREFIXES) {
+      if (className.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+    if (isShared(name)) {
+      return super.loadClass(name, resolve);
+    }
+    synchronized (getClassLoadingLock(name)) {
+      Class<?> c = findLoadedClass(name);
+      if (c == null) {
+        try {
+          c = findClass(name);
+        } catch (ClassNotFoundException e) {
+          c = super.loadClass(name, false);
+        }
+      }
+      if (resolve) {
+        resolveClass(c);
+      }
+      return c;
+    }
+  }
+
+  @Override
+  public URL getResource(String name) {
+    if (isShared(name.replace('/', '.'))) {
+      return super.getResource(name);
+    }
+    URL url = findResource(name);
+    return url != null ? url : super.getResource(name);
+  }
+
+  @Override
+  public Enumeration<URL> getResources(String name) throws IOException {
+    if (isShared(name.replace('/', '.'))) {
+      return super.getResources(name);
+    }
+    List<URL> urls = Collections.list(findResources(name));
+    ClassLoader parent = getParent();
+    if (parent != null) {
+      urls.addAll(Collections.list(parent.getResources(name)));
+    }
+    return Collections.enumeration(urls);
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter;
+
+import org.apache.zeppelin.scheduler.ExecutorFactory;
+import org.apache.zeppelin.scheduler.Scheduler;
+import org.apache.zeppelin.scheduler.SchedulerFactory;
+
+/**
+ * Hosts a stateless interpreter inside the Zeppelin server process.
+ *
+ * The interpreter is loaded by its own classloader. Each interpreter gets its own parallel
+ * scheduler instead of the one it provides, so closing or restarting it only stops its own
+ * jobs. The jobs of all in-process interpreters run on a single executor, so
+ * zeppelin.interpreter.inprocess.concurrency bounds the threads they use in the server.
+ */
+public class InProcessInterpreter extends ClassloaderInterpreter {
+  static final String SCHEDULER_NAME = InProcessInterpreter.class.getName();
+
+  private final int maxConcurrency;
+
+  public InProcessInterpreter(Interpreter intp, ClassLoader cl, int maxConcurrency) {
+    super(intp, cl);
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  @Override
+  public Scheduler getScheduler() {
+    SchedulerFactory factory = SchedulerFactory.singleton();
+    return factory.applySchedulerPolicy(factory.createOrGetParallelScheduler(
+        SCHEDULER_NAME + this.hashCode(), maxConcurrency,
+        ExecutorFactory.singleton().createOrGet(SCHEDULER_NAME, maxConcurrency)), getProperty());
+  }
+}
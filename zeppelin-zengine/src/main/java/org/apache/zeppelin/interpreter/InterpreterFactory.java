@@ -56,6 +56,9 @@ public class InterpreterFactory implements InterpreterGroupFactory {
 
   private Map<String, URLClassLoader> cleanCl =
       Collections.synchronizedMap(new HashMap<String, URLClassLoader>());
+  // child-first classloaders of in-process interpreters, kept apart from cleanCl of local mode
+  private Map<String, URLClassLoader> isolatedCl =
+      Collections.synchronizedMap(new HashMap<String, URLClassLoader>());
 
   private ZeppelinConfiguration conf;
 
@@ -70,6 +73,8 @@ public class InterpreterFactory implements InterpreterGroupFactory {
 
   private Interpreter devInterpreter;
 
+  private final InterpreterResultCache resultCache;
+
   public InterpreterFactory(ZeppelinConfiguration conf,
       AngularObjectRegistryListener angularObjectRegistryListener,
       RemoteInterpreterProcessListener remoteInterpreterProcessListener,
@@ -81,6 +86,7 @@ public class InterpreterFactory implements InterpreterGroupFactory {
     this.remoteInterpreterProcessListener = remoteInterpreterProcessListener;
     this.appEventListener = appEventListener;
     this.shiroEnabled = shiroEnabled;
+    this.resultCache = new InterpreterResultCache(conf.getInterpreterResultCacheSize());
 
     this.interpreterSettingManager = interpreterSettingManager;
     //TODO(jl): Fix it not to use InterpreterGroupFactory
@@ -105,7 +111,7 @@ public class InterpreterFactory implements InterpreterGroupFactory {
     AngularObjectRegistry angularObjectRegistry;
 
     InterpreterGroup interpreterGroup = new InterpreterGroup(id);
-    if (option.isRemote()) {
+    if (option.isRemote() && !isInProcess(getInterpreterSettingByGroupId(id))) {
       angularObjectRegistry =
           new RemoteAngularObjectRegistry(id, angularObjectRegistryListener, interpreterGroup);
     } else {
@@ -150,8 +156,11 @@ public class InterpreterFactory implements InterpreterGroupFactory {
     String path = interpreterSetting.getPath();
     InterpreterRunner runner = interpreterSetting.getInterpreterRunner();
     Interpreter interpreter;
+    boolean inProcess = isInProcess(interpreterSetting);
     for (InterpreterInfo info : interpreterInfos) {
-      if (option.isRemote()) {
+      if (inProcess) {
+        interpreter = createInProcessRepl(path, info.getClassName(), properties);
+      } else if (option.isRemote()) {
         if (option.isExistingProcess()) {
           interpreter =
               connectToRemoteRepl(interpreterSessionKey, info.getClassName(), option.getHost(),
@@ -240,6 +249,93 @@ public class InterpreterFactory implements InterpreterGroupFactory {
     }
   }
 
+  private InterpreterSetting getInterpreterSettingByGroupId(String interpreterGroupId) {
+    int idx = interpreterGroupId.indexOf(':');
+    if (idx < 0) {
+      return null;
+    }
+    return interpreterSettingManager.get(interpreterGroupId.substring(0, idx));
+  }
+
+  /**
+   * Interpreters run inside the server process only when the setting asks for it and its group
+   * is listed in zeppelin.interpreter.inprocess.allowed. Otherwise the setting falls back to the
+   * remote (or local) mode given by its option.
+   */
+  boolean isInProcess(InterpreterSetting setting) {
+    if (setting == null || !setting.getOption().isInProcess()) {
+      return false;
+    }
+    if (!conf.getInterpreterInProcessAllowed().contains(setting.getGroup())) {
+      logger.warn("Interpreter group {} is not allowed to run in the server process. "
+          + "Check {}", setting.getGroup(),
+          ConfVars.ZEPPELIN_INTERPRETER_INPROCESS_ALLOWED.getVarName());
+      return false;
+    }
+    return true;
+  }
+
+  private Interpreter createInProcessRepl(String dirName, String className, Properties property)
+      throws InterpreterException {
+    logger.info("Create in-process repl {} from {}", className, dirName);
+
+    ClassLoader oldcl = Thread.currentThread().getContextClassLoader();
+    try {
+      URLClassLoader cl = getIsolatedClassLoader(dirName);
+      Thread.currentThread().setContextClassLoader(cl);
+
+      Class<Interpreter> replClass = (Class<Interpreter>) cl.loadClass(className);
+      Constructor<Interpreter> constructor =
+          replClass.getConstructor(new Class[]{Properties.class});
+      Interpreter repl = constructor.newInstance(property);
+      repl.setClassloaderUrls(cl.getURLs());
+      return new LazyOpenInterpreter(new InProcessInterpreter(repl, cl,
+          conf.getInterpreterInProcessConcurrency()));
+    } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
+        | InvocationTargetException | ClassNotFoundException | IOException e) {
+      throw new InterpreterException(e);
+    } finally {
+      Thread.currentThread().setContextClassLoader(oldcl);
+    }
+  }
+
+  /**
+   * One classloader per interpreter directory, shared by all sessions of the settings using it.
+   * Jars of the interpreter are only visible to it and take precedence over the server's jars;
+   * the Zeppelin interpreter API still comes from the server's classloader.
+   */
+  private URLClassLoader getIsolatedClassLoader(String dirName) throws IOException {
+    synchronized (isolatedCl) {
+      URLClassLoader cl = isolatedCl.get(dirName);
+      if (cl == null) {
+        List<URL> urls = new ArrayList<>();
+        if (dirName != null) {
+          buildLibList(new File(dirName), urls);
+        }
+        cl = new ChildFirstClassLoader(urls.toArray(new URL[urls.size()]),
+            InterpreterFactory.class.getClassLoader());
+        isolatedCl.put(dirName, cl);
+      }
+      return cl;
+    }
+  }
+
+  private void buildLibList(File path, List<URL> urls) throws IOException {
+    if (!path.exists() || path.getName().startsWith(".")) {
+      return;
+    }
+    if (path.isDirectory()) {
+      File[] files = path.listFiles();
+      if (files != null) {
+        for (File f : files) {
+          buildLibList(f, urls);
+        }
+      }
+    } else {
+      urls.add(path.toURI().toURL());
+    }
+  }
+
   private Interpreter connectToRemoteRepl(String interpreterSessionKey, String className,
       String host, int port, Properties property, String interpreterSettingId, String userName,
       Boolean isUserImpersonate) {
@@ -411,6 +507,10 @@ public class InterpreterFactory implements InterpreterGroupFactory {
     return null;
   }
 
+  public InterpreterResultCache getResultCache() {
+    return resultCache;
+  }
+
   public Map<String, String> getEnv() {
     return env;
   }
@@ -30,6 +30,8 @@ public class InterpreterInfo {
   @SerializedName("class") private String className;
   private boolean defaultInterpreter = false;
   private Map<String, Object> editor;
+  // same text and properties always give the same result, so results can be cached
+  private boolean deterministic;
 
   public InterpreterInfo(String className, String name, boolean defaultInterpreter,
       Map<String, Object> editor) {
@@ -55,6 +57,14 @@ public class InterpreterInfo {
     return defaultInterpreter;
   }
 
+  public boolean isDeterministic() {
+    return deterministic;
+  }
+
+  public void setDeterministic(boolean deterministic) {
+    this.deterministic = deterministic;
+  }
+
   public Map<String, Object> getEditor() {
     return editor;
   }
@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.zeppelin.interpreter.remote.InterpreterProcessResourceUsage;
+import org.apache.zeppelin.interpreter.remote.RemoteInterpreterProcess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps interpreter processes within a host wide memory budget by closing the least recently used
+ * idle sessions, and closes sessions which are idle longer than the idle timeout.
+ * A process terminates when its last session is closed.
+ */
+public class InterpreterProcessGovernor {
+  private static final Logger logger = LoggerFactory.getLogger(InterpreterProcessGovernor.class);
+
+  private final InterpreterSettingManager interpreterSettingManager;
+  // bytes. 0 for no budget
+  private final long memoryBudget;
+  // milliseconds. 0 to keep idle sessions
+  private final long idleTimeout;
+  private final long interval;
+  private final List<SessionEvictionListener> listeners = new CopyOnWriteArrayList<>();
+  private ScheduledExecutorService executor;
+
+  /**
+   * Notified before a session is closed by the governor
+   */
+  public interface SessionEvictionListener {
+    /**
+     * @param user owner of the session. null if the session is shared across users
+     */
+    void onEvict(InterpreterSetting setting, InterpreterGroup interpreterGroup, String sessionKey,
+        String user);
+  }
+
+  public InterpreterProcessGovernor(InterpreterSettingManager interpreterSettingManager,
+      long memoryBudget, long idleTimeout, long interval) {
+    this.interpreterSettingManager = interpreterSettingManager;
+    this.memoryBudget = memoryBudget;
+    this.idleTimeout = idleTimeout;
+    this.interval = interval;
+  }
+
+  public boolean isEnabled() {
+    return (memoryBudget > 0 || idleTimeout > 0) && interval > 0;
+  }
+
+  public synchronized void start() {
+    if (!isEnabled() || executor != null) {
+      return;
+    }
+
+    logger.info("Start interpreter process governor. memory budget: {} bytes, idle timeout: {} ms",
+        memoryBudget, idleTimeout);
+    executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, "InterpreterProcessGovernor");
+        t.setDaemon(true);
+        return t;
+      }
+    });
+    executor.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          enforce();
+        } catch (Exception e) {
+          logger.error("Error while enforcing interpreter process limits", e);
+        }
+      }
+    }, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  public synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  public void addEvictionListener(SessionEvictionListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeEvictionListener(SessionEvictionListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Close sessions idle longer than the idle timeout, then close least recently used idle
+   * sessions until the memory held by interpreter processes fits in the budget.
+   * @return number of closed sessions
+   */
+  public synchronized int enforce() {
+    long now = System.currentTimeMillis();
+    long total = 0;
+    List<SessionUsage> idleSessions = new ArrayList<>();
+    for (SettingUsage setting : getUsage()) {
+      total += setting.memory;
+      for (ProcessUsage process : setting.processes) {
+        if (process.usage == null) {
+          // nothing to free
+          continue;
+        }
+        for (SessionUsage session : process.sessions) {
+          if (!session.active) {
+            idleSessions.add(session);
+          }
+        }
+      }
+    }
+
+    Collections.sort(idleSessions, new Comparator<SessionUsage>() {
+      @Override
+      public int compare(SessionUsage o1, SessionUsage o2) {
+        return Long.compare(o1.lastActivity, o2.lastActivity);
+      }
+    });
+
+    int evicted = 0;
+    for (SessionUsage session : idleSessions) {
+      boolean expired = idleTimeout > 0 && now - session.lastActivity > idleTimeout;
+      boolean overBudget = memoryBudget > 0 && total > memoryBudget;
+      if (!expired && !overBudget) {
+        // sessions are sorted by last activity, following ones are not expired either
+        break;
+      }
+
+      if (evict(session, expired ? "idle" : "least recently used")) {
+        evicted++;
+        // sessions share memory of their process
+        total -= session.process.usage.getMemory() / session.process.sessions.size();
+      }
+    }
+
+    if (memoryBudget > 0 && total > memoryBudget) {
+      logger.warn("Interpreter processes use {} bytes over the memory budget {} bytes, " +
+          "but no more idle session to close", total, memoryBudget);
+    }
+    return evicted;
+  }
+
+  private boolean evict(SessionUsage session, String reason) {
+    ProcessUsage process = session.process;
+    if (process.interpreterGroup.isSessionActive(session.sessionKey)) {
+      // became active in the meantime
+      return false;
+    }
+
+    logger.info("Close {} session {} of interpreter group {}",
+        reason, session.sessionKey, process.interpreterGroupId);
+    for (SessionEvictionListener listener : listeners) {
+      try {
+        listener.onEvict(process.setting, process.interpreterGroup, session.sessionKey,
+            session.user);
+      } catch (RuntimeException e) {
+        logger.error("Error while notifying session eviction", e);
+      }
+    }
+    process.setting.closeAndRemoveInterpreterSession(process.processKey, session.sessionKey);
+    return true;
+  }
+
+  /**
+   * Collect resource usage of interpreter processes of all interpreter settings
+   */
+  public List<SettingUsage> getUsage() {
+    List<SettingUsage> usages = new LinkedList<>();
+    for (InterpreterSetting setting : interpreterSettingManager.get()) {
+      SettingUsage settingUsage = new SettingUsage(setting);
+      for (Map.Entry<String, InterpreterGroup> entry :
+          setting.getInterpreterGroupsByProcessKey().entrySet()) {
+        String processKey = entry.getKey();
+        InterpreterGroup interpreterGroup = entry.getValue();
+        RemoteInterpreterProcess remoteProcess = interpreterGroup.getRemoteInterpreterProcess();
+        ProcessUsage processUsage = new ProcessUsage(setting, processKey, interpreterGroup,
+            remoteProcess == null ? null : remoteProcess.getResourceUsage());
+
+        for (String sessionKey : interpreterGroup.keySet()) {
+          processUsage.sessions.add(new SessionUsage(processUsage, sessionKey,
+              setting.getSessionUser(processKey, sessionKey),
+              interpreterGroup.getSessionLastActivity(sessionKey),
+              interpreterGroup.isSessionActive(sessionKey)));
+        }
+
+        settingUsage.processes.add(processUsage);
+        if (processUsage.usage != null) {
+          settingUsage.memory += processUsage.usage.getMemory();
+        }
+      }
+      usages.add(settingUsage);
+    }
+    return usages;
+  }
+
+  /**
+   * Resource usage of an interpreter setting
+   */
+  public static class SettingUsage {
+    private final String id;
+    private final String name;
+    // memory held by all processes of this setting
+    private long memory;
+    private final List<ProcessUsage> processes = new LinkedList<>();
+
+    SettingUsage(InterpreterSetting setting) {
+      this.id = setting.getId();
+      this.name = setting.getName();
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getMemory() {
+      return memory;
+    }
+
+    public List<ProcessUsage> getProcesses() {
+      return processes;
+    }
+  }
+
+  /**
+   * Resource usage of an interpreter process
+   */
+  public static class ProcessUsage {
+    private final transient InterpreterSetting setting;
+    private final transient String processKey;
+    private final transient InterpreterGroup interpreterGroup;
+    private final String interpreterGroupId;
+    // null when the process is not running
+    private final InterpreterProcessResourceUsage usage;
+    private final List<SessionUsage> sessions = new LinkedList<>();
+
+    ProcessUsage(InterpreterSetting setting, String processKey, InterpreterGroup interpreterGroup,
+        InterpreterProcessResourceUsage usage) {
+      this.setting = setting;
+      this.processKey = processKey;
+      this.interpreterGroup = interpreterGroup;
+      this.interpreterGroupId = interpreterGroup.getId();
+      this.usage = usage;
+    }
+
+    public String getInterpreterGroupId() {
+      return interpreterGroupId;
+    }
+
+    public InterpreterProcessResourceUsage getUsage() {
+      return usage;
+    }
+
+    public List<SessionUsage> getSessions() {
+      return sessions;
+    }
+  }
+
+  /**
+   * Activity of a session in an interpreter process
+   */
+  public static class SessionUsage {
+    private final transient ProcessUsage process;
+    private final String sessionKey;
+    private final String user;
+    private final long lastActivity;
+    private final boolean active;
+
+    SessionUsage(ProcessUsage process, String sessionKey, String user, long lastActivity,
+        boolean active) {
+      this.process = process;
+      this.sessionKey = sessionKey;
+      this.user = user;
+      this.lastActivity = lastActivity;
+      this.active = active;
+    }
+
+    public String getSessionKey() {
+      return sessionKey;
+    }
+
+    public String getUser() {
+      return user;
+    }
+
+    public long getLastActivity() {
+      return lastActivity;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+  }
+}
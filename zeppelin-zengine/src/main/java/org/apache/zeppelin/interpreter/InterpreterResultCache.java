@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Results of deterministic interpreters (see InterpreterInfo#isDeterministic), keyed by
+ * interpreter class, interpreter properties and paragraph text.
+ *
+ * Least recently used entries are evicted once zeppelin.interpreter.result.cache.size results
+ * are kept. A size of 0 disables the cache.
+ */
+public class InterpreterResultCache {
+  private final Cache<String, InterpreterResult> cache;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  public InterpreterResultCache(int maxSize) {
+    if (maxSize > 0) {
+      cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    } else {
+      cache = null;
+    }
+  }
+
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  public static String key(String className, Properties properties, String text) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    putString(hasher, className);
+    if (properties != null) {
+      for (String name : new TreeSet<>(properties.stringPropertyNames())) {
+        putString(hasher, name);
+        putString(hasher, properties.getProperty(name));
+      }
+    }
+    putString(hasher, text);
+    return hasher.hash().toString();
+  }
+
+  private static void putString(Hasher hasher, String value) {
+    if (value == null) {
+      hasher.putInt(-1);
+    } else {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      hasher.putInt(bytes.length);
+      hasher.putBytes(bytes);
+    }
+  }
+
+  /**
+   * @return copy of the cached result, or null when there's none
+   */
+  public InterpreterResult get(String key) {
+    if (cache == null) {
+      return null;
+    }
+    InterpreterResult result = cache.getIfPresent(key);
+    if (result == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return copy(result);
+  }
+
+  /**
+   * Only successful results are kept.
+   */
+  public void put(String key, InterpreterResult result) {
+    if (cache == null || result == null || result.code() != InterpreterResult.Code.SUCCESS) {
+      return;
+    }
+    cache.put(key, copy(result));
+  }
+
+  public void invalidateAll() {
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  public long size() {
+    return cache == null ? 0 : cache.size();
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  private static InterpreterResult copy(InterpreterResult result) {
+    return new InterpreterResult(result.code(), result.message());
+  }
+}
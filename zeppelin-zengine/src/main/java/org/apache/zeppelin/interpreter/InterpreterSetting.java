@@ -230,6 +230,45 @@ public class InterpreterSetting {
     }
   }
 
+  /**
+   * @return map of [process key, interpreter group]
+   */
+  Map<String, InterpreterGroup> getInterpreterGroupsByProcessKey() {
+    try {
+      interpreterGroupReadLock.lock();
+      return new HashMap<>(interpreterGroupRef);
+    } finally {
+      interpreterGroupReadLock.unlock();
+    }
+  }
+
+  /**
+   * @return user who owns the session, or null if the session is shared across users
+   */
+  String getSessionUser(String processKey, String sessionKey) {
+    InterpreterOption option = getOption();
+    if (option.perUserIsolated() && processKey.indexOf(':') > 0) {
+      return processKey.substring(0, processKey.indexOf(':'));
+    } else if (option.perUserScoped()) {
+      int i = sessionKey.indexOf(':');
+      return i < 0 ? sessionKey : sessionKey.substring(0, i);
+    }
+    return null;
+  }
+
+  void closeAndRemoveInterpreterSession(String processKey, String sessionKey) {
+    InterpreterGroup interpreterGroup;
+    try {
+      interpreterGroupReadLock.lock();
+      interpreterGroup = interpreterGroupRef.get(processKey);
+    } finally {
+      interpreterGroupReadLock.unlock();
+    }
+    if (interpreterGroup != null) {
+      interpreterGroup.close(interpreterGroupRef, processKey, sessionKey);
+    }
+  }
+
   void closeAndRemoveInterpreterGroup(String noteId, String user) {
     if (user.equals("anonymous")) {
       user = "";
@@ -121,6 +121,8 @@ public class InterpreterSettingManager {
 
   private final Gson gson;
 
+  private final InterpreterProcessGovernor processGovernor;
+
   public InterpreterSettingManager(ZeppelinConfiguration zeppelinConfiguration,
       DependencyResolver dependencyResolver, InterpreterOption interpreterOption)
       throws IOException, RepositoryException {
@@ -151,6 +153,16 @@ public class InterpreterSettingManager {
     this.gson = gsonBuilder.create();
 
     init();
+
+    this.processGovernor = new InterpreterProcessGovernor(this,
+        zeppelinConfiguration.getLong(ConfVars.ZEPPELIN_INTERPRETER_MEMORY_BUDGET) * 1024 * 1024,
+        zeppelinConfiguration.getLong(ConfVars.ZEPPELIN_INTERPRETER_IDLE_TIMEOUT),
+        zeppelinConfiguration.getLong(ConfVars.ZEPPELIN_INTERPRETER_GOVERNOR_INTERVAL));
+    processGovernor.start();
+  }
+
+  public InterpreterProcessGovernor getProcessGovernor() {
+    return processGovernor;
   }
 
   /**
@@ -217,6 +229,9 @@ public class InterpreterSettingManager {
                 info.getClassName());
             info.setEditor(editor);
           }
+          // determinism is a property of the interpreter, not of the saved setting
+          info.setDeterministic(
+              isDeterministicByClassName(interpreterSettingObject, info.getClassName()));
         }
 
         setting.setInterpreterGroupFactory(interpreterGroupFactory);
@@ -346,6 +361,7 @@ public class InterpreterSettingManager {
       interpreterInfo =
           new InterpreterInfo(r.getClassName(), r.getName(), r.isDefaultInterpreter(),
               r.getEditor());
+      interpreterInfo.setDeterministic(r.isDeterministic());
       add(r.getGroup(), interpreterInfo, r.getProperties(), defaultOption, r.getPath(),
           r.getRunner());
     }
@@ -438,6 +454,7 @@ public class InterpreterSettingManager {
       InterpreterInfo interpreterInfo =
           new InterpreterInfo(registeredInterpreter.getClassName(), registeredInterpreter.getName(),
               registeredInterpreter.isDefaultInterpreter(), registeredInterpreter.getEditor());
+      interpreterInfo.setDeterministic(registeredInterpreter.isDeterministic());
       // use defaultOption if it is not specified in interpreter-setting.json
       InterpreterOption option = registeredInterpreter.getOption() == null ? defaultOption :
           registeredInterpreter.getOption();
@@ -563,6 +580,15 @@ public class InterpreterSettingManager {
     return DEFAULT_EDITOR;
   }
 
+  private boolean isDeterministicByClassName(InterpreterSetting intpSetting, String className) {
+    for (InterpreterInfo intpInfo : intpSetting.getInterpreterInfos()) {
+      if (className.equals(intpInfo.getClassName())) {
+        return intpInfo.isDeterministic();
+      }
+    }
+    return false;
+  }
+
   private void loadInterpreterDependencies(final InterpreterSetting setting) {
     setting.setStatus(InterpreterSetting.Status.DOWNLOADING_DEPENDENCIES);
     setting.setErrorReason(null);
@@ -1087,6 +1113,7 @@ public class InterpreterSettingManager {
   }
 
   public void close() {
+    processGovernor.stop();
     List<Thread> closeThreads = new LinkedList<>();
     synchronized (interpreterSettings) {
       Collection<InterpreterSetting> intpSettings = interpreterSettings.values();
@@ -1111,6 +1138,7 @@ public class InterpreterSettingManager {
   }
 
   public void shutdown() {
+    processGovernor.stop();
     List<Thread> closeThreads = new LinkedList<>();
     synchronized (interpreterSettings) {
       Collection<InterpreterSetting> intpSettings = interpreterSettings.values();
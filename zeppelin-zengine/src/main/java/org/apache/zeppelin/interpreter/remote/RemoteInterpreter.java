@@ -31,8 +31,12 @@ import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterContext;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterResult;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterResultMessage;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.metrics.Timer;
 import org.apache.zeppelin.scheduler.Scheduler;
 import org.apache.zeppelin.scheduler.SchedulerFactory;
+import org.apache.zeppelin.tracing.Trace;
+import org.apache.zeppelin.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +48,13 @@ import com.google.gson.reflect.TypeToken;
  */
 public class RemoteInterpreter extends Interpreter {
   private static final Logger logger = LoggerFactory.getLogger(RemoteInterpreter.class);
+  private static final Timer createTimer = callTimer("createInterpreter");
+  private static final Timer closeTimer = callTimer("close");
+  private static final Timer interpretTimer = callTimer("interpret");
+  private static final Timer cancelTimer = callTimer("cancel");
+  private static final Timer formTypeTimer = callTimer("getFormType");
+  private static final Timer progressTimer = callTimer("getProgress");
+  private static final Timer completionTimer = callTimer("completion");
 
   private final RemoteInterpreterProcessListener remoteInterpreterProcessListener;
   private final ApplicationEventListener applicationEventListener;
@@ -180,6 +191,7 @@ public class RemoteInterpreter extends Interpreter {
               interpreterRunner, interpreterPath, localRepoPath, env, connectTimeout,
               remoteInterpreterProcessListener, applicationEventListener, interpreterGroupName);
         }
+        remoteProcess.setTransport(RemoteInterpreterTransport.fromProperties(getProperty()));
 
         intpGroup.setRemoteInterpreterProcess(remoteProcess);
       }
@@ -210,6 +222,7 @@ public class RemoteInterpreter extends Interpreter {
       }
 
       boolean broken = false;
+      long start = System.nanoTime();
       try {
         logger.info("Create remote interpreter {}", getClassName());
         if (localRepoPath != null) {
@@ -217,6 +230,10 @@ public class RemoteInterpreter extends Interpreter {
         }
 
         property.put("zeppelin.interpreter.output.limit", Integer.toString(outputLimit));
+        property.put("zeppelin.interpreter.output.flush.size",
+            Integer.toString(InterpreterResultMessageOutput.flushSize));
+        property.put("zeppelin.interpreter.output.flush.interval",
+            Long.toString(InterpreterResultMessageOutput.flushIntervalMs));
         client.createInterpreter(groupId, sessionKey,
             getClassName(), (Map) property, userName);
         // Push angular object loaded from JSON file to remote interpreter
@@ -229,6 +246,7 @@ public class RemoteInterpreter extends Interpreter {
         logger.error("Failed to create interpreter: {}", getClassName());
         throw new InterpreterException(e);
       } finally {
+        createTimer.update(System.nanoTime() - start);
         // TODO(jongyoul): Fixed it when not all of interpreter in same interpreter group are broken
         interpreterProcess.releaseClient(client, broken);
       }
@@ -317,7 +335,12 @@ public class RemoteInterpreter extends Interpreter {
     try {
       client = interpreterProcess.getClient();
       if (client != null) {
-        client.close(sessionKey, className);
+        long start = System.nanoTime();
+        try {
+          client.close(sessionKey, className);
+        } finally {
+          closeTimer.update(System.nanoTime() - start);
+        }
       }
     } catch (TException e) {
       broken = true;
@@ -360,12 +383,23 @@ public class RemoteInterpreter extends Interpreter {
     }
 
     boolean broken = false;
+    InterpreterGroup interpreterGroup = getInterpreterGroup();
+    interpreterGroup.beginSessionActivity(sessionKey);
+    long start = System.nanoTime();
     try {
 
       final GUI currentGUI = context.getGui();
       RemoteInterpreterResult remoteResult = client.interpret(
           sessionKey, className, st, convert(context));
 
+      Trace trace = Tracer.singleton().get(context.getTraceId());
+      if (trace != null) {
+        trace.record("remote.interpret", start);
+        if (remoteResult.getTrace() != null) {
+          trace.addAll(Trace.spansFromJson(remoteResult.getTrace()));
+        }
+      }
+
       Map<String, Object> remoteConfig = (Map<String, Object>) gson.fromJson(
           remoteResult.getConfig(), new TypeToken<Map<String, Object>>() {
           }.getType());
@@ -393,6 +427,8 @@ public class RemoteInterpreter extends Interpreter {
       broken = true;
       throw new InterpreterException(e);
     } finally {
+      interpretTimer.update(System.nanoTime() - start);
+      interpreterGroup.endSessionActivity(sessionKey);
       interpreterProcess.releaseClient(client, broken);
     }
   }
@@ -408,12 +444,14 @@ public class RemoteInterpreter extends Interpreter {
     }
 
     boolean broken = false;
+    long start = System.nanoTime();
     try {
       client.cancel(sessionKey, className, convert(context));
     } catch (TException e) {
       broken = true;
       throw new InterpreterException(e);
     } finally {
+      cancelTimer.update(System.nanoTime() - start);
       interpreterProcess.releaseClient(client, broken);
     }
   }
@@ -435,6 +473,7 @@ public class RemoteInterpreter extends Interpreter {
     }
 
     boolean broken = false;
+    long start = System.nanoTime();
     try {
       formType = FormType.valueOf(client.getFormType(sessionKey, className));
       return formType;
@@ -442,6 +481,7 @@ public class RemoteInterpreter extends Interpreter {
       broken = true;
       throw new InterpreterException(e);
     } finally {
+      formTypeTimer.update(System.nanoTime() - start);
       interpreterProcess.releaseClient(client, broken);
     }
   }
@@ -461,12 +501,14 @@ public class RemoteInterpreter extends Interpreter {
     }
 
     boolean broken = false;
+    long start = System.nanoTime();
     try {
       return client.getProgress(sessionKey, className, convert(context));
     } catch (TException e) {
       broken = true;
       throw new InterpreterException(e);
     } finally {
+      progressTimer.update(System.nanoTime() - start);
       interpreterProcess.releaseClient(client, broken);
     }
   }
@@ -484,6 +526,7 @@ public class RemoteInterpreter extends Interpreter {
     }
 
     boolean broken = false;
+    long start = System.nanoTime();
     try {
       List completion = client.completion(sessionKey, className, buf, cursor,
           convert(interpreterContext));
@@ -492,6 +535,7 @@ public class RemoteInterpreter extends Interpreter {
       broken = true;
       throw new InterpreterException(e);
     } finally {
+      completionTimer.update(System.nanoTime() - start);
       interpreterProcess.releaseClient(client, broken);
     }
   }
@@ -503,9 +547,10 @@ public class RemoteInterpreter extends Interpreter {
     if (interpreterProcess == null) {
       return null;
     } else {
-      return SchedulerFactory.singleton().createOrGetRemoteScheduler(
+      SchedulerFactory factory = SchedulerFactory.singleton();
+      return factory.applySchedulerPolicy(factory.createOrGetRemoteScheduler(
           RemoteInterpreter.class.getName() + sessionKey + interpreterProcess.hashCode(),
-          sessionKey, interpreterProcess, maxConcurrency);
+          sessionKey, interpreterProcess, maxConcurrency), getProperty());
     }
   }
 
@@ -516,7 +561,8 @@ public class RemoteInterpreter extends Interpreter {
   private RemoteInterpreterContext convert(InterpreterContext ic) {
     return new RemoteInterpreterContext(ic.getNoteId(), ic.getParagraphId(), ic.getReplName(),
         ic.getParagraphTitle(), ic.getParagraphText(), ic.getAuthenticationInfo().toJson(),
-        gson.toJson(ic.getConfig()), ic.getGui().toJson(), gson.toJson(ic.getRunners()));
+        gson.toJson(ic.getConfig()), ic.getGui().toJson(), gson.toJson(ic.getRunners()),
+        ic.getTraceId());
   }
 
   private InterpreterResult convert(RemoteInterpreterResult result) {
@@ -574,4 +620,9 @@ public class RemoteInterpreter extends Interpreter {
   public String getInterpreterRunner() {
     return interpreterRunner;
   }
+
+  private static Timer callTimer(String method) {
+    return MetricRegistry.singleton().timer("zeppelin_remote_interpreter_call_seconds",
+        "Latency of calls to remote interpreter process", "method", method);
+  }
 }
@@ -0,0 +1,419 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.notebook;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.zeppelin.interpreter.InterpreterSetting;
+import org.apache.zeppelin.interpreter.InterpreterSettingManager;
+import org.apache.zeppelin.metrics.Counter;
+import org.apache.zeppelin.metrics.Gauge;
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs notes fired by the cron scheduler and tracks them until they finish.
+ *
+ * Quartz only enqueues a run here, so its worker threads are never parked while a note is
+ * running. Runs are started as soon as every interpreter setting bound to the note has a free
+ * slot, and finished runs are detected by a single tracker thread, which also restarts the
+ * interpreters of notes that set 'releaseresource'.
+ */
+public class CronRunTracker {
+  private static final Logger logger = LoggerFactory.getLogger(CronRunTracker.class);
+  private static final int NUM_THREADS = 2;
+  private static final Timer triggerLagTimer = MetricRegistry.singleton().timer(
+      "zeppelin_cron_trigger_lag_seconds", "Time between scheduled and actual fire of cron runs");
+  private static final Counter skippedCounter = MetricRegistry.singleton().counter(
+      "zeppelin_cron_skipped_total", "Number of cron runs skipped or merged into a waiting run");
+
+  /**
+   * What to do when a note is fired while its previous run has not finished yet
+   */
+  public enum OverlapPolicy {
+    // drop the trigger
+    SKIP,
+    // keep at most one run waiting and start it when the previous run finishes
+    QUEUE;
+
+    public static OverlapPolicy fromString(String policy) {
+      if (policy != null && policy.trim().equalsIgnoreCase("queue")) {
+        return QUEUE;
+      }
+      return SKIP;
+    }
+  }
+
+  private static class CronRun {
+    final String noteId;
+    final long firedTime;
+    List<String> settingIds;
+    volatile boolean submitted;
+
+    CronRun(String noteId, long firedTime) {
+      this.noteId = noteId;
+      this.firedTime = firedTime;
+    }
+  }
+
+  private final Notebook notebook;
+  private final int maxConcurrentRunsPerSetting;
+  private final OverlapPolicy overlapPolicy;
+  private final ScheduledExecutorService executor;
+
+  // guarded by this
+  private final Map<String, CronRun> running = new HashMap<>();
+  private final LinkedList<CronRun> pending = new LinkedList<>();
+  private final Map<String, Integer> runsPerSetting = new HashMap<>();
+
+  private final AtomicLong firedCount = new AtomicLong();
+  private final AtomicLong skippedCount = new AtomicLong();
+  private final AtomicLong completedCount = new AtomicLong();
+  private final AtomicLong lastTriggerLagMs = new AtomicLong();
+  private final AtomicLong maxTriggerLagMs = new AtomicLong();
+  private final AtomicLong totalTriggerLagMs = new AtomicLong();
+
+  /**
+   * @param maxConcurrentRunsPerSetting maximum number of cron runs using the same interpreter
+   *                                    setting at a time, 0 or less for no limit
+   * @param pollIntervalMs              how often running notes are checked for completion
+   */
+  public CronRunTracker(Notebook notebook, int maxConcurrentRunsPerSetting,
+      OverlapPolicy overlapPolicy, long pollIntervalMs) {
+    this.notebook = notebook;
+    this.maxConcurrentRunsPerSetting = maxConcurrentRunsPerSetting;
+    this.overlapPolicy = overlapPolicy;
+    this.executor = Executors.newScheduledThreadPool(NUM_THREADS, new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, "CronRunTracker");
+        t.setDaemon(true);
+        return t;
+      }
+    });
+    executor.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        checkRunningNotes();
+      }
+    }, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    registerMetrics();
+  }
+
+  private void registerMetrics() {
+    MetricRegistry registry = MetricRegistry.singleton();
+    registry.gauge("zeppelin_cron_running_notes", "Number of notes being run by cron",
+        new Gauge() {
+          @Override
+          public long getValue() {
+            return getRunningCount();
+          }
+        });
+    registry.gauge("zeppelin_cron_pending_runs", "Number of cron runs waiting for a slot",
+        new Gauge() {
+          @Override
+          public long getValue() {
+            return getPendingCount();
+          }
+        });
+  }
+
+  /**
+   * Called by the cron job. Enqueues a run of the note and returns immediately.
+   *
+   * @param scheduledFireTime time the trigger was supposed to fire, used to measure trigger lag
+   */
+  public void fire(String noteId, Date scheduledFireTime) {
+    long now = System.currentTimeMillis();
+    firedCount.incrementAndGet();
+    if (scheduledFireTime != null) {
+      recordTriggerLag(Math.max(0, now - scheduledFireTime.getTime()));
+    }
+
+    synchronized (this) {
+      boolean isPending = isPending(noteId);
+      if (isPending || (running.containsKey(noteId) && overlapPolicy == OverlapPolicy.SKIP)) {
+        skippedCount.incrementAndGet();
+        skippedCounter.inc();
+        logger.info("Skip cron run of note {}, previous run has not finished yet", noteId);
+        return;
+      }
+      pending.add(new CronRun(noteId, now));
+    }
+    scheduleDrain();
+  }
+
+  /**
+   * Drops the runs of the note that are waiting for a slot. A run in progress is not affected.
+   */
+  public synchronized void cancelPending(String noteId) {
+    Iterator<CronRun> it = pending.iterator();
+    while (it.hasNext()) {
+      if (it.next().noteId.equals(noteId)) {
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Lets the tracker check the note right away instead of waiting for the next poll.
+   */
+  public void onParagraphTerminated(Paragraph p) {
+    if (p.getNote() == null) {
+      return;
+    }
+    final CronRun run;
+    synchronized (this) {
+      run = running.get(p.getNote().getId());
+    }
+    if (run != null && run.submitted) {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          checkCompletion(run);
+        }
+      });
+    }
+  }
+
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  public long getFiredCount() {
+    return firedCount.get();
+  }
+
+  public long getSkippedCount() {
+    return skippedCount.get();
+  }
+
+  public long getCompletedCount() {
+    return completedCount.get();
+  }
+
+  public synchronized int getRunningCount() {
+    return running.size();
+  }
+
+  public synchronized int getPendingCount() {
+    return pending.size();
+  }
+
+  public long getLastTriggerLagMs() {
+    return lastTriggerLagMs.get();
+  }
+
+  public long getMaxTriggerLagMs() {
+    return maxTriggerLagMs.get();
+  }
+
+  public long getAverageTriggerLagMs() {
+    long fired = firedCount.get();
+    return fired == 0 ? 0 : totalTriggerLagMs.get() / fired;
+  }
+
+  private void recordTriggerLag(long lagMs) {
+    triggerLagTimer.update(TimeUnit.MILLISECONDS.toNanos(lagMs));
+    lastTriggerLagMs.set(lagMs);
+    totalTriggerLagMs.addAndGet(lagMs);
+    long max = maxTriggerLagMs.get();
+    while (lagMs > max && !maxTriggerLagMs.compareAndSet(max, lagMs)) {
+      max = maxTriggerLagMs.get();
+    }
+  }
+
+  private boolean isPending(String noteId) {
+    for (CronRun run : pending) {
+      if (run.noteId.equals(noteId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void scheduleDrain() {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        drain();
+      }
+    });
+  }
+
+  /**
+   * Starts every pending run whose note is idle and whose interpreter settings have free slots.
+   */
+  private void drain() {
+    List<CronRun> toStart = new ArrayList<>();
+    synchronized (this) {
+      Iterator<CronRun> it = pending.iterator();
+      while (it.hasNext()) {
+        CronRun run = it.next();
+        if (running.containsKey(run.noteId)) {
+          continue;
+        }
+        List<String> settingIds = getSettingIds(run.noteId);
+        if (!hasFreeSlots(settingIds)) {
+          continue;
+        }
+        it.remove();
+        run.settingIds = settingIds;
+        for (String id : settingIds) {
+          Integer count = runsPerSetting.get(id);
+          runsPerSetting.put(id, count == null ? 1 : count + 1);
+        }
+        running.put(run.noteId, run);
+        toStart.add(run);
+      }
+    }
+
+    for (CronRun run : toStart) {
+      start(run);
+    }
+  }
+
+  private void start(CronRun run) {
+    Note note = notebook.getNote(run.noteId);
+    if (note == null) {
+      complete(run, null);
+      return;
+    }
+    logger.debug("Start cron run of note {}, waited {}ms for a slot", run.noteId,
+        System.currentTimeMillis() - run.firedTime);
+    try {
+      note.runAll();
+    } catch (RuntimeException e) {
+      logger.error("Error while running note " + run.noteId + " by cron", e);
+    }
+    run.submitted = true;
+    checkCompletion(run);
+  }
+
+  private void checkRunningNotes() {
+    List<CronRun> runs;
+    synchronized (this) {
+      runs = new ArrayList<>(running.values());
+    }
+    for (CronRun run : runs) {
+      checkCompletion(run);
+    }
+  }
+
+  private void checkCompletion(CronRun run) {
+    if (!run.submitted) {
+      return;
+    }
+    Note note = notebook.getNote(run.noteId);
+    if (note == null || isFinished(note)) {
+      complete(run, note);
+    }
+  }
+
+  /**
+   * Disabled paragraphs are not run by runAll(), so they don't have to be terminated.
+   * A dependency-aware run tells itself, its pending paragraphs still look terminated.
+   */
+  private boolean isFinished(Note note) {
+    if (note.isDagRunMode()) {
+      return !note.isDagRunInProgress();
+    }
+    for (Paragraph p : note.getParagraphs()) {
+      if (p.isEnabled() && !p.isTerminated()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void complete(CronRun run, Note note) {
+    synchronized (this) {
+      if (running.get(run.noteId) != run) {
+        // already completed
+        return;
+      }
+      running.remove(run.noteId);
+      for (String id : run.settingIds) {
+        Integer count = runsPerSetting.get(id);
+        if (count == null || count <= 1) {
+          runsPerSetting.remove(id);
+        } else {
+          runsPerSetting.put(id, count - 1);
+        }
+      }
+    }
+    completedCount.incrementAndGet();
+    logger.debug("Cron run of note {} finished in {}ms", run.noteId,
+        System.currentTimeMillis() - run.firedTime);
+
+    if (note != null && isReleaseResource(note)) {
+      InterpreterSettingManager settingManager = notebook.getInterpreterSettingManager();
+      for (InterpreterSetting setting : settingManager.getInterpreterSettings(note.getId())) {
+        settingManager.restart(setting.getId());
+      }
+    }
+    drain();
+  }
+
+  private boolean isReleaseResource(Note note) {
+    try {
+      Map<String, Object> config = note.getConfig();
+      if (config != null && config.containsKey("releaseresource")) {
+        return (boolean) config.get("releaseresource");
+      }
+    } catch (ClassCastException e) {
+      logger.error(e.getMessage(), e);
+    }
+    return false;
+  }
+
+  private List<String> getSettingIds(String noteId) {
+    List<String> ids = new ArrayList<>();
+    if (maxConcurrentRunsPerSetting <= 0) {
+      return ids;
+    }
+    for (InterpreterSetting setting :
+        notebook.getInterpreterSettingManager().getInterpreterSettings(noteId)) {
+      ids.add(setting.getId());
+    }
+    return ids;
+  }
+
+  private boolean hasFreeSlots(List<String> settingIds) {
+    for (String id : settingIds) {
+      Integer count = runsPerSetting.get(id);
+      if (count != null && count >= maxConcurrentRunsPerSetting) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
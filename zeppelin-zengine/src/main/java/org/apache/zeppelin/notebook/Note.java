@@ -20,6 +20,7 @@ package org.apache.zeppelin.notebook;
 import static java.lang.String.format;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.ScheduledFuture;
@@ -39,6 +40,8 @@ import org.apache.zeppelin.display.Input;
 import org.apache.zeppelin.interpreter.*;
 import org.apache.zeppelin.interpreter.remote.RemoteAngularObjectRegistry;
 import org.apache.zeppelin.interpreter.thrift.InterpreterCompletion;
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.metrics.Timer;
 import org.apache.zeppelin.notebook.json.NotebookTypeAdapterFactory;
 import org.apache.zeppelin.notebook.repo.NotebookRepo;
 import org.apache.zeppelin.notebook.utility.IdHashes;
@@ -60,6 +63,8 @@ import com.google.gson.Gson;
 public class Note implements ParagraphJobListener, JsonSerializable {
   private static final Logger logger = LoggerFactory.getLogger(Note.class);
   private static final long serialVersionUID = 7920699076577612429L;
+  private static final Timer persistTimer = MetricRegistry.singleton().timer(
+      "zeppelin_note_persist_seconds", "Time to save a note to notebook repo");
   private static Gson gson = new GsonBuilder()
       .setPrettyPrinting()
       .registerTypeAdapterFactory(new NotebookTypeAdapterFactory<Paragraph>(Paragraph.class) {
@@ -105,6 +110,7 @@ public class Note implements ParagraphJobListener, JsonSerializable {
   private transient NoteEventListener noteEventListener;
   private transient Credentials credentials;
   private transient NoteNameListener noteNameListener;
+  private transient volatile ParagraphDagRunner dagRunner;
 
   /*
    * note configurations.
@@ -144,6 +150,32 @@ public class Note implements ParagraphJobListener, JsonSerializable {
     return null != setting ? setting.getName() : StringUtils.EMPTY;
   }
 
+  /**
+   * Whether runAll() runs independent paragraphs concurrently, following the 'dependsOn'
+   * config and the z.put / z.get resources of the paragraphs.
+   */
+  public boolean isDagRunMode() {
+    Object v = getConfig().get("dagRunMode");
+    return null != v && ("true".equals(v) || Boolean.TRUE.equals(v));
+  }
+
+  public void setDagRunMode(Boolean value) {
+    getConfig().put("dagRunMode", value ? "true" : "false");
+  }
+
+  /**
+   * @return true while a dependency-aware run all is in progress. Paragraphs it has not
+   * submitted yet still have the status of their previous run.
+   */
+  public boolean isDagRunInProgress() {
+    ParagraphDagRunner runner = dagRunner;
+    return runner != null && !runner.isDone();
+  }
+
+  ParagraphJobListener getParagraphJobListener() {
+    return jobListenerFactory.getParagraphJobListener(this);
+  }
+
   public boolean isPersonalizedMode() {
     Object v = getConfig().get("personalizedMode");
     return null != v && "true".equals(v);
@@ -610,16 +642,29 @@ public class Note implements ParagraphJobListener, JsonSerializable {
     }
     AuthenticationInfo authenticationInfo = new AuthenticationInfo();
     authenticationInfo.setUser(cronExecutingUser);
-    runAll(authenticationInfo);
+    runAll(authenticationInfo, Job.Priority.CRON);
   }
 
   public void runAll(AuthenticationInfo authenticationInfo) {
+    runAll(authenticationInfo, Job.Priority.RUN_ALL);
+  }
+
+  /**
+   * Run all paragraphs, with the given priority in schedulers that support priorities.
+   */
+  public void runAll(AuthenticationInfo authenticationInfo, Job.Priority priority) {
+    if (isDagRunMode()) {
+      ParagraphDagRunner runner = new ParagraphDagRunner(this, authenticationInfo, priority);
+      dagRunner = runner;
+      runner.start();
+      return;
+    }
     for (Paragraph p : getParagraphs()) {
       if (!p.isEnabled()) {
         continue;
       }
       p.setAuthenticationInfo(authenticationInfo);
-      run(p.getId());
+      run(p.getId(), getParagraphJobListener(), priority);
     }
   }
 
@@ -629,8 +674,16 @@ public class Note implements ParagraphJobListener, JsonSerializable {
    * @param paragraphId ID of paragraph
    */
   public void run(String paragraphId) {
+    run(paragraphId, getParagraphJobListener(), Job.Priority.INTERACTIVE);
+  }
+
+  /**
+   * Run a single paragraph, reporting its progress to the given listener.
+   */
+  void run(String paragraphId, ParagraphJobListener listener, Job.Priority priority) {
     Paragraph p = getParagraph(paragraphId);
-    p.setListener(jobListenerFactory.getParagraphJobListener(this));
+    p.setListener(listener);
+    p.setPriority(priority);
     
     if (p.isBlankParagraph()) {
       logger.info("skip to run blank paragraph. {}", p.getId());
@@ -752,7 +805,12 @@ public class Note implements ParagraphJobListener, JsonSerializable {
     stopDelayedPersistTimer();
     snapshotAngularObjectRegistry(subject.getUser());
     index.updateIndexDoc(this);
-    repo.save(this, subject);
+    long start = System.nanoTime();
+    try {
+      repo.save(this, subject);
+    } finally {
+      persistTimer.update(System.nanoTime() - start);
+    }
   }
 
   /**
@@ -923,6 +981,12 @@ public class Note implements ParagraphJobListener, JsonSerializable {
     return note;
   }
 
+  public static Note fromJson(Reader json) {
+    Note note = gson.fromJson(json, Note.class);
+    convertOldInput(note);
+    return note;
+  }
+
   private static void convertOldInput(Note note) {
     for (Paragraph p : note.paragraphs) {
       p.settings.convertOldInput();
@@ -32,7 +32,6 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Preconditions;
-import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Sets;
 import com.google.gson.Gson;
@@ -86,6 +85,7 @@ public class Notebook implements NoteEventListener {
   private ZeppelinConfiguration conf;
   private StdSchedulerFactory quertzSchedFact;
   private org.quartz.Scheduler quartzSched;
+  private CronRunTracker cronRunTracker;
   private JobListenerFactory jobListenerFactory;
   private NotebookRepo notebookRepo;
   private SearchService noteSearchService;
@@ -94,6 +94,16 @@ public class Notebook implements NoteEventListener {
       Collections.synchronizedList(new LinkedList<NotebookEventListener>());
   private Credentials credentials;
 
+  // persist angular objects of notes before their interpreter session is closed
+  private final InterpreterProcessGovernor.SessionEvictionListener sessionEvictionListener =
+      new InterpreterProcessGovernor.SessionEvictionListener() {
+        @Override
+        public void onEvict(InterpreterSetting setting, InterpreterGroup interpreterGroup,
+            String sessionKey, String user) {
+          persistAngularObjects(setting, interpreterGroup, user);
+        }
+      };
+
   /**
    * Main constructor \w manual Dependency Injection
    *
@@ -119,6 +129,10 @@ public class Notebook implements NoteEventListener {
     quartzSched = quertzSchedFact.getScheduler();
     quartzSched.start();
     CronJob.notebook = this;
+    cronRunTracker = new CronRunTracker(this, conf.getCronMaxConcurrentRunsPerSetting(),
+        CronRunTracker.OverlapPolicy.fromString(conf.getCronOverlapPolicy()),
+        conf.getCronPollInterval());
+    interpreterSettingManager.getProcessGovernor().addEvictionListener(sessionEvictionListener);
 
     AuthenticationInfo anonymous = AuthenticationInfo.ANONYMOUS;
     loadAllNotes(anonymous);
@@ -163,6 +177,9 @@ public class Notebook implements NoteEventListener {
     synchronized (notes) {
       notes.put(note.getId(), note);
     }
+    if (notebookAuthorization != null) {
+      notebookAuthorization.addNote(note.getId());
+    }
     if (interpreterIds != null) {
       bindInterpretersToNote(subject.getUser(), note.getId(), interpreterIds);
     }
@@ -516,6 +533,9 @@ public class Notebook implements NoteEventListener {
       folders.putNote(note);
       refreshCron(note.getId());
     }
+    if (notebookAuthorization != null) {
+      notebookAuthorization.addNote(note.getId());
+    }
 
     for (String name : angularObjectSnapshot.keySet()) {
       SnapshotAngularObject snapshot = angularObjectSnapshot.get(name);
@@ -635,13 +655,17 @@ public class Notebook implements NoteEventListener {
       entities.addAll(userAndRoles);
     }
 
+    // only look at the notes the index says are readable, not at every note
+    final Set<String> readable = notebookAuthorization.getReadableNoteIds(entities);
     synchronized (notes) {
-      return FluentIterable.from(notes.values()).filter(new Predicate<Note>() {
-        @Override
-        public boolean apply(Note input) {
-          return input != null && notebookAuthorization.isReader(input.getId(), entities);
+      List<Note> readableNotes = new ArrayList<>(readable.size());
+      for (String noteId : readable) {
+        Note note = notes.get(noteId);
+        if (note != null) {
+          readableNotes.add(note);
         }
-      }).toSortedList(new Comparator<Note>() {
+      }
+      return FluentIterable.from(readableNotes).toSortedList(new Comparator<Note>() {
         @Override
         public int compare(Note note1, Note note2) {
           String name1 = note1.getId();
@@ -868,36 +892,14 @@ public class Notebook implements NoteEventListener {
   public static class CronJob implements org.quartz.Job {
     public static Notebook notebook;
 
+    /**
+     * Only hands the run over to the {@link CronRunTracker}, so the quartz worker thread is
+     * released right away instead of being held until the note finishes.
+     */
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
-
       String noteId = context.getJobDetail().getJobDataMap().getString("noteId");
-      Note note = notebook.getNote(noteId);
-      note.runAll();
-
-      while (!note.isTerminated()) {
-        try {
-          Thread.sleep(1000);
-        } catch (InterruptedException e) {
-          logger.error(e.toString(), e);
-        }
-      }
-
-      boolean releaseResource = false;
-      try {
-        Map<String, Object> config = note.getConfig();
-        if (config != null && config.containsKey("releaseresource")) {
-          releaseResource = (boolean) note.getConfig().get("releaseresource");
-        }
-      } catch (ClassCastException e) {
-        logger.error(e.getMessage(), e);
-      }
-      if (releaseResource) {
-        for (InterpreterSetting setting : notebook.getInterpreterSettingManager()
-            .getInterpreterSettings(note.getId())) {
-          notebook.getInterpreterSettingManager().restart(setting.getId());
-        }
-      }
+      notebook.getCronRunTracker().fire(noteId, context.getScheduledFireTime());
     }
   }
 
@@ -930,7 +932,8 @@ public class Notebook implements NoteEventListener {
       CronTrigger trigger = null;
       try {
         trigger = TriggerBuilder.newTrigger().withIdentity("trigger_" + id, "note")
-            .withSchedule(CronScheduleBuilder.cronSchedule(cronExpr)).forJob(id, "note").build();
+            .withSchedule(withMisfirePolicy(CronScheduleBuilder.cronSchedule(cronExpr)))
+            .forJob(id, "note").build();
       } catch (Exception e) {
         logger.error("Error", e);
         info.put("cron", e.getMessage());
@@ -948,12 +951,24 @@ public class Notebook implements NoteEventListener {
     }
   }
 
+  private CronScheduleBuilder withMisfirePolicy(CronScheduleBuilder builder) {
+    if ("skip".equalsIgnoreCase(conf.getCronMisfirePolicy())) {
+      return builder.withMisfireHandlingInstructionDoNothing();
+    }
+    return builder.withMisfireHandlingInstructionFireAndProceed();
+  }
+
   private void removeCron(String id) {
     try {
       quartzSched.deleteJob(new JobKey(id, "note"));
     } catch (SchedulerException e) {
       logger.error("Can't remove quertz " + id, e);
     }
+    cronRunTracker.cancelPending(id);
+  }
+
+  public CronRunTracker getCronRunTracker() {
+    return cronRunTracker;
   }
 
   public InterpreterFactory getInterpreterFactory() {
@@ -972,7 +987,35 @@ public class Notebook implements NoteEventListener {
     return conf;
   }
 
+  private void persistAngularObjects(InterpreterSetting setting,
+      InterpreterGroup interpreterGroup, String user) {
+    AngularObjectRegistry registry = interpreterGroup.getAngularObjectRegistry();
+    if (registry == null) {
+      return;
+    }
+
+    AuthenticationInfo subject = user == null ?
+        AuthenticationInfo.ANONYMOUS : new AuthenticationInfo(user);
+    for (Note note : getAllNotes()) {
+      if (registry.getAllWithGlobal(note.getId()).isEmpty()
+          || !interpreterSettingManager.getInterpreterSettings(note.getId()).contains(setting)) {
+        continue;
+      }
+      try {
+        note.persist(subject);
+      } catch (IOException e) {
+        logger.error("Failed to persist angular objects of note " + note.getId(), e);
+      }
+    }
+  }
+
   public void close() {
+    interpreterSettingManager.getProcessGovernor().removeEvictionListener(
+        sessionEvictionListener);
+    this.cronRunTracker.shutdown();
+    if (this.notebookAuthorization != null) {
+      this.notebookAuthorization.flush();
+    }
     this.notebookRepo.close();
     this.noteSearchService.close();
   }
@@ -1015,6 +1058,9 @@ public class Notebook implements NoteEventListener {
 
   @Override
   public void onParagraphStatusChange(Paragraph p, Job.Status status) {
+    if (p.isTerminated()) {
+      cronRunTracker.onParagraphTerminated(p);
+    }
     for (NotebookEventListener listener : notebookEventListeners) {
       listener.onParagraphStatusChange(p, status);
     }
@@ -24,6 +24,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -32,6 +35,12 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.zeppelin.conf.ZeppelinConfiguration;
@@ -54,11 +63,43 @@ public class NotebookAuthorization {
   /*
    * { "note1": { "owners": ["u1"], "readers": ["u1", "u2"], "writers": ["u1"] },  "note2": ... } }
    */
-  private static Map<String, Map<String, Set<String>>> authInfo = new HashMap<>();
+  private static Map<String, Map<String, Set<String>>> authInfo = new ConcurrentHashMap<>();
   /*
    * contains roles for each user
    */
   private static Map<String, Set<String>> userRoles = new HashMap<>();
+  /*
+   * guards changes of authInfo and the index below. Note permissions are copied on write,
+   * so they can be read without the lock
+   */
+  private static final Object lock = new Object();
+  /*
+   * inverted index, { "u1": ["note1", "note2"], "u2": ["note1"] } for owners, readers and writers
+   */
+  private static Map<String, Set<String>> notesByPrincipal = new ConcurrentHashMap<>();
+  /*
+   * notes with empty owners, readers or writers, or added notes without authorization info,
+   * which are readable by everyone
+   */
+  private static Set<String> publicNotes = newConcurrentSet();
+  /*
+   * notes added by the notebook
+   */
+  private static Set<String> addedNotes = new HashSet<>();
+  /*
+   * principals indexed for each note, to update the index when permissions change
+   */
+  private static Map<String, Set<String>> indexedPrincipals = new HashMap<>();
+  private static final AtomicBoolean saveScheduled = new AtomicBoolean(false);
+  private static final ScheduledExecutorService saveExecutor =
+      Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread t = new Thread(r, "NotebookAuthorizationSave");
+          t.setDaemon(true);
+          return t;
+        }
+      });
   private static ZeppelinConfiguration conf;
   private static Gson gson;
   private static String filePath;
@@ -111,7 +152,77 @@ public class NotebookAuthorization {
 
     String json = sb.toString();
     NotebookAuthorizationInfoSaving info = NotebookAuthorizationInfoSaving.fromJson(json);
-    authInfo = info.authInfo;
+    synchronized (lock) {
+      authInfo = info.authInfo == null ? new ConcurrentHashMap<String, Map<String, Set<String>>>()
+          : new ConcurrentHashMap<>(info.authInfo);
+      rebuildIndex();
+    }
+  }
+
+  private static Set<String> newConcurrentSet() {
+    return Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+  }
+
+  private static void rebuildIndex() {
+    notesByPrincipal.clear();
+    publicNotes.clear();
+    indexedPrincipals.clear();
+    for (String noteId : authInfo.keySet()) {
+      updateIndex(noteId);
+    }
+    for (String noteId : addedNotes) {
+      updateIndex(noteId);
+    }
+  }
+
+  /**
+   * Update inverted index for the note. Should be called with lock held.
+   */
+  private static void updateIndex(String noteId) {
+    Set<String> previous = indexedPrincipals.remove(noteId);
+    if (previous != null) {
+      for (String principal : previous) {
+        Set<String> noteIds = notesByPrincipal.get(principal);
+        if (noteIds != null) {
+          noteIds.remove(noteId);
+          if (noteIds.isEmpty()) {
+            notesByPrincipal.remove(principal);
+          }
+        }
+      }
+    }
+    publicNotes.remove(noteId);
+
+    Map<String, Set<String>> noteAuthInfo = authInfo.get(noteId);
+    if (noteAuthInfo == null) {
+      if (addedNotes.contains(noteId)) {
+        publicNotes.add(noteId);
+      }
+      return;
+    }
+
+    Set<String> principals = new HashSet<>();
+    boolean isPublic = false;
+    for (String type : new String[]{"owners", "readers", "writers"}) {
+      Set<String> entities = noteAuthInfo.get(type);
+      if (entities == null || entities.isEmpty()) {
+        isPublic = true;
+      } else {
+        principals.addAll(entities);
+      }
+    }
+    if (isPublic) {
+      publicNotes.add(noteId);
+    }
+    for (String principal : principals) {
+      Set<String> noteIds = notesByPrincipal.get(principal);
+      if (noteIds == null) {
+        noteIds = newConcurrentSet();
+        notesByPrincipal.put(principal, noteIds);
+      }
+      noteIds.add(noteId);
+    }
+    indexedPrincipals.put(noteId, principals);
   }
   
   public void setRoles(String user, Set<String> roles) {
@@ -131,26 +242,59 @@ public class NotebookAuthorization {
     return roles;
   }
   
+  /**
+   * Save authorization info. Saves are delayed by zeppelin.notebook.authorization.persistDelay
+   * so a burst of permission changes is written once.
+   */
   private void saveToFile() {
+    long delay = conf.getNotebookAuthorizationPersistDelay();
+    if (delay <= 0) {
+      writeToFile();
+      return;
+    }
+    if (saveScheduled.compareAndSet(false, true)) {
+      saveExecutor.schedule(new Runnable() {
+        @Override
+        public void run() {
+          saveScheduled.set(false);
+          writeToFile();
+        }
+      }, delay, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Write pending changes of authorization info to the file.
+   */
+  public void flush() {
+    writeToFile();
+  }
+
+  private static synchronized void writeToFile() {
     String jsonString;
 
-    synchronized (authInfo) {
+    synchronized (lock) {
       NotebookAuthorizationInfoSaving info = new NotebookAuthorizationInfoSaving();
       info.authInfo = authInfo;
       jsonString = gson.toJson(info);
     }
 
+    // write a temporary file and move it in place, so the file is never partially written
+    File settingFile = new File(filePath).getAbsoluteFile();
+    File tmpFile = new File(settingFile.getParentFile(), settingFile.getName() + ".tmp");
     try {
-      File settingFile = new File(filePath);
-      if (!settingFile.exists()) {
-        settingFile.createNewFile();
-      }
-
-      FileOutputStream fos = new FileOutputStream(settingFile, false);
+      FileOutputStream fos = new FileOutputStream(tmpFile, false);
       OutputStreamWriter out = new OutputStreamWriter(fos);
       out.append(jsonString);
       out.close();
       fos.close();
+
+      try {
+        Files.move(tmpFile.toPath(), settingFile.toPath(),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmpFile.toPath(), settingFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
     } catch (IOException e) {
       LOG.error("Error saving notebook authorization file: " + e.getMessage());
     }
@@ -171,47 +315,59 @@ public class NotebookAuthorization {
   }
 
   public void setOwners(String noteId, Set<String> entities) {
-    Map<String, Set<String>> noteAuthInfo = authInfo.get(noteId);
     entities = validateUser(entities);
-    if (noteAuthInfo == null) {
-      noteAuthInfo = new LinkedHashMap();
-      noteAuthInfo.put("owners", new LinkedHashSet(entities));
-      noteAuthInfo.put("readers", new LinkedHashSet());
-      noteAuthInfo.put("writers", new LinkedHashSet());
-    } else {
-      noteAuthInfo.put("owners", new LinkedHashSet(entities));
+    synchronized (lock) {
+      Map<String, Set<String>> noteAuthInfo = authInfo.get(noteId);
+      if (noteAuthInfo == null) {
+        noteAuthInfo = new LinkedHashMap();
+        noteAuthInfo.put("owners", new LinkedHashSet(entities));
+        noteAuthInfo.put("readers", new LinkedHashSet());
+        noteAuthInfo.put("writers", new LinkedHashSet());
+      } else {
+        noteAuthInfo = new LinkedHashMap(noteAuthInfo);
+        noteAuthInfo.put("owners", new LinkedHashSet(entities));
+      }
+      authInfo.put(noteId, noteAuthInfo);
+      updateIndex(noteId);
     }
-    authInfo.put(noteId, noteAuthInfo);
     saveToFile();
   }
 
   public void setReaders(String noteId, Set<String> entities) {
-    Map<String, Set<String>> noteAuthInfo = authInfo.get(noteId);
     entities = validateUser(entities);
-    if (noteAuthInfo == null) {
-      noteAuthInfo = new LinkedHashMap();
-      noteAuthInfo.put("owners", new LinkedHashSet());
-      noteAuthInfo.put("readers", new LinkedHashSet(entities));
-      noteAuthInfo.put("writers", new LinkedHashSet());
-    } else {
-      noteAuthInfo.put("readers", new LinkedHashSet(entities));
+    synchronized (lock) {
+      Map<String, Set<String>> noteAuthInfo = authInfo.get(noteId);
+      if (noteAuthInfo == null) {
+        noteAuthInfo = new LinkedHashMap();
+        noteAuthInfo.put("owners", new LinkedHashSet());
+        noteAuthInfo.put("readers", new LinkedHashSet(entities));
+        noteAuthInfo.put("writers", new LinkedHashSet());
+      } else {
+        noteAuthInfo = new LinkedHashMap(noteAuthInfo);
+        noteAuthInfo.put("readers", new LinkedHashSet(entities));
+      }
+      authInfo.put(noteId, noteAuthInfo);
+      updateIndex(noteId);
     }
-    authInfo.put(noteId, noteAuthInfo);
     saveToFile();
   }
 
   public void setWriters(String noteId, Set<String> entities) {
-    Map<String, Set<String>> noteAuthInfo = authInfo.get(noteId);
     entities = validateUser(entities);
-    if (noteAuthInfo == null) {
-      noteAuthInfo = new LinkedHashMap();
-      noteAuthInfo.put("owners", new LinkedHashSet());
-      noteAuthInfo.put("readers", new LinkedHashSet());
-      noteAuthInfo.put("writers", new LinkedHashSet(entities));
-    } else {
-      noteAuthInfo.put("writers", new LinkedHashSet(entities));
+    synchronized (lock) {
+      Map<String, Set<String>> noteAuthInfo = authInfo.get(noteId);
+      if (noteAuthInfo == null) {
+        noteAuthInfo = new LinkedHashMap();
+        noteAuthInfo.put("owners", new LinkedHashSet());
+        noteAuthInfo.put("readers", new LinkedHashSet());
+        noteAuthInfo.put("writers", new LinkedHashSet(entities));
+      } else {
+        noteAuthInfo = new LinkedHashMap(noteAuthInfo);
+        noteAuthInfo.put("writers", new LinkedHashSet(entities));
+      }
+      authInfo.put(noteId, noteAuthInfo);
+      updateIndex(noteId);
     }
-    authInfo.put(noteId, noteAuthInfo);
     saveToFile();
   }
 
@@ -222,9 +378,7 @@ public class NotebookAuthorization {
       entities = new HashSet<>();
     } else {
       entities = noteAuthInfo.get("owners");
-      if (entities == null) {
-        entities = new HashSet<>();
-      }
+      entities = entities == null ? new HashSet<String>() : new HashSet<>(entities);
     }
     return entities;
   }
@@ -236,9 +390,7 @@ public class NotebookAuthorization {
       entities = new HashSet<>();
     } else {
       entities = noteAuthInfo.get("readers");
-      if (entities == null) {
-        entities = new HashSet<>();
-      }
+      entities = entities == null ? new HashSet<String>() : new HashSet<>(entities);
     }
     return entities;
   }
@@ -250,9 +402,7 @@ public class NotebookAuthorization {
       entities = new HashSet<>();
     } else {
       entities = noteAuthInfo.get("writers");
-      if (entities == null) {
-        entities = new HashSet<>();
-      }
+      entities = entities == null ? new HashSet<String>() : new HashSet<>(entities);
     }
     return entities;
   }
@@ -266,9 +416,31 @@ public class NotebookAuthorization {
   }
 
   public boolean isReader(String noteId, Set<String> entities) {
-    return isMember(entities, getReaders(noteId)) ||
-            isMember(entities, getOwners(noteId)) ||
-            isMember(entities, getWriters(noteId));
+    if (!authInfo.containsKey(noteId) || publicNotes.contains(noteId)) {
+      return true;
+    }
+    for (String entity : entities) {
+      Set<String> noteIds = notesByPrincipal.get(entity);
+      if (noteIds != null && noteIds.contains(noteId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Ids of notes the entities can read. Notes without authorization info are readable by
+   * everyone, but only included once added by addNote().
+   */
+  public Set<String> getReadableNoteIds(Set<String> entities) {
+    Set<String> noteIds = new HashSet<>(publicNotes);
+    for (String entity : entities) {
+      Set<String> principalNoteIds = notesByPrincipal.get(entity);
+      if (principalNoteIds != null) {
+        noteIds.addAll(principalNoteIds);
+      }
+    }
+    return noteIds;
   }
 
   // return true if b is empty or if (a intersection b) is non-empty
@@ -311,8 +483,24 @@ public class NotebookAuthorization {
     return isReader(noteId, userAndRoles);
   }
 
+  /**
+   * Called by the notebook for each note it loads or creates, so that getReadableNoteIds()
+   * includes it even when it has no authorization info.
+   */
+  public void addNote(String noteId) {
+    synchronized (lock) {
+      if (addedNotes.add(noteId)) {
+        updateIndex(noteId);
+      }
+    }
+  }
+
   public void removeNote(String noteId) {
-    authInfo.remove(noteId);
+    synchronized (lock) {
+      authInfo.remove(noteId);
+      addedNotes.remove(noteId);
+      updateIndex(noteId);
+    }
     saveToFile();
   }
 
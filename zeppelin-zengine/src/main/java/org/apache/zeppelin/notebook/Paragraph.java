@@ -38,6 +38,8 @@ import org.apache.zeppelin.resource.ResourcePool;
 import org.apache.zeppelin.scheduler.Job;
 import org.apache.zeppelin.scheduler.JobListener;
 import org.apache.zeppelin.scheduler.Scheduler;
+import org.apache.zeppelin.tracing.Trace;
+import org.apache.zeppelin.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,11 +61,19 @@ public class Paragraph extends Job implements Cloneable, JsonSerializable {
   private static final Pattern REPL_PATTERN =
     Pattern.compile("^%([a-zA-Z0-9-_]+)(\\(([a-zA-Z0-9-_]+)\\))?");
   private static Logger logger = LoggerFactory.getLogger(Paragraph.class);
+  // runtime info set when the result comes from InterpreterResultCache
+  public static final String RESULT_CACHE_HIT = "cacheHit";
+  // runtime infos of the last run's trace
+  public static final String TRACE_ID = "traceId";
+  public static final String TIMING = "timing";
   private transient InterpreterFactory factory;
   private transient InterpreterSettingManager interpreterSettingManager;
   private transient Note note;
   private transient AuthenticationInfo authenticationInfo;
   private transient Map<String, Paragraph> userParagraphMap = Maps.newHashMap(); // personalized
+  private transient volatile Trace trace;
+  // interpreter setting of the traced run, to write the runtime infos when the trace finishes
+  private transient volatile InterpreterSetting traceSetting;
 
   String title;
   String text;
@@ -164,6 +174,7 @@ public class Paragraph extends Job implements Cloneable, JsonSerializable {
     userParagraphMap.put(user, p);
   }
 
+  @Override
   public String getUser() {
     return user;
   }
@@ -198,6 +209,11 @@ public class Paragraph extends Job implements Cloneable, JsonSerializable {
     this.note = note;
   }
 
+  @Override
+  public String getNoteId() {
+    return note == null ? null : note.getId();
+  }
+
   public Note getNote() {
     return note;
   }
@@ -351,6 +367,8 @@ public class Paragraph extends Job implements Cloneable, JsonSerializable {
 
   @Override
   protected Object jobRun() throws Throwable {
+    long runStart = System.nanoTime();
+    Trace trace = startTrace(runStart);
     String replName = getRequiredReplName();
     Interpreter repl = getRepl(replName);
     logger.info("run paragraph {} using {} " + repl, getId(), replName);
@@ -359,6 +377,7 @@ public class Paragraph extends Job implements Cloneable, JsonSerializable {
       throw new RuntimeException("Can not find interpreter for " + getRequiredReplName());
     }
     InterpreterSetting intp = getInterpreterSettingById(repl.getInterpreterGroup().getId());
+    traceSetting = intp;
     while (intp.getStatus().equals(
         org.apache.zeppelin.interpreter.InterpreterSetting.Status.DOWNLOADING_DEPENDENCIES)) {
       Thread.sleep(200);
@@ -367,6 +386,7 @@ public class Paragraph extends Job implements Cloneable, JsonSerializable {
       if (intp != null && interpreterHasUser(intp)
           && isUserAuthorizedToAccessInterpreter(intp.getOption()) == false) {
         logger.error("{} has no permission for {} ", authenticationInfo.getUser(), repl);
+        trace.record("paragraph.prepare", runStart);
         return new InterpreterResult(Code.ERROR,
             authenticationInfo.getUser() + " has no permission for " + getRequiredReplName());
       }
@@ -394,8 +414,31 @@ public class Paragraph extends Job implements Cloneable, JsonSerializable {
       script = Input.getSimpleQuery(settings.getParams(), scriptBody);
     }
     logger.debug("RUN : " + script);
+
+    String resultCacheKey = null;
+    InterpreterResultCache resultCache = factory == null ? null : factory.getResultCache();
+    if (resultCache != null && resultCache.isEnabled() && intp != null
+        && isDeterministic(intp, repl.getClassName())) {
+      resultCacheKey = InterpreterResultCache.key(repl.getClassName(),
+          intp.getFlatProperties(), script);
+      InterpreterResult cached = resultCache.get(resultCacheKey);
+      if (cached != null) {
+        logger.debug("Paragraph {} served from result cache", getId());
+        trace.record("paragraph.prepare", runStart);
+        Map<String, String> infos = new HashMap<>();
+        infos.put(RESULT_CACHE_HIT, "true");
+        updateRuntimeInfos("Cached", "Unchanged paragraph, previous result reused", infos,
+            intp.getGroup(), intp.getId());
+        setUserParagraphResult(cached);
+        return cached;
+      }
+    }
+
+    trace.record("paragraph.prepare", runStart);
+    long interpretStart = System.nanoTime();
     try {
       InterpreterContext context = getInterpreterContext();
+      context.setTraceId(trace.getTraceId());
       InterpreterContext.set(context);
       InterpreterResult ret = repl.interpret(script, context);
 
@@ -409,18 +452,80 @@ public class Paragraph extends Job implements Cloneable, JsonSerializable {
 
       InterpreterResult res = new InterpreterResult(ret.code(), resultMessages);
 
-      Paragraph p = getUserParagraph(getUser());
-      if (null != p) {
-        p.setResult(res);
-        p.settings.setParams(settings.getParams());
+      if (resultCacheKey != null) {
+        resultCache.put(resultCacheKey, res);
       }
 
+      setUserParagraphResult(res);
+
       return res;
     } finally {
+      trace.record("interpret", interpretStart);
       InterpreterContext.remove();
     }
   }
 
+  private Trace startTrace(long runStart) {
+    Trace trace = Tracer.singleton().start(note.getId(), getId());
+    long pendingSince = getPendingSince();
+    long dispatchedAt = getDispatchedAt();
+    if (pendingSince != 0 && dispatchedAt - pendingSince >= 0 && runStart - dispatchedAt >= 0) {
+      trace.record("scheduler.queue", pendingSince, dispatchedAt);
+      trace.record("scheduler.dispatch", dispatchedAt, runStart);
+    }
+    this.traceSetting = null;
+    this.trace = trace;
+    return trace;
+  }
+
+  private void updateTraceRuntimeInfos(Trace trace, InterpreterSetting intp) {
+    if (runtimeInfos != null) {
+      // keep only the last run
+      runtimeInfos.remove(TRACE_ID);
+      runtimeInfos.remove(TIMING);
+    }
+    Map<String, String> infos = new HashMap<>();
+    infos.put(TRACE_ID, trace.getTraceId());
+    infos.put(TIMING, trace.getBreakdown());
+    updateRuntimeInfos("Timing", "Time spent in each stage of the last run", infos,
+        intp.getGroup(), intp.getId());
+  }
+
+  @Override
+  public void setStatus(Status status) {
+    Trace t = trace;
+    if (t == null || status.isReady() || status.isPending() || status.isRunning()) {
+      super.setStatus(status);
+      return;
+    }
+    trace = null;
+    // listeners deliver the final status to websockets, which is part of the trace
+    super.setStatus(status);
+    Tracer.singleton().finish(t);
+    InterpreterSetting setting = traceSetting;
+    traceSetting = null;
+    if (setting != null) {
+      updateTraceRuntimeInfos(t, setting);
+    }
+  }
+
+  private void setUserParagraphResult(InterpreterResult res) {
+    Paragraph p = getUserParagraph(getUser());
+    if (null != p) {
+      p.setResult(res);
+      p.settings.setParams(settings.getParams());
+    }
+  }
+
+  private boolean isDeterministic(InterpreterSetting setting, String className) {
+    for (InterpreterInfo info : setting.getInterpreterInfos()) {
+      if (info.isDeterministic() && info.getClassName().equals(className)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private boolean noteHasUser() {
     return this.user != null;
   }
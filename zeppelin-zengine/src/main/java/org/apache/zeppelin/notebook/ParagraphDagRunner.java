@@ -0,0 +1,376 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.notebook;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.zeppelin.interpreter.InterpreterResultMessage;
+import org.apache.zeppelin.scheduler.Job;
+import org.apache.zeppelin.scheduler.Job.Status;
+import org.apache.zeppelin.user.AuthenticationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs all paragraphs of a note as a dependency graph.
+ *
+ * A paragraph depends on the paragraphs listed in its 'dependsOn' config and on the paragraphs
+ * sharing ZeppelinContext resources with it (z.put / z.get). It is submitted as soon as all of
+ * its dependencies finished, so independent branches run concurrently while the note order is
+ * kept wherever a dependency exists. When a paragraph fails, the paragraphs depending on it are
+ * aborted.
+ */
+class ParagraphDagRunner {
+  private static final Logger logger = LoggerFactory.getLogger(ParagraphDagRunner.class);
+
+  static final String DEPENDS_ON = "dependsOn";
+  static final String INFO_WALL_TIME = "runAllWallTimeMs";
+  static final String INFO_CRITICAL_PATH_TIME = "runAllCriticalPathMs";
+  static final String INFO_CRITICAL_PATH = "runAllCriticalPath";
+
+  private static final String NAME = "\\s*[\"']([^\"']+)[\"']";
+  private static final Pattern RESOURCE_PUT = Pattern.compile(
+      "\\bz\\.put\\(" + NAME + "|\\bz\\[" + NAME + "\\s*\\]\\s*=[^=]");
+  private static final Pattern RESOURCE_GET = Pattern.compile(
+      "\\bz\\.get\\(" + NAME + "|\\bz\\[" + NAME + "\\s*\\](?!\\s*=[^=])");
+
+  private final Note note;
+  private final AuthenticationInfo authenticationInfo;
+  private final Job.Priority priority;
+  private final Map<String, Paragraph> paragraphs = new LinkedHashMap<>();
+  private final Map<String, Set<String>> dependencies;
+
+  // guarded by this
+  private final Map<String, Set<String>> waitingFor = new LinkedHashMap<>();
+  private final Set<String> submitted = new HashSet<>();
+  private final Set<String> terminated = new HashSet<>();
+  private long startTime;
+  private boolean done;
+
+  ParagraphDagRunner(Note note, AuthenticationInfo authenticationInfo, Job.Priority priority) {
+    this.note = note;
+    this.authenticationInfo = authenticationInfo;
+    this.priority = priority;
+    for (Paragraph p : note.getParagraphs()) {
+      if (p.isEnabled()) {
+        paragraphs.put(p.getId(), p);
+      }
+    }
+    this.dependencies = buildDependencies(new ArrayList<>(paragraphs.values()));
+    for (Map.Entry<String, Set<String>> e : dependencies.entrySet()) {
+      waitingFor.put(e.getKey(), new HashSet<>(e.getValue()));
+    }
+  }
+
+  /**
+   * Builds the dependency graph of the given paragraphs, in note order.
+   * Only earlier paragraphs can be depended on, so the graph never has a cycle.
+   *
+   * @return paragraph id to the ids of the paragraphs it depends on
+   */
+  static Map<String, Set<String>> buildDependencies(List<Paragraph> paragraphs) {
+    Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+    Set<String> seen = new HashSet<>();
+    // resource name -> last paragraph putting it, and paragraphs reading it since then
+    Map<String, String> lastPut = new HashMap<>();
+    Map<String, List<String>> readsSincePut = new HashMap<>();
+
+    for (Paragraph p : paragraphs) {
+      Set<String> deps = new LinkedHashSet<>();
+
+      for (String id : getExplicitDependencies(p)) {
+        if (seen.contains(id)) {
+          deps.add(id);
+        } else {
+          logger.warn("Paragraph {} depends on {}, which is not an enabled paragraph above it. "
+              + "Ignore the dependency", p.getId(), id);
+        }
+      }
+
+      String text = p.getText() == null ? "" : p.getText();
+      Set<String> gets = findResourceNames(RESOURCE_GET, text);
+      Set<String> puts = findResourceNames(RESOURCE_PUT, text);
+      for (String name : gets) {
+        if (lastPut.containsKey(name)) {
+          deps.add(lastPut.get(name));
+        }
+      }
+      for (String name : puts) {
+        // don't overwrite a resource before the previous writer and its readers are done
+        if (lastPut.containsKey(name)) {
+          deps.add(lastPut.get(name));
+        }
+        if (readsSincePut.containsKey(name)) {
+          deps.addAll(readsSincePut.get(name));
+        }
+      }
+      for (String name : gets) {
+        if (!readsSincePut.containsKey(name)) {
+          readsSincePut.put(name, new LinkedList<String>());
+        }
+        readsSincePut.get(name).add(p.getId());
+      }
+      for (String name : puts) {
+        lastPut.put(name, p.getId());
+        readsSincePut.remove(name);
+      }
+
+      deps.remove(p.getId());
+      dependencies.put(p.getId(), deps);
+      seen.add(p.getId());
+    }
+    return dependencies;
+  }
+
+  private static Collection<String> getExplicitDependencies(Paragraph p) {
+    Object value = p.getConfig() == null ? null : p.getConfig().get(DEPENDS_ON);
+    List<String> ids = new LinkedList<>();
+    if (value instanceof Collection) {
+      for (Object id : (Collection) value) {
+        if (id != null) {
+          ids.add(id.toString().trim());
+        }
+      }
+    } else if (value instanceof String) {
+      for (String id : ((String) value).split(",")) {
+        if (!id.trim().isEmpty()) {
+          ids.add(id.trim());
+        }
+      }
+    }
+    return ids;
+  }
+
+  private static Set<String> findResourceNames(Pattern pattern, String text) {
+    Set<String> names = new HashSet<>();
+    Matcher m = pattern.matcher(text);
+    while (m.find()) {
+      names.add(m.group(1) != null ? m.group(1) : m.group(2));
+    }
+    return names;
+  }
+
+  void start() {
+    synchronized (this) {
+      startTime = System.currentTimeMillis();
+      done = paragraphs.isEmpty();
+    }
+    if (paragraphs.isEmpty()) {
+      return;
+    }
+    submitReady();
+  }
+
+  /**
+   * @return true once every paragraph of the run finished, failed or was aborted
+   */
+  synchronized boolean isDone() {
+    return done;
+  }
+
+  private void submitReady() {
+    List<Paragraph> ready = new LinkedList<>();
+    synchronized (this) {
+      for (Map.Entry<String, Set<String>> e : waitingFor.entrySet()) {
+        String id = e.getKey();
+        if (e.getValue().isEmpty() && !submitted.contains(id)) {
+          submitted.add(id);
+          ready.add(paragraphs.get(id));
+        }
+      }
+    }
+
+    for (Paragraph p : ready) {
+      p.setAuthenticationInfo(authenticationInfo);
+      try {
+        note.run(p.getId(), new DagListener(note.getParagraphJobListener()), priority);
+        if (p.isBlankParagraph()) {
+          // skipped as FINISHED, which fires no status change when it already was FINISHED
+          onTerminated(p);
+        }
+      } catch (RuntimeException e) {
+        logger.error("Error while running paragraph " + p.getId(), e);
+        // run() sets the error status before throwing, make sure dependents are released
+        onTerminated(p);
+      }
+    }
+  }
+
+  private void onTerminated(Paragraph p) {
+    List<Paragraph> toAbort = new LinkedList<>();
+    boolean done;
+    synchronized (this) {
+      if (!terminated.add(p.getId())) {
+        return;
+      }
+      if (p.getStatus() == Status.FINISHED) {
+        for (Set<String> deps : waitingFor.values()) {
+          deps.remove(p.getId());
+        }
+      } else {
+        collectDependents(p.getId(), toAbort);
+      }
+      done = terminated.size() == paragraphs.size();
+      this.done = done;
+    }
+
+    for (Paragraph dependent : toAbort) {
+      logger.info("Abort paragraph {}, paragraph {} it depends on did not finish",
+          dependent.getId(), p.getId());
+      dependent.setStatus(Status.ABORT);
+    }
+
+    if (done) {
+      reportRunInfo();
+    } else {
+      submitReady();
+    }
+  }
+
+  // called with the lock held
+  private void collectDependents(String id, List<Paragraph> toAbort) {
+    for (Map.Entry<String, Set<String>> e : dependencies.entrySet()) {
+      String dependent = e.getKey();
+      if (e.getValue().contains(id) && !submitted.contains(dependent)) {
+        submitted.add(dependent);
+        terminated.add(dependent);
+        toAbort.add(paragraphs.get(dependent));
+        collectDependents(dependent, toAbort);
+      }
+    }
+  }
+
+  /**
+   * Puts the wall time of the run and the duration of its critical path, the longest chain of
+   * dependent paragraphs, into the note info.
+   */
+  private void reportRunInfo() {
+    long wallTime = System.currentTimeMillis() - startTime;
+    Map<String, Long> pathTime = new HashMap<>();
+    Map<String, String> pathPrev = new HashMap<>();
+    String last = null;
+    for (Map.Entry<String, Set<String>> e : dependencies.entrySet()) {
+      long longestDep = 0;
+      String prev = null;
+      for (String dep : e.getValue()) {
+        if (pathTime.get(dep) > longestDep || prev == null) {
+          longestDep = pathTime.get(dep);
+          prev = dep;
+        }
+      }
+      long time = longestDep + getDuration(paragraphs.get(e.getKey()), startTime);
+      pathTime.put(e.getKey(), time);
+      pathPrev.put(e.getKey(), prev);
+      if (last == null || time > pathTime.get(last)) {
+        last = e.getKey();
+      }
+    }
+
+    LinkedList<String> criticalPath = new LinkedList<>();
+    for (String id = last; id != null; id = pathPrev.get(id)) {
+      criticalPath.addFirst(id);
+    }
+    long criticalPathTime = last == null ? 0 : pathTime.get(last);
+
+    Map<String, Object> info = note.getInfo();
+    info.put(INFO_WALL_TIME, wallTime);
+    info.put(INFO_CRITICAL_PATH_TIME, criticalPathTime);
+    info.put(INFO_CRITICAL_PATH, criticalPath);
+    logger.info("Run all of note {} took {}ms, critical path {}ms through {}", note.getId(),
+        wallTime, criticalPathTime, criticalPath);
+  }
+
+  private static long getDuration(Paragraph p, long runStartTime) {
+    Date started = p.getDateStarted();
+    Date finished = p.getDateFinished();
+    // aborted paragraphs still carry the dates of their previous run
+    if (started == null || finished == null || finished.before(started)
+        || started.getTime() < runStartTime) {
+      return 0;
+    }
+    return finished.getTime() - started.getTime();
+  }
+
+  /**
+   * Forwards everything to the note's paragraph listener and tracks terminated paragraphs.
+   */
+  private class DagListener implements ParagraphJobListener {
+    private final ParagraphJobListener delegate;
+
+    DagListener(ParagraphJobListener delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void onOutputAppend(Paragraph paragraph, int idx, String output) {
+      if (delegate != null) {
+        delegate.onOutputAppend(paragraph, idx, output);
+      }
+    }
+
+    @Override
+    public void onOutputUpdate(Paragraph paragraph, int idx, InterpreterResultMessage msg) {
+      if (delegate != null) {
+        delegate.onOutputUpdate(paragraph, idx, msg);
+      }
+    }
+
+    @Override
+    public void onOutputUpdateAll(Paragraph paragraph, List<InterpreterResultMessage> msgs) {
+      if (delegate != null) {
+        delegate.onOutputUpdateAll(paragraph, msgs);
+      }
+    }
+
+    @Override
+    public void onProgressUpdate(Job job, int progress) {
+      if (delegate != null) {
+        delegate.onProgressUpdate(job, progress);
+      }
+    }
+
+    @Override
+    public void beforeStatusChange(Job job, Status before, Status after) {
+      if (delegate != null) {
+        delegate.beforeStatusChange(job, before, after);
+      }
+    }
+
+    @Override
+    public void afterStatusChange(Job job, Status before, Status after) {
+      if (delegate != null) {
+        delegate.afterStatusChange(job, before, after);
+      }
+      if (job.isTerminated()) {
+        onTerminated((Paragraph) job);
+      }
+    }
+  }
+}
@@ -52,6 +52,8 @@ import org.apache.lucene.search.highlight.TextFragment;
 import org.apache.lucene.search.highlight.TokenSources;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.RAMDirectory;
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.metrics.Timer;
 import org.apache.zeppelin.notebook.Note;
 import org.apache.zeppelin.notebook.Paragraph;
 import org.slf4j.Logger;
@@ -69,6 +71,11 @@ import com.google.common.collect.Lists;
  */
 public class LuceneSearch implements SearchService {
   private static final Logger LOG = LoggerFactory.getLogger(LuceneSearch.class);
+  private static final Timer queryTimer = indexTimer("query");
+  private static final Timer updateTimer = indexTimer("update");
+  private static final Timer addTimer = indexTimer("add");
+  private static final Timer addAllTimer = indexTimer("addAll");
+  private static final Timer deleteTimer = indexTimer("delete");
 
   private static final String SEARCH_FIELD_TEXT = "contents";
   private static final String SEARCH_FIELD_TITLE = "header";
@@ -101,6 +108,7 @@ public class LuceneSearch implements SearchService {
           "Something went wrong on instance creation time, index dir is null");
     }
     List<Map<String, String>> result = Collections.emptyList();
+    long start = System.nanoTime();
     try (IndexReader indexReader = DirectoryReader.open(ramDirectory)) {
       IndexSearcher indexSearcher = new IndexSearcher(indexReader);
       Analyzer analyzer = new StandardAnalyzer();
@@ -120,6 +128,8 @@ public class LuceneSearch implements SearchService {
       LOG.error("Failed to open index dir {}, make sure indexing finished OK", ramDirectory, e);
     } catch (ParseException e) {
       LOG.error("Failed to parse query " + queryStr, e);
+    } finally {
+      queryTimer.update(System.nanoTime() - start);
     }
     return result;
   }
@@ -185,9 +195,14 @@ public class LuceneSearch implements SearchService {
    */
   @Override
   public void updateIndexDoc(Note note) throws IOException {
-    updateIndexNoteName(note);
-    for (Paragraph p: note.getParagraphs()) {
-      updateIndexParagraph(note, p);
+    long start = System.nanoTime();
+    try {
+      updateIndexNoteName(note);
+      for (Paragraph p: note.getParagraphs()) {
+        updateIndexParagraph(note, p);
+      }
+    } finally {
+      updateTimer.update(System.nanoTime() - start);
     }
   }
 
@@ -302,6 +317,7 @@ public class LuceneSearch implements SearchService {
         LOG.error("Failed to save index", e);
       }
       long end = System.nanoTime();
+      addAllTimer.update(end - start);
       LOG.info("Indexing {} notebooks took {}ms", docsIndexed,
           TimeUnit.NANOSECONDS.toMillis(end - start));
     }
@@ -312,11 +328,14 @@ public class LuceneSearch implements SearchService {
    */
   @Override
   public void addIndexDoc(Note note) {
+    long start = System.nanoTime();
     try {
       addIndexDocAsync(note);
       writer.commit();
     } catch (IOException e) {
       LOG.error("Failed to add note {} to index", note, e);
+    } finally {
+      addTimer.update(System.nanoTime() - start);
     }
   }
 
@@ -361,11 +380,14 @@ public class LuceneSearch implements SearchService {
     }
     String fullNoteOrJustParagraph = formatDeleteId(note.getId(), p);
     LOG.debug("Deleting note {}, out of: {}", note.getId(), writer.numDocs());
+    long start = System.nanoTime();
     try {
       writer.deleteDocuments(new WildcardQuery(new Term(ID_FIELD, fullNoteOrJustParagraph)));
       writer.commit();
     } catch (IOException e) {
       LOG.error("Failed to delete {} from index by '{}'", note, fullNoteOrJustParagraph, e);
+    } finally {
+      deleteTimer.update(System.nanoTime() - start);
     }
     LOG.debug("Done, index contains {} docs now" + writer.numDocs());
   }
@@ -408,4 +430,8 @@ public class LuceneSearch implements SearchService {
     w.addDocument(doc);
   }
 
+  private static Timer indexTimer(String operation) {
+    return MetricRegistry.singleton().timer("zeppelin_search_index_seconds",
+        "Latency of search index operations", "operation", operation);
+  }
 }
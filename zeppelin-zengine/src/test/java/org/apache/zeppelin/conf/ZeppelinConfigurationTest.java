@@ -26,8 +26,14 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 
 /**
@@ -97,4 +103,46 @@ public class ZeppelinConfigurationTest {
       boolean isIt = conf.isNotebokPublic();
       assertTrue(isIt);
     }
+
+    @Test
+    public void reloadTest() throws IOException, ConfigurationException {
+      File site = File.createTempFile("zeppelin-site", ".xml");
+      site.deleteOnExit();
+      writeSite(site, "http://onehost:8080", "100");
+
+      ZeppelinConfiguration conf = new ZeppelinConfiguration(site.toURI().toURL());
+      final List<Set<ConfVars>> events = new LinkedList<>();
+      conf.addChangeListener(new ConfigurationChangeListener() {
+        @Override
+        public void onConfigurationChange(ZeppelinConfiguration conf, Set<ConfVars> changed) {
+          events.add(changed);
+        }
+      });
+      Assert.assertEquals("http://onehost:8080", conf.getAllowedOrigins().get(0));
+      Assert.assertEquals(100, conf.getInt(ConfVars.ZEPPELIN_INTERPRETER_OUTPUT_LIMIT));
+
+      // nothing changed
+      Assert.assertTrue(conf.reload().isEmpty());
+      Assert.assertEquals(0, events.size());
+
+      writeSite(site, "http://otherhost.com", "200");
+      Set<ConfVars> changed = conf.reload();
+      Assert.assertEquals(2, changed.size());
+      Assert.assertTrue(changed.contains(ConfVars.ZEPPELIN_ALLOWED_ORIGINS));
+      Assert.assertTrue(changed.contains(ConfVars.ZEPPELIN_INTERPRETER_OUTPUT_LIMIT));
+      Assert.assertEquals(1, events.size());
+      Assert.assertEquals(changed, events.get(0));
+      Assert.assertEquals("http://otherhost.com", conf.getAllowedOrigins().get(0));
+      Assert.assertEquals(200, conf.getInt(ConfVars.ZEPPELIN_INTERPRETER_OUTPUT_LIMIT));
+    }
+
+    private void writeSite(File site, String origins, String outputLimit) throws IOException {
+      String xml = "<?xml version=\"1.0\"?>\n<configuration>\n"
+          + "<property><name>zeppelin.server.allowed.origins</name><value>" + origins
+          + "</value></property>\n"
+          + "<property><name>zeppelin.interpreter.output.limit</name><value>" + outputLimit
+          + "</value></property>\n"
+          + "</configuration>\n";
+      Files.write(site.toPath(), xml.getBytes(StandardCharsets.UTF_8));
+    }
 }
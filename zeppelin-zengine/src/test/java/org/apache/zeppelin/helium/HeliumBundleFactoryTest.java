@@ -139,6 +139,50 @@ public class HeliumBundleFactoryTest {
     assertTrue(bundle.isFile());
   }
 
+  @Test
+  public void rebuildOnlyWhenPackageContentChanges() throws IOException, TaskRunnerException {
+    URL res = Resources.getResource("helium/webpack.config.js");
+    String resDir = new File(res.getFile()).getParent();
+    File localPkg = new File(tmpDir, "vis1-src");
+    FileUtils.copyDirectory(
+        new File(resDir + "/../../../src/test/resources/helium/vis1"), localPkg);
+
+    HeliumPackage pkg = new HeliumPackage(
+        HeliumType.VISUALIZATION,
+        "vis1",
+        "vis1",
+        localPkg.getAbsolutePath(),
+        "",
+        null,
+        "license",
+        "fa fa-coffee"
+    );
+    List<HeliumPackage> pkgs = new LinkedList<>();
+    pkgs.add(pkg);
+
+    File bundle = hbf.buildPackage(pkg, true, true);
+    assertTrue(bundle.isFile());
+    long lastModified = bundle.lastModified();
+    String content = FileUtils.readFileToString(bundle);
+
+    // unchanged package is served from cache
+    hbf.buildAllPackages(pkgs);
+    assertEquals(lastModified, bundle.lastModified());
+
+    // changed package source is rebuilt in background
+    File main = new File(localPkg, "vis1.js");
+    FileUtils.write(main, FileUtils.readFileToString(main)
+        .replace("passthrough %o", "passthrough changed %o"));
+    try {
+      hbf.buildAllPackagesInBackground(pkgs).get();
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+    assertFalse(hbf.isBackgroundBuildInProgress());
+    assertTrue(bundle.isFile());
+    assertNotEquals(content, FileUtils.readFileToString(bundle));
+  }
+
   @Test
   public void bundleErrorPropagation() throws IOException, TaskRunnerException {
     URL res = Resources.getResource("helium/webpack.config.js");
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+public class ChildFirstClassLoaderTest {
+  private ChildFirstClassLoader cl;
+
+  @Before
+  public void setUp() {
+    // the gson jar is on the classpath of the test too, as a library bundled by an interpreter
+    URL gsonJar = Gson.class.getProtectionDomain().getCodeSource().getLocation();
+    cl = new ChildFirstClassLoader(new URL[]{gsonJar}, getClass().getClassLoader());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    cl.close();
+  }
+
+  @Test
+  public void testOwnJarsComeFirst() throws Exception {
+    Class<?> gson = cl.loadClass(Gson.class.getName());
+    assertNotSame(Gson.class, gson);
+    assertSame(cl, gson.getClassLoader());
+    assertSame(gson, cl.loadClass(Gson.class.getName()));
+
+    URL resource = cl.getResource(Gson.class.getName().replace('.', '/') + ".class");
+    assertTrue(resource.toString().contains(cl.getURLs()[0].getPath()));
+  }
+
+  @Test
+  public void testParentIsUsedForMissingClasses() throws Exception {
+    assertSame(StringUtils.class, cl.loadClass(StringUtils.class.getName()));
+  }
+
+  @Test
+  public void testInterpreterApiIsShared() throws Exception {
+    assertSame(Interpreter.class, cl.loadClass(Interpreter.class.getName()));
+    assertSame(InterpreterResult.class, cl.loadClass(InterpreterResult.class.getName()));
+    assertSame(String.class, cl.loadClass(String.class.getName()));
+  }
+}
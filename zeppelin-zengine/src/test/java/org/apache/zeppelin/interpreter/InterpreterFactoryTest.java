@@ -28,6 +28,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.NullArgumentException;
@@ -37,6 +38,7 @@ import org.apache.zeppelin.dep.Dependency;
 import org.apache.zeppelin.dep.DependencyResolver;
 import org.apache.zeppelin.interpreter.mock.MockInterpreter1;
 import org.apache.zeppelin.interpreter.mock.MockInterpreter2;
+import org.apache.zeppelin.interpreter.remote.RemoteAngularObjectRegistry;
 import org.apache.zeppelin.interpreter.remote.RemoteInterpreter;
 import org.apache.zeppelin.notebook.JobListenerFactory;
 import org.apache.zeppelin.notebook.Note;
@@ -44,6 +46,9 @@ import org.apache.zeppelin.notebook.Notebook;
 import org.apache.zeppelin.notebook.NotebookAuthorization;
 import org.apache.zeppelin.notebook.repo.NotebookRepo;
 import org.apache.zeppelin.notebook.repo.VFSNotebookRepo;
+import org.apache.zeppelin.scheduler.Job;
+import org.apache.zeppelin.scheduler.ParallelScheduler;
+import org.apache.zeppelin.scheduler.Scheduler;
 import org.apache.zeppelin.scheduler.SchedulerFactory;
 import org.apache.zeppelin.search.SearchService;
 import org.apache.zeppelin.user.AuthenticationInfo;
@@ -61,6 +66,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -192,6 +198,141 @@ public class InterpreterFactoryTest {
     assertEquals("value_2", remoteInterpreter.getProperty("property_2"));
   }
 
+  private InterpreterSetting getMock1Setting() {
+    for (InterpreterSetting setting : interpreterSettingManager.get()) {
+      if (setting.getName().equals("mock1")) {
+        return setting;
+      }
+    }
+    return null;
+  }
+
+  @Test
+  public void testInProcessRepl() throws Exception {
+    System.setProperty(ConfVars.ZEPPELIN_INTERPRETER_INPROCESS_ALLOWED.getVarName(), "mock1");
+    try {
+      InterpreterSetting mock1Setting = getMock1Setting();
+      mock1Setting.getOption().setInProcess(true);
+      assertTrue(mock1Setting.getOption().isRemote());
+
+      InterpreterGroup interpreterGroup = mock1Setting.getInterpreterGroup("user", "sharedProcess");
+      assertFalse(interpreterGroup.getAngularObjectRegistry() instanceof RemoteAngularObjectRegistry);
+      factory.createInterpretersForNote(mock1Setting, "user", "sharedProcess", "session");
+
+      LazyOpenInterpreter lazyInterpreter =
+          (LazyOpenInterpreter) interpreterGroup.get("session").get(0);
+      assertTrue(lazyInterpreter.getInnerInterpreter() instanceof InProcessInterpreter);
+      assertTrue(lazyInterpreter.getScheduler() instanceof ParallelScheduler);
+      assertNull(interpreterGroup.getRemoteInterpreterProcess());
+
+      InterpreterResult result = lazyInterpreter.interpret("hello", context);
+      assertEquals(InterpreterResult.Code.SUCCESS, result.code());
+      assertEquals("repl1: hello", result.message().get(0).getData());
+
+      // each session has its own scheduler, so closing one doesn't stop the others
+      factory.createInterpretersForNote(mock1Setting, "user", "sharedProcess", "session2");
+      LazyOpenInterpreter lazyInterpreter2 =
+          (LazyOpenInterpreter) interpreterGroup.get("session2").get(0);
+      assertNotSame(lazyInterpreter.getInnerInterpreter(), lazyInterpreter2.getInnerInterpreter());
+      assertNotSame(lazyInterpreter.getScheduler(), lazyInterpreter2.getScheduler());
+    } finally {
+      System.clearProperty(ConfVars.ZEPPELIN_INTERPRETER_INPROCESS_ALLOWED.getVarName());
+    }
+  }
+
+  @Test
+  public void testCloseInProcessSessionKeepsOtherSessionJobs() throws Exception {
+    System.setProperty(ConfVars.ZEPPELIN_INTERPRETER_INPROCESS_ALLOWED.getVarName(), "mock1");
+    System.setProperty(ConfVars.ZEPPELIN_INTERPRETER_INPROCESS_CONCURRENCY.getVarName(), "1");
+    try {
+      InterpreterSetting mock1Setting = getMock1Setting();
+      mock1Setting.getOption().setInProcess(true);
+      InterpreterGroup interpreterGroup = mock1Setting.getInterpreterGroup("user", "sharedProcess");
+      factory.createInterpretersForNote(mock1Setting, "user", "sharedProcess", "session");
+      factory.createInterpretersForNote(mock1Setting, "user", "sharedProcess", "session2");
+      Scheduler scheduler2 = interpreterGroup.get("session2").get(0).getScheduler();
+
+      final CountDownLatch release = new CountDownLatch(1);
+      Job blocking = new LatchJob("blocking", release);
+      Job queued = new LatchJob("queued", release);
+      scheduler2.submit(blocking);
+      scheduler2.submit(queued);
+      long start = System.currentTimeMillis();
+      while (!blocking.isRunning() && System.currentTimeMillis() - start < 10 * 1000) {
+        Thread.sleep(10);
+      }
+      assertEquals(1, scheduler2.getJobsWaiting().size());
+
+      // closing the other session removes its scheduler only
+      interpreterGroup.close("session");
+      release.countDown();
+
+      start = System.currentTimeMillis();
+      while (!queued.isTerminated() && System.currentTimeMillis() - start < 10 * 1000) {
+        Thread.sleep(10);
+      }
+      assertEquals(Job.Status.FINISHED, blocking.getStatus());
+      assertEquals(Job.Status.FINISHED, queued.getStatus());
+    } finally {
+      System.clearProperty(ConfVars.ZEPPELIN_INTERPRETER_INPROCESS_ALLOWED.getVarName());
+      System.clearProperty(ConfVars.ZEPPELIN_INTERPRETER_INPROCESS_CONCURRENCY.getVarName());
+    }
+  }
+
+  private static class LatchJob extends Job {
+    private final CountDownLatch release;
+
+    LatchJob(String jobName, CountDownLatch release) {
+      super(jobName, null);
+      this.release = release;
+    }
+
+    @Override
+    public Object getReturn() {
+      return null;
+    }
+
+    @Override
+    public int progress() {
+      return 0;
+    }
+
+    @Override
+    public Map<String, Object> info() {
+      return null;
+    }
+
+    @Override
+    protected Object jobRun() throws Throwable {
+      release.await();
+      return null;
+    }
+
+    @Override
+    protected boolean jobAbort() {
+      return false;
+    }
+
+    @Override
+    public void setResult(Object results) {
+    }
+  }
+
+  @Test
+  public void testInProcessReplNotAllowed() throws Exception {
+    // mock1 is not in the default list (md,angular), so it keeps its own process
+    InterpreterSetting mock1Setting = getMock1Setting();
+    mock1Setting.getOption().setInProcess(true);
+
+    InterpreterGroup interpreterGroup = mock1Setting.getInterpreterGroup("user", "sharedProcess");
+    assertTrue(interpreterGroup.getAngularObjectRegistry() instanceof RemoteAngularObjectRegistry);
+    factory.createInterpretersForNote(mock1Setting, "user", "sharedProcess", "session");
+
+    LazyOpenInterpreter lazyInterpreter =
+        (LazyOpenInterpreter) interpreterGroup.get("session").get(0);
+    assertTrue(lazyInterpreter.getInnerInterpreter() instanceof RemoteInterpreter);
+  }
+
   /**
    * 2 users' interpreters in scoped mode. Each user has one session. Restarting user1's interpreter
    * won't affect user2's interpreter
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.zeppelin.interpreter.remote.InterpreterProcessResourceUsage;
+import org.apache.zeppelin.interpreter.remote.RemoteInterpreterProcess;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InterpreterProcessGovernorTest {
+  private static final long MB = 1024 * 1024;
+
+  private InterpreterSettingManager interpreterSettingManager;
+  private InterpreterSetting setting;
+  private Map<String, InterpreterGroup> interpreterGroups;
+  private List<String> evicted;
+
+  @Before
+  public void setUp() {
+    interpreterSettingManager = mock(InterpreterSettingManager.class);
+    setting = mock(InterpreterSetting.class);
+    interpreterGroups = new HashMap<>();
+    evicted = new LinkedList<>();
+
+    when(setting.getId()).thenReturn("setting1");
+    when(setting.getName()).thenReturn("spark");
+    when(setting.getInterpreterGroupsByProcessKey()).thenReturn(interpreterGroups);
+    when(interpreterSettingManager.get()).thenReturn(Arrays.asList(setting));
+  }
+
+  private InterpreterGroup createInterpreterGroup(String processKey, long rssMb,
+      String... sessionKeys) {
+    InterpreterGroup interpreterGroup = new InterpreterGroup("setting1:" + processKey);
+    RemoteInterpreterProcess process = mock(RemoteInterpreterProcess.class);
+    when(process.getResourceUsage()).thenReturn(
+        InterpreterProcessResourceUsage.fromJson("{\"rss\":" + rssMb * MB + "}"));
+    interpreterGroup.setRemoteInterpreterProcess(process);
+    for (String sessionKey : sessionKeys) {
+      interpreterGroup.put(sessionKey, new LinkedList<Interpreter>());
+    }
+    interpreterGroups.put(processKey, interpreterGroup);
+    return interpreterGroup;
+  }
+
+  private InterpreterProcessGovernor createGovernor(long budgetMb, long idleTimeout) {
+    InterpreterProcessGovernor governor = new InterpreterProcessGovernor(
+        interpreterSettingManager, budgetMb * MB, idleTimeout, 60 * 1000);
+    governor.addEvictionListener(new InterpreterProcessGovernor.SessionEvictionListener() {
+      @Override
+      public void onEvict(InterpreterSetting setting, InterpreterGroup interpreterGroup,
+          String sessionKey, String user) {
+        evicted.add(sessionKey);
+      }
+    });
+    return governor;
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    assertEquals(false, createGovernor(0, 0).isEnabled());
+    assertEquals(true, createGovernor(1024, 0).isEnabled());
+    assertEquals(true, createGovernor(0, 1000).isEnabled());
+  }
+
+  @Test
+  public void testUsage() {
+    createInterpreterGroup("user1:", 100, "user1");
+    createInterpreterGroup("user2:", 200, "user2");
+
+    List<InterpreterProcessGovernor.SettingUsage> usage = createGovernor(0, 0).getUsage();
+    assertEquals(1, usage.size());
+    assertEquals("spark", usage.get(0).getName());
+    assertEquals(300 * MB, usage.get(0).getMemory());
+    assertEquals(2, usage.get(0).getProcesses().size());
+  }
+
+  @Test
+  public void testCloseIdleSession() throws InterruptedException {
+    InterpreterGroup group = createInterpreterGroup(":", 100, "user1", "user2");
+    group.getSessionLastActivity("user1");
+    Thread.sleep(200);
+    group.beginSessionActivity("user2");
+    group.endSessionActivity("user2");
+
+    InterpreterProcessGovernor governor = createGovernor(0, 100);
+    assertEquals(1, governor.enforce());
+    assertEquals(Arrays.asList("user1"), evicted);
+    verify(setting).closeAndRemoveInterpreterSession(":", "user1");
+    verify(setting, never()).closeAndRemoveInterpreterSession(":", "user2");
+  }
+
+  @Test
+  public void testMemoryBudget() throws InterruptedException {
+    InterpreterGroup group1 = createInterpreterGroup("user1:", 600, "user1");
+    group1.beginSessionActivity("user1");
+    group1.endSessionActivity("user1");
+    Thread.sleep(50);
+    InterpreterGroup group2 = createInterpreterGroup("user2:", 600, "user2");
+    group2.beginSessionActivity("user2");
+    group2.endSessionActivity("user2");
+    Thread.sleep(50);
+    InterpreterGroup group3 = createInterpreterGroup("user3:", 600, "user3");
+    group3.beginSessionActivity("user3");
+
+    // 1800MB in use. closing the least recently used idle session is enough
+    InterpreterProcessGovernor governor = createGovernor(1500, 0);
+    assertEquals(1, governor.enforce());
+    assertEquals(Arrays.asList("user1"), evicted);
+    verify(setting).closeAndRemoveInterpreterSession("user1:", "user1");
+
+    // running session is never closed
+    evicted.clear();
+    governor = createGovernor(100, 0);
+    interpreterGroups.remove("user1:");
+    assertEquals(1, governor.enforce());
+    assertEquals(Arrays.asList("user2"), evicted);
+    verify(setting, never()).closeAndRemoveInterpreterSession(eq("user3:"), anyString());
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Properties;
+
+import org.apache.zeppelin.interpreter.InterpreterResult.Code;
+import org.apache.zeppelin.interpreter.InterpreterResult.Type;
+import org.junit.Test;
+
+public class InterpreterResultCacheTest {
+
+  @Test
+  public void testKey() {
+    Properties properties = new Properties();
+    properties.setProperty("markdown.parser.type", "pegdown");
+    String key = InterpreterResultCache.key("Markdown", properties, "# title");
+
+    assertEquals(key, InterpreterResultCache.key("Markdown", properties, "# title"));
+    assertNotEquals(key, InterpreterResultCache.key("Other", properties, "# title"));
+    assertNotEquals(key, InterpreterResultCache.key("Markdown", properties, "# title2"));
+    assertNotEquals(key, InterpreterResultCache.key("Markdown", null, "# title"));
+
+    Properties markdown4j = new Properties();
+    markdown4j.setProperty("markdown.parser.type", "markdown4j");
+    assertNotEquals(key, InterpreterResultCache.key("Markdown", markdown4j, "# title"));
+  }
+
+  @Test
+  public void testGetAndPut() {
+    InterpreterResultCache cache = new InterpreterResultCache(10);
+    assertNull(cache.get("key"));
+
+    cache.put("key", new InterpreterResult(Code.SUCCESS, Type.HTML, "<h1>title</h1>"));
+    InterpreterResult result = cache.get("key");
+    assertNotNull(result);
+    assertEquals(Code.SUCCESS, result.code());
+    assertEquals("<h1>title</h1>", result.message().get(0).getData());
+
+    // callers can't change the cached result
+    result.message().clear();
+    assertEquals(1, cache.get("key").message().size());
+
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void testFailedResultsAreNotCached() {
+    InterpreterResultCache cache = new InterpreterResultCache(10);
+    cache.put("key", new InterpreterResult(Code.ERROR, "parse error"));
+    assertNull(cache.get("key"));
+  }
+
+  @Test
+  public void testSizeIsBounded() {
+    InterpreterResultCache cache = new InterpreterResultCache(10);
+    for (int i = 0; i < 100; i++) {
+      cache.put("key" + i, new InterpreterResult(Code.SUCCESS, "result" + i));
+    }
+    assertTrue(cache.size() <= 10);
+    assertNotNull(cache.get("key99"));
+  }
+
+  @Test
+  public void testDisabled() {
+    InterpreterResultCache cache = new InterpreterResultCache(0);
+    assertFalse(cache.isEnabled());
+    cache.put("key", new InterpreterResult(Code.SUCCESS, "result"));
+    assertNull(cache.get("key"));
+    assertEquals(0, cache.size());
+  }
+}
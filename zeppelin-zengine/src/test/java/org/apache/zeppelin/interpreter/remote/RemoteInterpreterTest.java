@@ -44,6 +44,9 @@ import org.apache.zeppelin.resource.LocalResourcePool;
 import org.apache.zeppelin.scheduler.Job;
 import org.apache.zeppelin.scheduler.Job.Status;
 import org.apache.zeppelin.scheduler.Scheduler;
+import org.apache.zeppelin.tracing.Span;
+import org.apache.zeppelin.tracing.Trace;
+import org.apache.zeppelin.tracing.Tracer;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -243,6 +246,48 @@ public class RemoteInterpreterTest {
     assertEquals("1", result.message().get(0).getData());
   }
 
+  @Test
+  public void testTraceCrossesProcess() throws TTransportException, IOException {
+    Properties p = new Properties();
+    intpGroup.put("note", new LinkedList<Interpreter>());
+
+    RemoteInterpreter intpA = createMockInterpreterA(p);
+    intpGroup.get("note").add(intpA);
+    intpA.setInterpreterGroup(intpGroup);
+    intpA.open();
+
+    InterpreterContext context = new InterpreterContext(
+        "note",
+        "id",
+        null,
+        "title",
+        "text",
+        new AuthenticationInfo(),
+        new HashMap<String, Object>(),
+        new GUI(),
+        new AngularObjectRegistry(intpGroup.getId(), null),
+        new LocalResourcePool("pool1"),
+        new LinkedList<InterpreterContextRunner>(), null);
+    // as Paragraph.jobRun() does
+    Trace trace = Tracer.singleton().start("note", "id");
+    context.setTraceId(trace.getTraceId());
+
+    InterpreterResult result = intpA.interpret("1", context);
+    Tracer.singleton().remove(trace);
+    intpA.close();
+    assertEquals(Code.SUCCESS, result.code());
+
+    // the trace id reached the interpreter process, and its stages came back
+    Map<String, Span> spans = new HashMap<>();
+    for (Span span : trace.getSpans()) {
+      spans.put(span.getName(), span);
+    }
+    assertTrue(trace.getBreakdown(), spans.containsKey("remote.interpret"));
+    assertTrue(trace.getBreakdown(), spans.containsKey("interpreter.interpret"));
+    assertEquals("zeppelin-interpreter", spans.get("interpreter.interpret").getService());
+    assertEquals(1, spans.get("interpreter.interpret").getCount());
+  }
+
   @Test
   public void testRemoteInterperterErrorStatus() throws TTransportException, IOException {
     Properties p = new Properties();
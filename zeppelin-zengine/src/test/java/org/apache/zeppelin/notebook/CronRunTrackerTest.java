@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.notebook;
+
+import org.apache.zeppelin.interpreter.InterpreterSetting;
+import org.apache.zeppelin.interpreter.InterpreterSettingManager;
+import org.apache.zeppelin.metrics.MetricRegistry;
+import org.apache.zeppelin.metrics.Timer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CronRunTrackerTest {
+  private static final long TIMEOUT_MS = 10000;
+
+  @Mock
+  private Notebook notebook;
+
+  @Mock
+  private InterpreterSettingManager interpreterSettingManager;
+
+  @Mock
+  private InterpreterSetting setting;
+
+  private CronRunTracker tracker;
+
+  /**
+   * Note with a single paragraph, which runs until finish() is called
+   */
+  private class TestNote {
+    final Note note = mock(Note.class);
+    final Paragraph paragraph = mock(Paragraph.class);
+    final AtomicBoolean terminated = new AtomicBoolean(true);
+    final AtomicInteger runs = new AtomicInteger();
+    final Map<String, Object> config = new HashMap<>();
+
+    TestNote(String id) {
+      when(note.getId()).thenReturn(id);
+      when(note.getParagraphs()).thenReturn(Arrays.asList(paragraph));
+      when(note.getConfig()).thenReturn(config);
+      doAnswer(new Answer<Void>() {
+        @Override
+        public Void answer(InvocationOnMock invocation) {
+          terminated.set(false);
+          runs.incrementAndGet();
+          return null;
+        }
+      }).when(note).runAll();
+      when(paragraph.getNote()).thenReturn(note);
+      when(paragraph.isEnabled()).thenReturn(true);
+      when(paragraph.isTerminated()).thenAnswer(new Answer<Boolean>() {
+        @Override
+        public Boolean answer(InvocationOnMock invocation) {
+          return terminated.get();
+        }
+      });
+      when(notebook.getNote(id)).thenReturn(note);
+    }
+
+    void finish() {
+      terminated.set(true);
+      tracker.onParagraphTerminated(paragraph);
+    }
+
+    void waitForRuns(int expected) throws InterruptedException {
+      long start = System.currentTimeMillis();
+      while (runs.get() < expected && System.currentTimeMillis() - start < TIMEOUT_MS) {
+        Thread.sleep(10);
+      }
+      assertEquals(expected, runs.get());
+    }
+  }
+
+  @Before
+  public void setUp() {
+    when(notebook.getInterpreterSettingManager()).thenReturn(interpreterSettingManager);
+    when(setting.getId()).thenReturn("setting1");
+    when(interpreterSettingManager.getInterpreterSettings(anyString()))
+        .thenReturn(Arrays.asList(setting));
+  }
+
+  @After
+  public void tearDown() {
+    if (tracker != null) {
+      tracker.shutdown();
+    }
+  }
+
+  private void waitForCompleted(long expected) throws InterruptedException {
+    long start = System.currentTimeMillis();
+    while (tracker.getCompletedCount() < expected
+        && System.currentTimeMillis() - start < TIMEOUT_MS) {
+      Thread.sleep(10);
+    }
+    assertEquals(expected, tracker.getCompletedCount());
+  }
+
+  @Test
+  public void testConcurrentRunsPerSettingAreLimited() throws InterruptedException {
+    TestNote note1 = new TestNote("note1");
+    TestNote note2 = new TestNote("note2");
+    tracker = new CronRunTracker(notebook, 1, CronRunTracker.OverlapPolicy.SKIP, 100);
+
+    tracker.fire("note1", null);
+    tracker.fire("note2", null);
+    note1.waitForRuns(1);
+    // both notes use setting1, which has a single slot
+    Thread.sleep(200);
+    assertEquals(0, note2.runs.get());
+    assertEquals(1, tracker.getRunningCount());
+    assertEquals(1, tracker.getPendingCount());
+
+    note1.finish();
+    note2.waitForRuns(1);
+    assertEquals(0, tracker.getPendingCount());
+    note2.finish();
+    waitForCompleted(2);
+    assertEquals(0, tracker.getRunningCount());
+    assertEquals(1, note1.runs.get());
+  }
+
+  @Test
+  public void testNoLimitRunsConcurrently() throws InterruptedException {
+    TestNote note1 = new TestNote("note1");
+    TestNote note2 = new TestNote("note2");
+    tracker = new CronRunTracker(notebook, 0, CronRunTracker.OverlapPolicy.SKIP, 100);
+
+    tracker.fire("note1", null);
+    tracker.fire("note2", null);
+    note1.waitForRuns(1);
+    note2.waitForRuns(1);
+    assertEquals(2, tracker.getRunningCount());
+
+    note1.finish();
+    note2.finish();
+    waitForCompleted(2);
+  }
+
+  @Test
+  public void testSkipPolicyDropsOverlappingTrigger() throws InterruptedException {
+    TestNote note = new TestNote("note1");
+    tracker = new CronRunTracker(notebook, 0, CronRunTracker.OverlapPolicy.SKIP, 100);
+
+    tracker.fire("note1", null);
+    note.waitForRuns(1);
+    tracker.fire("note1", null);
+    assertEquals(2, tracker.getFiredCount());
+    assertEquals(1, tracker.getSkippedCount());
+    assertEquals(0, tracker.getPendingCount());
+
+    note.finish();
+    waitForCompleted(1);
+    Thread.sleep(200);
+    assertEquals(1, note.runs.get());
+  }
+
+  @Test
+  public void testQueuePolicyKeepsOneWaitingRun() throws InterruptedException {
+    TestNote note = new TestNote("note1");
+    tracker = new CronRunTracker(notebook, 0, CronRunTracker.OverlapPolicy.QUEUE, 100);
+
+    tracker.fire("note1", null);
+    note.waitForRuns(1);
+    // the first overlapping trigger waits, the second one is merged into it
+    tracker.fire("note1", null);
+    tracker.fire("note1", null);
+    assertEquals(1, tracker.getPendingCount());
+    assertEquals(1, tracker.getSkippedCount());
+
+    note.finish();
+    note.waitForRuns(2);
+    assertEquals(0, tracker.getPendingCount());
+    note.finish();
+    waitForCompleted(2);
+    assertEquals(2, note.runs.get());
+  }
+
+  @Test
+  public void testReleaseResourceRestartsInterpreters() throws InterruptedException {
+    TestNote note = new TestNote("note1");
+    note.config.put("releaseresource", true);
+    tracker = new CronRunTracker(notebook, 0, CronRunTracker.OverlapPolicy.SKIP, 100);
+
+    tracker.fire("note1", null);
+    note.waitForRuns(1);
+    verify(interpreterSettingManager, never()).restart("setting1");
+
+    note.finish();
+    waitForCompleted(1);
+    verify(interpreterSettingManager, timeout((int) TIMEOUT_MS)).restart("setting1");
+  }
+
+  @Test
+  public void testTriggerLagIsRegisteredInMetrics() throws InterruptedException {
+    TestNote note = new TestNote("note1");
+    tracker = new CronRunTracker(notebook, 0, CronRunTracker.OverlapPolicy.SKIP, 100);
+    Timer lag = (Timer) MetricRegistry.singleton().get("zeppelin_cron_trigger_lag_seconds");
+    long count = lag.getCount();
+
+    tracker.fire("note1", new Date(System.currentTimeMillis() - 500));
+    assertTrue(tracker.getLastTriggerLagMs() >= 500);
+    assertTrue(tracker.getMaxTriggerLagMs() >= 500);
+    assertEquals(count + 1, lag.getCount());
+    assertTrue(lag.getMaxMillis() >= 500);
+    assertNotNull(MetricRegistry.singleton().get("zeppelin_cron_running_notes"));
+
+    note.waitForRuns(1);
+    note.finish();
+    waitForCompleted(1);
+  }
+}
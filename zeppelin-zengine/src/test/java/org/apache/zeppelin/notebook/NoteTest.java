@@ -26,6 +26,7 @@ import org.apache.zeppelin.interpreter.InterpreterFactory;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.InterpreterSettingManager;
 import org.apache.zeppelin.notebook.repo.NotebookRepo;
+import org.apache.zeppelin.scheduler.Job;
 import org.apache.zeppelin.scheduler.Scheduler;
 import org.apache.zeppelin.search.SearchService;
 import org.apache.zeppelin.user.AuthenticationInfo;
@@ -36,7 +37,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -240,6 +246,93 @@ public class NoteTest {
     assertNotEquals(System.identityHashCode(user1Paragraph), System.identityHashCode(user2Paragraph));
   }
 
+  @Test
+  public void dagDependenciesTest() {
+    Note note = new Note(repo, interpreterFactory, interpreterSettingManager, jobListenerFactory, index, credentials, noteEventListener);
+    Paragraph p1 = note.addNewParagraph(AuthenticationInfo.ANONYMOUS);
+    p1.setText("%spark z.put(\"df\", df)");
+    Paragraph p2 = note.addNewParagraph(AuthenticationInfo.ANONYMOUS);
+    p2.setText("%spark sc.version");
+    Paragraph p3 = note.addNewParagraph(AuthenticationInfo.ANONYMOUS);
+    p3.setText("%spark val df = z.get( 'df' )");
+    Paragraph p4 = note.addNewParagraph(AuthenticationInfo.ANONYMOUS);
+    p4.setText("%spark z[\"df\"] = 1");
+    Map<String, Object> config = new HashMap<>();
+    config.put("dependsOn", Arrays.asList(p2.getId()));
+    p4.setConfig(config);
+
+    Map<String, Set<String>> deps = ParagraphDagRunner.buildDependencies(note.getParagraphs());
+    assertEquals(Collections.emptySet(), deps.get(p1.getId()));
+    assertEquals(Collections.emptySet(), deps.get(p2.getId()));
+    assertEquals(Collections.singleton(p1.getId()), deps.get(p3.getId()));
+    // depends on p2 explicitly, and must not overwrite 'df' before p1 and p3 are done with it
+    assertEquals(3, deps.get(p4.getId()).size());
+    assertTrue(deps.get(p4.getId()).containsAll(Arrays.asList(p1.getId(), p2.getId(), p3.getId())));
+  }
+
+  @Test
+  public void dagRunAllTest() {
+    when(interpreterFactory.getInterpreter(anyString(), anyString(), eq("spark"))).thenReturn(interpreter);
+    when(interpreter.getScheduler()).thenReturn(scheduler);
+
+    Note note = new Note(repo, interpreterFactory, interpreterSettingManager, jobListenerFactory, index, credentials, noteEventListener);
+    note.setDagRunMode(true);
+    Paragraph p1 = note.addNewParagraph(AuthenticationInfo.ANONYMOUS);
+    p1.setText("%spark z.put(\"a\", 1)");
+    Paragraph p2 = note.addNewParagraph(AuthenticationInfo.ANONYMOUS);
+    p2.setText("%spark sc.version");
+    Paragraph p3 = note.addNewParagraph(AuthenticationInfo.ANONYMOUS);
+    p3.setText("%spark z.get(\"a\")");
+
+    note.runAll(anonymous);
+    // independent paragraphs are submitted right away
+    verify(scheduler).submit(p1);
+    verify(scheduler).submit(p2);
+    verify(scheduler, never()).submit(p3);
+
+    p2.setStatus(Job.Status.FINISHED);
+    p1.setStatus(Job.Status.FINISHED);
+    verify(scheduler).submit(p3);
+
+    p3.setStatus(Job.Status.FINISHED);
+    assertNotNull(note.getInfo().get("runAllCriticalPathMs"));
+  }
+
+  @Test
+  public void dagReRunWithBlankParagraphTest() {
+    when(interpreterFactory.getInterpreter(anyString(), anyString(), eq("spark"))).thenReturn(interpreter);
+    when(interpreter.getScheduler()).thenReturn(scheduler);
+
+    Note note = new Note(repo, interpreterFactory, interpreterSettingManager, jobListenerFactory, index, credentials, noteEventListener);
+    note.setDagRunMode(true);
+    Paragraph p1 = note.addNewParagraph(AuthenticationInfo.ANONYMOUS);
+    p1.setText("%spark z.put(\"a\", 1)");
+    Paragraph p2 = note.addNewParagraph(AuthenticationInfo.ANONYMOUS);
+    p2.setText("%spark z.get(\"a\")");
+    Paragraph blank = note.addNewParagraph(AuthenticationInfo.ANONYMOUS);
+    blank.setText("");
+
+    for (int run = 1; run <= 2; run++) {
+      note.getInfo().remove("runAllCriticalPathMs");
+      note.runAll(anonymous);
+      assertTrue(note.isDagRunInProgress());
+      verify(scheduler, times(run)).submit(p1);
+      verify(scheduler, times(run - 1)).submit(p2);
+
+      // submitted paragraphs go through PENDING, as the scheduler would do
+      p1.setStatus(Job.Status.PENDING);
+      p1.setStatus(Job.Status.FINISHED);
+      verify(scheduler, times(run)).submit(p2);
+      assertTrue(note.isDagRunInProgress());
+
+      p2.setStatus(Job.Status.PENDING);
+      p2.setStatus(Job.Status.FINISHED);
+      assertEquals(Job.Status.FINISHED, blank.getStatus());
+      assertFalse(note.isDagRunInProgress());
+      assertNotNull(note.getInfo().get("runAllCriticalPathMs"));
+    }
+  }
+
   public void testNoteJson() {
     Note note = new Note(repo, interpreterFactory, interpreterSettingManager, jobListenerFactory, index, credentials, noteEventListener);
     note.setName("/test_note");
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.notebook;
+
+import org.apache.zeppelin.conf.ZeppelinConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.google.common.collect.Sets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NotebookAuthorizationTest {
+  private static final int NOTES = 2000;
+  private static final int USERS = 300;
+  private static final int ROLES = 200;
+
+  private NotebookAuthorization notebookAuthorization;
+  private List<String> noteIds = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    notebookAuthorization = NotebookAuthorization.init(ZeppelinConfiguration.create());
+  }
+
+  @After
+  public void tearDown() {
+    for (String noteId : noteIds) {
+      notebookAuthorization.removeNote(noteId);
+    }
+  }
+
+  private String newNoteId() {
+    String noteId = "authTest_" + noteIds.size() + "_" + System.nanoTime();
+    noteIds.add(noteId);
+    return noteId;
+  }
+
+  @Test
+  public void testIndexFollowsPermissionChanges() {
+    String noteId = newNoteId();
+    Set<String> user1 = Sets.newHashSet("user1");
+    Set<String> user2 = Sets.newHashSet("user2", "role1");
+
+    // unknown note is readable by everyone
+    assertTrue(notebookAuthorization.isReader(noteId, user2));
+
+    notebookAuthorization.setOwners(noteId, Sets.newHashSet("user1"));
+    notebookAuthorization.setReaders(noteId, Sets.newHashSet("user1"));
+    // empty writers make the note readable by everyone
+    assertTrue(notebookAuthorization.isReader(noteId, user2));
+
+    notebookAuthorization.setWriters(noteId, Sets.newHashSet("user1"));
+    assertTrue(notebookAuthorization.isReader(noteId, user1));
+    assertFalse(notebookAuthorization.isReader(noteId, user2));
+    assertTrue(notebookAuthorization.getReadableNoteIds(user1).contains(noteId));
+    assertFalse(notebookAuthorization.getReadableNoteIds(user2).contains(noteId));
+
+    notebookAuthorization.setReaders(noteId, Sets.newHashSet("role1"));
+    assertTrue(notebookAuthorization.isReader(noteId, user2));
+    assertTrue(notebookAuthorization.getReadableNoteIds(user2).contains(noteId));
+
+    notebookAuthorization.removeNote(noteId);
+    assertFalse(notebookAuthorization.getReadableNoteIds(user1).contains(noteId));
+    assertTrue(notebookAuthorization.isReader(noteId, user2));
+  }
+
+  // same as NotebookAuthorization.isReader before the inverted index
+  private boolean isReaderByIntersection(String noteId, Set<String> entities) {
+    return isMember(entities, notebookAuthorization.getReaders(noteId)) ||
+        isMember(entities, notebookAuthorization.getOwners(noteId)) ||
+        isMember(entities, notebookAuthorization.getWriters(noteId));
+  }
+
+  private boolean isMember(Set<String> a, Set<String> b) {
+    Set<String> intersection = new HashSet<>(b);
+    intersection.retainAll(a);
+    return (b.isEmpty() || (intersection.size() > 0));
+  }
+
+  @Test
+  public void testAddedNoteWithoutPermissionsIsReadable() {
+    String noteId = newNoteId();
+    Set<String> user1 = Sets.newHashSet("user1");
+    Set<String> user2 = Sets.newHashSet("user2");
+
+    assertFalse(notebookAuthorization.getReadableNoteIds(user1).contains(noteId));
+    notebookAuthorization.addNote(noteId);
+    assertTrue(notebookAuthorization.getReadableNoteIds(user1).contains(noteId));
+    assertTrue(notebookAuthorization.getReadableNoteIds(user2).contains(noteId));
+
+    notebookAuthorization.setOwners(noteId, user1);
+    notebookAuthorization.setReaders(noteId, user1);
+    notebookAuthorization.setWriters(noteId, user1);
+    assertTrue(notebookAuthorization.getReadableNoteIds(user1).contains(noteId));
+    assertFalse(notebookAuthorization.getReadableNoteIds(user2).contains(noteId));
+
+    notebookAuthorization.removeNote(noteId);
+    assertFalse(notebookAuthorization.getReadableNoteIds(user1).contains(noteId));
+    assertFalse(notebookAuthorization.getReadableNoteIds(user2).contains(noteId));
+  }
+
+  @Test
+  public void testPermissionsAreCopied() {
+    String noteId = newNoteId();
+    Set<String> readers = Sets.newHashSet("user1");
+    notebookAuthorization.setOwners(noteId, readers);
+    notebookAuthorization.setReaders(noteId, readers);
+    notebookAuthorization.setWriters(noteId, readers);
+
+    notebookAuthorization.getReaders(noteId).add("user2");
+    assertEquals(Sets.newHashSet("user1"), notebookAuthorization.getReaders(noteId));
+    assertFalse(notebookAuthorization.isReader(noteId, Sets.newHashSet("user2")));
+  }
+
+  @Test
+  public void testIndexMatchesPermissions() {
+    Random random = new Random(1);
+    for (int i = 0; i < NOTES; i++) {
+      String noteId = newNoteId();
+      String owner = "user" + random.nextInt(USERS);
+      notebookAuthorization.setOwners(noteId, Sets.newHashSet(owner));
+      notebookAuthorization.setWriters(noteId, Sets.newHashSet(owner));
+      // every tenth note stays readable by everyone
+      if (i % 10 != 0) {
+        notebookAuthorization.setReaders(noteId, Sets.newHashSet(
+            owner, "user" + random.nextInt(USERS), "role" + random.nextInt(ROLES)));
+      }
+      // change the readers of some notes again, so stale index entries would show up
+      if (i % 7 == 0) {
+        notebookAuthorization.setReaders(noteId, Sets.newHashSet(
+            owner, "role" + random.nextInt(ROLES)));
+      }
+    }
+
+    Set<String> testNoteIds = new HashSet<>(noteIds);
+    for (int i = 0; i < 100; i++) {
+      Set<String> entities = Sets.newHashSet("user" + random.nextInt(USERS),
+          "role" + random.nextInt(ROLES), "role" + random.nextInt(ROLES));
+      Set<String> expected = new HashSet<>();
+      for (String noteId : noteIds) {
+        if (isReaderByIntersection(noteId, entities)) {
+          expected.add(noteId);
+        }
+      }
+      // at least the public notes
+      assertTrue(expected.size() >= NOTES / 10);
+
+      Set<String> indexed = notebookAuthorization.getReadableNoteIds(entities);
+      indexed.retainAll(testNoteIds);
+      assertEquals(expected, indexed);
+      for (String noteId : noteIds) {
+        assertEquals(expected.contains(noteId), notebookAuthorization.isReader(noteId, entities));
+      }
+    }
+  }
+}
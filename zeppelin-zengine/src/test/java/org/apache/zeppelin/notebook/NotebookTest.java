@@ -407,6 +407,38 @@ public class NotebookTest implements JobListenerFactory{
     afterStatusChangedListener = null;
   }
 
+  @Test
+  public void testScheduleSkipsRunWhileNoteIsRunning() throws InterruptedException, IOException {
+    Note note = notebook.createNote(anonymous);
+    interpreterSettingManager.setInterpreters(anonymous.getUser(), note.getId(),
+        interpreterSettingManager.getDefaultInterpreterSettingList());
+    Paragraph p = note.addNewParagraph(AuthenticationInfo.ANONYMOUS);
+    p.setText("sleep 2500");
+
+    CronRunTracker tracker = notebook.getCronRunTracker();
+    long fired = tracker.getFiredCount();
+    long skipped = tracker.getSkippedCount();
+
+    // fire every second while a single run takes longer than that
+    Map<String, Object> config = note.getConfig();
+    config.put("enabled", true);
+    config.put("cron", "* * * * * ?");
+    note.setConfig(config);
+    notebook.refreshCron(note.getId());
+
+    long start = System.currentTimeMillis();
+    while (tracker.getFiredCount() - fired < 3 && System.currentTimeMillis() - start < 10000) {
+      Thread.sleep(100);
+    }
+    // the note is still running its first run, and 'skip' never keeps a run waiting
+    assertTrue(tracker.getRunningCount() >= 1);
+    assertEquals(0, tracker.getPendingCount());
+    terminateScheduledNote(note);
+
+    assertTrue(tracker.getFiredCount() - fired >= 3);
+    assertTrue(tracker.getSkippedCount() - skipped >= 1);
+  }
+
   private void executeNewParagraphByCron(Note note, String cron) {
     Paragraph paragraph = note.addNewParagraph(AuthenticationInfo.ANONYMOUS);
     paragraph.setText("p");
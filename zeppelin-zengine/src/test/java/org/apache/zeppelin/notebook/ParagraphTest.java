@@ -21,6 +21,7 @@ package org.apache.zeppelin.notebook;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
@@ -29,6 +30,7 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,10 +45,12 @@ import org.apache.zeppelin.interpreter.Interpreter.FormType;
 import org.apache.zeppelin.interpreter.InterpreterContext;
 import org.apache.zeppelin.interpreter.InterpreterFactory;
 import org.apache.zeppelin.interpreter.InterpreterGroup;
+import org.apache.zeppelin.interpreter.InterpreterInfo;
 import org.apache.zeppelin.interpreter.InterpreterOption;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.InterpreterResult.Code;
 import org.apache.zeppelin.interpreter.InterpreterResult.Type;
+import org.apache.zeppelin.interpreter.InterpreterResultCache;
 import org.apache.zeppelin.interpreter.InterpreterResultMessage;
 import org.apache.zeppelin.interpreter.InterpreterSetting;
 import org.apache.zeppelin.interpreter.InterpreterSetting.Status;
@@ -244,4 +248,62 @@ public class ParagraphTest {
 
 
   }
+
+  @Test
+  public void returnCachedResultForDeterministicInterpreter() throws Throwable {
+    InterpreterSettingManager mockInterpreterSettingManager = mock(InterpreterSettingManager.class);
+    InterpreterFactory mockInterpreterFactory = mock(InterpreterFactory.class);
+    when(mockInterpreterFactory.getResultCache()).thenReturn(new InterpreterResultCache(10));
+    Note mockNote = mock(Note.class);
+    when(mockNote.getCredentials()).thenReturn(mock(Credentials.class));
+    Paragraph spyParagraph = spy(new Paragraph("para_1", mockNote, null, mockInterpreterFactory,
+        mockInterpreterSettingManager));
+
+    doReturn("md").when(spyParagraph).getRequiredReplName();
+
+    Interpreter mockInterpreter = mock(Interpreter.class);
+    doReturn(mockInterpreter).when(spyParagraph).getRepl(anyString());
+    when(mockInterpreter.getClassName()).thenReturn("org.apache.zeppelin.markdown.Markdown");
+    when(mockInterpreter.getFormType()).thenReturn(FormType.NONE);
+
+    InterpreterGroup mockInterpreterGroup = mock(InterpreterGroup.class);
+    when(mockInterpreter.getInterpreterGroup()).thenReturn(mockInterpreterGroup);
+    when(mockInterpreterGroup.getId()).thenReturn("mock_id_1");
+    when(mockInterpreterGroup.getAngularObjectRegistry()).thenReturn(mock(AngularObjectRegistry.class));
+    when(mockInterpreterGroup.getResourcePool()).thenReturn(mock(ResourcePool.class));
+
+    InterpreterInfo info = new InterpreterInfo("org.apache.zeppelin.markdown.Markdown", "md", true,
+        new HashMap<String, Object>());
+    info.setDeterministic(true);
+    InterpreterSetting mockInterpreterSetting = mock(InterpreterSetting.class);
+    InterpreterOption mockInterpreterOption = mock(InterpreterOption.class);
+    when(mockInterpreterSetting.getOption()).thenReturn(mockInterpreterOption);
+    when(mockInterpreterSetting.getStatus()).thenReturn(Status.READY);
+    when(mockInterpreterSetting.getId()).thenReturn("mock_id_1");
+    when(mockInterpreterSetting.getGroup()).thenReturn("md");
+    when(mockInterpreterSetting.getInterpreterInfos()).thenReturn(Lists.newArrayList(info));
+    when(mockNote.getId()).thenReturn("any_id");
+    when(mockInterpreterSettingManager.getInterpreterSettings(anyString()))
+        .thenReturn(Lists.newArrayList(mockInterpreterSetting));
+
+    ParagraphJobListener mockJobListener = mock(ParagraphJobListener.class);
+    doReturn(mockJobListener).when(spyParagraph).getListener();
+
+    when(mockInterpreter.interpret(anyString(), Mockito.<InterpreterContext>any()))
+        .thenReturn(new InterpreterResult(Code.SUCCESS, Type.HTML, "<h1>title</h1>"));
+
+    doReturn("# title").when(spyParagraph).getScriptBody();
+    InterpreterResult first = (InterpreterResult) spyParagraph.jobRun();
+    assertNull(spyParagraph.getRuntimeInfos());
+
+    InterpreterResult second = (InterpreterResult) spyParagraph.jobRun();
+    verify(mockInterpreter, times(1)).interpret(anyString(), Mockito.<InterpreterContext>any());
+    assertEquals(first.message(), second.message());
+    assertNotNull(spyParagraph.getRuntimeInfos().get(Paragraph.RESULT_CACHE_HIT));
+
+    // changed text runs the interpreter again
+    doReturn("# other title").when(spyParagraph).getScriptBody();
+    spyParagraph.jobRun();
+    verify(mockInterpreter, times(2)).interpret(anyString(), Mockito.<InterpreterContext>any());
+  }
 }